@@ -6,6 +6,7 @@ plugins {
     id("java")
     id("org.jetbrains.kotlin.jvm") version "2.0.21"
     id("org.jetbrains.intellij") version "1.17.4"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.github.jhordyhuaman"
@@ -26,6 +27,19 @@ dependencies {
     implementation("com.google.code.gson:gson:2.10.1")
 }
 
+// JMH benchmarks live in src/jmh/java and run headless, without the IDE:
+//   ./gradlew jmh                              (all benchmarks)
+//   ./gradlew jmh -PjmhIncludes=SearchBenchmark (a subset, regex on the benchmark name)
+// Results go to build/results/jmh/results.json; the gc profiler adds the allocation rate.
+jmh {
+    jmhVersion.set("1.37")
+    includeTests.set(true)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    jvmArgs.addAll("-Djava.awt.headless=true", "-Xmx4g")
+    findProperty("jmhIncludes")?.let { includes.add(it.toString()) }
+}
+
 configurations.implementation {
     exclude(module = "slf4j-api")
     exclude(module = "slf4j-log4j12")
@@ -63,9 +77,37 @@ tasks {
     }
 
     test {
-        useJUnitPlatform()
+        useJUnitPlatform {
+            excludeTags("performance")
+        }
+        testLogging {
+            events("passed", "skipped", "failed")
+        }
+    }
+
+    // Performance regression suite, compared with src/test/resources/performance/baseline.properties:
+    //   ./gradlew perfTest                      (fails when a metric exceeds the baseline + tolerance)
+    //   ./gradlew perfTest -PperfTolerance=0.5
+    //   ./gradlew perfTest -PupdateBaseline     (records the current numbers as the new baseline)
+    register<Test>("perfTest") {
+        description = "Runs the performance scenarios and compares them with the checked-in baseline."
+        group = "verification"
+        testClassesDirs = sourceSets["test"].output.classesDirs
+        classpath = sourceSets["test"].runtimeClasspath
+        useJUnitPlatform {
+            includeTags("performance")
+        }
+        maxHeapSize = "3g"
+        systemProperty("java.awt.headless", "true")
+        systemProperty("parquetstudio.perf.baselineFile", file("src/test/resources/performance/baseline.properties").absolutePath)
+        systemProperty("parquetstudio.perf.reportDir", layout.buildDirectory.dir("reports/perf").get().asFile.absolutePath)
+        systemProperty("parquetstudio.perf.tolerance", findProperty("perfTolerance")?.toString() ?: "0.25")
+        systemProperty("parquetstudio.perf.updateBaseline", hasProperty("updateBaseline").toString())
+        outputs.upToDateWhen { false }
+        shouldRunAfter("test")
         testLogging {
             events("passed", "skipped", "failed")
+            showStandardStreams = true
         }
     }
 
@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.benchmark;
+
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds in-memory tables for the benchmarks. The same arguments always give the same data.
+ */
+final class BenchmarkData {
+  static final long SEED = 42L;
+
+  private static final String[] MIXED = {"INTEGER", "BIGINT", "DOUBLE", "VARCHAR", "BOOLEAN", "DATE", "TIMESTAMP"};
+  private static final String[] NUMERIC = {"INTEGER", "BIGINT", "DOUBLE"};
+  private static final String[] TEXT = {"VARCHAR"};
+  private static final LocalDate EPOCH_DAY = LocalDate.of(2020, 1, 1);
+
+  private BenchmarkData() {
+  }
+
+  /**
+   * Gets the column types of a type mix.
+   *
+   * @param typeMix {@code mixed}, {@code numeric} or {@code text}
+   */
+  static List<String> columnTypes(int columns, String typeMix) {
+    String[] cycle;
+    switch (typeMix) {
+      case "numeric": cycle = NUMERIC; break;
+      case "text": cycle = TEXT; break;
+      case "mixed": cycle = MIXED; break;
+      default: throw new IllegalArgumentException("Unknown type mix: " + typeMix);
+    }
+    List<String> types = new ArrayList<>(columns);
+    for (int i = 0; i < columns; i++) {
+      types.add(cycle[i % cycle.length]);
+    }
+    return types;
+  }
+
+  static ParquetData generate(int rows, int columns, String typeMix) {
+    List<String> types = columnTypes(columns, typeMix);
+    List<String> names = new ArrayList<>(columns);
+    for (int i = 0; i < columns; i++) {
+      names.add("c" + i + "_" + types.get(i).toLowerCase());
+    }
+
+    SplittableRandom random = new SplittableRandom(SEED);
+    List<List<Object>> data = new ArrayList<>(rows);
+    for (int r = 0; r < rows; r++) {
+      List<Object> row = new ArrayList<>(columns);
+      for (int c = 0; c < columns; c++) {
+        row.add(value(types.get(c), r, random));
+      }
+      data.add(row);
+    }
+    return new ParquetData(names, types, data);
+  }
+
+  private static Object value(String type, int row, SplittableRandom random) {
+    switch (type) {
+      case "INTEGER": return random.nextInt(1_000_000);
+      case "BIGINT": return random.nextLong();
+      case "DOUBLE": return random.nextDouble() * 1000;
+      case "BOOLEAN": return random.nextBoolean();
+      case "DATE": return EPOCH_DAY.plusDays(random.nextInt(3650));
+      case "TIMESTAMP": return EPOCH_DAY.atStartOfDay().plusSeconds(random.nextInt(315_360_000));
+      default: return "value-" + random.nextInt(10_000) + "-" + row;
+    }
+  }
+}
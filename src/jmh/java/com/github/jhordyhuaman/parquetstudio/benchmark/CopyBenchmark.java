@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.benchmark;
+
+import com.github.jhordyhuaman.parquetstudio.model.ChunkedText;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.service.CopyService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copying a whole table to text: {@link CopyService} against the single string Swing's
+ * default table transfer handler builds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CopyBenchmark {
+  private static final CopyService COPY = new CopyService();
+
+  @Param({"100000", "1000000"})
+  public int rows;
+
+  @Param({"mixed"})
+  public String typeMix;
+
+  ParquetTableModel model;
+  int[] allRows;
+  int[] allColumns;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ParquetData data = BenchmarkData.generate(rows, 8, typeMix);
+    model = new ParquetTableModel(data.getColumnNames(), data.getColumnTypes(), data.getRows());
+    allRows = IntStream.range(0, rows).toArray();
+    allColumns = IntStream.range(0, model.getColumnCount()).toArray();
+  }
+
+  @Benchmark
+  public String swingDefault() {
+    // What BasicTableUI's transfer handler does: one builder, then one more copy in toString()
+    StringBuilder text = new StringBuilder();
+    for (int row : allRows) {
+      for (int column : allColumns) {
+        Object value = model.getValueAt(row, column);
+        text.append(value == null ? "" : value.toString()).append('\t');
+      }
+      text.deleteCharAt(text.length() - 1).append('\n');
+    }
+    return text.toString();
+  }
+
+  @Benchmark
+  public ChunkedText tsv() {
+    return COPY.copy(model, allRows, allColumns, CopyService.Format.TSV);
+  }
+
+  @Benchmark
+  public ChunkedText json() {
+    return COPY.copy(model, allRows, allColumns, CopyService.Format.JSON);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.benchmark;
+
+import com.github.jhordyhuaman.parquetstudio.SyntheticParquetGenerator;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ViewQuery;
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import com.github.jhordyhuaman.parquetstudio.service.ExportService;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading and writing whole files through {@link DuckDBParquetService}. The file to load
+ * comes from {@link SyntheticParquetGenerator}; the data to save is built in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParquetIoBenchmark {
+
+  @Param({"10000", "100000"})
+  public int rows;
+
+  @Param({"8", "64"})
+  public int columns;
+
+  @Param({"mixed", "numeric", "text"})
+  public String typeMix;
+
+  private DuckDBParquetService service;
+  private ExportService exportService;
+  private ParquetData data;
+  private File directory;
+  private File input;
+  private File output;
+  private File exported;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    service = new DuckDBParquetService();
+    exportService = new ExportService();
+    DuckDBParquetService.warmUp();
+    data = BenchmarkData.generate(rows, columns, typeMix);
+    directory = Files.createTempDirectory("parquet-studio-jmh").toFile();
+    input = new File(directory, "input.parquet");
+    output = new File(directory, "output.parquet");
+    exported = new File(directory, "exported.parquet");
+    new SyntheticParquetGenerator()
+        .seed(BenchmarkData.SEED)
+        .rows(rows)
+        .columns(columns)
+        .typeMix(SyntheticParquetGenerator.TypeMix.valueOf(typeMix.toUpperCase(Locale.ROOT)))
+        .generate(input);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    input.delete();
+    output.delete();
+    exported.delete();
+    directory.delete();
+  }
+
+  @Benchmark
+  public ParquetData load() throws Exception {
+    return service.loadParquet(input);
+  }
+
+  @Benchmark
+  public long save() throws Exception {
+    service.saveParquet(output, data);
+    return output.length();
+  }
+
+  /**
+   * Rewrites the input without loading it, the way Export works: compare with load + save.
+   */
+  @Benchmark
+  public long export() throws Exception {
+    return exportService.export(input, new ViewQuery(null, null), ExportService.Format.PARQUET, exported,
+        () -> false, bytes -> { });
+  }
+}
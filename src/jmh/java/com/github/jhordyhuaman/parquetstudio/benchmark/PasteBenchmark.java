@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.benchmark;
+
+import com.github.jhordyhuaman.parquetstudio.model.DelimitedText;
+import com.github.jhordyhuaman.parquetstudio.model.ParseReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.ValueParser;
+import com.github.jhordyhuaman.parquetstudio.service.PasteService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Clipboard paste: splitting a spreadsheet block, converting it with {@link ValueParser}
+ * and writing it to a fresh model.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasteBenchmark {
+  private static final PasteService PASTE = new PasteService();
+
+  @Param({"10000", "100000"})
+  public int lines;
+
+  String text;
+  List<String> timestamps;
+  ParquetTableModel model;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    StringBuilder sb = new StringBuilder();
+    timestamps = new ArrayList<>(lines);
+    for (int i = 0; i < lines; i++) {
+      String timestamp = "2024-03-" + (10 + i % 18) + " 12:" + (10 + i % 50) + ":00.123";
+      timestamps.add(timestamp);
+      sb.append(i).append('\t').append(i * 0.5).append('\t').append("name").append(i % 100)
+          .append('\t').append(timestamp).append('\n');
+    }
+    text = sb.toString();
+  }
+
+  @Setup(Level.Invocation)
+  public void freshModel() {
+    model = new ParquetTableModel(Arrays.asList("id", "amount", "name", "created"),
+        Arrays.asList("BIGINT", "DOUBLE", "VARCHAR", "TIMESTAMP"), new ArrayList<>());
+  }
+
+  @Benchmark
+  public int split() {
+    return DelimitedText.parse(text).size();
+  }
+
+  @Benchmark
+  public Object[] parseTimestamps() {
+    return ValueParser.forType("TIMESTAMP").parseAll(timestamps, "created", 1, new ParseReport());
+  }
+
+  @Benchmark
+  public int paste() {
+    return PASTE.apply(model, PASTE.prepare(model, text, new int[0], 0));
+  }
+}
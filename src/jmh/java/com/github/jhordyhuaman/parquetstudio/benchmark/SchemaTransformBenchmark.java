@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.benchmark;
+
+import com.github.jhordyhuaman.parquetstudio.model.CastReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaItem;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.github.jhordyhuaman.parquetstudio.service.DataSchemaService;
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import com.github.jhordyhuaman.parquetstudio.service.SchemaCastService;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * "Save with schema" with an external schema that retypes every other column: the old
+ * {@link DataSchemaService#applyConvertTypes} and the {@link SchemaCastService} dry run
+ * over a file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaTransformBenchmark {
+
+  @Param({"1000"})
+  public int rows;
+
+  @Param({"8", "64", "512"})
+  public int columns;
+
+  @Param({"mixed", "numeric", "text"})
+  public String typeMix;
+
+  private DataSchemaService schemaService;
+  private ParquetData data;
+  private SchemaStructure transform;
+  private SchemaCastService castService;
+  private File input;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    schemaService = new DataSchemaService();
+    data = BenchmarkData.generate(rows, columns, typeMix);
+
+    List<SchemaItem> target = new ArrayList<>();
+    for (int i = 0; i < columns; i++) {
+      String type = i % 2 == 0 ? "VARCHAR" : data.getColumnTypes().get(i);
+      target.add(new SchemaItem(data.getColumnNames().get(i), type));
+    }
+    SchemaStructure destiny = new SchemaStructure();
+    destiny.partitions = List.of();
+    destiny.fields = target;
+
+    transform = SchemaStructure.schemaFromLists(data.getColumnNames(), data.getColumnTypes()).toTransform(destiny);
+
+    DuckDBParquetService duckDB = new DuckDBParquetService();
+    castService = new SchemaCastService(duckDB);
+    input = Files.createTempFile("parquet-studio-jmh", ".parquet").toFile();
+    duckDB.saveParquet(input, data);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    input.delete();
+  }
+
+  @Benchmark
+  public List<String> applyConvertTypes() {
+    // applyConvertTypes rewrites the types in place, so work on a copy like the editor does
+    ParquetData copy = new ParquetData(data.getColumnNames(), new ArrayList<>(data.getColumnTypes()), data.getRows());
+    schemaService.applyConvertTypes(copy, transform);
+    return copy.getColumnTypes();
+  }
+
+  @Benchmark
+  public CastReport dryRun() throws Exception {
+    return castService.dryRun(input, transform);
+  }
+}
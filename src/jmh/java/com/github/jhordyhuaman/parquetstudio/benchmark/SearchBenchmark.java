@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.benchmark;
+
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetSearchFilter;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import java.util.concurrent.TimeUnit;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The editor search: {@link ParquetSearchFilter} applied through a {@link TableRowSorter},
+ * exactly as the search field does it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+  @Param({"10000", "100000"})
+  public int rows;
+
+  @Param({"8", "64"})
+  public int columns;
+
+  @Param({"mixed", "numeric", "text"})
+  public String typeMix;
+
+  /** A text that matches a few rows and one that matches none, forcing a full scan. */
+  @Param({"value-42-", "no-such-value"})
+  public String searchText;
+
+  private TableRowSorter<TableModel> sorter;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ParquetData data = BenchmarkData.generate(rows, columns, typeMix);
+    sorter = new TableRowSorter<>(new ParquetTableModel(data.getColumnNames(), data.getColumnTypes(), data.getRows()));
+  }
+
+  @Benchmark
+  public int filter() {
+    sorter.setRowFilter(ParquetSearchFilter.forText(searchText));
+    int matches = sorter.getViewRowCount();
+    sorter.setRowFilter(null);
+    return matches;
+  }
+}
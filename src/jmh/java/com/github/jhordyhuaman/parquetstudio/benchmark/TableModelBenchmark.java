@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.benchmark;
+
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.service.BulkEditService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Edits on {@link ParquetTableModel}. Structural edits get a fresh model per invocation,
+ * so their scores include no leftovers from earlier invocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableModelBenchmark {
+  private static final BulkEditService BULK_EDIT = new BulkEditService();
+
+  @State(Scope.Benchmark)
+  public static class Table {
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"8", "64"})
+    public int columns;
+
+    @Param({"mixed", "numeric", "text"})
+    public String typeMix;
+
+    ParquetData data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      data = BenchmarkData.generate(rows, columns, typeMix);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class SharedModel {
+    ParquetTableModel model;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp(Table table) {
+      model = new ParquetTableModel(table.data.getColumnNames(), table.data.getColumnTypes(), table.data.getRows());
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class FreshModel {
+    ParquetTableModel model;
+    int[] everyTenthRow;
+
+    @Setup(Level.Invocation)
+    public void setUp(Table table) {
+      model = new ParquetTableModel(table.data.getColumnNames(), table.data.getColumnTypes(), table.data.getRows());
+      everyTenthRow = new int[table.rows / 10];
+      for (int i = 0; i < everyTenthRow.length; i++) {
+        everyTenthRow[i] = i * 10;
+      }
+    }
+  }
+
+  /**
+   * One cell edit as typed by the user: the value arrives as text and is parsed for the
+   * column type.
+   */
+  @Benchmark
+  public Object setValueAt(SharedModel state) {
+    ParquetTableModel model = state.model;
+    int row = state.cursor++ % model.getRowCount();
+    int column = row % model.getColumnCount();
+    Object current = model.getValueAt(row, column);
+    model.setValueAt(current == null ? null : current.toString(), row, column);
+    return model.getValueAt(row, column);
+  }
+
+  @Benchmark
+  public int addColumn(FreshModel state) {
+    state.model.addColumn("added", "VARCHAR");
+    return state.model.getColumnCount();
+  }
+
+  @Benchmark
+  public int deleteRows(FreshModel state) {
+    state.model.deleteRows(state.everyTenthRow);
+    return state.model.getRowCount();
+  }
+
+  /**
+   * Bulk fill of a whole column: one conversion and one table event.
+   */
+  @Benchmark
+  public int bulkFill(SharedModel state) {
+    ParquetTableModel model = state.model;
+    Object first = model.getValueAt(0, 0);
+    return BULK_EDIT.apply(model, BULK_EDIT.prepareFill(model, 0, null, first == null ? null : first.toString())).size();
+  }
+
+  @Benchmark
+  public List<String> buildModel(Table table) {
+    return new ParquetTableModel(table.data.getColumnNames(), table.data.getColumnTypes(), table.data.getRows())
+        .toParquetData().getColumnNames();
+  }
+}
@@ -3,6 +3,8 @@ package com.github.jhordyhuaman.parquetstudio;
 public class Constants {
     public final static String SCHEMA_PANEL = "SCHEMA_PANEL";
     public final static String DATA_PANEL = "DATA_PANEL";
+    public final static int PREVIEW_ROW_LIMIT = Integer.getInteger("parquetstudio.preview.rows", 200);
+    public final static long COPY_LIMIT_MB = Long.getLong("parquetstudio.copy.maxMb", 256);
 
     public static class Message {
         public final static String SCHEMA_AND_PARQUET_NOT_SAME_COLUMNS = "The schema no haven't the same number of fields that the parquet.";
@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.diagnostics;
+
+import java.io.File;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One SQL statement run by {@code DuckDBParquetService}.
+ */
+@Name("com.github.jhordyhuaman.parquetstudio.DuckDBQuery")
+@Label("DuckDB Query")
+@Category({"Parquet Studio", "DuckDB"})
+public class DuckDBQueryEvent extends PluginEvent {
+
+  @Label("File")
+  String path;
+
+  @Label("SQL")
+  String sql;
+
+  @Label("Rows")
+  long rows = -1;
+
+  @Label("Bytes")
+  @DataAmount
+  long bytes = -1;
+
+  public DuckDBQueryEvent(String operation, File file, String sql) {
+    super(operation);
+    this.path = file != null ? file.getAbsolutePath() : null;
+    this.sql = sql;
+  }
+
+  public DuckDBQueryEvent rows(long rows) {
+    this.rows = rows;
+    return this;
+  }
+
+  public DuckDBQueryEvent bytes(long bytes) {
+    this.bytes = bytes;
+    return this;
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.diagnostics;
+
+import java.io.File;
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A user-level operation of {@code ParquetEditorService}: load, preview, save or model build.
+ */
+@Name("com.github.jhordyhuaman.parquetstudio.EditorOperation")
+@Label("Editor Operation")
+@Category({"Parquet Studio", "Editor"})
+public class EditorOperationEvent extends PluginEvent {
+
+  @Label("File")
+  String path;
+
+  @Label("Rows")
+  long rows = -1;
+
+  @Label("Columns")
+  int columns = -1;
+
+  public EditorOperationEvent(String operation, File file) {
+    super(operation);
+    this.path = file != null ? file.getAbsolutePath() : null;
+  }
+
+  public EditorOperationEvent rows(long rows) {
+    this.rows = rows;
+    return this;
+  }
+
+  public EditorOperationEvent columns(int columns) {
+    this.columns = columns;
+    return this;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.diagnostics;
+
+/**
+ * EDT time of one plugin action since the last reset. Instances are immutable;
+ * {@link EdtWatchdog} replaces them as actions complete.
+ */
+public final class EdtActionStats {
+  private final String action;
+  private final long count;
+  private final long totalNanos;
+  private final long maxNanos;
+  private final long lastNanos;
+  private final long violations;
+  private final EdtViolation lastViolation;
+
+  private EdtActionStats(String action, long count, long totalNanos, long maxNanos, long lastNanos,
+                         long violations, EdtViolation lastViolation) {
+    this.action = action;
+    this.count = count;
+    this.totalNanos = totalNanos;
+    this.maxNanos = maxNanos;
+    this.lastNanos = lastNanos;
+    this.violations = violations;
+    this.lastViolation = lastViolation;
+  }
+
+  static EdtActionStats of(String action, long nanos, EdtViolation violation) {
+    return new EdtActionStats(action, 1, nanos, nanos, nanos, violation != null ? 1 : 0, violation);
+  }
+
+  EdtActionStats merge(EdtActionStats other) {
+    return new EdtActionStats(
+        action,
+        count + other.count,
+        totalNanos + other.totalNanos,
+        Math.max(maxNanos, other.maxNanos),
+        other.lastNanos,
+        violations + other.violations,
+        other.lastViolation != null ? other.lastViolation : lastViolation);
+  }
+
+  public String getAction() {
+    return action;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getTotalMillis() {
+    return totalNanos / 1_000_000.0;
+  }
+
+  public double getAverageMillis() {
+    return count == 0 ? 0 : getTotalMillis() / count;
+  }
+
+  public double getMaxMillis() {
+    return maxNanos / 1_000_000.0;
+  }
+
+  public double getLastMillis() {
+    return lastNanos / 1_000_000.0;
+  }
+
+  /**
+   * Gets how many runs went over the watchdog threshold.
+   */
+  public long getViolations() {
+    return violations;
+  }
+
+  /**
+   * Gets the most recent run over the threshold.
+   *
+   * @return the violation, or null if every run stayed under the threshold
+   */
+  public EdtViolation getLastViolation() {
+    return lastViolation;
+  }
+}
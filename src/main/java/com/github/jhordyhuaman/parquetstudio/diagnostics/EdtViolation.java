@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One action that kept the event dispatch thread busy for longer than the
+ * {@link EdtWatchdog} threshold, with the stacks sampled while it was running.
+ */
+public final class EdtViolation {
+  private static final String PLUGIN_PACKAGE = "com.github.jhordyhuaman.parquetstudio.";
+  private static final String DIAGNOSTICS_PACKAGE = PLUGIN_PACKAGE + "diagnostics.";
+
+  private final String action;
+  private final long nanos;
+  private final long timestamp;
+  private final List<StackTraceElement[]> samples;
+
+  EdtViolation(String action, long nanos, long timestamp, List<StackTraceElement[]> samples) {
+    this.action = action;
+    this.nanos = nanos;
+    this.timestamp = timestamp;
+    this.samples = Collections.unmodifiableList(new ArrayList<>(samples));
+  }
+
+  public String getAction() {
+    return action;
+  }
+
+  public double getMillis() {
+    return nanos / 1_000_000.0;
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Gets the EDT stacks sampled while the action was over the threshold, oldest first.
+   * Empty when the action ended before the first sample was taken.
+   */
+  public List<StackTraceElement[]> getSamples() {
+    return samples;
+  }
+
+  /**
+   * Counts how often each plugin method was the innermost plugin frame of a sample, most
+   * frequent first. This points at the plugin code responsible even when the time is spent
+   * inside Swing or the JDK.
+   */
+  public Map<String, Integer> getHotFrames() {
+    Map<String, Integer> counts = new LinkedHashMap<>();
+    for (StackTraceElement[] sample : samples) {
+      for (StackTraceElement frame : sample) {
+        String className = frame.getClassName();
+        if (className.startsWith(PLUGIN_PACKAGE) && !className.startsWith(DIAGNOSTICS_PACKAGE)) {
+          counts.merge(className + "." + frame.getMethodName(), 1, Integer::sum);
+          break;
+        }
+      }
+    }
+    List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+    entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+    Map<String, Integer> sorted = new LinkedHashMap<>();
+    for (Map.Entry<String, Integer> entry : entries) {
+      sorted.put(entry.getKey(), entry.getValue());
+    }
+    return sorted;
+  }
+
+  /**
+   * Formats the violation for the log and the diagnostics report: the duration, the hot
+   * plugin frames and the first sampled stack.
+   */
+  public String format() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format(Locale.ROOT, "edt action=%s ms=%.1f samples=%d%n", action, getMillis(), samples.size()));
+    for (Map.Entry<String, Integer> hot : getHotFrames().entrySet()) {
+      sb.append("  hot ").append(hot.getKey()).append(" x").append(hot.getValue()).append('\n');
+    }
+    if (samples.isEmpty()) {
+      sb.append("  (no stack sample, the action ended before the sampler ran)\n");
+    } else {
+      for (StackTraceElement frame : samples.get(0)) {
+        sb.append("    at ").append(frame).append('\n');
+      }
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.diagnostics;
+
+import com.intellij.openapi.diagnostic.Logger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+
+/**
+ * Measures how long plugin actions keep the event dispatch thread busy.
+ *
+ * <p>Wrap the EDT part of an action in {@link #watch(String)}. While it runs past the
+ * threshold ({@value #THRESHOLD_PROPERTY}, default 100 ms) a sampler thread takes a stack
+ * of the EDT every half threshold, up to {@value #MAX_SAMPLES} samples. Slow runs are logged
+ * with the samples and kept for the diagnostics tab. Nested watches are measured
+ * independently; the outer one includes the time of the inner ones.
+ *
+ * <pre>{@code
+ * try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("search")) {
+ *   ...
+ * }
+ * }</pre>
+ */
+public final class EdtWatchdog {
+  private static final Logger LOGGER = Logger.getInstance(EdtWatchdog.class);
+
+  public static final String THRESHOLD_PROPERTY = "parquetstudio.edt.thresholdMs";
+  public static final int MAX_SAMPLES = 20;
+
+  private static final int HISTORY_SIZE = 50;
+  private static final EdtWatchdog INSTANCE = new EdtWatchdog(Long.getLong(THRESHOLD_PROPERTY, 100));
+
+  private final long thresholdNanos;
+  private final Map<String, EdtActionStats> stats = new ConcurrentHashMap<>();
+  private final Deque<EdtViolation> violations = new ArrayDeque<>();
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+  private volatile ScheduledThreadPoolExecutor sampler;
+
+  public EdtWatchdog(long thresholdMillis) {
+    this.thresholdNanos = Math.max(1, thresholdMillis) * 1_000_000L;
+  }
+
+  /**
+   * Gets the watchdog shared by the whole plugin.
+   */
+  public static EdtWatchdog getInstance() {
+    return INSTANCE;
+  }
+
+  public long getThresholdMillis() {
+    return thresholdNanos / 1_000_000L;
+  }
+
+  /**
+   * Starts watching an action. Off the EDT this returns a watch that records nothing, so
+   * code shared by background and UI paths can be wrapped unconditionally.
+   *
+   * @param action the user-level action, e.g. {@code search} or {@code delete_rows}
+   * @return the running watch, to be closed when the EDT part of the action ends
+   */
+  public Watch watch(String action) {
+    if (!SwingUtilities.isEventDispatchThread()) {
+      return Watch.NONE;
+    }
+    return new Watch(this, action, Thread.currentThread());
+  }
+
+  /**
+   * Gets the per-action totals, slowest first.
+   */
+  public List<EdtActionStats> getStats() {
+    List<EdtActionStats> result = new ArrayList<>(stats.values());
+    result.sort(Comparator.comparingDouble(EdtActionStats::getMaxMillis).reversed());
+    return result;
+  }
+
+  /**
+   * Gets the totals of one action.
+   *
+   * @return the stats, or null if the action never ran on the EDT
+   */
+  public EdtActionStats getStats(String action) {
+    return stats.get(action);
+  }
+
+  /**
+   * Gets the most recent runs over the threshold, oldest first.
+   */
+  public List<EdtViolation> getViolations() {
+    synchronized (violations) {
+      return new ArrayList<>(violations);
+    }
+  }
+
+  /**
+   * Drops all recorded actions and violations.
+   */
+  public void reset() {
+    stats.clear();
+    synchronized (violations) {
+      violations.clear();
+    }
+    for (Runnable listener : listeners) {
+      listener.run();
+    }
+  }
+
+  /**
+   * Registers a callback run after every watched action, on the EDT.
+   */
+  public void addListener(Runnable listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(Runnable listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Builds a plain-text summary of the watched actions and the recent violations.
+   */
+  public String formatReport() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format(Locale.ROOT, "EDT watchdog (threshold_ms=%d)%n", getThresholdMillis()));
+    for (EdtActionStats s : getStats()) {
+      sb.append(String.format(Locale.ROOT,
+          "action=%s count=%d total_ms=%.1f avg_ms=%.2f max_ms=%.2f over_threshold=%d%n",
+          s.getAction(), s.getCount(), s.getTotalMillis(), s.getAverageMillis(), s.getMaxMillis(),
+          s.getViolations()));
+    }
+    for (EdtViolation violation : getViolations()) {
+      sb.append('\n').append(violation.format());
+    }
+    return sb.toString();
+  }
+
+  private ScheduledThreadPoolExecutor sampler() {
+    ScheduledThreadPoolExecutor current = sampler;
+    if (current == null) {
+      synchronized (this) {
+        current = sampler;
+        if (current == null) {
+          current = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "Parquet Studio EDT Watchdog");
+            thread.setDaemon(true);
+            return thread;
+          });
+          current.setRemoveOnCancelPolicy(true);
+          sampler = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  private void finish(String action, long nanos, List<StackTraceElement[]> samples) {
+    EdtViolation violation = null;
+    if (nanos >= thresholdNanos) {
+      violation = new EdtViolation(action, nanos, System.currentTimeMillis(), samples);
+      synchronized (violations) {
+        if (violations.size() == HISTORY_SIZE) {
+          violations.removeFirst();
+        }
+        violations.addLast(violation);
+      }
+      LOGGER.warn("UI thread blocked by a plugin action\n" + violation.format());
+    }
+    stats.merge(action, EdtActionStats.of(action, nanos, violation), EdtActionStats::merge);
+
+    for (Runnable listener : listeners) {
+      listener.run();
+    }
+  }
+
+  /**
+   * A running watch of one action on the EDT. Use it with try-with-resources.
+   */
+  public static final class Watch implements AutoCloseable {
+    static final Watch NONE = new Watch(null, null, null);
+
+    private final EdtWatchdog watchdog;
+    private final String action;
+    private final long startNanos;
+    private final List<StackTraceElement[]> samples = new ArrayList<>();
+    private final ScheduledFuture<?> sampling;
+    private boolean closed;
+
+    private Watch(EdtWatchdog watchdog, String action, Thread edt) {
+      this.watchdog = watchdog;
+      this.action = action;
+      this.startNanos = System.nanoTime();
+      if (watchdog == null) {
+        this.sampling = null;
+        return;
+      }
+      long period = Math.max(1, watchdog.thresholdNanos / 2);
+      this.sampling = watchdog.sampler().scheduleAtFixedRate(
+          () -> sample(edt), watchdog.thresholdNanos, period, TimeUnit.NANOSECONDS);
+    }
+
+    private void sample(Thread edt) {
+      StackTraceElement[] stack = edt.getStackTrace();
+      synchronized (samples) {
+        if (!closed && samples.size() < MAX_SAMPLES) {
+          samples.add(stack);
+        }
+      }
+    }
+
+    @Override
+    public void close() {
+      if (watchdog == null) {
+        return;
+      }
+      List<StackTraceElement[]> taken;
+      synchronized (samples) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        taken = new ArrayList<>(samples);
+      }
+      sampling.cancel(false);
+      watchdog.finish(action, System.nanoTime() - startNanos, taken);
+    }
+  }
+}
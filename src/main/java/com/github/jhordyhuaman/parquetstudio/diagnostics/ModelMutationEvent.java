@@ -0,0 +1,53 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A change to {@code ParquetTableModel}. Single-cell edits are frequent, so no stack trace
+ * is captured.
+ */
+@Name("com.github.jhordyhuaman.parquetstudio.ModelMutation")
+@Label("Table Model Mutation")
+@Category({"Parquet Studio", "Table Model"})
+@StackTrace(false)
+public class ModelMutationEvent extends PluginEvent {
+
+  @Label("Affected Rows")
+  long affectedRows = -1;
+
+  @Label("Row Count")
+  long rowCount = -1;
+
+  @Label("Column Count")
+  int columnCount = -1;
+
+  public ModelMutationEvent(String operation) {
+    super(operation);
+  }
+
+  /**
+   * Sets the rows touched by the mutation and the model size after it.
+   */
+  public ModelMutationEvent result(long affectedRows, long rowCount, int columnCount) {
+    this.affectedRows = affectedRows;
+    this.rowCount = rowCount;
+    this.columnCount = columnCount;
+    return this;
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.diagnostics;
+
+import com.intellij.openapi.diagnostic.Logger;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects per-stage timings and counters of loads, saves, searches, sorting and schema
+ * generation.
+ *
+ * <p>Every record is written to the log as a {@code perf op=... stage=...} line: at debug
+ * level, or at info level when it took at least {@value #LOG_THRESHOLD_PROPERTY} ms
+ * (default 200). The aggregated numbers are shown in the diagnostics tab.
+ */
+public final class PerformanceMetrics {
+  private static final Logger LOGGER = Logger.getInstance(PerformanceMetrics.class);
+
+  public static final String LOG_THRESHOLD_PROPERTY = "parquetstudio.perf.logThresholdMs";
+
+  private static final int HISTORY_SIZE = 200;
+  private static final PerformanceMetrics INSTANCE =
+      new PerformanceMetrics(Long.getLong(LOG_THRESHOLD_PROPERTY, 200));
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+  private final long logThresholdNanos;
+  private final Map<String, StageStats> stats = new ConcurrentHashMap<>();
+  private final Deque<StageRecord> history = new ArrayDeque<>();
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+  public PerformanceMetrics(long logThresholdMillis) {
+    this.logThresholdNanos = logThresholdMillis * 1_000_000L;
+  }
+
+  /**
+   * Gets the registry shared by the whole plugin.
+   */
+  public static PerformanceMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Starts timing a stage on the current thread.
+   *
+   * @param operation the user-level operation, e.g. {@code load} or {@code save}
+   * @param stage the step inside the operation, e.g. {@code scan}
+   * @return the running stage, to be closed when the step ends
+   */
+  public Stage stage(String operation, String stage) {
+    return new Stage(this, operation, stage);
+  }
+
+  /**
+   * Records a stage measured by the caller, e.g. time accumulated over a loop.
+   *
+   * @param nanos the elapsed time
+   * @param rows the rows processed, or -1
+   * @param bytes the bytes read or written, or -1
+   * @param allocatedBytes the bytes allocated by the thread, or -1
+   * @param onEdt whether the time was spent on the event dispatch thread
+   */
+  public void record(String operation, String stage, long nanos, long rows, long bytes,
+                     long allocatedBytes, boolean onEdt) {
+    StageRecord record = new StageRecord(operation, stage, nanos, rows, bytes, allocatedBytes,
+        onEdt, Thread.currentThread().getName(), System.currentTimeMillis());
+
+    stats.merge(operation + "/" + stage, StageStats.of(record), StageStats::merge);
+    synchronized (history) {
+      if (history.size() == HISTORY_SIZE) {
+        history.removeFirst();
+      }
+      history.addLast(record);
+    }
+
+    if (nanos >= logThresholdNanos) {
+      LOGGER.info(record.toLogLine());
+    } else if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(record.toLogLine());
+    }
+
+    for (Runnable listener : listeners) {
+      listener.run();
+    }
+  }
+
+  /**
+   * Gets the aggregated stats, ordered by operation and stage.
+   */
+  public List<StageStats> getStats() {
+    List<StageStats> result = new ArrayList<>(stats.values());
+    result.sort(Comparator.comparing(StageStats::getOperation).thenComparing(StageStats::getStage));
+    return result;
+  }
+
+  /**
+   * Gets the most recent records, oldest first.
+   */
+  public List<StageRecord> getRecent() {
+    synchronized (history) {
+      return new ArrayList<>(history);
+    }
+  }
+
+  /**
+   * Gets the total time recorded stages kept the event dispatch thread busy.
+   */
+  public double getEdtMillis() {
+    double total = 0;
+    for (StageStats s : stats.values()) {
+      total += s.getEdtMillis();
+    }
+    return total;
+  }
+
+  /**
+   * Drops all recorded stats.
+   */
+  public void reset() {
+    stats.clear();
+    synchronized (history) {
+      history.clear();
+    }
+    for (Runnable listener : listeners) {
+      listener.run();
+    }
+  }
+
+  /**
+   * Registers a callback run after every record, on the recording thread.
+   */
+  public void addListener(Runnable listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(Runnable listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Builds a plain-text report of the aggregated stats and the recent records, meant to be
+   * pasted into a slow-operation report.
+   */
+  public String formatReport() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("Parquet Studio performance report\n");
+    sb.append(String.format(Locale.ROOT, "java=%s cores=%d max_heap_mb=%d edt_ms=%.1f%n",
+        System.getProperty("java.version"),
+        Runtime.getRuntime().availableProcessors(),
+        Runtime.getRuntime().maxMemory() / (1024 * 1024),
+        getEdtMillis()));
+    sb.append('\n');
+    for (StageStats s : getStats()) {
+      sb.append(String.format(Locale.ROOT,
+          "op=%s stage=%s count=%d avg_ms=%.2f max_ms=%.2f edt_ms=%.2f rows=%d rows_per_sec=%d bytes=%d alloc_bytes=%d%n",
+          s.getOperation(), s.getStage(), s.getCount(), s.getAverageMillis(), s.getMaxMillis(),
+          s.getEdtMillis(), s.getRows(), s.getRowsPerSecond(), s.getBytes(), s.getAllocatedBytes()));
+    }
+    sb.append('\n');
+    for (StageRecord r : getRecent()) {
+      sb.append(r.toLogLine()).append('\n');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Gets the bytes allocated so far by the current thread.
+   *
+   * @return the allocated bytes, or -1 if the JVM does not support the measurement
+   */
+  static long currentThreadAllocatedBytes() {
+    if (THREADS instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+      if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+        return threads.getCurrentThreadAllocatedBytes();
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base of the Java Flight Recorder events emitted by the plugin. Events are timed from
+ * construction to {@link #close()}, so they are used with try-with-resources; an event
+ * closed without {@link #completed()} is recorded as failed.
+ *
+ * <p>When no recording is running the JVM reduces these events to no-ops.
+ */
+@Category("Parquet Studio")
+public abstract class PluginEvent extends Event implements AutoCloseable {
+
+  @Label("Operation")
+  protected String operation;
+
+  @Label("Completed")
+  @Description("False when the operation threw")
+  protected boolean completed;
+
+  @Label("Cancelled")
+  @Description("True when the operation was interrupted or cancelled")
+  protected boolean cancelled;
+
+  protected PluginEvent(String operation) {
+    this.operation = operation;
+    begin();
+  }
+
+  /**
+   * Marks the operation as finished without errors.
+   */
+  public void completed() {
+    this.completed = true;
+  }
+
+  /**
+   * Marks the operation as cancelled by the user or the scheduler.
+   */
+  public void cancelled() {
+    this.cancelled = true;
+  }
+
+  @Override
+  public void close() {
+    end();
+    if (shouldCommit()) {
+      if (!completed && Thread.currentThread().isInterrupted()) {
+        cancelled = true;
+      }
+      commit();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.diagnostics;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * A running timer for one stage of an operation. Use it with try-with-resources; the
+ * stage is recorded when it is closed, including when the stage fails.
+ *
+ * <pre>{@code
+ * try (Stage stage = PerformanceMetrics.getInstance().stage("load", "scan")) {
+ *   ...
+ *   stage.rows(rowCount);
+ * }
+ * }</pre>
+ */
+public final class Stage implements AutoCloseable {
+  private final PerformanceMetrics metrics;
+  private final String operation;
+  private final String name;
+  private final boolean onEdt;
+  private final long startAllocated;
+  private final long startNanos;
+  private long rows = -1;
+  private long bytes = -1;
+  private boolean closed;
+
+  Stage(PerformanceMetrics metrics, String operation, String name) {
+    this.metrics = metrics;
+    this.operation = operation;
+    this.name = name;
+    this.onEdt = SwingUtilities.isEventDispatchThread();
+    this.startAllocated = PerformanceMetrics.currentThreadAllocatedBytes();
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Sets the number of rows the stage processed.
+   */
+  public Stage rows(long rows) {
+    this.rows = rows;
+    return this;
+  }
+
+  /**
+   * Sets the number of bytes the stage read or wrote.
+   */
+  public Stage bytes(long bytes) {
+    this.bytes = bytes;
+    return this;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    long nanos = System.nanoTime() - startNanos;
+    long endAllocated = PerformanceMetrics.currentThreadAllocatedBytes();
+    long allocated = startAllocated >= 0 && endAllocated >= 0 ? endAllocated - startAllocated : -1;
+    metrics.record(operation, name, nanos, rows, bytes, allocated, onEdt);
+  }
+}
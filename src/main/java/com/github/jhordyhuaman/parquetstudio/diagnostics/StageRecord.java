@@ -0,0 +1,124 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.diagnostics;
+
+/**
+ * One measured run of a stage, e.g. the DuckDB scan of a single load.
+ * Counters that were not measured are -1.
+ */
+public final class StageRecord {
+  private final String operation;
+  private final String stage;
+  private final long nanos;
+  private final long rows;
+  private final long bytes;
+  private final long allocatedBytes;
+  private final boolean onEdt;
+  private final String threadName;
+  private final long timestamp;
+
+  public StageRecord(String operation, String stage, long nanos, long rows, long bytes,
+                     long allocatedBytes, boolean onEdt, String threadName, long timestamp) {
+    this.operation = operation;
+    this.stage = stage;
+    this.nanos = nanos;
+    this.rows = rows;
+    this.bytes = bytes;
+    this.allocatedBytes = allocatedBytes;
+    this.onEdt = onEdt;
+    this.threadName = threadName;
+    this.timestamp = timestamp;
+  }
+
+  public String getOperation() {
+    return operation;
+  }
+
+  public String getStage() {
+    return stage;
+  }
+
+  public long getNanos() {
+    return nanos;
+  }
+
+  public double getMillis() {
+    return nanos / 1_000_000.0;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public long getBytes() {
+    return bytes;
+  }
+
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  public boolean isOnEdt() {
+    return onEdt;
+  }
+
+  public String getThreadName() {
+    return threadName;
+  }
+
+  /**
+   * Gets the wall-clock time the stage finished, in epoch milliseconds.
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Gets the throughput of the stage.
+   *
+   * @return rows per second, or -1 if no rows were counted
+   */
+  public long getRowsPerSecond() {
+    if (rows < 0 || nanos <= 0) {
+      return -1;
+    }
+    return (long) (rows * 1_000_000_000.0 / nanos);
+  }
+
+  /**
+   * Formats the record as a single {@code key=value} log line, leaving out the counters
+   * that were not measured.
+   */
+  public String toLogLine() {
+    StringBuilder sb = new StringBuilder("perf op=").append(operation)
+        .append(" stage=").append(stage)
+        .append(String.format(java.util.Locale.ROOT, " ms=%.2f", getMillis()));
+    if (rows >= 0) {
+      sb.append(" rows=").append(rows).append(" rows_per_sec=").append(getRowsPerSecond());
+    }
+    if (bytes >= 0) {
+      sb.append(" bytes=").append(bytes);
+    }
+    if (allocatedBytes >= 0) {
+      sb.append(" alloc_bytes=").append(allocatedBytes);
+    }
+    sb.append(" edt=").append(onEdt).append(" thread=\"").append(threadName).append('"');
+    return sb.toString();
+  }
+
+  @Override
+  public String toString() {
+    return toLogLine();
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.diagnostics;
+
+/**
+ * Aggregated timings of one operation stage since the last reset. Instances are immutable;
+ * {@link PerformanceMetrics} replaces them as new records arrive.
+ */
+public final class StageStats {
+  private final String operation;
+  private final String stage;
+  private final long count;
+  private final long totalNanos;
+  private final long maxNanos;
+  private final long edtNanos;
+  private final long rows;
+  private final long bytes;
+  private final long allocatedBytes;
+  private final StageRecord last;
+
+  private StageStats(String operation, String stage, long count, long totalNanos, long maxNanos,
+                     long edtNanos, long rows, long bytes, long allocatedBytes, StageRecord last) {
+    this.operation = operation;
+    this.stage = stage;
+    this.count = count;
+    this.totalNanos = totalNanos;
+    this.maxNanos = maxNanos;
+    this.edtNanos = edtNanos;
+    this.rows = rows;
+    this.bytes = bytes;
+    this.allocatedBytes = allocatedBytes;
+    this.last = last;
+  }
+
+  static StageStats of(StageRecord record) {
+    return new StageStats(
+        record.getOperation(),
+        record.getStage(),
+        1,
+        record.getNanos(),
+        record.getNanos(),
+        record.isOnEdt() ? record.getNanos() : 0,
+        Math.max(0, record.getRows()),
+        Math.max(0, record.getBytes()),
+        Math.max(0, record.getAllocatedBytes()),
+        record);
+  }
+
+  StageStats merge(StageStats other) {
+    return new StageStats(
+        operation,
+        stage,
+        count + other.count,
+        totalNanos + other.totalNanos,
+        Math.max(maxNanos, other.maxNanos),
+        edtNanos + other.edtNanos,
+        rows + other.rows,
+        bytes + other.bytes,
+        allocatedBytes + other.allocatedBytes,
+        other.last);
+  }
+
+  public String getOperation() {
+    return operation;
+  }
+
+  public String getStage() {
+    return stage;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getTotalMillis() {
+    return totalNanos / 1_000_000.0;
+  }
+
+  public double getAverageMillis() {
+    return count == 0 ? 0 : getTotalMillis() / count;
+  }
+
+  public double getMaxMillis() {
+    return maxNanos / 1_000_000.0;
+  }
+
+  /**
+   * Gets the time this stage kept the event dispatch thread busy.
+   */
+  public double getEdtMillis() {
+    return edtNanos / 1_000_000.0;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public long getBytes() {
+    return bytes;
+  }
+
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * Gets the throughput over all runs.
+   *
+   * @return rows per second, or -1 if no rows were counted
+   */
+  public long getRowsPerSecond() {
+    if (rows <= 0 || totalNanos <= 0) {
+      return -1;
+    }
+    return (long) (rows * 1_000_000_000.0 / totalNanos);
+  }
+
+  /**
+   * Gets the most recent run of this stage.
+   */
+  public StageRecord getLast() {
+    return last;
+  }
+}
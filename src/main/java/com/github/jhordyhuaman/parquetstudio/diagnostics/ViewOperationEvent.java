@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A search or sort of the editor table.
+ */
+@Name("com.github.jhordyhuaman.parquetstudio.ViewOperation")
+@Label("Search / Sort")
+@Category({"Parquet Studio", "Table Model"})
+public class ViewOperationEvent extends PluginEvent {
+
+  @Label("Detail")
+  String detail;
+
+  @Label("Rows In")
+  long rowsIn = -1;
+
+  @Label("Rows Out")
+  long rowsOut = -1;
+
+  /**
+   * @param operation {@code search} or {@code sort}
+   * @param detail the search text or the sort keys
+   */
+  public ViewOperationEvent(String operation, String detail) {
+    super(operation);
+    this.detail = detail;
+  }
+
+  public ViewOperationEvent rows(long rowsIn, long rowsOut) {
+    this.rowsIn = rowsIn;
+    this.rowsOut = rowsOut;
+    return this;
+  }
+}
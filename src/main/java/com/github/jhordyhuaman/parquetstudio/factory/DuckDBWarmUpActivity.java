@@ -0,0 +1,31 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.factory;
+
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.StartupActivity;
+
+/**
+ * Loads the DuckDB native library and engine on a pooled thread after a project opens,
+ * so opening the first Parquet file does not wait for it. Only the first project does
+ * any work.
+ */
+public class DuckDBWarmUpActivity implements StartupActivity.DumbAware {
+  @Override
+  public void runActivity(Project project) {
+    ApplicationManager.getApplication().executeOnPooledThread(DuckDBParquetService::warmUp);
+  }
+}
@@ -0,0 +1,28 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.factory;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.StartupActivity;
+
+/**
+ * Starts the {@link ParquetCatalogIndexer} of a project once it is open. Indexing uses the
+ * project content, not the language indexes, so it does not wait for dumb mode to end.
+ */
+public class ParquetCatalogActivity implements StartupActivity.DumbAware {
+  @Override
+  public void runActivity(Project project) {
+    ParquetCatalogIndexer.getInstance(project).start();
+  }
+}
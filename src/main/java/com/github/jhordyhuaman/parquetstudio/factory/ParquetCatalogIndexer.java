@@ -0,0 +1,243 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.factory;
+
+import com.github.jhordyhuaman.parquetstudio.service.ParquetCatalog;
+import com.github.jhordyhuaman.parquetstudio.service.SchemaDriftService;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link ParquetCatalog} of a project up to date: loads the saved index, walks the
+ * project content for {@code .parquet} files and reads the new or changed footers, then
+ * follows VFS events to re-read, add or drop files as they change.
+ *
+ * <p>Events are collected and handled together on one background thread, half a second
+ * after the last one, so copying a directory of thousands of files reads them in one batch.
+ */
+public final class ParquetCatalogIndexer implements Disposable {
+  private static final Logger LOGGER = Logger.getInstance(ParquetCatalogIndexer.class);
+  private static final long EVENT_DELAY_MILLIS = 500;
+
+  private final Project project;
+  private final ParquetCatalog catalog;
+  private final ScheduledExecutorService executor;
+  private final Set<String> changedPaths = ConcurrentHashMap.newKeySet();
+  private final Set<String> removedPaths = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean started = new AtomicBoolean(false);
+  private final AtomicBoolean eventsPending = new AtomicBoolean(false);
+  private volatile boolean disposed;
+  private volatile boolean loaded;
+
+  public ParquetCatalogIndexer(Project project) {
+    this.project = project;
+    this.catalog = new ParquetCatalog(indexFile(project), SchemaDriftService.defaultThreads());
+    this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "Parquet Studio Catalog Indexer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  public static ParquetCatalogIndexer getInstance(Project project) {
+    return project.getService(ParquetCatalogIndexer.class);
+  }
+
+  /**
+   * Gets the index file of a project, one per project location under the IDE system
+   * directory.
+   */
+  private static File indexFile(Project project) {
+    String location = String.valueOf(project.getBasePath());
+    String key = UUID.nameUUIDFromBytes(location.getBytes(StandardCharsets.UTF_8)).toString().substring(0, 8);
+    return new File(new File(PathManager.getSystemPath(), "parquet-studio"), "catalog-" + key + ".json.gz");
+  }
+
+  public ParquetCatalog getCatalog() {
+    return catalog;
+  }
+
+  /**
+   * Starts following VFS events and indexes the project in the background. Only the first
+   * call does anything.
+   */
+  public void start() {
+    if (!started.compareAndSet(false, true)) {
+      return;
+    }
+    project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+      @Override
+      public void after(List<? extends VFileEvent> events) {
+        onEvents(events);
+      }
+    });
+    rescan();
+  }
+
+  /**
+   * Walks the whole project again in the background and reads the new or changed footers.
+   */
+  public void rescan() {
+    if (!disposed) {
+      executor.execute(this::indexProject);
+    }
+  }
+
+  private void indexProject() {
+    try {
+      if (!loaded) {
+        loaded = true;
+        catalog.load();
+      }
+      // A non-blocking read action gives way to write actions and starts the walk again
+      // after them, so a large project does not hold the write lock back
+      List<File> files = ReadAction.nonBlocking(() -> {
+        List<File> found = new ArrayList<>();
+        ProjectFileIndex.getInstance(project).iterateContent(file -> {
+          ProgressManager.checkCanceled();
+          if (!file.isDirectory() && file.isInLocalFileSystem() && isParquet(file.getName())) {
+            found.add(new File(file.getPath()).getAbsoluteFile());
+          }
+          return true;
+        });
+        return found;
+      }).expireWith(this).executeSynchronously();
+      if (disposed) {
+        return;
+      }
+      catalog.refresh(files, () -> disposed);
+      catalog.save();
+    } catch (ProcessCanceledException e) {
+      // The project was closed during the walk
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      LOGGER.warn("Could not index the Parquet files of " + project.getName(), e);
+    }
+  }
+
+  /**
+   * Sorts the events into paths to read and paths whose files may be gone. Called on the
+   * EDT under the write lock, so it only looks at the events. VFS paths always use
+   * {@code /}; they are turned into the platform paths the catalog is keyed by.
+   */
+  private void onEvents(List<? extends VFileEvent> events) {
+    ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+    for (VFileEvent event : events) {
+      if (event instanceof VFileMoveEvent) {
+        removedPaths.add(platformPath(((VFileMoveEvent) event).getOldPath()));
+      } else if (event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename()) {
+        removedPaths.add(platformPath(((VFilePropertyChangeEvent) event).getOldPath()));
+      }
+      VirtualFile file = event.getFile();
+      if (file != null && file.isValid()) {
+        if (file.isInLocalFileSystem() && (file.isDirectory() || isParquet(file.getName())) && fileIndex.isInContent(file)) {
+          changedPaths.add(platformPath(file.getPath()));
+        }
+      } else {
+        removedPaths.add(platformPath(event.getPath()));
+      }
+    }
+    if ((!changedPaths.isEmpty() || !removedPaths.isEmpty()) && !disposed && eventsPending.compareAndSet(false, true)) {
+      executor.schedule(this::handleEvents, EVENT_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void handleEvents() {
+    eventsPending.set(false);
+    List<String> removed = drain(removedPaths);
+    List<String> changed = drain(changedPaths);
+    try {
+      for (String path : removed) {
+        catalog.removeMissing(path);
+      }
+      List<File> files = new ArrayList<>();
+      for (String path : changed) {
+        File file = new File(path);
+        if (file.isDirectory()) {
+          // A directory created, copied or moved into the project comes as one event
+          files.addAll(findParquetFiles(file.toPath()));
+        } else {
+          files.add(file);
+        }
+      }
+      catalog.update(files, () -> disposed);
+      catalog.save();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      LOGGER.warn("Could not update the Parquet catalog of " + project.getName(), e);
+    }
+  }
+
+  private static String platformPath(String vfsPath) {
+    return new File(vfsPath).getAbsolutePath();
+  }
+
+  private static List<String> drain(Set<String> paths) {
+    List<String> drained = new ArrayList<>(paths);
+    paths.removeAll(drained);
+    return drained;
+  }
+
+  private static List<File> findParquetFiles(Path directory) throws IOException {
+    try (Stream<Path> walk = Files.walk(directory)) {
+      return walk.filter(path -> isParquet(path.getFileName().toString()) && Files.isRegularFile(path))
+          .map(Path::toFile)
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static boolean isParquet(String name) {
+    return name.toLowerCase(Locale.ROOT).endsWith(".parquet");
+  }
+
+  /**
+   * Stops indexing; footers being read finish, the rest are left for the next start.
+   */
+  @Override
+  public void dispose() {
+    disposed = true;
+    executor.shutdown();
+  }
+}
@@ -29,7 +29,7 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * File editor for Parquet files.
- * Opens the Parquet Studio tool window and loads the file when a .parquet file is opened.
+ * Opens the Parquet Studio tool window and previews the file when a .parquet file is opened.
  */
 public class ParquetFileEditor extends UserDataHolderBase implements FileEditor {
   private final Project project;
@@ -69,8 +69,9 @@ public class ParquetFileEditor extends UserDataHolderBase implements FileEditor
               ParquetToolWindow parquetToolWindow = findParquetToolWindowRecursive(content);
               
               if (parquetToolWindow != null) {
+                // Opening from the project view is often just a peek: start with a preview
                 java.io.File physicalFile = new java.io.File(file.getPath());
-                parquetToolWindow.openFileInTab(physicalFile);
+                parquetToolWindow.previewFileInTab(physicalFile);
                 fileOpened = true;
               }
             }
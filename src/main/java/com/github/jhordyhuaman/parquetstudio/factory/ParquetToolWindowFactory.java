@@ -26,7 +26,7 @@ import com.intellij.ui.content.ContentFactory;
 public class ParquetToolWindowFactory implements ToolWindowFactory {
   @Override
   public void createToolWindowContent(Project project, ToolWindow toolWindow) {
-    ParquetToolWindow parquetToolWindow = new ParquetToolWindow();
+    ParquetToolWindow parquetToolWindow = new ParquetToolWindow(project);
     ContentFactory contentFactory = ContentFactory.getInstance();
     Content content = contentFactory.createContent(parquetToolWindow, "", false);
     toolWindow.getContentManager().addContent(content);
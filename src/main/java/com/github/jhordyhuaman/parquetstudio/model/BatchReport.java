@@ -0,0 +1,165 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a batch job over many Parquet files: one {@link FileResult} per file, in
+ * the order the files finished.
+ */
+public class BatchReport {
+
+  /**
+   * What happened to one file.
+   */
+  public enum Status {
+    /** Rewritten. */
+    DONE,
+    /** Left alone because it does not match the schema in strict mode. */
+    SKIPPED,
+    /** Could not be rewritten, even after retrying. */
+    FAILED,
+    /** Not started because the job was cancelled. */
+    CANCELLED
+  }
+
+  private final List<FileResult> results = new ArrayList<>();
+  private final int fileCount;
+
+  /**
+   * @param fileCount the number of files in the job
+   */
+  public BatchReport(int fileCount) {
+    this.fileCount = fileCount;
+  }
+
+  public synchronized void add(FileResult result) {
+    results.add(result);
+  }
+
+  public int getFileCount() {
+    return fileCount;
+  }
+
+  public synchronized List<FileResult> getResults() {
+    return Collections.unmodifiableList(new ArrayList<>(results));
+  }
+
+  /**
+   * Gets the number of files that ended with the given status.
+   */
+  public synchronized int count(Status status) {
+    int count = 0;
+    for (FileResult result : results) {
+      if (result.getStatus() == status) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Gets the rows written over all files.
+   */
+  public synchronized long getRowCount() {
+    long rows = 0;
+    for (FileResult result : results) {
+      rows += result.getRows();
+    }
+    return rows;
+  }
+
+  /**
+   * Formats a one-line summary followed by the files that were not rewritten.
+   */
+  public synchronized String format() {
+    StringBuilder sb = new StringBuilder(String.format(
+        "%d of %d file(s) rewritten (%,d rows), %d skipped, %d failed, %d cancelled",
+        count(Status.DONE), fileCount, getRowCount(), count(Status.SKIPPED), count(Status.FAILED),
+        count(Status.CANCELLED)));
+    for (FileResult result : results) {
+      if (result.getStatus() == Status.SKIPPED || result.getStatus() == Status.FAILED) {
+        sb.append("\n  ").append(result);
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * The result of one file.
+   */
+  public static final class FileResult {
+    private final File source;
+    private final File target;
+    private final Status status;
+    private final long rows;
+    private final int attempts;
+    private final long millis;
+    private final String message;
+
+    /**
+     * @param rows the rows written, 0 unless done
+     * @param attempts the number of times the file was tried
+     * @param message why the file was skipped or failed, null when done
+     */
+    public FileResult(File source, File target, Status status, long rows, int attempts, long millis, String message) {
+      this.source = source;
+      this.target = target;
+      this.status = status;
+      this.rows = rows;
+      this.attempts = attempts;
+      this.millis = millis;
+      this.message = message;
+    }
+
+    public File getSource() {
+      return source;
+    }
+
+    public File getTarget() {
+      return target;
+    }
+
+    public Status getStatus() {
+      return status;
+    }
+
+    public long getRows() {
+      return rows;
+    }
+
+    public int getAttempts() {
+      return attempts;
+    }
+
+    public long getMillis() {
+      return millis;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+
+    @Override
+    public String toString() {
+      return source.getName() + ": " + status.name().toLowerCase()
+          + (message != null ? " - " + message : "")
+          + (attempts > 1 ? " (" + attempts + " attempts)" : "");
+    }
+  }
+}
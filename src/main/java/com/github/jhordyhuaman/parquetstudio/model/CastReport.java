@@ -0,0 +1,145 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a dry run of a schema transform: for every column changing type, how many
+ * values cannot be converted and a few of them. Those values are written as NULL.
+ */
+public class CastReport {
+  private final long rowCount;
+  private final List<Column> columns = new ArrayList<>();
+
+  /**
+   * @param rowCount the number of rows checked
+   */
+  public CastReport(long rowCount) {
+    this.rowCount = rowCount;
+  }
+
+  /**
+   * Records the result of one converted column.
+   *
+   * @param failures the non-null values that cannot be converted
+   * @param samples some of those values, as text
+   */
+  public void add(String name, String fromType, String toType, long failures, List<String> samples) {
+    columns.add(new Column(name, fromType, toType, failures, samples));
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Gets the converted columns, in column order.
+   */
+  public List<Column> getColumns() {
+    return Collections.unmodifiableList(columns);
+  }
+
+  public boolean hasFailures() {
+    return getFailureCount() > 0;
+  }
+
+  /**
+   * Gets the number of values that cannot be converted, over all columns.
+   */
+  public long getFailureCount() {
+    long failures = 0;
+    for (Column column : columns) {
+      failures += column.getFailures();
+    }
+    return failures;
+  }
+
+  /**
+   * Formats the failing columns for a dialog.
+   *
+   * @param maxColumns the number of columns listed before the rest are summarized
+   */
+  public String format(int maxColumns) {
+    List<Column> failing = new ArrayList<>();
+    for (Column column : columns) {
+      if (column.getFailures() > 0) {
+        failing.add(column);
+      }
+    }
+    StringBuilder sb = new StringBuilder()
+        .append(String.format("%,d value(s) in %d column(s) cannot be converted and will be written as NULL:",
+            getFailureCount(), failing.size()));
+    int listed = Math.min(maxColumns, failing.size());
+    for (int i = 0; i < listed; i++) {
+      sb.append("\n  ").append(failing.get(i));
+    }
+    if (failing.size() > listed) {
+      sb.append("\n  ... and ").append(failing.size() - listed).append(" more column(s)");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * One column changing type.
+   */
+  public static final class Column {
+    private final String name;
+    private final String fromType;
+    private final String toType;
+    private final long failures;
+    private final List<String> samples;
+
+    Column(String name, String fromType, String toType, long failures, List<String> samples) {
+      this.name = name;
+      this.fromType = fromType;
+      this.toType = toType;
+      this.failures = failures;
+      this.samples = List.copyOf(samples);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public String getFromType() {
+      return fromType;
+    }
+
+    public String getToType() {
+      return toType;
+    }
+
+    public long getFailures() {
+      return failures;
+    }
+
+    public List<String> getSamples() {
+      return samples;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder()
+          .append(name).append(" (").append(fromType).append(" -> ").append(toType).append("): ")
+          .append(String.format("%,d value(s)", failures));
+      for (int i = 0; i < samples.size(); i++) {
+        sb.append(i == 0 ? ", e.g. '" : ", '").append(samples.get(i)).append('\'');
+      }
+      return sb.toString();
+    }
+  }
+}
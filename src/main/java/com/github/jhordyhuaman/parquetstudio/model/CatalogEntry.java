@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the project catalog keeps about one Parquet file, read once from its footer: the
+ * columns and their DuckDB types, the row and row-group counts and the codecs. The size and
+ * modification time tell whether the file changed since it was read.
+ */
+public class CatalogEntry {
+  private String path;
+  private long size;
+  private long modified;
+  private long rows;
+  private int rowGroups;
+  private String codec;
+  private List<String> columns = new ArrayList<>();
+  private List<String> types = new ArrayList<>();
+  private String error;
+
+  /**
+   * For Gson.
+   */
+  CatalogEntry() {
+  }
+
+  /**
+   * @param file the indexed file; its size and modification time are taken now
+   */
+  public CatalogEntry(File file) {
+    this.path = file.getAbsolutePath();
+    this.size = file.length();
+    this.modified = file.lastModified();
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public File getFile() {
+    return new File(path);
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  public long getModified() {
+    return modified;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public int getRowGroups() {
+    return rowGroups;
+  }
+
+  public String getCodec() {
+    return codec;
+  }
+
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  public List<String> getTypes() {
+    return types;
+  }
+
+  /**
+   * Gets why the footer could not be read, or null.
+   */
+  public String getError() {
+    return error;
+  }
+
+  public void setStats(long rows, int rowGroups, String codec) {
+    this.rows = rows;
+    this.rowGroups = rowGroups;
+    this.codec = codec;
+  }
+
+  public void addColumn(String name, String type) {
+    columns.add(name);
+    types.add(type);
+  }
+
+  public void setError(String error) {
+    this.error = error;
+  }
+
+  /**
+   * Checks whether the file was changed, replaced or deleted since this entry was read.
+   */
+  public boolean isStale(File file) {
+    return file.length() != size || file.lastModified() != modified || !file.isFile();
+  }
+}
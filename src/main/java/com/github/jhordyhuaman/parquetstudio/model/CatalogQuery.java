@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A catalog search: whitespace-separated terms that must all match, ignoring case.
+ *
+ * <ul>
+ *   <li>{@code name:type} matches a column whose name contains {@code name} and whose type
+ *       contains {@code type}; either side may be empty, e.g. {@code :DECIMAL}</li>
+ *   <li>any other term matches a column name, a column type or the file path</li>
+ * </ul>
+ *
+ * <p>{@code customer_id:bigint} finds the files having {@code customer_id} as {@code BIGINT}.
+ */
+public class CatalogQuery {
+  private final List<String[]> columnTerms = new ArrayList<>();
+  private final List<String> anyTerms = new ArrayList<>();
+
+  private CatalogQuery() {
+  }
+
+  public static CatalogQuery parse(String text) {
+    CatalogQuery query = new CatalogQuery();
+    for (String term : text.trim().split("\\s+")) {
+      if (term.isEmpty()) {
+        continue;
+      }
+      int colon = term.indexOf(':');
+      if (colon >= 0) {
+        query.columnTerms.add(new String[] {term.substring(0, colon), term.substring(colon + 1)});
+      } else {
+        query.anyTerms.add(term);
+      }
+    }
+    return query;
+  }
+
+  public boolean isEmpty() {
+    return columnTerms.isEmpty() && anyTerms.isEmpty();
+  }
+
+  /**
+   * Checks whether every term matches the entry. Unreadable files only match path terms.
+   */
+  public boolean matches(CatalogEntry entry) {
+    for (String[] term : columnTerms) {
+      if (findColumn(entry, term[0], term[1]) < 0) {
+        return false;
+      }
+    }
+    for (String term : anyTerms) {
+      if (!contains(entry.getPath(), term) && findColumn(entry, term, "") < 0 && findColumn(entry, "", term) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the columns of the entry matched by a term, as "name TYPE".
+   */
+  public List<String> matchingColumns(CatalogEntry entry) {
+    List<String> matching = new ArrayList<>();
+    for (int i = 0; i < entry.getColumns().size(); i++) {
+      String name = entry.getColumns().get(i);
+      String type = entry.getTypes().get(i);
+      boolean hit = false;
+      for (String[] term : columnTerms) {
+        hit |= contains(name, term[0]) && contains(type, term[1]);
+      }
+      for (String term : anyTerms) {
+        hit |= contains(name, term) || contains(type, term);
+      }
+      if (hit) {
+        matching.add(name + " " + type);
+      }
+    }
+    return matching;
+  }
+
+  private static int findColumn(CatalogEntry entry, String name, String type) {
+    for (int i = 0; i < entry.getColumns().size(); i++) {
+      if (contains(entry.getColumns().get(i), name) && contains(entry.getTypes().get(i), type)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean contains(String text, String part) {
+    int last = text.length() - part.length();
+    for (int i = 0; i <= last; i++) {
+      if (text.regionMatches(true, i, part, 0, part.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Large text kept as a list of fixed-size chunks instead of one growing buffer.
+ *
+ * <p>Appending never copies what was already written, and {@link #reader()} streams the
+ * chunks without joining them, so a copied selection is held once rather than once in a
+ * builder and again in its {@code String}.
+ */
+public class ChunkedText {
+  public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+  private final int chunkSize;
+  private final List<String> chunks = new ArrayList<>();
+  private final StringBuilder current;
+  private long length;
+
+  public ChunkedText() {
+    this(DEFAULT_CHUNK_SIZE);
+  }
+
+  public ChunkedText(int chunkSize) {
+    this.chunkSize = chunkSize;
+    this.current = new StringBuilder(Math.min(chunkSize, 1 << 16));
+  }
+
+  /**
+   * Appends text, starting a new chunk when the current one would grow past the chunk size.
+   */
+  public ChunkedText append(CharSequence text) {
+    if (current.length() > 0 && current.length() + text.length() > chunkSize) {
+      flush();
+    }
+    current.append(text);
+    length += text.length();
+    if (current.length() >= chunkSize) {
+      flush();
+    }
+    return this;
+  }
+
+  private void flush() {
+    chunks.add(current.toString());
+    current.setLength(0);
+  }
+
+  /**
+   * Gets the number of characters appended so far.
+   */
+  public long length() {
+    return length;
+  }
+
+  /**
+   * Gets the number of completed chunks, not counting the one being filled.
+   */
+  public int getChunkCount() {
+    return chunks.size();
+  }
+
+  /**
+   * Streams the text chunk by chunk.
+   */
+  public Reader reader() {
+    if (current.length() > 0) {
+      flush();
+    }
+    List<String> snapshot = new ArrayList<>(chunks);
+    return new Reader() {
+      private int chunk;
+      private int offset;
+
+      @Override
+      public int read(char[] buffer, int off, int len) {
+        if (len == 0) {
+          return 0;
+        }
+        while (chunk < snapshot.size() && offset == snapshot.get(chunk).length()) {
+          chunk++;
+          offset = 0;
+        }
+        if (chunk == snapshot.size()) {
+          return -1;
+        }
+        String text = snapshot.get(chunk);
+        int n = Math.min(len, text.length() - offset);
+        text.getChars(offset, offset + n, buffer, off);
+        offset += n;
+        return n;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+  }
+
+  /**
+   * Joins the chunks into one string. This is the only place the whole text is copied.
+   *
+   * @throws IllegalStateException if the text is too long for a single string
+   */
+  @Override
+  public String toString() {
+    if (length > Integer.MAX_VALUE - 8) {
+      throw new IllegalStateException("The text is too large for a single string: " + length + " characters");
+    }
+    StringBuilder joined = new StringBuilder((int) length);
+    for (String chunk : chunks) {
+      joined.append(chunk);
+    }
+    return joined.append(current).toString();
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.List;
+
+/**
+ * The result of a sorted save: the rows written and the row-group overlap of the data
+ * before and after sorting.
+ */
+public class ClusterReport {
+  private final long rowCount;
+  private final List<String> sortColumns;
+  private final OverlapReport before;
+  private final OverlapReport after;
+
+  public ClusterReport(long rowCount, List<String> sortColumns, OverlapReport before, OverlapReport after) {
+    this.rowCount = rowCount;
+    this.sortColumns = List.copyOf(sortColumns);
+    this.before = before;
+    this.after = after;
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  public List<String> getSortColumns() {
+    return sortColumns;
+  }
+
+  public OverlapReport getBefore() {
+    return before;
+  }
+
+  public OverlapReport getAfter() {
+    return after;
+  }
+
+  /**
+   * Formats the before/after comparison for a dialog.
+   *
+   * @param maxColumns the number of columns listed besides the sort columns
+   */
+  public String format(int maxColumns) {
+    return String.format("%,d row(s) sorted by %s.%n%n", rowCount, String.join(", ", sortColumns))
+        + OverlapReport.compare(before, after, sortColumns, maxColumns);
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.List;
+
+/**
+ * New values for one column over a set of rows, computed by a bulk edit and written to the
+ * table model in one step.
+ */
+public class ColumnEdit {
+  private final String operation;
+  private final int columnIndex;
+  private final int[] rowIndices;
+  private final List<?> values;
+  private final int changedCount;
+
+  /**
+   * @param operation the bulk operation, e.g. {@code fill} or {@code replace}
+   * @param columnIndex the edited column
+   * @param rowIndices the edited model rows, or null for every row
+   * @param values the new values, in the order of {@code rowIndices}
+   * @param changedCount how many of the values differ from the current ones
+   */
+  public ColumnEdit(String operation, int columnIndex, int[] rowIndices, List<?> values, int changedCount) {
+    this.operation = operation;
+    this.columnIndex = columnIndex;
+    this.rowIndices = rowIndices;
+    this.values = values;
+    this.changedCount = changedCount;
+  }
+
+  public String getOperation() {
+    return operation;
+  }
+
+  public int getColumnIndex() {
+    return columnIndex;
+  }
+
+  public int[] getRowIndices() {
+    return rowIndices;
+  }
+
+  public List<?> getValues() {
+    return values;
+  }
+
+  public int getChangedCount() {
+    return changedCount;
+  }
+}
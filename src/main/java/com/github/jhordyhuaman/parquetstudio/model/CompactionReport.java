@@ -0,0 +1,162 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a compaction: one {@link Group} per partition directory, in the order they
+ * finished. Statuses are those of a {@link BatchReport}.
+ */
+public class CompactionReport {
+  private final List<Group> groups = new ArrayList<>();
+
+  public synchronized void add(Group group) {
+    groups.add(group);
+  }
+
+  public synchronized List<Group> getGroups() {
+    return Collections.unmodifiableList(new ArrayList<>(groups));
+  }
+
+  /**
+   * Gets the number of partitions that ended with the given status.
+   */
+  public synchronized int count(BatchReport.Status status) {
+    int count = 0;
+    for (Group group : groups) {
+      if (group.getStatus() == status) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Formats a one-line summary followed by the partitions that failed.
+   */
+  public synchronized String format() {
+    int inputFiles = 0;
+    int outputFiles = 0;
+    long inputBytes = 0;
+    long outputBytes = 0;
+    int copiedFiles = 0;
+    for (Group group : groups) {
+      copiedFiles += group.getCopiedFiles();
+      if (group.getStatus() == BatchReport.Status.DONE) {
+        inputFiles += group.getInputFiles();
+        outputFiles += group.getOutputFiles();
+        inputBytes += group.getInputBytes();
+        outputBytes += group.getOutputBytes();
+      }
+    }
+    StringBuilder sb = new StringBuilder(String.format(
+        "%d partition(s) compacted: %,d file(s) (%s) -> %,d file(s) (%s), %d skipped, %d failed, %d cancelled",
+        count(BatchReport.Status.DONE), inputFiles, megabytes(inputBytes), outputFiles, megabytes(outputBytes),
+        count(BatchReport.Status.SKIPPED), count(BatchReport.Status.FAILED), count(BatchReport.Status.CANCELLED)));
+    if (copiedFiles > 0) {
+      sb.append(String.format(", %,d file(s) copied unchanged", copiedFiles));
+    }
+    for (Group group : groups) {
+      if (group.getStatus() == BatchReport.Status.FAILED) {
+        sb.append("\n  ").append(group);
+      }
+    }
+    return sb.toString();
+  }
+
+  private static String megabytes(long bytes) {
+    return String.format("%.1f MB", bytes / (1024.0 * 1024));
+  }
+
+  /**
+   * The result of one partition directory.
+   */
+  public static final class Group {
+    private final File directory;
+    private final BatchReport.Status status;
+    private final int inputFiles;
+    private final long inputBytes;
+    private final int outputFiles;
+    private final long outputBytes;
+    private final int copiedFiles;
+    private final long rows;
+    private final String message;
+
+    /**
+     * @param inputFiles the small files rewritten, or considered if not done
+     * @param outputFiles the files written, 0 unless done
+     * @param copiedFiles the files copied unchanged into an output directory
+     * @param rows the rows written, 0 unless done
+     * @param message why the partition was skipped or failed, null when done
+     */
+    public Group(File directory, BatchReport.Status status, int inputFiles, long inputBytes,
+                 int outputFiles, long outputBytes, int copiedFiles, long rows, String message) {
+      this.directory = directory;
+      this.status = status;
+      this.inputFiles = inputFiles;
+      this.inputBytes = inputBytes;
+      this.outputFiles = outputFiles;
+      this.outputBytes = outputBytes;
+      this.copiedFiles = copiedFiles;
+      this.rows = rows;
+      this.message = message;
+    }
+
+    public File getDirectory() {
+      return directory;
+    }
+
+    public BatchReport.Status getStatus() {
+      return status;
+    }
+
+    public int getInputFiles() {
+      return inputFiles;
+    }
+
+    public long getInputBytes() {
+      return inputBytes;
+    }
+
+    public int getOutputFiles() {
+      return outputFiles;
+    }
+
+    public long getOutputBytes() {
+      return outputBytes;
+    }
+
+    public int getCopiedFiles() {
+      return copiedFiles;
+    }
+
+    public long getRows() {
+      return rows;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+
+    @Override
+    public String toString() {
+      return directory.getPath() + ": " + status.name().toLowerCase()
+          + (message != null ? " - " + message : "");
+    }
+  }
+}
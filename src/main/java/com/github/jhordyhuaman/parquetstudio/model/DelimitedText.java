@@ -0,0 +1,170 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits tab- or comma-separated text, as copied from a spreadsheet, into cells.
+ *
+ * <p>Fields may be quoted with {@code "}, in which case they can contain the delimiter,
+ * line breaks and doubled quotes. The text is scanned once, without regular expressions.
+ * {@link #appendCell} writes cells the same way, so copied blocks paste back unchanged.
+ */
+public final class DelimitedText {
+
+  private DelimitedText() {
+  }
+
+  /**
+   * Splits text using the delimiter detected from its first line: a tab if the line has one,
+   * a comma otherwise.
+   */
+  public static List<String[]> parse(String text) {
+    return parse(text, detectDelimiter(text));
+  }
+
+  /**
+   * Gets the delimiter of the first line: a tab if it has one, a comma otherwise.
+   */
+  public static char detectDelimiter(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\t') return '\t';
+      if (c == '\n' || c == '\r') break;
+    }
+    return ',';
+  }
+
+  /**
+   * Splits text into rows of cells. A final line break does not start an empty row.
+   *
+   * @param delimiter the cell separator, usually a tab or a comma
+   */
+  public static List<String[]> parse(String text, char delimiter) {
+    List<String[]> rows = new ArrayList<>();
+    List<String> cells = new ArrayList<>();
+    StringBuilder quoted = new StringBuilder();
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      // One cell per iteration
+      if (text.charAt(i) == '"') {
+        quoted.setLength(0);
+        i++;
+        while (i < length) {
+          char c = text.charAt(i);
+          if (c == '"') {
+            if (i + 1 < length && text.charAt(i + 1) == '"') {
+              quoted.append('"');
+              i += 2;
+              continue;
+            }
+            i++;
+            break;
+          }
+          quoted.append(c);
+          i++;
+        }
+        // Anything between the closing quote and the delimiter is kept, as spreadsheets do
+        int end = i;
+        while (end < length && !isCellEnd(text.charAt(end), delimiter)) {
+          end++;
+        }
+        quoted.append(text, i, end);
+        cells.add(quoted.toString());
+        i = end;
+      } else {
+        int end = i;
+        while (end < length && !isCellEnd(text.charAt(end), delimiter)) {
+          end++;
+        }
+        cells.add(text.substring(i, end));
+        i = end;
+      }
+
+      if (i >= length) {
+        break;
+      }
+      char separator = text.charAt(i++);
+      if (separator == delimiter) {
+        if (i == length) {
+          cells.add("");
+        }
+        continue;
+      }
+      if (separator == '\r' && i < length && text.charAt(i) == '\n') {
+        i++;
+      }
+      rows.add(cells.toArray(new String[0]));
+      cells.clear();
+    }
+    if (!cells.isEmpty()) {
+      rows.add(cells.toArray(new String[0]));
+    }
+    return rows;
+  }
+
+  /**
+   * Counts the lines of the text, an upper bound of the rows {@link #parse(String)} returns.
+   */
+  public static int countLines(String text) {
+    int lines = 0;
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c == '\n' || (c == '\r' && (i + 1 == length || text.charAt(i + 1) != '\n'))) {
+        lines++;
+      }
+    }
+    if (length > 0) {
+      char last = text.charAt(length - 1);
+      if (last != '\n' && last != '\r') {
+        lines++;
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Appends one cell, quoting it only when it contains the delimiter, a quote or a line
+   * break.
+   */
+  public static void appendCell(StringBuilder out, String cell, char delimiter) {
+    int length = cell.length();
+    boolean quote = false;
+    for (int i = 0; i < length && !quote; i++) {
+      char c = cell.charAt(i);
+      quote = c == delimiter || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      out.append(cell);
+      return;
+    }
+    out.append('"');
+    for (int i = 0; i < length; i++) {
+      char c = cell.charAt(i);
+      if (c == '"') {
+        out.append('"');
+      }
+      out.append(c);
+    }
+    out.append('"');
+  }
+
+  private static boolean isCellEnd(char c, char delimiter) {
+    return c == delimiter || c == '\n' || c == '\r';
+  }
+}
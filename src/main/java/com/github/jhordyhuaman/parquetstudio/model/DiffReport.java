@@ -0,0 +1,179 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts of a row-level comparison of two Parquet files matched on key columns: rows only
+ * on the right (added), only on the left (removed), and present on both sides with at
+ * least one different value (changed), with the number of changed values per column.
+ */
+public class DiffReport {
+  /**
+   * How a differing row differs.
+   */
+  public enum Status {
+    ADDED,
+    REMOVED,
+    CHANGED;
+
+    public String label() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  private final File left;
+  private final File right;
+  private final List<String> keyColumns;
+  private final List<String> comparedColumns;
+  private final List<String> leftOnlyColumns;
+  private final List<String> rightOnlyColumns;
+  private final Map<Status, Long> counts = new EnumMap<>(Status.class);
+  private final Map<String, Long> columnChanges = new LinkedHashMap<>();
+  private long leftRows;
+  private long rightRows;
+
+  /**
+   * @param keyColumns the columns rows are matched on
+   * @param comparedColumns the other columns both files have, compared value by value
+   * @param leftOnlyColumns columns only the left file has, not compared
+   * @param rightOnlyColumns columns only the right file has, not compared
+   */
+  public DiffReport(File left, File right, List<String> keyColumns, List<String> comparedColumns,
+                    List<String> leftOnlyColumns, List<String> rightOnlyColumns) {
+    this.left = left;
+    this.right = right;
+    this.keyColumns = keyColumns;
+    this.comparedColumns = comparedColumns;
+    this.leftOnlyColumns = leftOnlyColumns;
+    this.rightOnlyColumns = rightOnlyColumns;
+    for (Status status : Status.values()) {
+      counts.put(status, 0L);
+    }
+    for (String column : comparedColumns) {
+      columnChanges.put(column, 0L);
+    }
+  }
+
+  public File getLeft() {
+    return left;
+  }
+
+  public File getRight() {
+    return right;
+  }
+
+  public List<String> getKeyColumns() {
+    return keyColumns;
+  }
+
+  public List<String> getComparedColumns() {
+    return comparedColumns;
+  }
+
+  public List<String> getLeftOnlyColumns() {
+    return leftOnlyColumns;
+  }
+
+  public List<String> getRightOnlyColumns() {
+    return rightOnlyColumns;
+  }
+
+  public void setRowCounts(long leftRows, long rightRows) {
+    this.leftRows = leftRows;
+    this.rightRows = rightRows;
+  }
+
+  public long getLeftRows() {
+    return leftRows;
+  }
+
+  public long getRightRows() {
+    return rightRows;
+  }
+
+  public void setCount(Status status, long count) {
+    counts.put(status, count);
+  }
+
+  public long getCount(Status status) {
+    return counts.get(status);
+  }
+
+  /**
+   * Gets the number of rows present on both sides with the same values.
+   */
+  public long getUnchanged() {
+    return leftRows - getCount(Status.REMOVED) - getCount(Status.CHANGED);
+  }
+
+  public boolean hasDifferences() {
+    return getCount(Status.ADDED) + getCount(Status.REMOVED) + getCount(Status.CHANGED) > 0;
+  }
+
+  /**
+   * Records the number of changed rows whose value differs in a compared column.
+   */
+  public void setColumnChanges(String column, long count) {
+    columnChanges.put(column, count);
+  }
+
+  /**
+   * Gets the number of changed values of each compared column, in column order.
+   */
+  public Map<String, Long> getColumnChanges() {
+    return Collections.unmodifiableMap(columnChanges);
+  }
+
+  /**
+   * Formats the counts, the columns with changed values and the columns only one side has.
+   *
+   * @param maxColumns the number of columns with changes listed
+   */
+  public String format(int maxColumns) {
+    StringBuilder sb = new StringBuilder(String.format(
+        "%s -> %s by %s: %,d -> %,d row(s), %,d added, %,d removed, %,d changed, %,d unchanged.",
+        left.getName(), right.getName(), String.join(", ", keyColumns), leftRows, rightRows,
+        getCount(Status.ADDED), getCount(Status.REMOVED), getCount(Status.CHANGED), getUnchanged()));
+    int changedColumns = 0;
+    for (Map.Entry<String, Long> column : columnChanges.entrySet()) {
+      if (column.getValue() == 0) {
+        continue;
+      }
+      if (changedColumns == 0) {
+        sb.append("\nChanged values per column:");
+      }
+      if (changedColumns++ < maxColumns) {
+        sb.append(String.format("\n  %s: %,d", column.getKey(), column.getValue()));
+      }
+    }
+    if (changedColumns > maxColumns) {
+      sb.append("\n  ... and ").append(changedColumns - maxColumns).append(" more");
+    }
+    if (!leftOnlyColumns.isEmpty()) {
+      sb.append("\nOnly in ").append(left.getName()).append(", not compared: ").append(String.join(", ", leftOnlyColumns));
+    }
+    if (!rightOnlyColumns.isEmpty()) {
+      sb.append("\nOnly in ").append(right.getName()).append(", not compared: ").append(String.join(", ", rightOnlyColumns));
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The schemas found across many Parquet files: the files grouped by schema fingerprint, each
+ * group with its changes against a reference schema, and the files whose footer could not
+ * be read.
+ */
+public class DriftReport {
+
+  /**
+   * Files sharing one schema.
+   */
+  public static class Group {
+    private final String fingerprint;
+    private final SchemaStructure schema;
+    private final List<File> files;
+    private final List<SchemaChange> changes;
+
+    /**
+     * @param fingerprint identifies the schema, see {@code SchemaDriftService.fingerprint}
+     * @param changes the differences from the reference schema, empty if there are none
+     */
+    public Group(String fingerprint, SchemaStructure schema, List<File> files, List<SchemaChange> changes) {
+      this.fingerprint = fingerprint;
+      this.schema = schema;
+      this.files = files;
+      this.changes = changes;
+    }
+
+    public String getFingerprint() {
+      return fingerprint;
+    }
+
+    public SchemaStructure getSchema() {
+      return schema;
+    }
+
+    public List<File> getFiles() {
+      return files;
+    }
+
+    public List<SchemaChange> getChanges() {
+      return changes;
+    }
+
+    public boolean isDrifting() {
+      return !changes.isEmpty();
+    }
+
+    /**
+     * Joins the changes into one line.
+     */
+    public String describeChanges() {
+      return changes.stream().map(SchemaChange::toString).collect(Collectors.joining("; "));
+    }
+  }
+
+  private final String referenceName;
+  private final int fileCount;
+  private final List<Group> groups;
+  private final Map<File, String> failures;
+  private final long elapsedMillis;
+
+  /**
+   * @param referenceName describes the reference schema, e.g. the schema file name
+   * @param groups the groups, largest first
+   * @param failures the files that could not be read, with the error
+   */
+  public DriftReport(String referenceName, int fileCount, List<Group> groups, Map<File, String> failures,
+                     long elapsedMillis) {
+    this.referenceName = referenceName;
+    this.fileCount = fileCount;
+    this.groups = groups;
+    this.failures = new LinkedHashMap<>(failures);
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  public String getReferenceName() {
+    return referenceName;
+  }
+
+  public int getFileCount() {
+    return fileCount;
+  }
+
+  public List<Group> getGroups() {
+    return Collections.unmodifiableList(groups);
+  }
+
+  public Map<File, String> getFailures() {
+    return Collections.unmodifiableMap(failures);
+  }
+
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * Gets the files whose schema differs from the reference.
+   */
+  public List<File> getDriftingFiles() {
+    List<File> files = new ArrayList<>();
+    for (Group group : groups) {
+      if (group.isDrifting()) {
+        files.addAll(group.getFiles());
+      }
+    }
+    return files;
+  }
+
+  /**
+   * Formats a summary line, then one line per drifting group and the unreadable files.
+   *
+   * @param maxGroups the number of drifting groups listed
+   */
+  public String format(int maxGroups) {
+    StringBuilder sb = new StringBuilder(String.format(
+        "%,d file(s), %d schema(s), %,d file(s) drift from %s, %,d unreadable (%,d ms).",
+        fileCount, groups.size(), getDriftingFiles().size(), referenceName, failures.size(), elapsedMillis));
+    int listed = 0;
+    int drifting = 0;
+    for (Group group : groups) {
+      if (!group.isDrifting()) {
+        continue;
+      }
+      drifting++;
+      if (listed < maxGroups) {
+        listed++;
+        sb.append(String.format("\n  %s, %,d file(s), e.g. %s: %s", group.getFingerprint(), group.getFiles().size(),
+            group.getFiles().get(0).getName(), group.describeChanges()));
+      }
+    }
+    if (drifting > listed) {
+      sb.append("\n  ... and ").append(drifting - listed).append(" more");
+    }
+    int unreadable = 0;
+    for (Map.Entry<File, String> failure : failures.entrySet()) {
+      if (unreadable++ == maxGroups) {
+        sb.append("\n  ... and ").append(failures.size() - maxGroups).append(" more unreadable");
+        break;
+      }
+      sb.append("\n  unreadable ").append(failure.getKey().getName()).append(": ").append(failure.getValue());
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,822 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Undo and redo history of the edits made to a {@link ParquetTableModel}.
+ *
+ * <p>Entries are kept small: a cell edit holds the replaced and the new value, a column
+ * edit keeps only the rows whose value really changed, run-length encoded, and deleted rows
+ * or columns keep the removed values rather than a copy of the table. Once the entries held
+ * in memory exceed the memory budget, the oldest payloads are written to a temporary file on
+ * a background thread and read back only when they are undone or redone.
+ *
+ * <p>The limits can be set with the {@value #LIMIT_PROPERTY} and {@value #MEMORY_PROPERTY}
+ * system properties.
+ */
+public class EditJournal {
+  private static final Logger LOGGER = Logger.getInstance(EditJournal.class);
+
+  public static final String LIMIT_PROPERTY = "parquetstudio.undo.limit";
+  public static final String MEMORY_PROPERTY = "parquetstudio.undo.memoryMb";
+
+  /** Rows or values looked at to estimate the size of a payload. */
+  private static final int SIZE_SAMPLES = 256;
+  private static final ExecutorService SPILLER = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "Parquet Studio Undo Spill");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final int limit;
+  private final long memoryBudget;
+  private final Executor spillExecutor;
+  private final Deque<Entry> undoStack = new ArrayDeque<>();
+  private final Deque<Entry> redoStack = new ArrayDeque<>();
+  private boolean replaying;
+  private CompoundEntry compound;
+  private int compoundDepth;
+  private File spillDirectory;
+
+  public EditJournal() {
+    this(Math.max(1, Integer.getInteger(LIMIT_PROPERTY, 100)),
+        Math.max(1, Long.getLong(MEMORY_PROPERTY, 64)) * 1024 * 1024, SPILLER);
+  }
+
+  /**
+   * @param limit the number of edits that can be undone
+   * @param memoryBudget the bytes of undo data kept in memory before spilling to disk
+   * @param spillExecutor runs the writes of spilled payloads
+   */
+  public EditJournal(int limit, long memoryBudget, Executor spillExecutor) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("Undo limit must be at least 1: " + limit);
+    }
+    this.limit = limit;
+    this.memoryBudget = memoryBudget;
+    this.spillExecutor = spillExecutor;
+  }
+
+  public boolean canUndo() {
+    return !undoStack.isEmpty();
+  }
+
+  public boolean canRedo() {
+    return !redoStack.isEmpty();
+  }
+
+  /**
+   * Gets the description of the edit {@link #undo(ParquetTableModel)} would revert, or null.
+   */
+  public String getUndoName() {
+    return undoStack.isEmpty() ? null : undoStack.peek().name;
+  }
+
+  /**
+   * Gets the description of the edit {@link #redo(ParquetTableModel)} would apply, or null.
+   */
+  public String getRedoName() {
+    return redoStack.isEmpty() ? null : redoStack.peek().name;
+  }
+
+  /**
+   * Reverts the latest edit.
+   *
+   * @return the description of the reverted edit, or null if there was nothing to undo
+   */
+  public String undo(ParquetTableModel model) {
+    Entry entry = undoStack.poll();
+    if (entry == null) {
+      return null;
+    }
+    replay(() -> entry.undo(model));
+    redoStack.push(entry);
+    return entry.name;
+  }
+
+  /**
+   * Applies again the latest undone edit.
+   *
+   * @return the description of the applied edit, or null if there was nothing to redo
+   */
+  public String redo(ParquetTableModel model) {
+    Entry entry = redoStack.poll();
+    if (entry == null) {
+      return null;
+    }
+    replay(() -> entry.redo(model));
+    undoStack.push(entry);
+    return entry.name;
+  }
+
+  private void replay(Runnable action) {
+    replaying = true;
+    try {
+      action.run();
+    } finally {
+      replaying = false;
+    }
+  }
+
+  /**
+   * Forgets every edit and deletes the spilled payloads.
+   */
+  public void clear() {
+    undoStack.forEach(Entry::discard);
+    redoStack.forEach(Entry::discard);
+    undoStack.clear();
+    redoStack.clear();
+    compound = null;
+    compoundDepth = 0;
+    if (spillDirectory != null) {
+      File directory = spillDirectory;
+      spillDirectory = null;
+      spillExecutor.execute(() -> deleteDirectory(directory));
+    }
+  }
+
+  /**
+   * Gets the number of edits that can be undone.
+   */
+  public int getUndoCount() {
+    return undoStack.size();
+  }
+
+  /**
+   * Gets the estimated bytes of undo data held in memory.
+   */
+  public long getMemoryBytes() {
+    long bytes = 0;
+    for (Entry entry : undoStack) bytes += entry.memoryBytes();
+    for (Entry entry : redoStack) bytes += entry.memoryBytes();
+    return bytes;
+  }
+
+  /**
+   * Gets the number of edits whose data has been written to disk.
+   */
+  public int getSpilledCount() {
+    int spilled = 0;
+    for (Entry entry : undoStack) if (entry.isSpilled()) spilled++;
+    for (Entry entry : redoStack) if (entry.isSpilled()) spilled++;
+    return spilled;
+  }
+
+  /**
+   * Starts grouping the following edits into one entry, undone and redone as a whole, e.g.
+   * the rows appended and the columns written by a paste. Groups may nest; only the
+   * outermost one creates an entry.
+   *
+   * @param name the description of the grouped edit
+   */
+  public void beginCompound(String name) {
+    if (compoundDepth++ == 0) {
+      compound = new CompoundEntry(name);
+    }
+  }
+
+  /**
+   * Ends the group started by {@link #beginCompound(String)}.
+   */
+  public void endCompound() {
+    if (compoundDepth == 0) {
+      throw new IllegalStateException("No edit group is open");
+    }
+    if (--compoundDepth == 0) {
+      CompoundEntry finished = compound;
+      compound = null;
+      if (!finished.entries.isEmpty()) {
+        push(finished);
+      }
+    }
+  }
+
+  boolean isRecording() {
+    return !replaying;
+  }
+
+  void recordCell(int rowIndex, int columnIndex, Object before, Object after) {
+    if (!Objects.equals(before, after)) {
+      push(new CellEntry(rowIndex, columnIndex, before, after));
+    }
+  }
+
+  void recordColumnValues(String columnName, int columnIndex, int[] rowIndices, List<?> before, List<?> after) {
+    int count = before.size();
+    int[] positions = new int[count];
+    int changedCount = 0;
+    for (int i = 0; i < count; i++) {
+      if (!Objects.equals(before.get(i), after.get(i))) {
+        positions[changedCount++] = i;
+      }
+    }
+    if (changedCount == 0) {
+      return;
+    }
+
+    int[] changedRows = new int[changedCount];
+    List<Object> oldValues = new ArrayList<>(changedCount);
+    List<Object> newValues = new ArrayList<>(changedCount);
+    for (int c = 0; c < changedCount; c++) {
+      int i = positions[c];
+      changedRows[c] = rowIndices != null ? rowIndices[i] : i;
+      oldValues.add(before.get(i));
+      newValues.add(after.get(i));
+    }
+    // Every row of the column changed: the row list is implied
+    int[] rows = rowIndices == null && changedCount == count ? null : changedRows;
+    ColumnChange change = new ColumnChange(columnIndex, rows, ColumnValues.of(oldValues), ColumnValues.of(newValues));
+    push(new ColumnValuesEntry("edit " + changedCount + " value(s) of '" + columnName + "'", change));
+  }
+
+  void recordRowsAdded(int count) {
+    push(new RowsAddedEntry(count));
+  }
+
+  void recordRowsDeleted(int[] rowIndices, List<List<Object>> deletedRows) {
+    push(new RowsDeletedEntry(new DeletedRows(rowIndices, copyRows(deletedRows))));
+  }
+
+  /**
+   * Copies row lists, so undo data never shares a list with the model: the model changes its
+   * rows in place while a spill may still be serializing them.
+   */
+  private static ArrayList<List<Object>> copyRows(List<List<Object>> rows) {
+    ArrayList<List<Object>> copies = new ArrayList<>(rows.size());
+    for (List<Object> row : rows) {
+      copies.add(new ArrayList<>(row));
+    }
+    return copies;
+  }
+
+  void recordColumnAdded(String columnName, String columnType) {
+    push(new ColumnAddedEntry(columnName, columnType));
+  }
+
+  void recordColumnDeleted(int columnIndex, String columnName, String columnType, List<Object> values) {
+    push(new ColumnDeletedEntry(columnIndex, columnName, columnType, ColumnValues.of(values)));
+  }
+
+  private void push(Entry entry) {
+    if (compound != null) {
+      compound.entries.add(entry);
+      return;
+    }
+    redoStack.forEach(Entry::discard);
+    redoStack.clear();
+    undoStack.push(entry);
+    while (undoStack.size() > limit) {
+      undoStack.removeLast().discard();
+    }
+    spillIfOverBudget();
+  }
+
+  /** Spills the oldest payloads until the ones left in memory fit the budget. */
+  private void spillIfOverBudget() {
+    long bytes = getMemoryBytes();
+    Iterator<Entry> oldestFirst = undoStack.descendingIterator();
+    while (bytes > memoryBudget && oldestFirst.hasNext()) {
+      for (Payload<?> payload : oldestFirst.next().payloads()) {
+        if (bytes <= memoryBudget) {
+          break;
+        }
+        if (payload.canSpill()) {
+          bytes -= payload.bytes;
+          File directory = spillDirectory();
+          if (directory == null) {
+            return;
+          }
+          payload.spilling = true;
+          spillExecutor.execute(() -> payload.spill(directory));
+        }
+      }
+    }
+  }
+
+  private File spillDirectory() {
+    if (spillDirectory == null) {
+      try {
+        spillDirectory = Files.createTempDirectory("parquet-studio-undo").toFile();
+        spillDirectory.deleteOnExit();
+      } catch (IOException e) {
+        LOGGER.warn("Cannot create the undo spill directory, keeping undo data in memory", e);
+      }
+    }
+    return spillDirectory;
+  }
+
+  private static void deleteDirectory(File directory) {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  /**
+   * Estimates the heap held by a value that is referenced only by the journal.
+   */
+  static long estimateValueBytes(Object value) {
+    if (value == null || value instanceof Boolean) return 0;
+    if (value instanceof String) return 40 + ((String) value).length();
+    if (value instanceof Integer) return 16;
+    if (value instanceof Long || value instanceof Double) return 24;
+    if (value instanceof LocalDate) return 24;
+    if (value instanceof LocalDateTime) return 72;
+    return 32;
+  }
+
+  private abstract static class Entry {
+    final String name;
+
+    Entry(String name) {
+      this.name = name;
+    }
+
+    abstract void undo(ParquetTableModel model);
+
+    abstract void redo(ParquetTableModel model);
+
+    /** Gets the data that can be written to disk; empty for entries that are always small. */
+    List<Payload<?>> payloads() {
+      return Collections.emptyList();
+    }
+
+    long memoryBytes() {
+      long bytes = 64;
+      for (Payload<?> payload : payloads()) {
+        if (payload.isInMemory()) {
+          bytes += payload.bytes;
+        }
+      }
+      return bytes;
+    }
+
+    boolean isSpilled() {
+      for (Payload<?> payload : payloads()) {
+        if (payload.isSpilled()) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    void discard() {
+      payloads().forEach(Payload::discard);
+    }
+  }
+
+  /** Edits grouped by {@link #beginCompound(String)}, undone in reverse order. */
+  private static final class CompoundEntry extends Entry {
+    private final List<Entry> entries = new ArrayList<>();
+
+    CompoundEntry(String name) {
+      super(name);
+    }
+
+    @Override
+    void undo(ParquetTableModel model) {
+      for (int i = entries.size() - 1; i >= 0; i--) {
+        entries.get(i).undo(model);
+      }
+    }
+
+    @Override
+    void redo(ParquetTableModel model) {
+      for (Entry entry : entries) {
+        entry.redo(model);
+      }
+    }
+
+    @Override
+    List<Payload<?>> payloads() {
+      List<Payload<?>> payloads = new ArrayList<>();
+      for (Entry entry : entries) {
+        payloads.addAll(entry.payloads());
+      }
+      return payloads;
+    }
+
+    @Override
+    long memoryBytes() {
+      long bytes = 64;
+      for (Entry entry : entries) {
+        bytes += entry.memoryBytes();
+      }
+      return bytes;
+    }
+  }
+
+  private static final class CellEntry extends Entry {
+    private final int rowIndex;
+    private final int columnIndex;
+    private final Object before;
+    private final Object after;
+
+    CellEntry(int rowIndex, int columnIndex, Object before, Object after) {
+      super("edit cell");
+      this.rowIndex = rowIndex;
+      this.columnIndex = columnIndex;
+      this.before = before;
+      this.after = after;
+    }
+
+    @Override
+    void undo(ParquetTableModel model) {
+      model.setColumnValues(columnIndex, new int[] {rowIndex}, Collections.singletonList(before));
+    }
+
+    @Override
+    void redo(ParquetTableModel model) {
+      model.setColumnValues(columnIndex, new int[] {rowIndex}, Collections.singletonList(after));
+    }
+
+    @Override
+    long memoryBytes() {
+      return 48 + estimateValueBytes(before);
+    }
+  }
+
+  private static final class ColumnValuesEntry extends Entry {
+    private final Payload<ColumnChange> change;
+
+    ColumnValuesEntry(String name, ColumnChange change) {
+      super(name);
+      this.change = new Payload<>(change, change.estimateBytes());
+    }
+
+    @Override
+    void undo(ParquetTableModel model) {
+      ColumnChange c = change.get();
+      model.setColumnValues(c.columnIndex, c.rowIndices, c.before.toList());
+    }
+
+    @Override
+    void redo(ParquetTableModel model) {
+      ColumnChange c = change.get();
+      model.setColumnValues(c.columnIndex, c.rowIndices, c.after.toList());
+    }
+
+    @Override
+    List<Payload<?>> payloads() {
+      return Collections.singletonList(change);
+    }
+  }
+
+  private static final class RowsAddedEntry extends Entry {
+    private final int count;
+
+    RowsAddedEntry(int count) {
+      super(count == 1 ? "add row" : "add " + count + " rows");
+      this.count = count;
+    }
+
+    @Override
+    void undo(ParquetTableModel model) {
+      int rowCount = model.getRowCount();
+      int[] added = new int[count];
+      for (int i = 0; i < count; i++) {
+        added[i] = rowCount - count + i;
+      }
+      model.deleteRows(added);
+    }
+
+    @Override
+    void redo(ParquetTableModel model) {
+      model.addRows(count);
+    }
+  }
+
+  private static final class RowsDeletedEntry extends Entry {
+    private final Payload<DeletedRows> rows;
+
+    RowsDeletedEntry(DeletedRows rows) {
+      super("delete " + rows.rowIndices.length + " row(s)");
+      this.rows = new Payload<>(rows, rows.estimateBytes());
+    }
+
+    @Override
+    void undo(ParquetTableModel model) {
+      DeletedRows r = rows.get();
+      model.restoreRows(r.rowIndices, copyRows(r.rows));
+    }
+
+    @Override
+    void redo(ParquetTableModel model) {
+      model.deleteRows(rows.get().rowIndices);
+    }
+
+    @Override
+    List<Payload<?>> payloads() {
+      return Collections.singletonList(rows);
+    }
+  }
+
+  private static final class ColumnAddedEntry extends Entry {
+    private final String columnName;
+    private final String columnType;
+
+    ColumnAddedEntry(String columnName, String columnType) {
+      super("add column '" + columnName + "'");
+      this.columnName = columnName;
+      this.columnType = columnType;
+    }
+
+    @Override
+    void undo(ParquetTableModel model) {
+      model.deleteColumn(model.getColumnCount() - 1);
+    }
+
+    @Override
+    void redo(ParquetTableModel model) {
+      model.addColumn(columnName, columnType);
+    }
+  }
+
+  private static final class ColumnDeletedEntry extends Entry {
+    private final int columnIndex;
+    private final String columnName;
+    private final String columnType;
+    private final Payload<ColumnValues> values;
+
+    ColumnDeletedEntry(int columnIndex, String columnName, String columnType, ColumnValues values) {
+      super("delete column '" + columnName + "'");
+      this.columnIndex = columnIndex;
+      this.columnName = columnName;
+      this.columnType = columnType;
+      this.values = new Payload<>(values, values.estimateBytes());
+    }
+
+    @Override
+    void undo(ParquetTableModel model) {
+      model.insertColumn(columnIndex, columnName, columnType, values.get().toList());
+    }
+
+    @Override
+    void redo(ParquetTableModel model) {
+      model.deleteColumn(columnIndex);
+    }
+
+    @Override
+    List<Payload<?>> payloads() {
+      return Collections.singletonList(values);
+    }
+  }
+
+  /**
+   * Undo data that is either held in memory or written, compressed, to a temporary file.
+   * Spilled data is read back on every use and never cached again.
+   */
+  private static final class Payload<T extends Serializable> {
+    private final long bytes;
+    private T value;
+    private File file;
+    private boolean discarded;
+    /** Set on the EDT once a spill is scheduled, so the payload is not counted twice. */
+    volatile boolean spilling;
+    /** Set once a spill failed, e.g. on a value that is not serializable, so it is not retried. */
+    private boolean unspillable;
+
+    Payload(T value, long bytes) {
+      this.value = value;
+      this.bytes = bytes;
+    }
+
+    synchronized boolean isInMemory() {
+      return value != null && !spilling;
+    }
+
+    synchronized boolean canSpill() {
+      return value != null && !spilling && !unspillable;
+    }
+
+    synchronized boolean isSpilled() {
+      return file != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized T get() {
+      if (value != null) {
+        return value;
+      }
+      if (file == null) {
+        throw new IllegalStateException("Undo data is no longer available");
+      }
+      try (ObjectInputStream in = new ObjectInputStream(
+          new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))))) {
+        return (T) in.readObject();
+      } catch (IOException | ClassNotFoundException e) {
+        throw new IllegalStateException("Cannot read undo data from " + file + ": " + e.getMessage(), e);
+      }
+    }
+
+    void spill(File directory) {
+      T snapshot;
+      synchronized (this) {
+        snapshot = value;
+        if (snapshot == null || discarded) {
+          return;
+        }
+      }
+      File target = null;
+      try {
+        target = File.createTempFile("undo-", ".bin", directory);
+        target.deleteOnExit();
+        try (ObjectOutputStream out = new ObjectOutputStream(
+            new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(target))))) {
+          out.writeObject(snapshot);
+        }
+      } catch (IOException | RuntimeException e) {
+        LOGGER.warn("Cannot spill undo data, keeping it in memory: " + e.getMessage());
+        if (target != null) {
+          target.delete();
+        }
+        synchronized (this) {
+          unspillable = true;
+          spilling = false;
+        }
+        return;
+      }
+      synchronized (this) {
+        if (discarded) {
+          target.delete();
+          return;
+        }
+        file = target;
+        value = null;
+      }
+    }
+
+    synchronized void discard() {
+      discarded = true;
+      unspillable = false;
+      value = null;
+      if (file != null) {
+        file.delete();
+        file = null;
+      }
+    }
+  }
+
+  /**
+   * Values of one column, run-length encoded when that makes them smaller, e.g. the old
+   * values of a column that was mostly empty or the new values of a fill.
+   */
+  static final class ColumnValues implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int size;
+    private final Object[] values;
+    /** Exclusive end of each run of {@code values}, or null when every value is stored. */
+    private final int[] runEnds;
+
+    private ColumnValues(int size, Object[] values, int[] runEnds) {
+      this.size = size;
+      this.values = values;
+      this.runEnds = runEnds;
+    }
+
+    static ColumnValues of(List<?> list) {
+      int size = list.size();
+      int runs = 0;
+      for (int i = 0; i < size; i++) {
+        if (i == 0 || !Objects.equals(list.get(i), list.get(i - 1))) {
+          runs++;
+        }
+      }
+      if (runs > size / 2) {
+        return new ColumnValues(size, list.toArray(), null);
+      }
+      Object[] values = new Object[runs];
+      int[] runEnds = new int[runs];
+      int run = -1;
+      for (int i = 0; i < size; i++) {
+        if (i == 0 || !Objects.equals(list.get(i), list.get(i - 1))) {
+          values[++run] = list.get(i);
+        }
+        runEnds[run] = i + 1;
+      }
+      return new ColumnValues(size, values, runEnds);
+    }
+
+    List<Object> toList() {
+      if (runEnds == null) {
+        return Arrays.asList(values);
+      }
+      List<Object> list = new ArrayList<>(size);
+      int start = 0;
+      for (int run = 0; run < values.length; run++) {
+        for (int i = start; i < runEnds[run]; i++) {
+          list.add(values[run]);
+        }
+        start = runEnds[run];
+      }
+      return list;
+    }
+
+    int getRunCount() {
+      return runEnds != null ? runEnds.length : size;
+    }
+
+    long estimateBytes() {
+      long perValue = 8 + (runEnds != null ? 4 : 0);
+      long sampled = 0;
+      int step = Math.max(1, values.length / SIZE_SAMPLES);
+      int samples = 0;
+      for (int i = 0; i < values.length; i += step) {
+        sampled += estimateValueBytes(values[i]);
+        samples++;
+      }
+      long average = samples == 0 ? 0 : sampled / samples;
+      return 32 + values.length * (perValue + average);
+    }
+  }
+
+  private static final class ColumnChange implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final int columnIndex;
+    final int[] rowIndices;
+    final ColumnValues before;
+    final ColumnValues after;
+
+    ColumnChange(int columnIndex, int[] rowIndices, ColumnValues before, ColumnValues after) {
+      this.columnIndex = columnIndex;
+      this.rowIndices = rowIndices;
+      this.before = before;
+      this.after = after;
+    }
+
+    long estimateBytes() {
+      return (rowIndices != null ? 4L * rowIndices.length : 0) + before.estimateBytes() + after.estimateBytes();
+    }
+  }
+
+  private static final class DeletedRows implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final int[] rowIndices;
+    final ArrayList<List<Object>> rows;
+
+    DeletedRows(int[] rowIndices, ArrayList<List<Object>> rows) {
+      this.rowIndices = rowIndices;
+      this.rows = rows;
+    }
+
+    long estimateBytes() {
+      long sampled = 0;
+      int step = Math.max(1, rows.size() / SIZE_SAMPLES);
+      int samples = 0;
+      for (int i = 0; i < rows.size(); i += step) {
+        List<Object> row = rows.get(i);
+        sampled += 40 + 8L * row.size();
+        for (Object value : row) {
+          sampled += estimateValueBytes(value);
+        }
+        samples++;
+      }
+      long average = samples == 0 ? 0 : sampled / samples;
+      return 4L * rowIndices.length + rows.size() * (8 + average);
+    }
+  }
+}
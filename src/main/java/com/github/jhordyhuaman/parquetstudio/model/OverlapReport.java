@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How well the row groups of a Parquet file can be skipped by min/max statistics: for each
+ * column, the share of row-group pairs whose {@code [min, max]} ranges overlap. 0% means a
+ * lookup of one value reads at most one row group; 100% means the statistics never help.
+ */
+public class OverlapReport {
+  private final int rowGroupCount;
+  private final Map<String, Double> overlaps = new LinkedHashMap<>();
+
+  /**
+   * @param rowGroupCount the number of row groups, or of row chunks for data not yet written
+   */
+  public OverlapReport(int rowGroupCount) {
+    this.rowGroupCount = rowGroupCount;
+  }
+
+  /**
+   * Records the overlap of one column.
+   *
+   * @param overlap the share of row-group pairs that overlap, from 0 to 1
+   */
+  public void add(String column, double overlap) {
+    overlaps.put(column, overlap);
+  }
+
+  public int getRowGroupCount() {
+    return rowGroupCount;
+  }
+
+  /**
+   * Gets the overlap of each column, in column order.
+   */
+  public Map<String, Double> getOverlaps() {
+    return Collections.unmodifiableMap(overlaps);
+  }
+
+  /**
+   * Gets the overlap of a column, or NaN if it has no statistics.
+   */
+  public double getOverlap(String column) {
+    return overlaps.getOrDefault(column, Double.NaN);
+  }
+
+  /**
+   * Formats a before/after comparison, the sort columns first.
+   *
+   * @param maxColumns the number of other columns listed
+   */
+  public static String compare(OverlapReport before, OverlapReport after, List<String> sortColumns, int maxColumns) {
+    StringBuilder sb = new StringBuilder(String.format(
+        "Row groups whose min/max ranges overlap (lower is better), %d -> %d row group(s):",
+        before.getRowGroupCount(), after.getRowGroupCount()));
+    for (String column : sortColumns) {
+      sb.append("\n  ").append(line(column, before, after));
+    }
+    int listed = 0;
+    for (String column : after.getOverlaps().keySet()) {
+      if (sortColumns.contains(column)) {
+        continue;
+      }
+      if (listed++ == maxColumns) {
+        sb.append("\n  ... and ").append(after.getOverlaps().size() - sortColumns.size() - maxColumns)
+            .append(" more column(s)");
+        break;
+      }
+      sb.append("\n  ").append(line(column, before, after));
+    }
+    return sb.toString();
+  }
+
+  private static String line(String column, OverlapReport before, OverlapReport after) {
+    return column + ": " + percent(before.getOverlap(column)) + " -> " + percent(after.getOverlap(column));
+  }
+
+  private static String percent(double overlap) {
+    return Double.isNaN(overlap) ? "n/a" : String.format("%.1f%%", overlap * 100);
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.List;
+
+/**
+ * First rows of a Parquet file plus the row counts read from its footer.
+ */
+public class ParquetPreview extends ParquetData {
+  private final long totalRowCount;
+  private final long rowGroupCount;
+
+  public ParquetPreview(
+      List<String> columnNames,
+      List<String> columnTypes,
+      List<List<Object>> rows,
+      long totalRowCount,
+      long rowGroupCount) {
+    super(columnNames, columnTypes, rows);
+    this.totalRowCount = totalRowCount;
+    this.rowGroupCount = rowGroupCount;
+  }
+
+  /**
+   * Gets the number of rows in the whole file, as recorded in the footer.
+   */
+  public long getTotalRowCount() {
+    return totalRowCount;
+  }
+
+  public long getRowGroupCount() {
+    return rowGroupCount;
+  }
+
+  /**
+   * Checks if the preview holds every row of the file.
+   */
+  public boolean isComplete() {
+    return getRows().size() >= totalRowCount;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.List;
+import javax.swing.RowFilter;
+import javax.swing.table.TableModel;
+
+/**
+ * Row filter behind the editor search: keeps the rows where any cell contains the search
+ * text, ignoring case.
+ */
+public class ParquetSearchFilter extends RowFilter<TableModel, Integer> {
+  private final String searchText;
+
+  public ParquetSearchFilter(String text) {
+    this.searchText = text.toLowerCase();
+  }
+
+  /**
+   * Creates the filter for a search text.
+   *
+   * @param text the text typed in the search field
+   * @return the filter, or null to show every row when the text is blank
+   */
+  public static ParquetSearchFilter forText(String text) {
+    if (text == null || text.trim().isEmpty()) {
+      return null;
+    }
+    return new ParquetSearchFilter(text);
+  }
+
+  /**
+   * Gets the search text, lower-cased.
+   */
+  public String getSearchText() {
+    return searchText;
+  }
+
+  @Override
+  public boolean include(Entry<? extends TableModel, ? extends Integer> entry) {
+    for (int i = 0; i < entry.getValueCount(); i++) {
+      if (contains(entry.getValue(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks a row outside of a table sorter, e.g. to delete every row the search finds.
+   *
+   * @param values the cell values of the row
+   * @return true if any value contains the search text
+   */
+  public boolean matches(List<?> values) {
+    for (Object value : values) {
+      if (contains(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean contains(Object value) {
+    return value != null && value.toString().toLowerCase().contains(searchText);
+  }
+}
@@ -13,26 +13,44 @@
  */
 package com.github.jhordyhuaman.parquetstudio.model;
 
+import com.github.jhordyhuaman.parquetstudio.diagnostics.ModelMutationEvent;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.ui.Messages;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
+import java.util.function.Predicate;
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.AbstractTableModel;
 
 /**
  * Table model for Parquet data with type validation.
+ *
+ * <p>Deleted rows are not removed from the backing list right away: they are marked in a
+ * tombstone bitmap and skipped through an index of the live rows, so deleting many rows
+ * costs one pass and fires one table event. The backing list is compacted once more than
+ * half of it is deleted; {@link #toParquetData()} leaves deleted rows out without compacting.
+ *
+ * <p>When an {@link EditJournal} is attached, every edit is recorded so it can be undone.
  */
 public class ParquetTableModel extends AbstractTableModel {
   private static final Logger LOGGER = Logger.getInstance(ParquetTableModel.class);
 
   private final List<String> columnNames;
   private final List<String> columnTypes;
-  private final List<List<Object>> rows;
+  private List<List<Object>> rows;
+  /** Backing-list indices of the deleted rows not compacted yet. */
+  private final BitSet tombstones = new BitSet();
+  /** Backing-list index of each visible row, or null while there are no tombstones. */
+  private int[] liveRows;
+  private int liveCount;
+  private boolean readOnly;
+  private boolean modified;
+  private EditJournal journal;
 
   public ParquetTableModel(List<String> columnNames, List<String> columnTypes, List<List<Object>> rows) {
     this.columnNames = new ArrayList<>(columnNames);
@@ -45,7 +63,11 @@ public class ParquetTableModel extends AbstractTableModel {
 
   @Override
   public int getRowCount() {
-    return rows.size();
+    return liveRows == null ? rows.size() : liveCount;
+  }
+
+  private int storageIndex(int rowIndex) {
+    return liveRows == null ? rowIndex : liveRows[rowIndex];
   }
 
   @Override
@@ -62,6 +84,20 @@ public class ParquetTableModel extends AbstractTableModel {
     return "";
   }
 
+  /**
+   * Gets the plain column names, without the type shown in the header.
+   */
+  public List<String> getColumnNames() {
+    return Collections.unmodifiableList(columnNames);
+  }
+
+  /**
+   * Gets the normalized column types, e.g. {@code INTEGER} or {@code VARCHAR}.
+   */
+  public List<String> getColumnTypes() {
+    return Collections.unmodifiableList(columnTypes);
+  }
+
   @Override
   public Class<?> getColumnClass(int columnIndex) {
     if (columnIndex >= 0 && columnIndex < columnTypes.size()) {
@@ -78,8 +114,8 @@ public class ParquetTableModel extends AbstractTableModel {
 
   @Override
   public Object getValueAt(int rowIndex, int columnIndex) {
-    if (rowIndex >= 0 && rowIndex < rows.size() && columnIndex >= 0 && columnIndex < columnNames.size()) {
-      List<Object> row = rows.get(rowIndex);
+    if (rowIndex >= 0 && rowIndex < getRowCount() && columnIndex >= 0 && columnIndex < columnNames.size()) {
+      List<Object> row = rows.get(storageIndex(rowIndex));
       if (columnIndex < row.size()) {
         return row.get(columnIndex);
       }
@@ -89,28 +125,73 @@ public class ParquetTableModel extends AbstractTableModel {
 
   @Override
   public boolean isCellEditable(int rowIndex, int columnIndex) {
-    return true;
+    return !readOnly;
+  }
+
+  /**
+   * Makes every cell read-only, e.g. while the table only shows a preview of the file.
+   */
+  public void setReadOnly(boolean readOnly) {
+    this.readOnly = readOnly;
+  }
+
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  /**
+   * Checks if the data may differ from the file it was loaded from. Set by the first change
+   * and kept even if the change is undone.
+   */
+  public boolean isModified() {
+    return modified;
+  }
+
+  @Override
+  public void fireTableChanged(TableModelEvent e) {
+    // Every change to the data or the columns goes through here
+    modified = true;
+    super.fireTableChanged(e);
+  }
+
+  /**
+   * Attaches the journal that records the edits for undo, or detaches it with null.
+   */
+  public void setJournal(EditJournal journal) {
+    this.journal = journal;
+  }
+
+  public EditJournal getJournal() {
+    return journal;
+  }
+
+  private boolean recording() {
+    return journal != null && journal.isRecording();
   }
 
   @Override
   public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
-    if (rowIndex < 0 || rowIndex >= rows.size() || columnIndex < 0 || columnIndex >= columnNames.size()) {
+    if (rowIndex < 0 || rowIndex >= getRowCount() || columnIndex < 0 || columnIndex >= columnNames.size()) {
       return;
     }
 
     String stringValue = aValue != null ? aValue.toString() : null;
     String columnType = columnTypes.get(columnIndex);
 
-    try {
+    try (ModelMutationEvent event = new ModelMutationEvent("set_value")) {
       Object convertedValue = convertValue(stringValue, columnType);
-      List<Object> row = rows.get(rowIndex);
+      List<Object> row = rows.get(storageIndex(rowIndex));
       
       while (row.size() <= columnIndex) {
         row.add(null);
       }
       
-      row.set(columnIndex, convertedValue);
+      Object previous = row.set(columnIndex, convertedValue);
+      if (recording()) {
+        journal.recordCell(rowIndex, columnIndex, previous, convertedValue);
+      }
       fireTableCellUpdated(rowIndex, columnIndex);
+      event.result(1, getRowCount(), columnNames.size()).completed();
     } catch (Exception e) {
       LOGGER.error("Error setting value: " + e.getMessage(), e);
       Messages.showErrorDialog(
@@ -119,180 +200,287 @@ public class ParquetTableModel extends AbstractTableModel {
     }
   }
 
-  private Object convertValue(String stringValue, String columnType) {
-    if (stringValue == null || stringValue.trim().isEmpty()) {
-      return null;
-    }
-
-    String trimmed = stringValue.trim();
-
-    try {
-      if (columnType.contains("BOOLEAN")) {
-        return parseBoolean(trimmed);
-      } else if (columnType.contains("INTEGER")) {
-        return Integer.parseInt(trimmed);
-      } else if (columnType.contains("BIGINT")) {
-        return Long.parseLong(trimmed);
-      } else if (columnType.contains("DOUBLE")) {
-        return Double.parseDouble(trimmed);
-      } else if (columnType.contains("DATE")) {
-        return parseDate(trimmed);
-      } else if (columnType.contains("TIMESTAMP")) {
-        return parseTimestamp(trimmed);
-      } else {
-        return trimmed;
-      }
-    } catch (NumberFormatException | DateTimeParseException e) {
-      throw new IllegalArgumentException("Cannot convert '" + trimmed + "' to " + columnType);
-    }
+  /**
+   * Converts text to the Java value stored for a column, without showing any dialog.
+   *
+   * @param columnIndex the target column
+   * @param text the text to convert; blank text becomes null
+   * @return the converted value
+   * @throws IllegalArgumentException if the text does not fit the column type
+   */
+  public Object parseValue(int columnIndex, String text) {
+    return convertValue(text, columnTypes.get(columnIndex));
   }
 
   /**
-   * Parses a date string, accepting ISO format (YYYY-MM-DD).
+   * Gets the values of one column.
+   *
+   * @param columnIndex the column to read
+   * @param rowIndices the rows to read, or null for every row
+   * @return the values, in the order of {@code rowIndices}
    */
-  private LocalDate parseDate(String dateString) {
-    try {
-      return LocalDate.parse(dateString);
-    } catch (DateTimeParseException e) {
-      throw new IllegalArgumentException("Invalid date format. Expected: YYYY-MM-DD (e.g., 2024-11-12)");
+  public List<Object> getColumnValues(int columnIndex, int[] rowIndices) {
+    int count = rowIndices != null ? rowIndices.length : getRowCount();
+    List<Object> values = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      List<Object> row = rows.get(storageIndex(rowIndices != null ? rowIndices[i] : i));
+      values.add(columnIndex < row.size() ? row.get(columnIndex) : null);
     }
+    return values;
   }
 
   /**
-   * Parses a timestamp string, accepting multiple formats:
-   * - ISO format: 2024-11-12T10:30:00
-   * - Space format: 2022-07-11 15:53:24
-   * - With milliseconds: 2022-07-11 15:53:24.671 or 2022-07-11T15:53:24.671
-   * - With microseconds: 2022-07-11 15:53:24.671234
-   * - With nanoseconds: 2022-07-11 15:53:24.671234567
+   * Replaces the values of one column in many rows with a single table event. The values
+   * must already have the column's Java type, e.g. from {@link #parseValue(int, String)}.
+   *
+   * @param columnIndex the column to write
+   * @param rowIndices the rows to write, or null for every row
+   * @param values the new values, in the order of {@code rowIndices}
+   * @return the previous values, in the same order
    */
-  private LocalDateTime parseTimestamp(String timestampString) {
-    String normalized = timestampString.trim();
-    
-    // Normalize: replace space with T for ISO format compatibility
-    // But keep track of original separator for fractional seconds handling
-    boolean hasSpace = normalized.contains(" ");
-    boolean hasT = normalized.contains("T");
-    String separator = hasT ? "T" : " ";
-    
-    // Handle fractional seconds (milliseconds, microseconds, nanoseconds)
-    if (normalized.contains(".")) {
-      String[] parts = normalized.split("[T ]", 2);
-      if (parts.length == 2) {
-        String datePart = parts[0];
-        String timePart = parts[1];
-        
-        // Extract fractional seconds if present
-        String[] timeParts = timePart.split("\\.");
-        if (timeParts.length == 2) {
-          String timeWithoutFraction = timeParts[0];
-          String fraction = timeParts[1];
-          
-          // Normalize fractional seconds: pad to 9 digits (nanoseconds) or truncate
-          // This allows flexible input: 1-9 digits
-          while (fraction.length() < 9) {
-            fraction += "0";
-          }
-          if (fraction.length() > 9) {
-            fraction = fraction.substring(0, 9);
-          }
-          
-          // Reconstruct with T separator (ISO format)
-          normalized = datePart + "T" + timeWithoutFraction + "." + fraction;
-          
-          // Try parsing with nanoseconds
-          try {
-            return LocalDateTime.parse(normalized, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS"));
-          } catch (DateTimeParseException e) {
-            // Fall through to other formatters
-          }
-        }
-      }
+  public List<Object> setColumnValues(int columnIndex, int[] rowIndices, List<?> values) {
+    if (columnIndex < 0 || columnIndex >= columnNames.size()) {
+      throw new IllegalArgumentException("Invalid column index: " + columnIndex);
     }
-    
-    // List of common timestamp formats to try (most specific first)
-    DateTimeFormatter[] formatters = {
-        // Format with milliseconds and space (most common from files like: 2022-07-11 15:53:24.671)
-        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS"),
-        // Format with milliseconds and T
-        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS"),
-        // ISO format with T (standard: 2024-11-12T10:30:00)
-        DateTimeFormatter.ISO_LOCAL_DATE_TIME,
-        // Format with space instead of T (2024-11-12 10:30:00)
-        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
-        // Format with microseconds and space
-        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS"),
-        // Format with microseconds and T
-        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS"),
-        // Format with nanoseconds and space
-        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSSSS"),
-        // Format with nanoseconds and T
-        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS")
-    };
-
-    // Try each formatter until one works
-    for (DateTimeFormatter formatter : formatters) {
-      try {
-        return LocalDateTime.parse(normalized, formatter);
-      } catch (DateTimeParseException e) {
-        // Continue to next formatter
-      }
+    int count = rowIndices != null ? rowIndices.length : getRowCount();
+    if (values.size() != count) {
+      throw new IllegalArgumentException("Expected " + count + " values but got " + values.size());
     }
 
-    // If none worked, try to normalize space to T and parse with ISO
-    String withT = normalized.replace(' ', 'T');
-    if (!withT.equals(normalized)) {
-      try {
-        return LocalDateTime.parse(withT);
-      } catch (DateTimeParseException e) {
-        // Fall through
+    try (ModelMutationEvent event = new ModelMutationEvent("set_column_values")) {
+      List<Object> previous = new ArrayList<>(count);
+      int first = Integer.MAX_VALUE;
+      int last = -1;
+      for (int i = 0; i < count; i++) {
+        int rowIndex = rowIndices != null ? rowIndices[i] : i;
+        List<Object> row = rows.get(storageIndex(rowIndex));
+        while (row.size() <= columnIndex) {
+          row.add(null);
+        }
+        previous.add(row.set(columnIndex, values.get(i)));
+        first = Math.min(first, rowIndex);
+        last = Math.max(last, rowIndex);
+      }
+      if (recording()) {
+        journal.recordColumnValues(columnNames.get(columnIndex), columnIndex, rowIndices, previous, values);
       }
+      if (last >= 0) {
+        fireTableChanged(new TableModelEvent(this, first, last, columnIndex));
+      }
+      event.result(count, getRowCount(), columnNames.size()).completed();
+      return previous;
     }
-    
-    throw new IllegalArgumentException(
-        "Invalid timestamp format. Expected formats:\n" +
-        "  - YYYY-MM-DDTHH:mm:ss (e.g., 2024-11-12T10:30:00)\n" +
-        "  - YYYY-MM-DD HH:mm:ss (e.g., 2024-11-12 10:30:00)\n" +
-        "  - YYYY-MM-DD HH:mm:ss.SSS (e.g., 2022-07-11 15:53:24.671)");
   }
 
-  private Boolean parseBoolean(String s) {
-    String x = s.toLowerCase(Locale.ROOT);
-    return x.equals("true") || x.equals("1") || x.equals("yes") || x.equals("y");
+  private Object convertValue(String stringValue, String columnType) {
+    return ValueParser.forType(columnType).parseOrThrow(stringValue);
   }
 
   public void addRow() {
-    List<Object> newRow = new ArrayList<>();
-    for (int i = 0; i < columnNames.size(); i++) {
-      String type = columnTypes.get(i);
-      Object defaultValue = getDefaultValue(type);
-      newRow.add(defaultValue);
+    try (ModelMutationEvent event = new ModelMutationEvent("add_row")) {
+      appendRows(1);
+      event.result(1, getRowCount(), columnNames.size()).completed();
     }
-    rows.add(newRow);
-    int newRowIndex = rows.size() - 1;
-    fireTableRowsInserted(newRowIndex, newRowIndex);
+  }
+
+  /**
+   * Appends rows with the default value of each column, with a single table event.
+   *
+   * @param count the number of rows to append
+   */
+  public void addRows(int count) {
+    if (count <= 0) {
+      return;
+    }
+    try (ModelMutationEvent event = new ModelMutationEvent("add_rows")) {
+      appendRows(count);
+      event.result(count, getRowCount(), columnNames.size()).completed();
+    }
+  }
+
+  private void appendRows(int count) {
+    Object[] defaults = new Object[columnNames.size()];
+    for (int i = 0; i < defaults.length; i++) {
+      defaults[i] = getDefaultValue(columnTypes.get(i));
+    }
+    int firstNewRow = getRowCount();
+    if (rows instanceof ArrayList) {
+      ((ArrayList<List<Object>>) rows).ensureCapacity(rows.size() + count);
+    }
+    for (int r = 0; r < count; r++) {
+      rows.add(new ArrayList<>(Arrays.asList(defaults)));
+      if (liveRows != null) {
+        if (liveCount == liveRows.length) {
+          liveRows = Arrays.copyOf(liveRows, Math.max(16, liveCount + Math.max(count - r, liveCount >> 1)));
+        }
+        liveRows[liveCount++] = rows.size() - 1;
+      }
+    }
+    if (recording()) {
+      journal.recordRowsAdded(count);
+    }
+    fireTableRowsInserted(firstNewRow, getRowCount() - 1);
   }
 
   public void deleteRow(int rowIndex) {
-    if (rowIndex >= 0 && rowIndex < rows.size()) {
-      rows.remove(rowIndex);
-      fireTableRowsDeleted(rowIndex, rowIndex);
+    try (ModelMutationEvent event = new ModelMutationEvent("delete_row")) {
+      BitSet selected = new BitSet();
+      if (rowIndex >= 0 && rowIndex < getRowCount()) {
+        selected.set(rowIndex);
+      }
+      int deleted = removeRows(selected);
+      event.result(deleted, getRowCount(), columnNames.size()).completed();
     }
   }
 
-  public void deleteRows(int[] rowIndices) {
+  /**
+   * Deletes rows with a single table event. Invalid and repeated indices are ignored.
+   *
+   * @param rowIndices the model indices of the rows to delete
+   * @return the number of rows deleted
+   */
+  public int deleteRows(int[] rowIndices) {
     if (rowIndices == null || rowIndices.length == 0) {
-      return;
+      return 0;
+    }
+
+    try (ModelMutationEvent event = new ModelMutationEvent("delete_rows")) {
+      int rowCount = getRowCount();
+      BitSet selected = new BitSet(rowCount);
+      for (int rowIndex : rowIndices) {
+        if (rowIndex >= 0 && rowIndex < rowCount) {
+          selected.set(rowIndex);
+        }
+      }
+      int deleted = removeRows(selected);
+      event.result(deleted, getRowCount(), columnNames.size()).completed();
+      return deleted;
+    }
+  }
+
+  /**
+   * Deletes every row whose values match a condition, e.g. all rows found by the current
+   * search, with a single table event.
+   *
+   * @param condition tested with a read-only view of each row's values
+   * @return the number of rows deleted
+   */
+  public int deleteRowsMatching(Predicate<List<Object>> condition) {
+    try (ModelMutationEvent event = new ModelMutationEvent("delete_matching")) {
+      int rowCount = getRowCount();
+      BitSet selected = new BitSet(rowCount);
+      for (int i = 0; i < rowCount; i++) {
+        if (condition.test(Collections.unmodifiableList(rows.get(storageIndex(i))))) {
+          selected.set(i);
+        }
+      }
+      int deleted = removeRows(selected);
+      event.result(deleted, getRowCount(), columnNames.size()).completed();
+      return deleted;
     }
+  }
+
+  /**
+   * Marks the selected rows as deleted, rebuilds the live-row index in one pass and fires
+   * one event: a range deletion when the rows are contiguous, a data change otherwise.
+   */
+  private int removeRows(BitSet selected) {
+    int deleted = selected.cardinality();
+    if (deleted == 0) {
+      return 0;
+    }
+    int rowCount = getRowCount();
+    int first = selected.nextSetBit(0);
+    int last = selected.length() - 1;
+
+    if (recording()) {
+      List<List<Object>> removed = new ArrayList<>(deleted);
+      for (int i = first; i >= 0; i = selected.nextSetBit(i + 1)) {
+        removed.add(rows.get(storageIndex(i)));
+      }
+      journal.recordRowsDeleted(selected.stream().toArray(), removed);
+    }
+
+    int[] remaining = new int[rowCount - deleted];
+    int kept = 0;
+    for (int i = 0; i < rowCount; i++) {
+      if (selected.get(i)) {
+        tombstones.set(storageIndex(i));
+      } else {
+        remaining[kept++] = storageIndex(i);
+      }
+    }
+    liveRows = remaining;
+    liveCount = kept;
+
+    if (tombstones.cardinality() > rows.size() / 2) {
+      compact();
+    }
+
+    if (last - first + 1 == deleted) {
+      fireTableRowsDeleted(first, last);
+    } else {
+      fireTableDataChanged();
+    }
+    return deleted;
+  }
+
+  /**
+   * Puts back rows removed by a deletion, e.g. when it is undone.
+   *
+   * @param rowIndices the ascending model indices the rows had before they were deleted
+   * @param restored the removed rows, in the same order
+   */
+  void restoreRows(int[] rowIndices, List<List<Object>> restored) {
+    try (ModelMutationEvent event = new ModelMutationEvent("restore_rows")) {
+      compact();
+      int total = rows.size() + restored.size();
+      List<List<Object>> merged = new ArrayList<>(total);
+      int next = 0;
+      int source = 0;
+      for (int i = 0; i < total; i++) {
+        if (next < rowIndices.length && rowIndices[next] == i) {
+          merged.add(restored.get(next++));
+        } else {
+          merged.add(rows.get(source++));
+        }
+      }
+      rows = merged;
 
-    int[] sorted = java.util.Arrays.stream(rowIndices)
-        .distinct()
-        .sorted()
-        .toArray();
+      int first = rowIndices[0];
+      int last = rowIndices[rowIndices.length - 1];
+      if (last - first + 1 == rowIndices.length) {
+        fireTableRowsInserted(first, last);
+      } else {
+        fireTableDataChanged();
+      }
+      event.result(restored.size(), getRowCount(), columnNames.size()).completed();
+    }
+  }
 
-    for (int i = sorted.length - 1; i >= 0; i--) {
-      deleteRow(sorted[i]);
+  /**
+   * Drops the deleted rows from the backing list. Row indices do not change, so no table
+   * event is fired.
+   */
+  public void compact() {
+    if (liveRows == null) {
+      return;
+    }
+    List<List<Object>> compacted = new ArrayList<>(liveCount);
+    for (int i = 0; i < liveCount; i++) {
+      compacted.add(rows.get(liveRows[i]));
     }
+    rows = compacted;
+    tombstones.clear();
+    liveRows = null;
+    liveCount = 0;
+  }
+
+  /**
+   * Gets the number of deleted rows still held in the backing list.
+   */
+  public int getPendingDeletions() {
+    return tombstones.cardinality();
   }
 
   private Object getDefaultValue(String type) {
@@ -325,18 +513,27 @@ public class ParquetTableModel extends AbstractTableModel {
       throw new IllegalArgumentException("Column name already exists: " + trimmedName);
     }
 
-    // Add column to metadata
-    columnNames.add(trimmedName);
-    columnTypes.add(columnType.toUpperCase());
+    try (ModelMutationEvent event = new ModelMutationEvent("add_column")) {
+      // Every row is rewritten anyway: skip the deleted ones
+      compact();
 
-    // Add default value to all existing rows
-    Object defaultValue = getDefaultValue(columnType);
-    for (List<Object> row : rows) {
-      row.add(defaultValue);
-    }
+      // Add column to metadata
+      columnNames.add(trimmedName);
+      columnTypes.add(columnType.toUpperCase());
+      if (recording()) {
+        journal.recordColumnAdded(trimmedName, columnType);
+      }
+
+      // Add default value to all existing rows
+      Object defaultValue = getDefaultValue(columnType);
+      for (List<Object> row : rows) {
+        row.add(defaultValue);
+      }
 
-    // Notify table that a column was added
-    fireTableStructureChanged();
+      // Notify table that a column was added
+      fireTableStructureChanged();
+      event.result(getRowCount(), getRowCount(), columnNames.size()).completed();
+    }
   }
 
   /**
@@ -354,23 +551,64 @@ public class ParquetTableModel extends AbstractTableModel {
       throw new IllegalArgumentException("Cannot delete the last column. A table must have at least one column.");
     }
 
-    // Remove column from metadata
-    columnNames.remove(columnIndex);
-    columnTypes.remove(columnIndex);
+    try (ModelMutationEvent event = new ModelMutationEvent("delete_column")) {
+      // Every row is rewritten anyway: skip the deleted ones
+      compact();
+      if (recording()) {
+        journal.recordColumnDeleted(columnIndex, columnNames.get(columnIndex), columnTypes.get(columnIndex),
+            getColumnValues(columnIndex, null));
+      }
 
-    // Remove column value from all rows
-    for (List<Object> row : rows) {
-      if (columnIndex < row.size()) {
-        row.remove(columnIndex);
+      // Remove column from metadata
+      columnNames.remove(columnIndex);
+      columnTypes.remove(columnIndex);
+
+      // Remove column value from all rows
+      for (List<Object> row : rows) {
+        if (columnIndex < row.size()) {
+          row.remove(columnIndex);
+        }
       }
+
+      // Notify table that a column was removed
+      fireTableStructureChanged();
+      event.result(getRowCount(), getRowCount(), columnNames.size()).completed();
     }
+  }
 
-    // Notify table that a column was removed
-    fireTableStructureChanged();
+  /**
+   * Puts back a deleted column with its values, e.g. when the deletion is undone.
+   */
+  void insertColumn(int columnIndex, String columnName, String columnType, List<?> values) {
+    try (ModelMutationEvent event = new ModelMutationEvent("insert_column")) {
+      compact();
+      columnNames.add(columnIndex, columnName);
+      columnTypes.add(columnIndex, columnType);
+      for (int i = 0; i < rows.size(); i++) {
+        List<Object> row = rows.get(i);
+        while (row.size() < columnIndex) {
+          row.add(null);
+        }
+        row.add(columnIndex, values.get(i));
+      }
+      fireTableStructureChanged();
+      event.result(getRowCount(), getRowCount(), columnNames.size()).completed();
+    }
   }
 
+  /**
+   * Gets the current data. Deleted rows are left out of the returned list without compacting
+   * the model, so this can run on a background thread while the model is held still.
+   */
   public ParquetData toParquetData() {
-    return new ParquetData(columnNames, columnTypes, rows);
+    if (liveRows == null) {
+      return new ParquetData(columnNames, columnTypes, rows);
+    }
+    List<List<Object>> live = new ArrayList<>(liveCount);
+    for (int i = 0; i < liveCount; i++) {
+      live.add(rows.get(liveRows[i]));
+    }
+    return new ParquetData(columnNames, columnTypes, live);
   }
 }
 
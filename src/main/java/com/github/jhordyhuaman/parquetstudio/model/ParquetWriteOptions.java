@@ -0,0 +1,73 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.Locale;
+
+/**
+ * Writer settings for Parquet files written with DuckDB {@code COPY}: the compression codec
+ * and the number of rows per row group.
+ */
+public class ParquetWriteOptions {
+  /** DuckDB's own defaults: Snappy and its default row group size. */
+  public static final ParquetWriteOptions DEFAULT = new ParquetWriteOptions(Compression.SNAPPY, 0);
+
+  /**
+   * Compression codecs DuckDB writes.
+   */
+  public enum Compression {
+    SNAPPY, ZSTD, GZIP, UNCOMPRESSED
+  }
+
+  private final Compression compression;
+  private final long rowGroupSize;
+
+  /**
+   * @param compression the codec of the column chunks
+   * @param rowGroupSize the rows per row group, or 0 for DuckDB's default
+   */
+  public ParquetWriteOptions(Compression compression, long rowGroupSize) {
+    if (rowGroupSize < 0) {
+      throw new IllegalArgumentException("Row group size cannot be negative: " + rowGroupSize);
+    }
+    this.compression = compression;
+    this.rowGroupSize = rowGroupSize;
+  }
+
+  public Compression getCompression() {
+    return compression;
+  }
+
+  public long getRowGroupSize() {
+    return rowGroupSize;
+  }
+
+  /**
+   * Gets the options of a {@code COPY ... TO} statement writing Parquet with these settings.
+   */
+  public String toCopyOptions() {
+    StringBuilder sb = new StringBuilder("FORMAT PARQUET, COMPRESSION '")
+        .append(compression.name().toLowerCase(Locale.ROOT)).append('\'');
+    if (rowGroupSize > 0) {
+      sb.append(", ROW_GROUP_SIZE ").append(rowGroupSize);
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public String toString() {
+    return compression.name().toLowerCase(Locale.ROOT)
+        + (rowGroupSize > 0 ? ", " + rowGroupSize + " rows per row group" : "");
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Values that could not be converted during a batch conversion, e.g. a paste. Every error
+ * is counted but only the first {@value #MAX_KEPT} are kept for the report.
+ */
+public class ParseReport {
+  public static final int MAX_KEPT = 100;
+
+  private final List<Issue> issues = new ArrayList<>();
+  private int errorCount;
+
+  /**
+   * Records a value that does not fit its column.
+   *
+   * @param line the line of the value in the source text, counted from 1
+   * @param columnName the target column
+   * @param columnType the type of the target column
+   * @param text the value as it appeared in the source
+   */
+  public synchronized void add(int line, String columnName, String columnType, String text) {
+    errorCount++;
+    if (issues.size() < MAX_KEPT) {
+      issues.add(new Issue(line, columnName, columnType, text));
+    }
+  }
+
+  public synchronized boolean hasErrors() {
+    return errorCount > 0;
+  }
+
+  public synchronized int getErrorCount() {
+    return errorCount;
+  }
+
+  /**
+   * Gets the first recorded errors, in the order they were found.
+   */
+  public synchronized List<Issue> getIssues() {
+    return Collections.unmodifiableList(new ArrayList<>(issues));
+  }
+
+  /**
+   * Formats the report for a dialog.
+   *
+   * @param maxLines the number of errors listed before the rest are summarized
+   */
+  public synchronized String format(int maxLines) {
+    StringBuilder sb = new StringBuilder()
+        .append(errorCount)
+        .append(" value(s) cannot be converted:");
+    int listed = Math.min(maxLines, issues.size());
+    for (int i = 0; i < listed; i++) {
+      sb.append("\n  ").append(issues.get(i));
+    }
+    if (errorCount > listed) {
+      sb.append("\n  ... and ").append(errorCount - listed).append(" more");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * One value that does not fit its column.
+   */
+  public static final class Issue {
+    private final int line;
+    private final String columnName;
+    private final String columnType;
+    private final String text;
+
+    Issue(int line, String columnName, String columnType, String text) {
+      this.line = line;
+      this.columnName = columnName;
+      this.columnType = columnType;
+      this.text = text;
+    }
+
+    public int getLine() {
+      return line;
+    }
+
+    public String getColumnName() {
+      return columnName;
+    }
+
+    public String getColumnType() {
+      return columnType;
+    }
+
+    public String getText() {
+      return text;
+    }
+
+    @Override
+    public String toString() {
+      return "line " + line + ", " + columnName + " (" + columnType + "): '" + text + "'";
+    }
+  }
+}
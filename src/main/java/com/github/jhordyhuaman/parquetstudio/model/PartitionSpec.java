@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.List;
+
+/**
+ * How a table is split into a Hive-partitioned dataset: the partition columns, in directory
+ * order, the size of the files written in each partition and how many partitions are written
+ * at the same time.
+ */
+public class PartitionSpec {
+  private final List<String> columns;
+  private final long maxFileBytes;
+  private final int writers;
+
+  /**
+   * @param columns the partition columns, e.g. {@code [year, month]} for
+   *     {@code year=2024/month=5/}
+   * @param maxFileBytes start a new file in a partition once the current one reaches this
+   *     size; 0 writes one file per partition
+   * @param writers the number of partitions written at the same time
+   */
+  public PartitionSpec(List<String> columns, long maxFileBytes, int writers) {
+    if (columns.isEmpty()) {
+      throw new IllegalArgumentException("Select at least one partition column");
+    }
+    if (writers < 1) {
+      throw new IllegalArgumentException("Writers must be at least 1: " + writers);
+    }
+    this.columns = List.copyOf(columns);
+    this.maxFileBytes = Math.max(0, maxFileBytes);
+    this.writers = writers;
+  }
+
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  public long getMaxFileBytes() {
+    return maxFileBytes;
+  }
+
+  public int getWriters() {
+    return writers;
+  }
+
+  @Override
+  public String toString() {
+    return "partition by " + columns + (maxFileBytes > 0 ? ", " + maxFileBytes + " byte(s) per file" : "")
+        + ", " + writers + " writer(s)";
+  }
+}
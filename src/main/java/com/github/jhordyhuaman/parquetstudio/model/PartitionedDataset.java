@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.io.File;
+
+/**
+ * A Hive-partitioned dataset that was written: its directory, its schema with the partition
+ * columns recorded in {@link SchemaStructure#partitions}, and what it holds.
+ */
+public class PartitionedDataset {
+  private final File directory;
+  private final SchemaStructure schema;
+  private final int partitionCount;
+  private final int fileCount;
+  private final long rowCount;
+
+  public PartitionedDataset(File directory, SchemaStructure schema, int partitionCount, int fileCount, long rowCount) {
+    this.directory = directory;
+    this.schema = schema;
+    this.partitionCount = partitionCount;
+    this.fileCount = fileCount;
+    this.rowCount = rowCount;
+  }
+
+  public File getDirectory() {
+    return directory;
+  }
+
+  public SchemaStructure getSchema() {
+    return schema;
+  }
+
+  public int getPartitionCount() {
+    return partitionCount;
+  }
+
+  public int getFileCount() {
+    return fileCount;
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.List;
+
+/**
+ * A pasted block converted to the column types and ready to be written: one
+ * {@link ColumnEdit} per pasted column holding only the cells that could be converted, the
+ * rows to append below the table, and the report of the cells that could not.
+ */
+public class PastePlan {
+  private final List<ColumnEdit> edits;
+  private final int rowsToAdd;
+  private final int lineCount;
+  private final int skippedColumns;
+  private final ParseReport report;
+
+  /**
+   * @param edits the converted values of each pasted column
+   * @param rowsToAdd the rows appended before the values are written
+   * @param lineCount the number of pasted lines
+   * @param skippedColumns pasted columns dropped because they fall past the last column
+   * @param report the cells that could not be converted
+   */
+  public PastePlan(List<ColumnEdit> edits, int rowsToAdd, int lineCount, int skippedColumns, ParseReport report) {
+    this.edits = edits;
+    this.rowsToAdd = rowsToAdd;
+    this.lineCount = lineCount;
+    this.skippedColumns = skippedColumns;
+    this.report = report;
+  }
+
+  public List<ColumnEdit> getEdits() {
+    return edits;
+  }
+
+  public int getRowsToAdd() {
+    return rowsToAdd;
+  }
+
+  public int getLineCount() {
+    return lineCount;
+  }
+
+  public int getSkippedColumns() {
+    return skippedColumns;
+  }
+
+  public ParseReport getReport() {
+    return report;
+  }
+
+  /**
+   * Gets the number of cells that will be written.
+   */
+  public int getCellCount() {
+    int cells = 0;
+    for (ColumnEdit edit : edits) {
+      cells += edit.getValues().size();
+    }
+    return cells;
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+/**
+ * One difference between a schema and a reference schema.
+ */
+public class SchemaChange {
+  /**
+   * What changed.
+   */
+  public enum Kind {
+    /** A column the reference does not have. */
+    ADDED,
+    /** A reference column that is missing. */
+    REMOVED,
+    /** A column with a different type. */
+    TYPE_CHANGED,
+    /** A column that became nullable or required. */
+    NULLABILITY_CHANGED
+  }
+
+  private final Kind kind;
+  private final String column;
+  private final String expected;
+  private final String actual;
+
+  /**
+   * @param expected the type or nullability in the reference, null for an added column
+   * @param actual the type or nullability found, null for a removed column
+   */
+  public SchemaChange(Kind kind, String column, String expected, String actual) {
+    this.kind = kind;
+    this.column = column;
+    this.expected = expected;
+    this.actual = actual;
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  public String getColumn() {
+    return column;
+  }
+
+  public String getExpected() {
+    return expected;
+  }
+
+  public String getActual() {
+    return actual;
+  }
+
+  @Override
+  public String toString() {
+    switch (kind) {
+      case ADDED: return "+ " + column + " (" + actual + ")";
+      case REMOVED: return "- " + column + " (" + expected + ")";
+      default: return "~ " + column + ": " + expected + " -> " + actual;
+    }
+  }
+}
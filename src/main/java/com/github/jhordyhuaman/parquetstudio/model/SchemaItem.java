@@ -5,6 +5,8 @@ import java.util.List;
 public class SchemaItem {
     public String name;
     public Object type;
+    // Null when the schema does not say; a union type such as ["null", "string"] says nullable
+    public Boolean nullable;
 
     public SchemaItem(String name, Object type) {
         this.name = name;
@@ -34,6 +36,7 @@ public class SchemaItem {
         }
 
         List<String> lisType = (List<String>) type;
+        if(nullable == null) nullable = lisType.contains("null");
         String typeFounded = lisType.stream().filter( x -> !x.equals("null")).findFirst().orElse(null);
         type = equivalentType(typeFounded);
     }
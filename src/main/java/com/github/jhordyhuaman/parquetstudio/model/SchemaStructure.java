@@ -27,18 +27,28 @@ public class SchemaStructure {
             SchemaItem founded = schemaDestiny.getItem(item.name);
             return new SchemaItemTransform(item.name, item.type, founded != null ? founded.type : null);
         }).toList());
+        if(schemaDestiny.partitions != null && !schemaDestiny.partitions.isEmpty()){
+            schema.partitions = schemaDestiny.partitions;
+        }
         LOGGER.warn("Generate schema with type to transform.");
 
         return schema;
     }
 
     public static SchemaStructure schemaFromLists(List<String> listNames, List<String> listTypes) throws Exception {
+        return schemaFromLists(listNames, listTypes, List.of());
+    }
+
+    /**
+     * Builds a schema whose data is split into Hive partitions by the given columns.
+     */
+    public static SchemaStructure schemaFromLists(List<String> listNames, List<String> listTypes, List<String> partitions) throws Exception {
         if(listNames.size() != listTypes.size()){
             LOGGER.warn("The lists of names and type no haven't the same size.");
             throw new Exception("The lists of names and type no haven't the same size.");
         }
         SchemaStructure schema = new SchemaStructure();
-        schema.partitions = List.of();
+        schema.partitions = List.copyOf(partitions);
         schema.fields = IntStream.range(0, listNames.size())
                 .mapToObj( i -> new SchemaItem(listNames.get(i), listTypes.get(i)) )
                 .toList();
@@ -0,0 +1,383 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts cell text to the Java value stored for a column type.
+ *
+ * <p>One parser exists per type and is shared by all tables, so it can be used from any
+ * thread. {@link #parse(String)} reports text that does not fit the type by returning
+ * {@link #INVALID} instead of throwing, and the common formats are parsed by hand without
+ * allocating formatters or intermediate strings, so converting a large pasted block costs
+ * little more than creating the values.
+ */
+public abstract class ValueParser {
+
+  /** Returned by {@link #parse(String)} when the text does not fit the column type. */
+  public static final Object INVALID = new Object() {
+    @Override
+    public String toString() {
+      return "INVALID";
+    }
+  };
+
+  private static final Map<String, ValueParser> BY_TYPE = new ConcurrentHashMap<>();
+
+  private final String columnType;
+
+  private ValueParser(String columnType) {
+    this.columnType = columnType;
+  }
+
+  /**
+   * Gets the parser for a normalized column type, e.g. {@code INTEGER} or {@code TIMESTAMP}.
+   * Types without a dedicated parser keep the text as is.
+   */
+  public static ValueParser forType(String columnType) {
+    return BY_TYPE.computeIfAbsent(columnType, ValueParser::create);
+  }
+
+  private static ValueParser create(String type) {
+    if (type.contains("BOOLEAN")) return new BooleanParser(type);
+    if (type.contains("INTEGER")) return new IntegerParser(type);
+    if (type.contains("BIGINT")) return new BigIntParser(type);
+    if (type.contains("DOUBLE")) return new DoubleParser(type);
+    if (type.contains("DATE")) return new DateParser(type);
+    if (type.contains("TIMESTAMP")) return new TimestampParser(type);
+    return new TextParser(type);
+  }
+
+  public String getColumnType() {
+    return columnType;
+  }
+
+  /**
+   * Converts text to the column type.
+   *
+   * @param text the cell text; null and blank text become null
+   * @return the converted value, or {@link #INVALID} if the text does not fit the type
+   */
+  public Object parse(String text) {
+    if (text == null) {
+      return null;
+    }
+    String trimmed = text.trim();
+    return trimmed.isEmpty() ? null : parseTrimmed(trimmed);
+  }
+
+  /**
+   * Converts text to the column type, failing on text that does not fit.
+   *
+   * @throws IllegalArgumentException if the text does not fit the type
+   */
+  public Object parseOrThrow(String text) {
+    Object value = parse(text);
+    if (value == INVALID) {
+      throw new IllegalArgumentException(describeError(text.trim()));
+    }
+    return value;
+  }
+
+  /**
+   * Converts a batch of texts for one column. Texts that do not fit are added to the report
+   * and left as {@link #INVALID} in the result.
+   *
+   * @param texts the cell texts
+   * @param columnName the column name shown in the report
+   * @param firstLine the line number of the first text shown in the report
+   * @param report collects the texts that do not fit
+   * @return the converted values, in the order of {@code texts}
+   */
+  public Object[] parseAll(List<String> texts, String columnName, int firstLine, ParseReport report) {
+    Object[] values = new Object[texts.size()];
+    for (int i = 0; i < values.length; i++) {
+      String text = texts.get(i);
+      Object value = parse(text);
+      if (value == INVALID) {
+        report.add(firstLine + i, columnName, columnType, text.trim());
+      }
+      values[i] = value;
+    }
+    return values;
+  }
+
+  /** Converts text that is neither empty nor padded with whitespace. */
+  abstract Object parseTrimmed(String text);
+
+  String describeError(String text) {
+    return "Cannot convert '" + text + "' to " + columnType;
+  }
+
+  private static final class TextParser extends ValueParser {
+    TextParser(String type) {
+      super(type);
+    }
+
+    @Override
+    Object parseTrimmed(String text) {
+      return text;
+    }
+  }
+
+  private static final class BooleanParser extends ValueParser {
+    BooleanParser(String type) {
+      super(type);
+    }
+
+    @Override
+    Object parseTrimmed(String text) {
+      return text.equalsIgnoreCase("true") || text.equals("1")
+          || text.equalsIgnoreCase("yes") || text.equalsIgnoreCase("y");
+    }
+  }
+
+  private static final class IntegerParser extends ValueParser {
+    IntegerParser(String type) {
+      super(type);
+    }
+
+    @Override
+    Object parseTrimmed(String text) {
+      long value = parseLong(text, 0, text.length());
+      if (value == NOT_A_NUMBER || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+        return INVALID;
+      }
+      return (int) value;
+    }
+  }
+
+  private static final class BigIntParser extends ValueParser {
+    BigIntParser(String type) {
+      super(type);
+    }
+
+    @Override
+    Object parseTrimmed(String text) {
+      long value = parseLong(text, 0, text.length());
+      if (value == NOT_A_NUMBER) {
+        // Long.MIN_VALUE itself collides with the marker
+        return text.equals("-9223372036854775808") ? Long.MIN_VALUE : INVALID;
+      }
+      return value;
+    }
+  }
+
+  private static final class DoubleParser extends ValueParser {
+    DoubleParser(String type) {
+      super(type);
+    }
+
+    @Override
+    Object parseTrimmed(String text) {
+      char first = text.charAt(0);
+      boolean plausible = isDigit(first) || first == '-' || first == '+' || first == '.'
+          || first == 'N' || first == 'I';
+      if (!plausible) {
+        return INVALID;
+      }
+      try {
+        return Double.parseDouble(text);
+      } catch (NumberFormatException e) {
+        return INVALID;
+      }
+    }
+  }
+
+  private static final class DateParser extends ValueParser {
+    DateParser(String type) {
+      super(type);
+    }
+
+    @Override
+    Object parseTrimmed(String text) {
+      if (text.length() == 10) {
+        int year = digits(text, 0, 4);
+        int month = text.charAt(4) == '-' ? digits(text, 5, 7) : -1;
+        int day = text.charAt(7) == '-' ? digits(text, 8, 10) : -1;
+        return isValidDate(year, month, day) ? LocalDate.of(year, month, day) : INVALID;
+      }
+      // Rare ISO forms such as years beyond 9999
+      try {
+        return LocalDate.parse(text);
+      } catch (DateTimeParseException e) {
+        return INVALID;
+      }
+    }
+
+    @Override
+    String describeError(String text) {
+      return "Invalid date format. Expected: YYYY-MM-DD (e.g., 2024-11-12)";
+    }
+  }
+
+  /**
+   * Accepts {@code YYYY-MM-DD HH:mm[:ss[.f]]} with a space or {@code T} between date and
+   * time and one to nine fraction digits.
+   */
+  private static final class TimestampParser extends ValueParser {
+    private static final DateTimeFormatter[] FALLBACK = {
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")
+    };
+
+    TimestampParser(String type) {
+      super(type);
+    }
+
+    @Override
+    Object parseTrimmed(String text) {
+      Object fast = parseFast(text);
+      if (fast != null) {
+        return fast;
+      }
+      String iso = text.replace(' ', 'T');
+      for (DateTimeFormatter formatter : FALLBACK) {
+        try {
+          return LocalDateTime.parse(formatter == DateTimeFormatter.ISO_LOCAL_DATE_TIME ? iso : text, formatter);
+        } catch (DateTimeParseException e) {
+          // Try the next format
+        }
+      }
+      return INVALID;
+    }
+
+    /** Returns null when the text is not in the common layout, INVALID when its fields are out of range. */
+    private static Object parseFast(String text) {
+      int length = text.length();
+      if (length < 16 || text.charAt(4) != '-' || text.charAt(7) != '-'
+          || (text.charAt(10) != ' ' && text.charAt(10) != 'T') || text.charAt(13) != ':') {
+        return null;
+      }
+      int year = digits(text, 0, 4);
+      int month = digits(text, 5, 7);
+      int day = digits(text, 8, 10);
+      int hour = digits(text, 11, 13);
+      int minute = digits(text, 14, 16);
+      int second = 0;
+      int nanos = 0;
+      if (length > 16) {
+        if (length < 19 || text.charAt(16) != ':') {
+          return null;
+        }
+        second = digits(text, 17, 19);
+        if (length > 19) {
+          int fractionDigits = length - 20;
+          if (text.charAt(19) != '.' || fractionDigits < 1) {
+            return null;
+          }
+          // Digits past nanoseconds are dropped
+          if (fractionDigits > 9 && digits(text, 29, Math.min(length, 38)) < 0) {
+            return null;
+          }
+          fractionDigits = Math.min(fractionDigits, 9);
+          nanos = digits(text, 20, 20 + fractionDigits);
+          if (nanos < 0) {
+            return null;
+          }
+          for (int i = fractionDigits; i < 9; i++) {
+            nanos *= 10;
+          }
+        }
+      }
+      if (!isValidDate(year, month, day) || hour < 0 || hour > 23
+          || minute < 0 || minute > 59 || second < 0 || second > 59) {
+        return year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 ? null : INVALID;
+      }
+      return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+    }
+
+    @Override
+    String describeError(String text) {
+      return "Invalid timestamp format. Expected formats:\n" +
+          "  - YYYY-MM-DDTHH:mm:ss (e.g., 2024-11-12T10:30:00)\n" +
+          "  - YYYY-MM-DD HH:mm:ss (e.g., 2024-11-12 10:30:00)\n" +
+          "  - YYYY-MM-DD HH:mm:ss.SSS (e.g., 2022-07-11 15:53:24.671)";
+    }
+  }
+
+  /** Marks text that is not a whole number; {@link Long#MIN_VALUE} cannot be told apart. */
+  private static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
+  /**
+   * Parses an optionally signed run of ASCII digits without throwing.
+   *
+   * @return the value, or {@link #NOT_A_NUMBER} for other text or on overflow
+   */
+  static long parseLong(CharSequence text, int start, int end) {
+    if (start >= end) {
+      return NOT_A_NUMBER;
+    }
+    boolean negative = false;
+    char sign = text.charAt(start);
+    if (sign == '-' || sign == '+') {
+      negative = sign == '-';
+      if (++start == end) {
+        return NOT_A_NUMBER;
+      }
+    }
+    // Accumulate negatively so Long.MIN_VALUE's magnitude fits, as Long.parseLong does
+    long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    long multiplyLimit = limit / 10;
+    long result = 0;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      int digit = c - '0';
+      if (!isDigit(c) || result < multiplyLimit) {
+        return NOT_A_NUMBER;
+      }
+      result *= 10;
+      if (result < limit + digit) {
+        return NOT_A_NUMBER;
+      }
+      result -= digit;
+    }
+    return negative ? result : -result;
+  }
+
+  /**
+   * Parses a fixed run of ASCII digits.
+   *
+   * @return the value, or -1 if a character is not a digit
+   */
+  private static int digits(String text, int start, int end) {
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if (!isDigit(c)) {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isValidDate(int year, int month, int day) {
+    return year >= 0 && month >= 1 && month <= 12 && day >= 1
+        && day <= Month.of(month).length(Year.isLeap(year));
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a value search across many files: the rows found and how much the footer
+ * statistics let the search skip.
+ */
+public class ValueSearchReport {
+  private final String column;
+  private final int fileCount;
+  private final int filesWithoutColumn;
+  private final int filesScanned;
+  private final long rowGroups;
+  private final long rowGroupsScanned;
+  private final List<Hit> hits;
+  private final boolean truncated;
+  private final Map<File, String> failures;
+  private final long millis;
+
+  /**
+   * @param column the searched column
+   * @param fileCount the files searched
+   * @param filesWithoutColumn files skipped because they do not have the column
+   * @param filesScanned files with at least one row group left to scan after the statistics
+   * @param rowGroups the row groups of the files having the column
+   * @param rowGroupsScanned the row groups whose statistics could not rule the value out
+   * @param hits the rows found, by file and row
+   * @param truncated true if the search stopped at the maximum number of hits
+   * @param failures the files that could not be searched and why
+   * @param millis how long the search took
+   */
+  public ValueSearchReport(String column, int fileCount, int filesWithoutColumn, int filesScanned, long rowGroups,
+                           long rowGroupsScanned, List<Hit> hits, boolean truncated, Map<File, String> failures,
+                           long millis) {
+    this.column = column;
+    this.fileCount = fileCount;
+    this.filesWithoutColumn = filesWithoutColumn;
+    this.filesScanned = filesScanned;
+    this.rowGroups = rowGroups;
+    this.rowGroupsScanned = rowGroupsScanned;
+    this.hits = hits;
+    this.truncated = truncated;
+    this.failures = failures;
+    this.millis = millis;
+  }
+
+  public String getColumn() {
+    return column;
+  }
+
+  public int getFileCount() {
+    return fileCount;
+  }
+
+  public int getFilesWithoutColumn() {
+    return filesWithoutColumn;
+  }
+
+  public int getFilesScanned() {
+    return filesScanned;
+  }
+
+  public long getRowGroups() {
+    return rowGroups;
+  }
+
+  public long getRowGroupsScanned() {
+    return rowGroupsScanned;
+  }
+
+  public List<Hit> getHits() {
+    return hits;
+  }
+
+  public boolean isTruncated() {
+    return truncated;
+  }
+
+  public Map<File, String> getFailures() {
+    return failures;
+  }
+
+  public long getMillis() {
+    return millis;
+  }
+
+  /**
+   * Gets the number of files holding at least one hit.
+   */
+  public long getHitFileCount() {
+    return hits.stream().map(Hit::getFile).distinct().count();
+  }
+
+  /**
+   * Formats a one-line summary, with up to {@code maxFailures} of the failures on the lines
+   * below.
+   */
+  public String format(int maxFailures) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format("%,d%s hit(s) in %,d file(s); statistics left %,d of %,d file(s) and %,d of %,d row group(s) to scan",
+        hits.size(), truncated ? "+" : "", getHitFileCount(), filesScanned, fileCount - filesWithoutColumn,
+        rowGroupsScanned, rowGroups));
+    if (filesWithoutColumn > 0) {
+      sb.append(String.format(", %,d file(s) without %s", filesWithoutColumn, column));
+    }
+    if (!failures.isEmpty()) {
+      sb.append(String.format(", %,d failed", failures.size()));
+    }
+    sb.append(String.format(" (%,d ms).", millis));
+    int listed = 0;
+    for (Map.Entry<File, String> failure : failures.entrySet()) {
+      if (listed == maxFailures) {
+        sb.append("\n  ... and ").append(failures.size() - listed).append(" more");
+        break;
+      }
+      sb.append("\n  ").append(failure.getKey().getPath()).append(": ").append(failure.getValue());
+      listed++;
+    }
+    return sb.toString();
+  }
+
+  /**
+   * A row holding the searched value.
+   */
+  public static final class Hit {
+    private final File file;
+    private final long row;
+    private final int rowGroup;
+    private final String value;
+
+    /**
+     * @param row the position of the row in the file, from 0
+     * @param rowGroup the row group holding the row
+     * @param value the value found, as text
+     */
+    public Hit(File file, long row, int rowGroup, String value) {
+      this.file = file;
+      this.row = row;
+      this.rowGroup = rowGroup;
+      this.value = value;
+    }
+
+    public File getFile() {
+      return file;
+    }
+
+    public long getRow() {
+      return row;
+    }
+
+    public int getRowGroup() {
+      return rowGroup;
+    }
+
+    public String getValue() {
+      return value;
+    }
+  }
+}
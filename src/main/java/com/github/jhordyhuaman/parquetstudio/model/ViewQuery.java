@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+
+/**
+ * What the editor shows of a file: the columns in display order, the search text and the
+ * sort order. Exports turn it into a query over the file instead of reading the table.
+ */
+public class ViewQuery {
+  private final List<String> columns;
+  private final String searchText;
+  private final List<String> sortColumns = new ArrayList<>();
+  private final List<Boolean> sortAscending = new ArrayList<>();
+
+  /**
+   * @param columns the columns to keep, in order, or null for every column of the file
+   * @param searchText the search text, or null when no search is active
+   */
+  public ViewQuery(List<String> columns, String searchText) {
+    this.columns = columns;
+    this.searchText = searchText == null || searchText.trim().isEmpty() ? null : searchText;
+  }
+
+  /**
+   * Builds the query for what a table shows. Columns are named as in the file, with
+   * {@link ParquetTableModel#getColumnNames()}, not with the HTML header labels.
+   *
+   * @param model the model behind the table
+   * @param viewColumns the model column of each table column, in display order
+   * @param searchText the search text, or null when no search is active
+   * @param sortKeys the sort keys of the row sorter, by model column; unsorted keys are skipped
+   */
+  public static ViewQuery fromTable(ParquetTableModel model, int[] viewColumns, String searchText,
+                                    List<? extends RowSorter.SortKey> sortKeys) {
+    List<String> names = model.getColumnNames();
+    List<String> columns = new ArrayList<>(viewColumns.length);
+    boolean reordered = viewColumns.length != names.size();
+    for (int i = 0; i < viewColumns.length; i++) {
+      reordered |= viewColumns[i] != i;
+      columns.add(names.get(viewColumns[i]));
+    }
+    ViewQuery view = new ViewQuery(reordered ? columns : null, searchText);
+    for (RowSorter.SortKey key : sortKeys) {
+      if (key.getSortOrder() != SortOrder.UNSORTED) {
+        view.orderBy(names.get(key.getColumn()), key.getSortOrder() == SortOrder.ASCENDING);
+      }
+    }
+    return view;
+  }
+
+  /**
+   * Adds a sort key after the ones already added.
+   */
+  public ViewQuery orderBy(String column, boolean ascending) {
+    sortColumns.add(column);
+    sortAscending.add(ascending);
+    return this;
+  }
+
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  public String getSearchText() {
+    return searchText;
+  }
+
+  public List<String> getSortColumns() {
+    return Collections.unmodifiableList(sortColumns);
+  }
+
+  public boolean isAscending(int sortKey) {
+    return sortAscending.get(sortKey);
+  }
+
+  /**
+   * Checks if the view shows the file as it is: every column, every row, file order.
+   */
+  public boolean isWholeFile() {
+    return columns == null && searchText == null && sortColumns.isEmpty();
+  }
+}
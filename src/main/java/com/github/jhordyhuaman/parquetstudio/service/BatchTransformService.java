@@ -0,0 +1,288 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.BatchReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rewrites many Parquet files with an external schema, e.g. to migrate the part files of a
+ * dataset.
+ *
+ * <p>Each file is described from its footer, checked against the schema in strict mode if
+ * asked, and rewritten with one {@link SchemaCastService} {@code COPY}, so rows never reach
+ * Java. Files run on a pool of {@link #getConcurrency()} threads; a file that fails, e.g.
+ * on a transient I/O error, is tried again after a short pause. Targets are written under
+ * a hidden {@code .partial} name and renamed when complete.
+ */
+public class BatchTransformService {
+  private static final Logger LOGGER = Logger.getInstance(BatchTransformService.class);
+
+  public static final String CONCURRENCY_PROPERTY = "parquetstudio.batch.concurrency";
+  public static final int DEFAULT_RETRIES = 2;
+  private static final long RETRY_DELAY_MS = 500;
+
+  /**
+   * Receives the progress of a batch, on the worker threads.
+   */
+  public interface Listener {
+    void fileStarted(File source);
+
+    void fileFinished(BatchReport.FileResult result);
+  }
+
+  private final SchemaCastService castService;
+  private final DataSchemaService schemaService = new DataSchemaService();
+  private final int concurrency;
+  private final int retries;
+
+  public BatchTransformService() {
+    this(new SchemaCastService(), defaultConcurrency(), DEFAULT_RETRIES);
+  }
+
+  /**
+   * @param concurrency the number of files rewritten at the same time
+   * @param retries the extra attempts of a file that fails
+   */
+  public BatchTransformService(SchemaCastService castService, int concurrency, int retries) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+    }
+    this.castService = castService;
+    this.concurrency = concurrency;
+    this.retries = Math.max(0, retries);
+  }
+
+  /**
+   * Gets the default number of files rewritten at the same time, from the
+   * {@value #CONCURRENCY_PROPERTY} system property.
+   */
+  public static int defaultConcurrency() {
+    return DuckDBParquetService.defaultParallelWrites(CONCURRENCY_PROPERTY);
+  }
+
+  public int getConcurrency() {
+    return concurrency;
+  }
+
+  public int getRetries() {
+    return retries;
+  }
+
+  /**
+   * Reads an external schema file, with its types mapped like "Load Schema" does.
+   */
+  public static SchemaStructure loadSchema(File schemaFile) throws Exception {
+    SchemaStructure schema = SchemaStructure.schemaFromFile(schemaFile.getAbsolutePath());
+    schema.changesTypesFields();
+    return schema;
+  }
+
+  /**
+   * Finds the Parquet files of a batch.
+   *
+   * @param directoryOrGlob a directory, searched recursively for {@code .parquet} files, a
+   *     glob such as {@code /data/sales/**}{@code /part-*.parquet}, or a single file
+   * @return the files, sorted by path; hidden files are left out
+   */
+  public static List<File> findFiles(String directoryOrGlob) throws IOException {
+    File directory = new File(directoryOrGlob);
+    Path base;
+    PathMatcher matcher;
+    if (directory.isDirectory()) {
+      base = directory.toPath();
+      matcher = path -> path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".parquet");
+    } else {
+      int wildcard = firstWildcard(directoryOrGlob);
+      if (wildcard < 0) {
+        if (!directory.isFile()) {
+          throw new FileNotFoundException("No such file or directory: " + directoryOrGlob);
+        }
+        return List.of(directory);
+      }
+      int slash = Math.max(directoryOrGlob.lastIndexOf('/', wildcard), directoryOrGlob.lastIndexOf(File.separatorChar, wildcard));
+      base = Paths.get(slash < 0 ? "." : directoryOrGlob.substring(0, slash + 1));
+      matcher = FileSystems.getDefault().getPathMatcher("glob:" + directoryOrGlob.substring(slash + 1));
+    }
+    if (!Files.isDirectory(base)) {
+      throw new FileNotFoundException("No such directory: " + base);
+    }
+    Path root = base;
+    try (Stream<Path> paths = Files.walk(root)) {
+      return paths
+          .filter(Files::isRegularFile)
+          .filter(path -> !path.getFileName().toString().startsWith("."))
+          .filter(path -> matcher.matches(root.relativize(path)))
+          .sorted()
+          .map(Path::toFile)
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Rewrites files with a schema into an output directory, keeping their paths relative to
+   * the closest directory holding all of them. Blocks until every file is done.
+   *
+   * @param files the Parquet files to rewrite
+   * @param schema the external schema, see {@link #loadSchema}
+   * @param outputDirectory where the rewritten files go; must not be where they come from
+   * @param strict skip files whose column count differs from the schema's field count
+   * @param listener receives per-file progress, may be null
+   * @param cancelled polled before each file and attempt; files already being written finish
+   * @return one result per file
+   * @throws IllegalArgumentException if a file would be rewritten in place
+   */
+  public BatchReport run(List<File> files, SchemaStructure schema, File outputDirectory, ParquetWriteOptions options,
+                         boolean strict, Listener listener, BooleanSupplier cancelled) throws InterruptedException {
+    List<File> targets = targets(files, outputDirectory);
+    BatchReport report = new BatchReport(files.size());
+    LOGGER.info("Rewriting " + files.size() + " file(s) into " + outputDirectory + " with " + concurrency
+        + " worker(s), " + options + (strict ? ", strict" : ""));
+
+    List<Runnable> tasks = new ArrayList<>(files.size());
+    for (int i = 0; i < files.size(); i++) {
+      File source = files.get(i);
+      File target = targets.get(i);
+      tasks.add(() -> {
+        BatchReport.FileResult result;
+        if (cancelled.getAsBoolean()) {
+          result = new BatchReport.FileResult(source, target, BatchReport.Status.CANCELLED, 0, 0, 0, null);
+        } else {
+          if (listener != null) listener.fileStarted(source);
+          result = process(source, target, schema, options, strict, cancelled);
+        }
+        report.add(result);
+        if (listener != null) listener.fileFinished(result);
+      });
+    }
+    try (Stage total = PerformanceMetrics.getInstance().stage("batch", "total")) {
+      DuckDBParquetService.runParallel("Parquet Studio Batch", concurrency, tasks);
+      total.rows(report.getRowCount());
+    }
+    LOGGER.info("Batch finished: " + report.format());
+    return report;
+  }
+
+  private BatchReport.FileResult process(File source, File target, SchemaStructure schema, ParquetWriteOptions options,
+                                         boolean strict, BooleanSupplier cancelled) {
+    long start = System.nanoTime();
+    int attempts = 0;
+    while (true) {
+      attempts++;
+      try (Stage stage = PerformanceMetrics.getInstance().stage("batch", "file").bytes(source.length())) {
+        SchemaStructure parquet = castService.describe(source);
+        if (strict && !schemaService.isSameNumberOfColumns(parquet, schema)) {
+          return result(source, target, BatchReport.Status.SKIPPED, 0, attempts, start,
+              parquet.fields.size() + " column(s), the schema has " + schema.fields.size());
+        }
+        long rows = write(source, parquet.toTransform(schema), target, options);
+        stage.rows(rows);
+        return result(source, target, BatchReport.Status.DONE, rows, attempts, start, null);
+      } catch (IllegalArgumentException e) {
+        // A bad type in the schema fails the same way every time
+        return result(source, target, BatchReport.Status.FAILED, 0, attempts, start, e.getMessage());
+      } catch (Exception e) {
+        if (attempts > retries || cancelled.getAsBoolean()) {
+          LOGGER.warn("Could not rewrite " + source + " after " + attempts + " attempt(s)", e);
+          return result(source, target, BatchReport.Status.FAILED, 0, attempts, start, e.getMessage());
+        }
+        LOGGER.info("Retrying " + source + ": " + e.getMessage());
+      }
+      try {
+        Thread.sleep(RETRY_DELAY_MS * attempts);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return result(source, target, BatchReport.Status.CANCELLED, 0, attempts, start, null);
+      }
+    }
+  }
+
+  private long write(File source, SchemaStructure transform, File target, ParquetWriteOptions options)
+      throws Exception {
+    File parent = target.getAbsoluteFile().getParentFile();
+    Files.createDirectories(parent.toPath());
+    File partial = new File(parent, "." + target.getName() + ".partial");
+    try {
+      Files.deleteIfExists(partial.toPath());
+      long rows = castService.write(source, transform, partial, options);
+      Files.move(partial.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      return rows;
+    } finally {
+      Files.deleteIfExists(partial.toPath());
+    }
+  }
+
+  private static BatchReport.FileResult result(File source, File target, BatchReport.Status status, long rows,
+                                               int attempts, long startNanos, String message) {
+    long millis = (System.nanoTime() - startNanos) / 1_000_000;
+    return new BatchReport.FileResult(source, target, status, rows, attempts, millis, message);
+  }
+
+  private static List<File> targets(List<File> files, File outputDirectory) {
+    Path base = commonParent(files);
+    List<File> targets = new ArrayList<>(files.size());
+    for (File file : files) {
+      Path source = file.toPath().toAbsolutePath().normalize();
+      File target = outputDirectory.toPath().toAbsolutePath().normalize().resolve(base.relativize(source)).toFile();
+      if (target.toPath().equals(source)) {
+        throw new IllegalArgumentException("The output directory must differ from the source directory: " + outputDirectory);
+      }
+      targets.add(target);
+    }
+    return targets;
+  }
+
+  static Path commonParent(List<File> files) {
+    Path common = null;
+    for (File file : files) {
+      Path parent = file.toPath().toAbsolutePath().normalize().getParent();
+      if (common == null) {
+        common = parent;
+      } else {
+        while (!parent.startsWith(common)) {
+          common = common.getParent();
+        }
+      }
+    }
+    return common != null ? common : Paths.get("").toAbsolutePath();
+  }
+
+  private static int firstWildcard(String pattern) {
+    for (int i = 0; i < pattern.length(); i++) {
+      if ("*?[{".indexOf(pattern.charAt(i)) >= 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.ColumnEdit;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.ValueParser;
+import com.intellij.openapi.diagnostic.Logger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Edits one column over many rows at once: fill with a value, find and replace, set to
+ * NULL, or apply a DuckDB SQL expression.
+ *
+ * <p>The {@code prepare*} methods compute every new value without touching the model and
+ * fail as a whole when a value cannot be converted; they can run off the UI thread.
+ * {@link #apply(ParquetTableModel, ColumnEdit)} then writes the values with a single table
+ * change event.
+ */
+public class BulkEditService {
+  private static final Logger LOGGER = Logger.getInstance(BulkEditService.class);
+
+  private static final int MAX_REPORTED_ERRORS = 5;
+
+  private final DuckDBParquetService duckDBService;
+
+  public BulkEditService() {
+    this(new DuckDBParquetService());
+  }
+
+  public BulkEditService(DuckDBParquetService duckDBService) {
+    this.duckDBService = duckDBService;
+  }
+
+  /**
+   * Prepares setting every target cell to the same value. The text is converted once.
+   *
+   * @param rowIndices the model rows to edit, or null for every row
+   * @throws IllegalArgumentException if the value does not fit the column type
+   */
+  public ColumnEdit prepareFill(ParquetTableModel model, int columnIndex, int[] rowIndices, String value) {
+    Object converted = model.parseValue(columnIndex, value);
+    int count = targetCount(model, rowIndices);
+    return new ColumnEdit("fill", columnIndex, rowIndices, Collections.nCopies(count, converted), count);
+  }
+
+  /**
+   * Prepares setting every target cell to NULL.
+   *
+   * @param rowIndices the model rows to edit, or null for every row
+   */
+  public ColumnEdit prepareSetNull(ParquetTableModel model, int columnIndex, int[] rowIndices) {
+    int count = targetCount(model, rowIndices);
+    return new ColumnEdit("set_null", columnIndex, rowIndices, Collections.nCopies(count, null), count);
+  }
+
+  /**
+   * Prepares replacing text in the target cells. Cells that do not contain the search text
+   * and NULL cells keep their value; the others are converted back to the column type.
+   *
+   * @param find the text to search, or a regular expression when {@code regex} is set
+   * @param replacement the replacement; with {@code regex}, {@code $1} refers to groups
+   * @param rowIndices the model rows to edit, or null for every row
+   * @throws IllegalArgumentException if the pattern is invalid or a result does not fit
+   *     the column type
+   */
+  public ColumnEdit prepareReplace(ParquetTableModel model, int columnIndex, int[] rowIndices,
+                                   String find, String replacement, boolean regex) {
+    if (find == null || find.isEmpty()) {
+      throw new IllegalArgumentException("The text to find cannot be empty");
+    }
+    Pattern pattern = regex ? Pattern.compile(find) : Pattern.compile(Pattern.quote(find));
+    String replaceWith = regex ? replacement : Matcher.quoteReplacement(replacement);
+
+    ValueParser parser = ValueParser.forType(model.getColumnTypes().get(columnIndex));
+    List<Object> current = model.getColumnValues(columnIndex, rowIndices);
+    List<Object> updated = new ArrayList<>(current.size());
+    List<String> errors = new ArrayList<>();
+    int changed = 0;
+    try (Stage stage = PerformanceMetrics.getInstance().stage("bulk_edit", "replace").rows(current.size())) {
+      Matcher matcher = pattern.matcher("");
+      for (int i = 0; i < current.size(); i++) {
+        Object value = current.get(i);
+        if (value == null) {
+          updated.add(null);
+          continue;
+        }
+        matcher.reset(value.toString());
+        if (!matcher.find()) {
+          updated.add(value);
+          continue;
+        }
+        String replaced = matcher.replaceAll(replaceWith);
+        Object converted = parser.parse(replaced);
+        if (converted == ValueParser.INVALID) {
+          updated.add(value);
+          errors.add("row " + (rowIndices != null ? rowIndices[i] : i) + ": '" + replaced + "'");
+        } else {
+          updated.add(converted);
+          changed++;
+        }
+      }
+    }
+    if (!errors.isEmpty()) {
+      throw conversionError(model, columnIndex, errors);
+    }
+    return new ColumnEdit("replace", columnIndex, rowIndices, updated, changed);
+  }
+
+  /**
+   * Prepares computing the target cells with a DuckDB SQL expression evaluated over the
+   * whole rows, so the expression can use any column, e.g. {@code upper(name)} or
+   * {@code amount * 1.18}.
+   *
+   * @param expression the SQL expression; its result is cast to the column type
+   * @param rowIndices the model rows to edit, or null for every row
+   * @throws SQLException if the expression is invalid or its result cannot be cast
+   */
+  public ColumnEdit prepareExpression(ParquetTableModel model, int columnIndex, int[] rowIndices, String expression)
+      throws SQLException {
+    if (expression == null || expression.trim().isEmpty()) {
+      throw new IllegalArgumentException("The expression cannot be empty");
+    }
+    List<String> columnNames = model.getColumnNames();
+    int count = targetCount(model, rowIndices);
+    List<List<Object>> rows = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int rowIndex = rowIndices != null ? rowIndices[i] : i;
+      List<Object> row = new ArrayList<>(columnNames.size());
+      for (int c = 0; c < columnNames.size(); c++) {
+        row.add(model.getValueAt(rowIndex, c));
+      }
+      rows.add(row);
+    }
+
+    List<Object> results = duckDBService.evaluateExpression(
+        columnNames, model.getColumnTypes(), rows, expression.trim(), model.getColumnTypes().get(columnIndex));
+    return new ColumnEdit("expression", columnIndex, rowIndices, results, count);
+  }
+
+  /**
+   * Writes a prepared edit to the model with a single table change event.
+   *
+   * @return the previous values of the edited cells, in the order of the edit's rows
+   */
+  public List<Object> apply(ParquetTableModel model, ColumnEdit edit) {
+    if (edit.getValues().isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<Object> previous;
+    try (Stage stage = PerformanceMetrics.getInstance().stage("bulk_edit", "write").rows(edit.getValues().size())) {
+      previous = model.setColumnValues(edit.getColumnIndex(), edit.getRowIndices(), edit.getValues());
+    }
+    LOGGER.info("Bulk edit " + edit.getOperation() + ": " + edit.getChangedCount() + " cell(s) changed in column "
+        + model.getColumnNames().get(edit.getColumnIndex()));
+    return previous;
+  }
+
+  private static int targetCount(ParquetTableModel model, int[] rowIndices) {
+    return rowIndices != null ? rowIndices.length : model.getRowCount();
+  }
+
+  private static IllegalArgumentException conversionError(ParquetTableModel model, int columnIndex, List<String> errors) {
+    StringBuilder message = new StringBuilder()
+        .append(errors.size())
+        .append(" value(s) cannot be converted to ")
+        .append(model.getColumnTypes().get(columnIndex))
+        .append(", nothing was changed:");
+    for (String error : errors.subList(0, Math.min(MAX_REPORTED_ERRORS, errors.size()))) {
+      message.append("\n  ").append(error);
+    }
+    if (errors.size() > MAX_REPORTED_ERRORS) {
+      message.append("\n  ...");
+    }
+    return new IllegalArgumentException(message.toString());
+  }
+}
@@ -0,0 +1,278 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.DuckDBQueryEvent;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.ClusterReport;
+import com.github.jhordyhuaman.parquetstudio.model.OverlapReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Saves data sorted by some columns, so that the min/max statistics of each row group cover
+ * narrow, mostly disjoint ranges and readers can skip row groups.
+ *
+ * <p>The sort is one DuckDB {@code COPY (... ORDER BY ...)}; DuckDB sorts out of core,
+ * spilling to its temporary directory once the data outgrows its memory limit. The
+ * row-group overlap is measured before and after from the Parquet footers, see
+ * {@link #overlap(File)}.
+ */
+public class ClusterService {
+  private static final Logger LOGGER = Logger.getInstance(ClusterService.class);
+
+  /** DuckDB's default number of rows per row group. */
+  public static final long DEFAULT_ROW_GROUP_SIZE = 122_880;
+  private static final Set<String> NUMERIC_PHYSICAL_TYPES = Set.of("INT32", "INT64", "FLOAT", "DOUBLE");
+
+  private final DuckDBParquetService duckDBService;
+
+  public ClusterService() {
+    this(new DuckDBParquetService());
+  }
+
+  public ClusterService(DuckDBParquetService duckDBService) {
+    this.duckDBService = duckDBService;
+  }
+
+  /**
+   * Writes a Parquet file sorted by the given columns, read by DuckDB straight from disk.
+   *
+   * @param sortColumns the sort keys, most significant first
+   * @param cancelled polled while the sort runs; the statement is interrupted once it returns true
+   * @return the rows written and the overlap of the source and the new file
+   * @throws CancellationException if the save was cancelled
+   */
+  public ClusterReport write(File source, List<String> sortColumns, ParquetWriteOptions options, File target,
+                             BooleanSupplier cancelled) throws Exception {
+    OverlapReport before = overlap(source);
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      long rows = copySorted(st, DuckDBParquetService.readParquet(source), sortColumns, options, target, cancelled);
+      return new ClusterReport(rows, sortColumns, before, overlap(target));
+    }
+  }
+
+  /**
+   * Writes the rows of a table model sorted by the given columns. The rows are appended
+   * from the model to DuckDB first; the model must not change until this returns. The
+   * overlap before is measured over chunks of the table rows as large as the row groups.
+   *
+   * @see #write(File, List, ParquetWriteOptions, File, BooleanSupplier)
+   */
+  public ClusterReport write(ParquetTableModel model, List<String> sortColumns, ParquetWriteOptions options,
+                             File target, BooleanSupplier cancelled) throws Exception {
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      String table = duckDBService.createRowsTable(conn, "cluster", model);
+      try {
+        long chunk = options.getRowGroupSize() > 0 ? options.getRowGroupSize() : DEFAULT_ROW_GROUP_SIZE;
+        OverlapReport before = chunkOverlap(st, table, model.getColumnNames(), model.getColumnTypes(), chunk);
+        long written = copySorted(st, table, sortColumns, options, target, cancelled);
+        return new ClusterReport(written, sortColumns, before, overlap(target));
+      } finally {
+        st.execute("DROP TABLE IF EXISTS " + table);
+      }
+    }
+  }
+
+  /**
+   * Measures the row-group overlap of a Parquet file from the statistics in its footer,
+   * without reading any rows. Columns without statistics are left out.
+   */
+  public OverlapReport overlap(File parquet) throws SQLException {
+    Map<String, List<String[]>> ranges = new LinkedHashMap<>();
+    Map<String, Boolean> numeric = new LinkedHashMap<>();
+    int rowGroups = 0;
+    String sql = "SELECT row_group_id, path_in_schema, type, coalesce(stats_min_value, stats_min), "
+        + "coalesce(stats_max_value, stats_max) FROM parquet_metadata(" + DuckDBParquetService.sqlLiteral(parquet) + ") ORDER BY column_id, row_group_id";
+    try (Stage stage = PerformanceMetrics.getInstance().stage("cluster", "overlap").bytes(parquet.length());
+         Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement();
+         ResultSet rs = st.executeQuery(sql)) {
+      while (rs.next()) {
+        rowGroups = Math.max(rowGroups, rs.getInt(1) + 1);
+        String column = rs.getString(2);
+        ranges.computeIfAbsent(column, key -> new ArrayList<>()).add(new String[] {rs.getString(4), rs.getString(5)});
+        numeric.put(column, NUMERIC_PHYSICAL_TYPES.contains(rs.getString(3)));
+      }
+    }
+    OverlapReport report = new OverlapReport(rowGroups);
+    for (Map.Entry<String, List<String[]>> column : ranges.entrySet()) {
+      addOverlap(report, column.getKey(), column.getValue(), numeric.get(column.getKey()));
+    }
+    return report;
+  }
+
+  private OverlapReport chunkOverlap(Statement st, String table, List<String> columns, List<String> types, long chunk)
+      throws SQLException {
+    List<String> measured = new ArrayList<>();
+    StringBuilder sql = new StringBuilder("SELECT \"__chunk\"");
+    for (int i = 0; i < columns.size(); i++) {
+      String type = types.get(i).toUpperCase(Locale.ROOT);
+      if (type.contains("[") || type.startsWith("STRUCT") || type.startsWith("MAP")) {
+        continue;
+      }
+      measured.add(columns.get(i));
+      String column = DuckDBParquetService.ident(columns.get(i));
+      sql.append(", CAST(min(").append(column).append(") AS VARCHAR), CAST(max(").append(column).append(") AS VARCHAR)");
+    }
+    sql.append(" FROM (SELECT *, (row_number() OVER () - 1) // ").append(chunk).append(" AS \"__chunk\" FROM ")
+        .append(table).append(") GROUP BY \"__chunk\" ORDER BY \"__chunk\"");
+
+    List<List<String[]>> ranges = new ArrayList<>();
+    for (int i = 0; i < measured.size(); i++) {
+      ranges.add(new ArrayList<>());
+    }
+    int chunks = 0;
+    try (Stage stage = PerformanceMetrics.getInstance().stage("cluster", "overlap");
+         ResultSet rs = st.executeQuery(sql.toString())) {
+      while (rs.next()) {
+        chunks++;
+        for (int i = 0; i < measured.size(); i++) {
+          ranges.get(i).add(new String[] {rs.getString(2 + 2 * i), rs.getString(3 + 2 * i)});
+        }
+      }
+    }
+    OverlapReport report = new OverlapReport(chunks);
+    for (int i = 0; i < measured.size(); i++) {
+      String type = types.get(columns.indexOf(measured.get(i))).toUpperCase(Locale.ROOT);
+      boolean numeric = type.matches("(TINY|SMALL|BIG|U?)INT.*|INTEGER|HUGEINT|FLOAT|DOUBLE|REAL|DECIMAL.*");
+      addOverlap(report, measured.get(i), ranges.get(i), numeric);
+    }
+    return report;
+  }
+
+  private long copySorted(Statement st, String relation, List<String> sortColumns, ParquetWriteOptions options,
+                          File target, BooleanSupplier cancelled) throws Exception {
+    List<String> columns = new ArrayList<>();
+    try (ResultSet rs = st.executeQuery("DESCRIBE SELECT * FROM " + relation)) {
+      while (rs.next()) {
+        columns.add(rs.getString("column_name"));
+      }
+    }
+    if (sortColumns.isEmpty()) {
+      throw new IllegalArgumentException("Select at least one sort column");
+    }
+    StringBuilder orderBy = new StringBuilder();
+    for (String column : sortColumns) {
+      if (!columns.contains(column)) {
+        throw new IllegalArgumentException("Unknown sort column: " + column);
+      }
+      if (orderBy.length() > 0) orderBy.append(", ");
+      orderBy.append(DuckDBParquetService.ident(column));
+    }
+
+    File parent = target.getAbsoluteFile().getParentFile();
+    File partial = new File(parent, "." + target.getName() + ".partial");
+    String copy = "COPY (SELECT * FROM " + relation + " ORDER BY " + orderBy + ") TO " + DuckDBParquetService.sqlLiteral(partial) + " ("
+        + options.toCopyOptions() + ")";
+    LOGGER.info("Saving " + relation + " sorted by " + sortColumns + " to " + target + ", " + options);
+    try (Stage stage = PerformanceMetrics.getInstance().stage("cluster", "sort");
+         DuckDBQueryEvent event = new DuckDBQueryEvent("cluster", target, copy)) {
+      ScheduledFuture<?> watcher = StatementWatcher.watch(st, cancelled, () -> { });
+      long rows;
+      try {
+        rows = st.executeUpdate(copy);
+      } catch (SQLException e) {
+        if (cancelled.getAsBoolean()) {
+          throw new CancellationException("Sorted save cancelled");
+        }
+        throw e;
+      } finally {
+        watcher.cancel(false);
+      }
+      Files.move(partial.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      stage.rows(rows).bytes(target.length());
+      event.rows(rows).bytes(target.length()).completed();
+      return rows;
+    } finally {
+      Files.deleteIfExists(partial.toPath());
+    }
+  }
+
+  /**
+   * Records the share of range pairs that overlap. Sorted by min, range i overlaps exactly
+   * the later ranges whose min is at most its max, so a binary search per range counts them.
+   */
+  private static void addOverlap(OverlapReport report, String column, List<String[]> ranges, boolean numeric) {
+    List<Object[]> bounds = new ArrayList<>();
+    for (String[] range : ranges) {
+      if (range[0] != null && range[1] != null) {
+        bounds.add(new Object[] {key(range[0], numeric), key(range[1], numeric)});
+      }
+    }
+    if (bounds.isEmpty()) {
+      return;
+    }
+    Comparator<Object> order = ClusterService::compare;
+    bounds.sort((a, b) -> order.compare(a[0], b[0]));
+    long overlapping = 0;
+    int n = bounds.size();
+    for (int i = 0; i < n; i++) {
+      int low = i + 1;
+      int high = n;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (order.compare(bounds.get(mid)[0], bounds.get(i)[1]) <= 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      overlapping += low - i - 1;
+    }
+    long pairs = (long) n * (n - 1) / 2;
+    report.add(column, pairs == 0 ? 0 : (double) overlapping / pairs);
+  }
+
+  // Numeric statistics compare as numbers, everything else, e.g. ISO dates, as text
+  private static Object key(String value, boolean numeric) {
+    if (numeric) {
+      try {
+        return new BigDecimal(value);
+      } catch (NumberFormatException e) {
+        // NaN or infinity; fall back to text
+      }
+    }
+    return value;
+  }
+
+  private static int compare(Object a, Object b) {
+    if (a instanceof BigDecimal && b instanceof BigDecimal) {
+      return ((BigDecimal) a).compareTo((BigDecimal) b);
+    }
+    return a.toString().compareTo(b.toString());
+  }
+}
@@ -0,0 +1,277 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.BatchReport;
+import com.github.jhordyhuaman.parquetstudio.model.CompactionReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Compacts many small Parquet files, e.g. the output of a streaming job, into a few files
+ * near a target size.
+ *
+ * <p>Files are grouped by directory, so each hive partition such as {@code day=1/} is
+ * compacted on its own and keeps its path. In each group the files smaller than half the
+ * target are rewritten with one {@link DuckDBParquetService#compactFiles} {@code COPY} into
+ * a hidden staging directory; the row count of the new files is checked against the inputs
+ * before they are moved into place, and only then are the inputs removed. Into an output
+ * directory the files that are not rewritten are copied as they are.
+ */
+public class CompactionService {
+  private static final Logger LOGGER = Logger.getInstance(CompactionService.class);
+
+  public static final String TARGET_PROPERTY = "parquetstudio.compact.targetMb";
+  public static final int DEFAULT_TARGET_MB = 128;
+  private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+  private final DuckDBParquetService parquetService;
+  private final SchemaCastService castService;
+
+  public CompactionService() {
+    this(new DuckDBParquetService());
+  }
+
+  public CompactionService(DuckDBParquetService parquetService) {
+    this.parquetService = parquetService;
+    this.castService = new SchemaCastService(parquetService);
+  }
+
+  /**
+   * Gets the default target file size in bytes, from the {@value #TARGET_PROPERTY} system
+   * property.
+   */
+  public static long defaultTargetBytes() {
+    return Math.max(1, Integer.getInteger(TARGET_PROPERTY, DEFAULT_TARGET_MB)) * 1024L * 1024L;
+  }
+
+  /**
+   * Compacts the small files of every directory. Blocks until done.
+   *
+   * @param files the Parquet files, e.g. from {@link BatchTransformService#findFiles}
+   * @param outputDirectory where compacted files go, with the files left alone copied
+   *     next to them, keeping their paths relative to the closest directory holding all
+   *     inputs; null compacts in place and deletes the inputs
+   * @param targetBytes the size of each compacted file; files of at least half this size
+   *     are left alone
+   * @param listener receives each partition as it finishes, may be null
+   * @param cancelled polled before each partition and while it is copied
+   * @return one group per directory
+   */
+  public CompactionReport compact(List<File> files, File outputDirectory, long targetBytes, ParquetWriteOptions options,
+                                  Consumer<CompactionReport.Group> listener, BooleanSupplier cancelled) {
+    Path base = BatchTransformService.commonParent(files);
+    Map<File, List<File>> groups = new LinkedHashMap<>();
+    for (File file : files) {
+      groups.computeIfAbsent(file.getAbsoluteFile().getParentFile(), key -> new ArrayList<>()).add(file);
+    }
+    LOGGER.info("Compacting " + files.size() + " file(s) in " + groups.size() + " director(ies) to "
+        + targetBytes + " byte(s) per file, " + options + (outputDirectory == null ? ", in place" : " into " + outputDirectory));
+
+    CompactionReport report = new CompactionReport();
+    try (Stage total = PerformanceMetrics.getInstance().stage("compact", "total")) {
+      long rows = 0;
+      for (Map.Entry<File, List<File>> group : groups.entrySet()) {
+        File directory = group.getKey();
+        File target = outputDirectory == null ? directory
+            : outputDirectory.toPath().toAbsolutePath().normalize().resolve(base.relativize(directory.toPath().normalize())).toFile();
+        CompactionReport.Group result = cancelled.getAsBoolean()
+            ? new CompactionReport.Group(directory, BatchReport.Status.CANCELLED, group.getValue().size(), 0, 0, 0, 0, 0, null)
+            : compactGroup(directory, group.getValue(), target, outputDirectory == null, targetBytes, options, cancelled);
+        rows += result.getRows();
+        report.add(result);
+        if (listener != null) listener.accept(result);
+      }
+      total.rows(rows);
+    }
+    LOGGER.info("Compaction finished: " + report.format());
+    return report;
+  }
+
+  private CompactionReport.Group compactGroup(File directory, List<File> files, File target, boolean inPlace,
+                                              long targetBytes, ParquetWriteOptions options, BooleanSupplier cancelled) {
+    List<File> small = new ArrayList<>();
+    List<File> large = new ArrayList<>();
+    long inputBytes = 0;
+    for (File file : files) {
+      if (file.length() < targetBytes / 2) {
+        small.add(file);
+        inputBytes += file.length();
+      } else {
+        large.add(file);
+      }
+    }
+    if (small.size() < 2) {
+      return skip(directory, files, target, inPlace, small.size(), inputBytes, "already compact");
+    }
+
+    File staging = new File(target, ".compact-" + System.nanoTime());
+    try {
+      String mismatch = schemaMismatch(small);
+      if (mismatch != null) {
+        return skip(directory, files, target, inPlace, small.size(), inputBytes, mismatch);
+      }
+      long inputRows = countRows(small);
+      Files.createDirectories(target.toPath());
+      long written = parquetService.compactFiles(small, staging, options, targetBytes, cancelled);
+      List<File> staged = listFiles(staging);
+      long stagedRows = countRows(staged);
+      if (written != inputRows || stagedRows != inputRows) {
+        throw new IOException("Row count mismatch: " + inputRows + " row(s) read, " + stagedRows + " written");
+      }
+
+      List<File> outputs = moveStaged(staged, target);
+      if (inPlace) {
+        for (File file : small) {
+          Files.deleteIfExists(file.toPath());
+        }
+      } else {
+        copyUnchanged(large, target);
+      }
+      long outputBytes = 0;
+      for (File output : outputs) {
+        outputBytes += output.length();
+      }
+      return new CompactionReport.Group(directory, BatchReport.Status.DONE, small.size(), inputBytes, outputs.size(),
+          outputBytes, inPlace ? 0 : large.size(), inputRows, null);
+    } catch (CancellationException e) {
+      return new CompactionReport.Group(directory, BatchReport.Status.CANCELLED, small.size(), inputBytes, 0, 0, 0, 0, null);
+    } catch (Exception e) {
+      LOGGER.warn("Could not compact " + directory, e);
+      return new CompactionReport.Group(directory, BatchReport.Status.FAILED, small.size(), inputBytes, 0, 0, 0, 0,
+          e.getMessage());
+    } finally {
+      deleteStaging(staging);
+    }
+  }
+
+  /**
+   * Skips a partition. Into an output directory its files are copied as they are, so the
+   * output holds the whole dataset.
+   */
+  private CompactionReport.Group skip(File directory, List<File> files, File target, boolean inPlace,
+                                      int smallFiles, long inputBytes, String reason) {
+    if (inPlace) {
+      return new CompactionReport.Group(directory, BatchReport.Status.SKIPPED, smallFiles, inputBytes, 0, 0, 0, 0, reason);
+    }
+    try {
+      copyUnchanged(files, target);
+      return new CompactionReport.Group(directory, BatchReport.Status.SKIPPED, smallFiles, inputBytes, 0, 0,
+          files.size(), 0, reason);
+    } catch (IOException e) {
+      LOGGER.warn("Could not copy " + directory, e);
+      return new CompactionReport.Group(directory, BatchReport.Status.FAILED, smallFiles, inputBytes, 0, 0, 0, 0,
+          "could not copy the files: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Copies files that are not rewritten into the output directory, keeping their names.
+   */
+  private static void copyUnchanged(List<File> files, File target) throws IOException {
+    Files.createDirectories(target.toPath());
+    for (File file : files) {
+      Files.copy(file.toPath(), new File(target, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.COPY_ATTRIBUTES);
+    }
+  }
+
+  /**
+   * Describes every file from its footer and reports the first one whose columns differ
+   * from the first file's, since a single {@code COPY} cannot merge them.
+   */
+  private String schemaMismatch(List<File> files) throws Exception {
+    String expected = null;
+    for (File file : files) {
+      SchemaStructure schema = castService.describe(file);
+      String columns = schema.fields.toString();
+      if (expected == null) {
+        expected = columns;
+      } else if (!expected.equals(columns)) {
+        return "schema of " + file.getName() + " differs from " + files.get(0).getName();
+      }
+    }
+    return null;
+  }
+
+  private static long countRows(List<File> files) throws SQLException {
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement();
+         ResultSet rs = st.executeQuery("SELECT count(*) FROM read_parquet("
+             + DuckDBParquetService.fileList(files) + ", hive_partitioning = false)")) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  private static List<File> listFiles(File directory) throws IOException {
+    File[] files = directory.listFiles(File::isFile);
+    if (files == null || files.length == 0) {
+      throw new IOException("No files written to " + directory);
+    }
+    Arrays.sort(files, Comparator.comparing(File::getName));
+    return Arrays.asList(files);
+  }
+
+  private static List<File> moveStaged(List<File> staged, File target) throws IOException {
+    String stamp = LocalDateTime.now().format(STAMP);
+    List<File> outputs = new ArrayList<>(staged.size());
+    for (int i = 0; i < staged.size(); i++) {
+      File output = new File(target, "compacted-" + stamp + "-" + i + ".parquet");
+      for (int n = 1; output.exists(); n++) {
+        output = new File(target, "compacted-" + stamp + "-" + i + "-" + n + ".parquet");
+      }
+      Files.move(staged.get(i).toPath(), output.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      outputs.add(output);
+    }
+    return outputs;
+  }
+
+  private static void deleteStaging(File staging) {
+    File[] files = staging.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (!file.delete()) {
+          LOGGER.warn("Could not delete " + file);
+        }
+      }
+    }
+    if (staging.exists() && !staging.delete()) {
+      LOGGER.warn("Could not delete " + staging);
+    }
+  }
+}
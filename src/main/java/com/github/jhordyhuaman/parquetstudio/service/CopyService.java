@@ -0,0 +1,248 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.DuckDBQueryEvent;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.ChunkedText;
+import com.github.jhordyhuaman.parquetstudio.model.DelimitedText;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Copies table selections as TSV, CSV or JSON text.
+ *
+ * <p>{@link #copy} renders rows into a {@link ChunkedText} and is meant to run off the UI
+ * thread while the table is not being edited. Rows a preview has not loaded are exported by
+ * DuckDB with {@link #exportFile}, straight from the Parquet file to a temporary file.
+ */
+public class CopyService {
+  private static final Logger LOGGER = Logger.getInstance(CopyService.class);
+  private static final int SAMPLE_ROWS = 1000;
+  private static final int CANCEL_CHECK_ROWS = 4096;
+
+  /**
+   * Text formats a selection can be copied as.
+   */
+  public enum Format {
+    /** Tab-separated cells without a header, as spreadsheets copy them. */
+    TSV("TSV"),
+    /** Comma-separated cells with a header line. */
+    CSV("CSV"),
+    /** An array of objects keyed by column name. */
+    JSON("JSON");
+
+    private final String label;
+
+    Format(String label) {
+      this.label = label;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+  }
+
+  /**
+   * Renders the given cells.
+   *
+   * @param rows the model rows to copy, in order
+   * @param columns the model columns to copy, in order
+   * @return the copied text
+   * @throws CancellationException if the calling thread is interrupted
+   */
+  public ChunkedText copy(ParquetTableModel model, int[] rows, int[] columns, Format format) {
+    ChunkedText text = new ChunkedText();
+    try (Stage stage = PerformanceMetrics.getInstance().stage("copy", "render").rows(rows.length)) {
+      List<String> names = model.getColumnNames();
+      StringBuilder line = new StringBuilder(256);
+      if (format == Format.CSV) {
+        for (int c = 0; c < columns.length; c++) {
+          if (c > 0) line.append(',');
+          DelimitedText.appendCell(line, names.get(columns[c]), ',');
+        }
+        text.append(line.append('\n'));
+      } else if (format == Format.JSON) {
+        text.append("[");
+      }
+
+      for (int r = 0; r < rows.length; r++) {
+        if (r % CANCEL_CHECK_ROWS == 0 && Thread.currentThread().isInterrupted()) {
+          throw new CancellationException("Copy cancelled after " + r + " row(s)");
+        }
+        line.setLength(0);
+        if (format == Format.JSON) {
+          appendJsonRow(line.append(r == 0 ? "\n" : ",\n"), model, rows[r], columns, names);
+        } else {
+          appendDelimitedRow(line, model, rows[r], columns, format == Format.CSV ? ',' : '\t');
+        }
+        text.append(line);
+      }
+      if (format == Format.JSON) {
+        text.append(rows.length == 0 ? "]\n" : "\n]\n");
+      }
+      stage.bytes(2 * text.length());
+    }
+    LOGGER.info("Copied " + rows.length + " row(s) x " + columns.length + " column(s) as " + format
+        + ", " + text.length() + " character(s)");
+    return text;
+  }
+
+  /**
+   * Estimates the length of {@link #copy} from an evenly spread sample of the rows.
+   *
+   * @return the estimated number of characters
+   */
+  public long estimateLength(ParquetTableModel model, int[] rows, int[] columns, Format format) {
+    if (rows.length == 0) {
+      return 0;
+    }
+    int sample = Math.min(rows.length, SAMPLE_ROWS);
+    int[] sampled = new int[sample];
+    for (int i = 0; i < sample; i++) {
+      sampled[i] = rows[(int) ((long) i * rows.length / sample)];
+    }
+    StringBuilder line = new StringBuilder(256);
+    long sampledLength = 0;
+    for (int row : sampled) {
+      line.setLength(0);
+      if (format == Format.JSON) {
+        appendJsonRow(line, model, row, columns, model.getColumnNames());
+      } else {
+        appendDelimitedRow(line, model, row, columns, format == Format.CSV ? ',' : '\t');
+      }
+      sampledLength += line.length() + 2;
+    }
+    return sampledLength * rows.length / sample;
+  }
+
+  /**
+   * Exports columns of a Parquet file with DuckDB, without loading the rows in the editor.
+   *
+   * @param parquetFile the file to read
+   * @param columns the column names to export, in order
+   * @param limit the maximum number of rows, or a negative value for all of them
+   * @return a temporary file holding the text, to be deleted by the caller
+   * @throws IOException if the temporary file cannot be created
+   * @throws SQLException if DuckDB cannot read the file or write the export
+   */
+  public File exportFile(File parquetFile, List<String> columns, Format format, long limit)
+      throws IOException, SQLException {
+    File target = File.createTempFile("parquet-studio-copy", format == Format.JSON ? ".json" : ".txt");
+    StringBuilder select = new StringBuilder("SELECT ");
+    for (int i = 0; i < columns.size(); i++) {
+      if (i > 0) select.append(", ");
+      select.append(DuckDBParquetService.ident(columns.get(i)));
+    }
+    select.append(" FROM ").append(DuckDBParquetService.readParquet(parquetFile));
+    if (limit >= 0) {
+      select.append(" LIMIT ").append(limit);
+    }
+    String options;
+    switch (format) {
+      case TSV:
+        options = "FORMAT CSV, DELIMITER '\t', HEADER false";
+        break;
+      case CSV:
+        options = "FORMAT CSV, HEADER true";
+        break;
+      default:
+        options = "FORMAT JSON, ARRAY true";
+        break;
+    }
+    String sql = "COPY (" + select + ") TO " + DuckDBParquetService.sqlLiteral(target) + " (" + options + ")";
+
+    try (Stage stage = PerformanceMetrics.getInstance().stage("copy", "export");
+         DuckDBQueryEvent event = new DuckDBQueryEvent("copy", parquetFile, sql);
+         Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      st.execute(sql);
+      stage.bytes(target.length());
+      event.bytes(target.length()).completed();
+    } catch (SQLException | RuntimeException e) {
+      if (!target.delete()) {
+        target.deleteOnExit();
+      }
+      throw e;
+    }
+    LOGGER.info("Exported " + parquetFile.getName() + " as " + format + ": " + target.length() + " byte(s)");
+    return target;
+  }
+
+  private static void appendDelimitedRow(StringBuilder line, ParquetTableModel model, int row,
+                                         int[] columns, char delimiter) {
+    for (int c = 0; c < columns.length; c++) {
+      if (c > 0) line.append(delimiter);
+      Object value = model.getValueAt(row, columns[c]);
+      if (value != null) {
+        DelimitedText.appendCell(line, value.toString(), delimiter);
+      }
+    }
+    line.append('\n');
+  }
+
+  private static void appendJsonRow(StringBuilder line, ParquetTableModel model, int row,
+                                    int[] columns, List<String> names) {
+    line.append('{');
+    for (int c = 0; c < columns.length; c++) {
+      if (c > 0) line.append(", ");
+      appendJsonString(line, names.get(columns[c]));
+      line.append(": ");
+      Object value = model.getValueAt(row, columns[c]);
+      if (value == null) {
+        line.append("null");
+      } else if (value instanceof Boolean || isFiniteNumber(value)) {
+        line.append(value);
+      } else {
+        appendJsonString(line, value.toString());
+      }
+    }
+    line.append('}');
+  }
+
+  private static boolean isFiniteNumber(Object value) {
+    if (value instanceof Double) return Double.isFinite((Double) value);
+    if (value instanceof Float) return Float.isFinite((Float) value);
+    return value instanceof Number;
+  }
+
+  private static void appendJsonString(StringBuilder out, String text) {
+    out.append('"');
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '"': out.append("\\\""); break;
+        case '\\': out.append("\\\\"); break;
+        case '\n': out.append("\\n"); break;
+        case '\r': out.append("\\r"); break;
+        case '\t': out.append("\\t"); break;
+        default:
+          if (c < 0x20) {
+            out.append(String.format("\\u%04x", (int) c));
+          } else {
+            out.append(c);
+          }
+      }
+    }
+    out.append('"');
+  }
+}
@@ -2,20 +2,28 @@ package com.github.jhordyhuaman.parquetstudio.service;
 
 import com.github.jhordyhuaman.parquetstudio.Constants;
 import com.github.jhordyhuaman.parquetstudio.SchemaItemTransformSerializer;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
 import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaChange;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaItem;
 import com.github.jhordyhuaman.parquetstudio.model.SchemaItemTransform;
 import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.intellij.openapi.diagnostic.Logger;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 
 public class DataSchemaService {
     private final Logger LOGGER = Logger.getInstance(DataSchemaService.class);
     private SchemaStructure schemaStructureOriginal;
     private SchemaStructure schemaStructureTransform;
+    /** The schema as read from {@link #schemaFile}, before it is merged into the transform. */
+    private SchemaStructure schemaStructureFile;
     public File schemaFile;
 
     public String convertToJsonString(Object schema) {
@@ -59,26 +67,96 @@ public class DataSchemaService {
         if(schemaStructureOriginal == null){
             throw new Exception("First load a file parquet");
         }
-        SchemaStructure schemaStructure = SchemaStructure.schemaFromFile(schemaFile.getAbsolutePath());
-        schemaStructure.changesTypesFields();
-
-        schemaStructureTransform = schemaStructureOriginal.toTransform(schemaStructure);
-        String schemaString = convertToJsonString(schemaStructureTransform);
+        String schemaString;
+        try (Stage stage = PerformanceMetrics.getInstance().stage("schema", "transform")) {
+            SchemaStructure schemaStructure = SchemaStructure.schemaFromFile(schemaFile.getAbsolutePath());
+            schemaStructure.changesTypesFields();
+
+            schemaStructureFile = schemaStructure;
+            schemaStructureTransform = schemaStructureOriginal.toTransform(schemaStructure);
+            schemaString = convertToJsonString(schemaStructureTransform);
+            stage.bytes(schemaString.length());
+        }
         LOGGER.warn("Write other schema in " + Constants.SCHEMA_PANEL);
         return schemaString;
     }
 
     public String generateOriginalSchemaString(List<String> columnNames, List<String> columnTypes) throws Exception{
-        SchemaStructure schemaStructure = SchemaStructure.schemaFromLists(columnNames, columnTypes);
-        String schemString = convertToJsonString(schemaStructure);
-        schemaStructureOriginal = schemaStructure;
+        return generateOriginalSchemaString(columnNames, columnTypes, List.of());
+    }
+
+    /**
+     * Same as {@link #generateOriginalSchemaString(List, List)}, recording the Hive partition
+     * columns of the file.
+     */
+    public String generateOriginalSchemaString(List<String> columnNames, List<String> columnTypes, List<String> partitions) throws Exception{
+        String schemString;
+        try (Stage stage = PerformanceMetrics.getInstance().stage("schema", "original")) {
+            SchemaStructure schemaStructure = SchemaStructure.schemaFromLists(columnNames, columnTypes, partitions);
+            schemString = convertToJsonString(schemaStructure);
+            schemaStructureOriginal = schemaStructure;
+            stage.bytes(schemString.length());
+        }
 
         LOGGER.info("Write schema of parquet in " + Constants.SCHEMA_PANEL);
         return schemString;
     }
 
+    /**
+     * Strict mode check for the open parquet and the loaded schema file. The transform holds
+     * one field per parquet column, so the schema is compared as read from its file.
+     */
     public boolean isSameNumberOfColumns(){
-        return schemaStructureOriginal.fields.size() != schemaStructureTransform.fields.size();
+        return schemaStructureFile != null && isSameNumberOfColumns(schemaStructureOriginal, schemaStructureFile);
+    }
+
+    /**
+     * Strict mode check: the schema defines as many fields as the parquet has columns.
+     */
+    public boolean isSameNumberOfColumns(SchemaStructure parquet, SchemaStructure schema){
+        return parquet.fields.size() == schema.fields.size();
+    }
+
+    /**
+     * Lists how a schema differs from a reference: added and removed columns, type changes,
+     * and nullability changes where both schemas say whether the column is nullable.
+     */
+    public List<SchemaChange> compareSchemas(SchemaStructure reference, SchemaStructure actual){
+        List<SchemaChange> changes = new ArrayList<>();
+        for(SchemaItem expected : reference.fields){
+            SchemaItem found = actual.getItem(expected.name);
+            if(found == null){
+                changes.add(new SchemaChange(SchemaChange.Kind.REMOVED, expected.name, sqlType(expected.type), null));
+                continue;
+            }
+            if(!sqlType(expected.type).equals(sqlType(found.type))){
+                changes.add(new SchemaChange(SchemaChange.Kind.TYPE_CHANGED, expected.name, sqlType(expected.type), sqlType(found.type)));
+            }
+            if(expected.nullable != null && found.nullable != null && !expected.nullable.equals(found.nullable)){
+                changes.add(new SchemaChange(SchemaChange.Kind.NULLABILITY_CHANGED, expected.name,
+                        expected.nullable ? "nullable" : "required", found.nullable ? "nullable" : "required"));
+            }
+        }
+        for(SchemaItem found : actual.fields){
+            if(reference.getItem(found.name) == null){
+                changes.add(new SchemaChange(SchemaChange.Kind.ADDED, found.name, null, sqlType(found.type)));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Maps a schema file type, e.g. {@code string} or {@code long}, to the DuckDB type name.
+     */
+    public static String sqlType(Object type){
+        String name = String.valueOf(type);
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "string" -> "VARCHAR";
+            case "long" -> "BIGINT";
+            case "int" -> "INTEGER";
+            case "bytes" -> "BLOB";
+            default -> name.toUpperCase(Locale.ROOT);
+        };
     }
 
 }
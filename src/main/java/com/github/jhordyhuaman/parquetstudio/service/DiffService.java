@@ -0,0 +1,226 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.DuckDBQueryEvent;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.DiffReport;
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Compares two Parquet files row by row, matching rows on key columns.
+ *
+ * <p>The comparison is one DuckDB hash {@code FULL OUTER JOIN} over {@code read_parquet} of
+ * both files, reading only the key and shared columns; DuckDB streams the files and spills
+ * the join to its temporary directory once it outgrows its memory limit, so neither file is
+ * loaded into a table model. Only the rows that differ are kept, in a table ordered by key
+ * that the returned {@link DiffSession} pages through.
+ */
+public class DiffService {
+  private static final Logger LOGGER = Logger.getInstance(DiffService.class);
+
+  /**
+   * Compares two files.
+   *
+   * @param left the "before" file
+   * @param right the "after" file
+   * @param keyColumns the columns identifying a row; they must be unique in both files
+   * @param cancelled polled while the comparison runs; the query is interrupted once it returns true
+   * @return the differing rows and their counts; close it to free the rows
+   * @throws IllegalArgumentException if a key column is missing or the keys are not unique
+   * @throws CancellationException if the comparison was cancelled
+   */
+  public DiffSession diff(File left, File right, List<String> keyColumns, BooleanSupplier cancelled) throws Exception {
+    if (keyColumns.isEmpty()) {
+      throw new IllegalArgumentException("Select at least one key column");
+    }
+    PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+    Connection conn = DuckDBParquetService.openConnection();
+    String table = DuckDBParquetService.scratchTableName("diff");
+    try (Stage total = metrics.stage("diff", "total").bytes(left.length() + right.length());
+         Statement st = conn.createStatement()) {
+      Map<String, String> leftTypes = describe(st, left);
+      Map<String, String> rightTypes = describe(st, right);
+      for (String key : keyColumns) {
+        if (!leftTypes.containsKey(key) || !rightTypes.containsKey(key)) {
+          throw new IllegalArgumentException("Key column " + key + " is not in "
+              + (leftTypes.containsKey(key) ? right : left).getName());
+        }
+      }
+      List<String> compared = new ArrayList<>();
+      List<String> leftOnly = new ArrayList<>();
+      for (String column : leftTypes.keySet()) {
+        if (!rightTypes.containsKey(column)) {
+          leftOnly.add(column);
+        } else if (!keyColumns.contains(column)) {
+          compared.add(column);
+        }
+      }
+      List<String> rightOnly = new ArrayList<>();
+      for (String column : rightTypes.keySet()) {
+        if (!leftTypes.containsKey(column)) {
+          rightOnly.add(column);
+        }
+      }
+      DiffReport report = new DiffReport(left, right, keyColumns, compared, leftOnly, rightOnly);
+
+      ScheduledFuture<?> watcher = StatementWatcher.watch(st, cancelled, () -> { });
+      try {
+        try (Stage stage = metrics.stage("diff", "keys")) {
+          report.setRowCounts(countKeys(st, left, keyColumns), countKeys(st, right, keyColumns));
+        }
+        String join = buildJoin(table, left, right, keyColumns, compared, leftTypes, rightTypes);
+        LOGGER.info("Comparing " + left + " with " + right + " by " + keyColumns);
+        try (Stage stage = metrics.stage("diff", "join");
+             DuckDBQueryEvent event = new DuckDBQueryEvent("diff", right, join)) {
+          long rows = st.executeUpdate(join);
+          stage.rows(rows);
+          event.rows(rows).completed();
+        }
+      } catch (SQLException e) {
+        if (cancelled.getAsBoolean()) {
+          throw new CancellationException("Comparison cancelled");
+        }
+        throw e;
+      } finally {
+        watcher.cancel(false);
+      }
+
+      StringBuilder counts = new StringBuilder("SELECT \"__status\", count(*)");
+      for (int i = 0; i < compared.size(); i++) {
+        counts.append(", sum(CAST(\"__c").append(i).append("\" AS BIGINT))");
+      }
+      counts.append(" FROM ").append(table).append(" GROUP BY \"__status\"");
+      long[] columnChanges = new long[compared.size()];
+      try (ResultSet rs = st.executeQuery(counts.toString())) {
+        while (rs.next()) {
+          report.setCount(DiffReport.Status.valueOf(rs.getString(1).toUpperCase(Locale.ROOT)), rs.getLong(2));
+          for (int i = 0; i < compared.size(); i++) {
+            columnChanges[i] += rs.getLong(3 + i);
+          }
+        }
+      }
+      for (int i = 0; i < compared.size(); i++) {
+        report.setColumnChanges(compared.get(i), columnChanges[i]);
+      }
+      total.rows(report.getLeftRows() + report.getRightRows());
+      LOGGER.info(report.format(0));
+      return new DiffSession(conn, table, report, leftTypes, rightTypes);
+    } catch (Exception e) {
+      try (Statement st = conn.createStatement()) {
+        st.execute("DROP TABLE IF EXISTS " + table);
+      } finally {
+        conn.close();
+      }
+      throw e;
+    }
+  }
+
+  private static Map<String, String> describe(Statement st, File file) throws SQLException {
+    Map<String, String> types = new LinkedHashMap<>();
+    try (ResultSet rs = st.executeQuery("DESCRIBE SELECT * FROM " + DuckDBParquetService.readParquet(file))) {
+      while (rs.next()) {
+        types.put(rs.getString("column_name"), rs.getString("column_type"));
+      }
+    }
+    return types;
+  }
+
+  /**
+   * Counts the rows of a file and fails if a key appears more than once: a duplicated key
+   * would pair every copy on one side with every copy on the other.
+   */
+  private static long countKeys(Statement st, File file, List<String> keyColumns) throws SQLException {
+    StringBuilder keys = new StringBuilder();
+    for (String key : keyColumns) {
+      if (keys.length() > 0) keys.append(", ");
+      keys.append(DuckDBParquetService.ident(key));
+    }
+    String sql = "SELECT coalesce(sum(n), 0), count(*) FILTER (WHERE n > 1) FROM (SELECT count(*) AS n FROM "
+        + DuckDBParquetService.readParquet(file) + " GROUP BY " + keys + ")";
+    try (ResultSet rs = st.executeQuery(sql)) {
+      rs.next();
+      long duplicated = rs.getLong(2);
+      if (duplicated > 0) {
+        throw new IllegalArgumentException(String.format("The key (%s) is not unique in %s: %,d value(s) appear more than once",
+            String.join(", ", keyColumns), file.getName(), duplicated));
+      }
+      return rs.getLong(1);
+    }
+  }
+
+  /**
+   * Builds the query keeping the rows that differ. Keys and values whose types differ
+   * between the files are compared as text.
+   */
+  private static String buildJoin(String table, File left, File right, List<String> keyColumns, List<String> compared,
+                                  Map<String, String> leftTypes, Map<String, String> rightTypes) {
+    StringBuilder leftSide = new StringBuilder("SELECT ");
+    StringBuilder rightSide = new StringBuilder("SELECT ");
+    StringBuilder select = new StringBuilder("CREATE TABLE ").append(table)
+        .append(" AS SELECT CASE WHEN l.\"__side\" IS NULL THEN 'added' WHEN r.\"__side\" IS NULL THEN 'removed'")
+        .append(" ELSE 'changed' END AS \"__status\"");
+    StringBuilder on = new StringBuilder();
+    StringBuilder orderBy = new StringBuilder();
+    for (int i = 0; i < keyColumns.size(); i++) {
+      String key = keyColumns.get(i);
+      boolean sameType = leftTypes.get(key).equals(rightTypes.get(key));
+      leftSide.append(sameType ? DuckDBParquetService.ident(key) : asText(key)).append(" AS \"__k").append(i).append("\", ");
+      rightSide.append(sameType ? DuckDBParquetService.ident(key) : asText(key)).append(" AS \"__k").append(i).append("\", ");
+      select.append(", coalesce(l.\"__k").append(i).append("\", r.\"__k").append(i).append("\") AS \"__k").append(i).append('"');
+      if (i > 0) {
+        on.append(" AND ");
+        orderBy.append(", ");
+      }
+      on.append("l.\"__k").append(i).append("\" IS NOT DISTINCT FROM r.\"__k").append(i).append('"');
+      orderBy.append("\"__k").append(i).append('"');
+    }
+    StringBuilder differs = new StringBuilder("l.\"__side\" IS NULL OR r.\"__side\" IS NULL");
+    for (int i = 0; i < compared.size(); i++) {
+      String column = compared.get(i);
+      leftSide.append(DuckDBParquetService.ident(column)).append(" AS \"__v").append(i).append("\", ");
+      rightSide.append(DuckDBParquetService.ident(column)).append(" AS \"__v").append(i).append("\", ");
+      String distinct = leftTypes.get(column).equals(rightTypes.get(column))
+          ? "l.\"__v" + i + "\" IS DISTINCT FROM r.\"__v" + i + '"'
+          : "CAST(l.\"__v" + i + "\" AS VARCHAR) IS DISTINCT FROM CAST(r.\"__v" + i + "\" AS VARCHAR)";
+      select.append(", l.\"__v").append(i).append("\" AS \"__l").append(i).append('"')
+          .append(", r.\"__v").append(i).append("\" AS \"__r").append(i).append('"')
+          .append(", CASE WHEN l.\"__side\" AND r.\"__side\" THEN ").append(distinct).append(" ELSE false END AS \"__c")
+          .append(i).append('"');
+      differs.append(" OR ").append(distinct);
+    }
+    leftSide.append("true AS \"__side\" FROM ").append(DuckDBParquetService.readParquet(left));
+    rightSide.append("true AS \"__side\" FROM ").append(DuckDBParquetService.readParquet(right));
+    return select.append(" FROM (").append(leftSide).append(") l FULL OUTER JOIN (").append(rightSide).append(") r ON ")
+        .append(on).append(" WHERE ").append(differs).append(" ORDER BY ").append(orderBy).toString();
+  }
+
+  private static String asText(String column) {
+    return "CAST(" + DuckDBParquetService.ident(column) + " AS VARCHAR)";
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.DiffReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.intellij.openapi.diagnostic.Logger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rows that differ between two files, as found by {@link DiffService}, held in a DuckDB
+ * table ordered by key. Pages are read on demand, so the rows never all sit in the heap.
+ * Holds a DuckDB connection until closed.
+ */
+public class DiffSession implements AutoCloseable {
+  private static final Logger LOGGER = Logger.getInstance(DiffSession.class);
+
+  private final Connection conn;
+  private final String table;
+  private final DiffReport report;
+  private final List<String> columnNames = new ArrayList<>();
+  private final List<String> columnTypes = new ArrayList<>();
+  private boolean closed;
+
+  DiffSession(Connection conn, String table, DiffReport report, Map<String, String> leftTypes,
+              Map<String, String> rightTypes) {
+    this.conn = conn;
+    this.table = table;
+    this.report = report;
+    columnNames.add("status");
+    columnTypes.add("VARCHAR");
+    for (String key : report.getKeyColumns()) {
+      columnNames.add(key);
+      columnTypes.add(leftTypes.get(key).equals(rightTypes.get(key)) ? leftTypes.get(key) : "VARCHAR");
+    }
+    for (String column : report.getComparedColumns()) {
+      columnNames.add(column + " (left)");
+      columnTypes.add(leftTypes.get(column));
+      columnNames.add(column + " (right)");
+      columnTypes.add(rightTypes.get(column));
+    }
+  }
+
+  public DiffReport getReport() {
+    return report;
+  }
+
+  /**
+   * Gets the number of differing rows with a status, or of all differing rows for null.
+   */
+  public long count(DiffReport.Status status) {
+    if (status != null) {
+      return report.getCount(status);
+    }
+    long count = 0;
+    for (DiffReport.Status each : DiffReport.Status.values()) {
+      count += report.getCount(each);
+    }
+    return count;
+  }
+
+  /**
+   * Reads a page of differing rows in key order. The columns are the status, the key
+   * columns, then the left and right value of each compared column.
+   *
+   * @param status the rows to read, or null for all of them
+   * @param offset the number of matching rows skipped
+   * @param limit the maximum number of rows read
+   */
+  public synchronized ParquetData page(DiffReport.Status status, long offset, int limit) throws SQLException {
+    if (closed) {
+      throw new IllegalStateException("The comparison has been closed");
+    }
+    StringBuilder sql = new StringBuilder("SELECT \"__status\"");
+    for (int i = 0; i < report.getKeyColumns().size(); i++) {
+      sql.append(", \"__k").append(i).append('"');
+    }
+    for (int i = 0; i < report.getComparedColumns().size(); i++) {
+      sql.append(", \"__l").append(i).append("\", \"__r").append(i).append('"');
+    }
+    sql.append(" FROM ").append(table);
+    if (status != null) {
+      sql.append(" WHERE \"__status\" = '").append(status.label()).append('\'');
+    }
+    // The table was written in key order, which a plain scan keeps
+    sql.append(" LIMIT ? OFFSET ?");
+
+    List<List<Object>> rows = new ArrayList<>();
+    try (Stage stage = PerformanceMetrics.getInstance().stage("diff", "page");
+         PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+      ps.setInt(1, limit);
+      ps.setLong(2, offset);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          List<Object> row = new ArrayList<>(columnNames.size());
+          for (int i = 1; i <= columnNames.size(); i++) {
+            row.add(rs.getObject(i));
+          }
+          rows.add(row);
+        }
+      }
+      stage.rows(rows.size());
+    }
+    return new ParquetData(new ArrayList<>(columnNames), new ArrayList<>(columnTypes), rows);
+  }
+
+  /**
+   * Drops the differing rows and closes the connection. Safe to call more than once.
+   */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try (Statement st = conn.createStatement()) {
+      st.execute("DROP TABLE IF EXISTS " + table);
+    } catch (SQLException e) {
+      LOGGER.warn("Could not drop " + table, e);
+    }
+    try {
+      conn.close();
+    } catch (SQLException e) {
+      LOGGER.warn("Could not close the comparison connection", e);
+    }
+  }
+}
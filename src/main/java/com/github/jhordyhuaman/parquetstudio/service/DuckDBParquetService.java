@@ -13,7 +13,13 @@
  */
 package com.github.jhordyhuaman.parquetstudio.service;
 
+import com.github.jhordyhuaman.parquetstudio.diagnostics.DuckDBQueryEvent;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
 import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetPreview;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
 import com.intellij.openapi.diagnostic.Logger;
 import java.io.File;
 import java.sql.*;
@@ -23,6 +29,17 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import org.duckdb.DuckDBAppender;
+import org.duckdb.DuckDBConnection;
 
 /**
  * Service for reading and writing Parquet files using DuckDB.
@@ -30,28 +47,134 @@ import java.util.Locale;
 public class DuckDBParquetService {
   private static final Logger LOGGER = Logger.getInstance(DuckDBParquetService.class);
   private static final String DUCKDB_JDBC_URL = "jdbc:duckdb:";
-  private static boolean driverLoaded = false;
+  private static final Object ENGINE_LOCK = new Object();
+  private static final AtomicBoolean warmUpStarted = new AtomicBoolean(false);
+  private static final AtomicLong SCRATCH_TABLES = new AtomicLong();
+  private static final AtomicInteger WORKER_THREADS = new AtomicInteger();
+  private static volatile boolean driverLoadAttempted = false;
+  private static volatile boolean driverLoaded = false;
+  private static DuckDBConnection engine;
 
-  static {
-    try {
-      LOGGER.info("Attempting to load DuckDB JDBC driver...");
-      Class<?> driverClass = Class.forName("org.duckdb.DuckDBDriver");
-      Driver driver = (Driver) driverClass.getDeclaredConstructor().newInstance();
-      DriverManager.registerDriver(driver);
-      driverLoaded = true;
-      LOGGER.info("DuckDB JDBC driver loaded successfully");
+  /**
+   * Loads and registers the DuckDB JDBC driver. Runs once; later calls return the outcome
+   * of the first attempt.
+   */
+  private static boolean ensureDriverLoaded() {
+    if (driverLoadAttempted) {
+      return driverLoaded;
+    }
+    synchronized (ENGINE_LOCK) {
+      if (!driverLoadAttempted) {
+        long start = System.nanoTime();
+        try {
+          LOGGER.info("Attempting to load DuckDB JDBC driver...");
+          Class<?> driverClass = Class.forName("org.duckdb.DuckDBDriver");
+          Driver driver = (Driver) driverClass.getDeclaredConstructor().newInstance();
+          DriverManager.registerDriver(driver);
+          driverLoaded = true;
+          LOGGER.info("DuckDB JDBC driver loaded successfully in " + elapsedMillis(start) + " ms");
+        } catch (Exception e) {
+          LOGGER.error("Failed to load DuckDB JDBC driver", e);
+          driverLoaded = false;
+        }
+        driverLoadAttempted = true;
+      }
+      return driverLoaded;
+    }
+  }
+
+  /**
+   * Opens a connection to the shared in-memory DuckDB engine. The native library and the
+   * database instance are created once per IDE session; every caller still gets its own
+   * connection, so temporary tables and settings stay private to it.
+   */
+  static Connection openConnection() throws SQLException {
+    if (!ensureDriverLoaded()) {
+      throw new SQLException("DuckDB JDBC driver not loaded. Check classpath for org.duckdb:duckdb_jdbc dependency.");
+    }
+    synchronized (ENGINE_LOCK) {
+      if (engine == null || engine.isClosed()) {
+        long start = System.nanoTime();
+        LOGGER.info("Creating DuckDB engine: " + DUCKDB_JDBC_URL);
+        engine = (DuckDBConnection) DriverManager.getConnection(DUCKDB_JDBC_URL);
+        setSpillDirectory(engine);
+        LOGGER.info("DuckDB engine created in " + elapsedMillis(start) + " ms");
+      }
+      return engine.duplicate();
+    }
+  }
+
+  /**
+   * Points DuckDB's temporary directory, where large sorts and joins spill once they outgrow
+   * the memory limit, at the system temporary directory: the default is relative to the
+   * working directory of the IDE, which may not be writable.
+   */
+  private static void setSpillDirectory(Connection conn) {
+    File spill = new File(System.getProperty("java.io.tmpdir"), "parquet-studio-duckdb");
+    try (Statement st = conn.createStatement()) {
+      st.execute("SET temp_directory = '" + spill.getAbsolutePath().replace("'", "''") + "'");
+    } catch (SQLException e) {
+      LOGGER.warn("Could not set the DuckDB temporary directory to " + spill, e);
+    }
+  }
+
+  /**
+   * Loads the native library, creates the engine and runs a small Parquet round trip so
+   * the first file the user opens does not pay for it. Safe to call from any background
+   * thread; only the first call does any work.
+   */
+  public static void warmUp() {
+    if (!warmUpStarted.compareAndSet(false, true)) {
+      return;
+    }
+    long start = System.nanoTime();
+    if (!ensureDriverLoaded()) {
+      LOGGER.warn("DuckDB warm-up skipped: the JDBC driver could not be loaded");
+      return;
+    }
+    long driverDone = System.nanoTime();
+
+    File probe = null;
+    try (Connection conn = openConnection()) {
+      long engineDone = System.nanoTime();
+
+      // Exercise the Parquet writer and reader once
+      probe = File.createTempFile("parquet-studio-warmup", ".parquet");
+      String path = probe.getAbsolutePath().replace("'", "''");
+      try (Statement st = conn.createStatement()) {
+        st.execute("COPY (SELECT 42 AS answer) TO '" + path + "' (FORMAT PARQUET)");
+        try (ResultSet rs = st.executeQuery("SELECT answer FROM read_parquet('" + path + "')")) {
+          rs.next();
+        }
+      }
+      long queryDone = System.nanoTime();
+
+      LOGGER.info(
+          String.format(
+              "DuckDB warm-up: driver=%d ms, engine=%d ms, query=%d ms, total=%d ms",
+              (driverDone - start) / 1_000_000,
+              (engineDone - driverDone) / 1_000_000,
+              (queryDone - engineDone) / 1_000_000,
+              (queryDone - start) / 1_000_000));
     } catch (Exception e) {
-      LOGGER.error("Failed to load DuckDB JDBC driver", e);
-      driverLoaded = false;
+      LOGGER.warn("DuckDB warm-up failed: " + e.getMessage());
+    } finally {
+      if (probe != null && !probe.delete()) {
+        probe.deleteOnExit();
+      }
     }
   }
 
+  private static long elapsedMillis(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1_000_000;
+  }
+
   /**
    * Loads a Parquet file and returns its data.
    */
   public ParquetData loadParquet(File file) throws Exception {
     LOGGER.info("Loading Parquet file: " + file.getAbsolutePath());
-    LOGGER.info("Driver loaded status: " + driverLoaded);
+    LOGGER.info("Driver loaded status: " + ensureDriverLoaded());
 
     // Log available drivers for debugging
     Enumeration<Driver> drivers = DriverManager.getDrivers();
@@ -61,47 +184,53 @@ public class DuckDBParquetService {
       LOGGER.info("  - " + d.getClass().getName());
     }
 
-    if (!driverLoaded) {
-      throw new SQLException("DuckDB JDBC driver not loaded. Check classpath for org.duckdb:duckdb_jdbc dependency.");
-    }
-
-    LOGGER.info("Attempting to create connection to: " + DUCKDB_JDBC_URL);
-    try (Connection conn = DriverManager.getConnection(DUCKDB_JDBC_URL)) {
+    PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+    try (Stage total = metrics.stage("load", "total").bytes(file.length());
+         Connection conn = openConnection()) {
       LOGGER.info("Connection established successfully");
       List<String> columnNames = new ArrayList<>();
       List<String> columnTypes = new ArrayList<>();
 
       // Detect schema
-      String sql = "SELECT * FROM read_parquet(?) LIMIT 0";
-      try (PreparedStatement ps = conn.prepareStatement(sql)) {
-        ps.setString(1, file.getAbsolutePath());
-        try (ResultSet rs = ps.executeQuery()) {
-          ResultSetMetaData md = rs.getMetaData();
-          int n = md.getColumnCount();
-          for (int i = 1; i <= n; i++) {
-            columnNames.add(md.getColumnLabel(i));
-            String type = md.getColumnTypeName(i).toUpperCase(Locale.ROOT);
-            columnTypes.add(normalizeType(type));
-          }
-        }
+      try (Stage stage = metrics.stage("load", "schema")) {
+        readSchema(conn, file, columnNames, columnTypes);
       }
 
-      // Load all data
+      // Load all data. DuckDB decodes a vector whenever next() crosses a chunk boundary,
+      // while getObject() boxes each value, so the two are timed apart.
       List<List<Object>> rows = new ArrayList<>();
+      long scanNanos = 0;
+      long materializeNanos = 0;
       String readAll = "SELECT * FROM read_parquet(?)";
-      try (PreparedStatement ps = conn.prepareStatement(readAll)) {
+      try (DuckDBQueryEvent event = new DuckDBQueryEvent("load", file, readAll);
+           PreparedStatement ps = conn.prepareStatement(readAll)) {
         ps.setString(1, file.getAbsolutePath());
+        long t0 = System.nanoTime();
         try (ResultSet rs = ps.executeQuery()) {
-          while (rs.next()) {
+          long t1 = System.nanoTime();
+          scanNanos += t1 - t0;
+          while (true) {
+            t0 = System.nanoTime();
+            boolean hasNext = rs.next();
+            t1 = System.nanoTime();
+            scanNanos += t1 - t0;
+            if (!hasNext) {
+              break;
+            }
             List<Object> row = new ArrayList<>();
             for (int i = 1; i <= columnNames.size(); i++) {
               Object val = rs.getObject(i);
               row.add(val);
             }
             rows.add(row);
+            materializeNanos += System.nanoTime() - t1;
           }
         }
+        event.rows(rows.size()).bytes(file.length()).completed();
       }
+      metrics.record("load", "scan", scanNanos, rows.size(), file.length(), -1, false);
+      metrics.record("load", "materialize", materializeNanos, rows.size(), -1, -1, false);
+      total.rows(rows.size());
 
       LOGGER.info(
           String.format(
@@ -118,6 +247,78 @@ public class DuckDBParquetService {
     }
   }
 
+  /**
+   * Loads the schema, the footer row counts and the first rows of a Parquet file.
+   * Only the first row group is read, so this stays fast regardless of the file size.
+   *
+   * @param file the Parquet file to preview
+   * @param rowLimit the maximum number of rows to read
+   */
+  public ParquetPreview previewParquet(File file, int rowLimit) throws Exception {
+    LOGGER.info("Previewing Parquet file: " + file.getAbsolutePath());
+
+    try (Stage stage = PerformanceMetrics.getInstance().stage("preview", "total");
+         Connection conn = openConnection()) {
+      List<String> columnNames = new ArrayList<>();
+      List<String> columnTypes = new ArrayList<>();
+      readSchema(conn, file, columnNames, columnTypes);
+
+      // Row counts come from the footer, no data pages are touched
+      long totalRows = 0;
+      long rowGroups = 0;
+      String footer = "SELECT num_rows, num_row_groups FROM parquet_file_metadata(?)";
+      try (DuckDBQueryEvent event = new DuckDBQueryEvent("preview", file, footer);
+           PreparedStatement ps = conn.prepareStatement(footer)) {
+        ps.setString(1, file.getAbsolutePath());
+        try (ResultSet rs = ps.executeQuery()) {
+          if (rs.next()) {
+            totalRows = rs.getLong(1);
+            rowGroups = rs.getLong(2);
+          }
+        }
+        event.rows(1).completed();
+      }
+
+      long limit = rowLimit;
+      String firstGroup =
+          "SELECT row_group_num_rows FROM parquet_metadata(?) WHERE row_group_id = 0 LIMIT 1";
+      try (DuckDBQueryEvent event = new DuckDBQueryEvent("preview", file, firstGroup);
+           PreparedStatement ps = conn.prepareStatement(firstGroup)) {
+        ps.setString(1, file.getAbsolutePath());
+        try (ResultSet rs = ps.executeQuery()) {
+          if (rs.next()) {
+            limit = Math.min(limit, rs.getLong(1));
+          }
+        }
+        event.rows(1).completed();
+      }
+
+      List<List<Object>> rows = new ArrayList<>();
+      String readFirst = "SELECT * FROM read_parquet(?) LIMIT ?";
+      try (DuckDBQueryEvent event = new DuckDBQueryEvent("preview", file, readFirst);
+           PreparedStatement ps = conn.prepareStatement(readFirst)) {
+        ps.setString(1, file.getAbsolutePath());
+        ps.setLong(2, limit);
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            List<Object> row = new ArrayList<>(columnNames.size());
+            for (int i = 1; i <= columnNames.size(); i++) {
+              row.add(rs.getObject(i));
+            }
+            rows.add(row);
+          }
+        }
+        event.rows(rows.size()).completed();
+      }
+
+      stage.rows(rows.size());
+      LOGGER.info(
+          String.format(
+              "Previewed: %d columns, %d of %d rows", columnNames.size(), rows.size(), totalRows));
+      return new ParquetPreview(columnNames, columnTypes, rows, totalRows, rowGroups);
+    }
+  }
+
   /**
    * Saves ParquetData to a new Parquet file.
    */
@@ -128,26 +329,26 @@ public class DuckDBParquetService {
       throw new IllegalArgumentException("No columns to save");
     }
     
-    if (!driverLoaded) {
-      throw new SQLException("DuckDB JDBC driver not loaded. Check classpath for org.duckdb:duckdb_jdbc dependency.");
-    }
-
-    LOGGER.info("Attempting to create connection to: " + DUCKDB_JDBC_URL);
-    try (Connection conn = DriverManager.getConnection(DUCKDB_JDBC_URL)) {
+    PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+    try (Stage total = metrics.stage("save", "total").rows(data.getRows().size());
+         Connection conn = openConnection()) {
       LOGGER.info("Connection established successfully");
       String tempTable = "temp_table_" + System.currentTimeMillis();
 
-      // Create temporary table
-      StringBuilder ddl = new StringBuilder("CREATE TABLE ").append(tempTable).append(" (");
+      // Create temporary table (connection-local, so it is dropped with the connection
+      // and never collides with other saves on the shared engine)
+      StringBuilder ddl = new StringBuilder("CREATE TEMP TABLE ").append(tempTable).append(" (");
       for (int i = 0; i < data.getColumnNames().size(); i++) {
         if (i > 0) ddl.append(", ");
         String colName = data.getColumnNames().get(i);
         String colType = data.getColumnTypes().get(i);
-        ddl.append(escapeIdent(colName)).append(" ").append(colType);
+        ddl.append(ident(colName)).append(" ").append(colType);
       }
       ddl.append(")");
-      try (Statement st = conn.createStatement()) {
+      try (DuckDBQueryEvent event = new DuckDBQueryEvent("save", file, ddl.toString());
+           Statement st = conn.createStatement()) {
         st.execute(ddl.toString());
+        event.completed();
       }
 
       // Insert rows
@@ -158,7 +359,9 @@ public class DuckDBParquetService {
       }
       ins.append(")");
 
-      try (PreparedStatement ps = conn.prepareStatement(ins.toString())) {
+      try (Stage stage = metrics.stage("save", "insert").rows(data.getRows().size());
+           DuckDBQueryEvent event = new DuckDBQueryEvent("save", file, ins.toString());
+           PreparedStatement ps = conn.prepareStatement(ins.toString())) {
         for (List<Object> row : data.getRows()) {
           for (int i = 0; i < data.getColumnNames().size(); i++) {
             Object val = row.size() > i ? row.get(i) : null;
@@ -167,6 +370,7 @@ public class DuckDBParquetService {
           ps.addBatch();
         }
         ps.executeBatch();
+        event.rows(data.getRows().size()).completed();
       }
 
       // Export to Parquet
@@ -177,14 +381,336 @@ public class DuckDBParquetService {
               + file.getAbsolutePath().replace("'", "''")
               + "' (FORMAT PARQUET)";
 
-      try (Statement st = conn.createStatement()) {
+      try (Stage stage = metrics.stage("save", "copy").rows(data.getRows().size());
+           DuckDBQueryEvent event = new DuckDBQueryEvent("save", file, copy);
+           Statement st = conn.createStatement()) {
         st.execute(copy);
+        stage.bytes(file.length());
+        event.rows(data.getRows().size()).bytes(file.length()).completed();
       }
+      total.bytes(file.length());
 
       LOGGER.info("Parquet file saved: " + file.getAbsolutePath());
     }
   }
 
+  /**
+   * Saves some rows and columns of a table model to a new Parquet file, in the given order.
+   * The values are appended straight from the model to a scratch table, without copying the
+   * rows first; the model must not change until this returns.
+   *
+   * @param rows the model rows to save, in order
+   * @param columns the model columns to save, in order
+   */
+  public void saveRows(File file, ParquetTableModel model, int[] rows, int[] columns) throws SQLException {
+    LOGGER.info("Saving " + rows.length + " row(s) x " + columns.length + " column(s) to " + file.getAbsolutePath());
+    if (columns.length == 0) {
+      throw new IllegalArgumentException("No columns to save");
+    }
+    PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+    try (Stage total = metrics.stage("save_rows", "total").rows(rows.length);
+         Connection conn = openConnection();
+         Statement st = conn.createStatement()) {
+      String table = createRowsTable(conn, "save_rows", model, rows, columns);
+      String copy = "COPY " + table + " TO " + sqlLiteral(file) + " (FORMAT PARQUET)";
+      try {
+        try (Stage stage = metrics.stage("save_rows", "copy").rows(rows.length);
+             DuckDBQueryEvent event = new DuckDBQueryEvent("save_rows", file, copy)) {
+          st.execute(copy);
+          stage.bytes(file.length());
+          event.rows(rows.length).bytes(file.length()).completed();
+        }
+        total.bytes(file.length());
+      } finally {
+        st.execute("DROP TABLE IF EXISTS " + table);
+      }
+    }
+  }
+
+  /**
+   * Rewrites Parquet files sharing one schema into a new directory of files of about
+   * {@code targetBytes} each, in one {@code COPY}: DuckDB starts a new {@code data_N.parquet}
+   * file whenever the current one passes the target. Only the columns stored in the files are
+   * read, not hive partition columns from their path.
+   *
+   * @param directory the directory to create and write to
+   * @param cancelled polled while the copy runs; the statement is interrupted once it returns true
+   * @return the number of rows written
+   * @throws CancellationException if the copy was cancelled
+   */
+  public long compactFiles(List<File> inputs, File directory, ParquetWriteOptions options, long targetBytes,
+                           BooleanSupplier cancelled) throws SQLException {
+    String copy = "COPY (SELECT * FROM read_parquet(" + fileList(inputs) + ", hive_partitioning = false)) TO "
+        + sqlLiteral(directory) + " (" + options.toCopyOptions()
+        + ", FILE_SIZE_BYTES " + targetBytes + ")";
+    long inputBytes = 0;
+    for (File input : inputs) {
+      inputBytes += input.length();
+    }
+
+    try (Stage stage = PerformanceMetrics.getInstance().stage("compact", "copy").bytes(inputBytes);
+         Connection conn = openConnection();
+         Statement st = conn.createStatement();
+         DuckDBQueryEvent event = new DuckDBQueryEvent("compact", directory, copy)) {
+      ScheduledFuture<?> watcher = StatementWatcher.watch(st, cancelled, () -> { });
+      long rows;
+      try {
+        rows = st.executeUpdate(copy);
+      } catch (SQLException e) {
+        if (cancelled.getAsBoolean()) {
+          throw new CancellationException("Compaction cancelled");
+        }
+        throw e;
+      } finally {
+        watcher.cancel(false);
+      }
+      stage.rows(rows);
+      event.rows(rows).bytes(inputBytes).completed();
+      LOGGER.info("Compacted " + inputs.size() + " file(s), " + rows + " row(s), into " + directory.getAbsolutePath());
+      return rows;
+    }
+  }
+
+  /**
+   * Formats files as a DuckDB list literal, e.g. for {@code read_parquet([...])}.
+   */
+  static String fileList(List<File> files) {
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < files.size(); i++) {
+      if (i > 0) sb.append(", ");
+      sb.append(sqlLiteral(files.get(i)));
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * Formats the absolute path of a file as a quoted SQL string literal.
+   */
+  static String sqlLiteral(File file) {
+    return '\'' + file.getAbsolutePath().replace("'", "''") + '\'';
+  }
+
+  /**
+   * Quotes a column or table name for SQL.
+   */
+  static String ident(String name) {
+    return '"' + name.replace("\"", "\"\"") + '"';
+  }
+
+  /**
+   * Formats a {@code read_parquet} call over one file.
+   */
+  static String readParquet(File file) {
+    return "read_parquet(" + sqlLiteral(file) + ")";
+  }
+
+  /**
+   * Gets the number of {@code COPY} writes to run at the same time, from a system property.
+   * Every {@code COPY} already runs on several DuckDB threads, so the default stays small:
+   * half the CPUs, at most 4.
+   *
+   * @param property the system property overriding the default
+   */
+  static int defaultParallelWrites(String property) {
+    int cpus = Runtime.getRuntime().availableProcessors();
+    return Math.max(1, Integer.getInteger(property, Math.min(4, Math.max(1, cpus / 2))));
+  }
+
+  /**
+   * Runs tasks on a pool of daemon threads and waits until all of them have finished. The
+   * tasks check for cancellation themselves; the pool is only interrupted with the caller.
+   *
+   * @param threadName the name of the worker threads, numbered
+   * @param threads the maximum number of tasks running at once
+   */
+  static void runParallel(String threadName, int threads, List<Runnable> tasks) throws InterruptedException {
+    if (tasks.isEmpty()) {
+      return;
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, tasks.size())), r -> {
+      Thread thread = new Thread(r, threadName + " " + WORKER_THREADS.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      tasks.forEach(pool::execute);
+      pool.shutdown();
+      while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+        // Waiting for the workers; the callers cancel through their own flags
+      }
+    } catch (InterruptedException e) {
+      pool.shutdownNow();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets a table name no other operation uses, for tables shared across connections of the
+   * engine.
+   */
+  static String scratchTableName(String operation) {
+    return operation + "_" + SCRATCH_TABLES.incrementAndGet();
+  }
+
+  /**
+   * Copies every row and column of a table model to a new scratch table; the caller drops it.
+   *
+   * @see #createRowsTable(Connection, String, ParquetTableModel, int[], int[])
+   */
+  String createRowsTable(Connection conn, String operation, ParquetTableModel model) throws SQLException {
+    int[] rows = new int[model.getRowCount()];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = i;
+    }
+    int[] columns = new int[model.getColumnCount()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = i;
+    }
+    return createRowsTable(conn, operation, model, rows, columns);
+  }
+
+  /**
+   * Copies some rows and columns of a table model to a new scratch table, appending the
+   * values straight from the model. The table is a regular one with a unique name, since the
+   * appender does not reach temporary tables; the caller drops it.
+   *
+   * @param operation the operation the append is recorded under
+   * @param rows the model rows to copy, in order
+   * @param columns the model columns to copy, in order
+   * @return the name of the table
+   */
+  String createRowsTable(Connection conn, String operation, ParquetTableModel model, int[] rows, int[] columns)
+      throws SQLException {
+    String table = scratchTableName(operation);
+    StringBuilder ddl = new StringBuilder("CREATE TABLE ").append(table).append(" (");
+    for (int i = 0; i < columns.length; i++) {
+      if (i > 0) ddl.append(", ");
+      ddl.append(ident(model.getColumnNames().get(columns[i]))).append(' ').append(model.getColumnTypes().get(columns[i]));
+    }
+    ddl.append(')');
+
+    try (Statement st = conn.createStatement()) {
+      st.execute(ddl.toString());
+    }
+    try (Stage stage = PerformanceMetrics.getInstance().stage(operation, "append").rows(rows.length);
+         DuckDBAppender appender = ((DuckDBConnection) conn).createAppender(DuckDBConnection.DEFAULT_SCHEMA, table)) {
+      for (int row : rows) {
+        appender.beginRow();
+        for (int column : columns) {
+          appendValue(appender, model.getValueAt(row, column));
+        }
+        appender.endRow();
+      }
+    } catch (SQLException | RuntimeException e) {
+      try (Statement st = conn.createStatement()) {
+        st.execute("DROP TABLE IF EXISTS " + table);
+      }
+      throw e;
+    }
+    return table;
+  }
+
+  /**
+   * Evaluates a SQL expression over rows held in memory, e.g. {@code upper(name)} or
+   * {@code amount * 1.18}. The rows are bulk-loaded into a scratch table with the DuckDB
+   * appender and the expression runs once over the whole table. Columns are visible to the
+   * expression by name, with their normalized types; other types are exposed as VARCHAR.
+   *
+   * @param columnNames the column names the expression can refer to
+   * @param columnTypes the normalized column types
+   * @param rows the rows to evaluate
+   * @param expression the SQL expression
+   * @param resultType the type the results are cast to
+   * @return one value per row, in row order, typed like the values of a loaded file
+   * @throws SQLException if the expression is invalid or a result cannot be cast
+   */
+  public List<Object> evaluateExpression(List<String> columnNames, List<String> columnTypes,
+                                         List<List<Object>> rows, String expression, String resultType)
+      throws SQLException {
+    String table = "bulk_edit_" + SCRATCH_TABLES.incrementAndGet();
+    StringBuilder ddl = new StringBuilder("CREATE TABLE ").append(table).append(" (\"__row\" INTEGER");
+    for (int i = 0; i < columnNames.size(); i++) {
+      ddl.append(", ").append(ident(columnNames.get(i))).append(' ').append(columnTypes.get(i));
+    }
+    ddl.append(')');
+    String select = "SELECT CAST((" + expression + ") AS " + resultType + ") FROM " + table + " ORDER BY \"__row\"";
+
+    PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+    try (Stage total = metrics.stage("bulk_edit", "expression").rows(rows.size());
+         Connection conn = openConnection();
+         Statement st = conn.createStatement()) {
+      // The appender only reaches tables in the main schema, so the scratch table is a
+      // regular one with a unique name, dropped when the evaluation ends
+      st.execute(ddl.toString());
+      try {
+        try (Stage stage = metrics.stage("bulk_edit", "append").rows(rows.size());
+             DuckDBAppender appender = ((DuckDBConnection) conn).createAppender(DuckDBConnection.DEFAULT_SCHEMA, table)) {
+          for (int r = 0; r < rows.size(); r++) {
+            List<Object> row = rows.get(r);
+            appender.beginRow();
+            appender.append(r);
+            for (int i = 0; i < columnNames.size(); i++) {
+              appendValue(appender, i < row.size() ? row.get(i) : null);
+            }
+            appender.endRow();
+          }
+        }
+
+        List<Object> results = new ArrayList<>(rows.size());
+        try (DuckDBQueryEvent event = new DuckDBQueryEvent("bulk_edit", null, select);
+             ResultSet rs = st.executeQuery(select)) {
+          while (rs.next()) {
+            results.add(rs.getObject(1));
+          }
+          event.rows(results.size()).completed();
+        }
+        return results;
+      } finally {
+        st.execute("DROP TABLE IF EXISTS " + table);
+      }
+    }
+  }
+
+  private void appendValue(DuckDBAppender appender, Object val) throws SQLException {
+    if (val == null) {
+      appender.append((String) null);
+    } else if (val instanceof Boolean) {
+      appender.append((boolean) (Boolean) val);
+    } else if (val instanceof Integer) {
+      appender.append((int) (Integer) val);
+    } else if (val instanceof Long) {
+      appender.append((long) (Long) val);
+    } else if (val instanceof Double) {
+      appender.append((double) (Double) val);
+    } else if (val instanceof LocalDateTime) {
+      appender.appendLocalDateTime((LocalDateTime) val);
+    } else if (val instanceof Timestamp) {
+      appender.appendLocalDateTime(((Timestamp) val).toLocalDateTime());
+    } else {
+      // Dates and everything else go in as text and are cast by the appender
+      appender.append(val.toString());
+    }
+  }
+
+  private void readSchema(Connection conn, File file, List<String> columnNames, List<String> columnTypes)
+      throws SQLException {
+    String sql = "SELECT * FROM read_parquet(?) LIMIT 0";
+    try (DuckDBQueryEvent event = new DuckDBQueryEvent("schema", file, sql);
+         PreparedStatement ps = conn.prepareStatement(sql)) {
+      ps.setString(1, file.getAbsolutePath());
+      try (ResultSet rs = ps.executeQuery()) {
+        ResultSetMetaData md = rs.getMetaData();
+        int n = md.getColumnCount();
+        for (int i = 1; i <= n; i++) {
+          columnNames.add(md.getColumnLabel(i));
+          String type = md.getColumnTypeName(i).toUpperCase(Locale.ROOT);
+          columnTypes.add(normalizeType(type));
+        }
+      }
+      event.rows(0).completed();
+    }
+  }
+
   private String normalizeType(String type) {
     if (type.contains("BOOL")) return "BOOLEAN";
     if (type.contains("INT")) {
@@ -216,9 +742,5 @@ public class DuckDBParquetService {
       ps.setString(index, val.toString());
     }
   }
-
-  private String escapeIdent(String ident) {
-    return '"' + ident.replace("\"", "\"\"") + '"';
-  }
 }
 
@@ -0,0 +1,200 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.DuckDBQueryEvent;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.ViewQuery;
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * Exports a Parquet file, or the part of it the editor shows, with DuckDB {@code COPY ... TO}.
+ *
+ * <p>Rows go from the source file to the target file inside DuckDB and are never loaded in
+ * Java, so the export costs one scan of the source whatever its size. The target is written
+ * under a temporary name next to it and renamed once complete.
+ */
+public class ExportService {
+  private static final Logger LOGGER = Logger.getInstance(ExportService.class);
+
+  /**
+   * Formats a file can be exported to.
+   */
+  public enum Format {
+    CSV("CSV", "csv", "FORMAT CSV, HEADER true"),
+    /** One JSON object per line. */
+    NDJSON("NDJSON", "ndjson", "FORMAT JSON"),
+    /** A single JSON array of objects. */
+    JSON("JSON", "json", "FORMAT JSON, ARRAY true"),
+    PARQUET("Parquet", "parquet", "FORMAT PARQUET");
+
+    private final String label;
+    private final String extension;
+    private final String copyOptions;
+
+    Format(String label, String extension, String copyOptions) {
+      this.label = label;
+      this.extension = extension;
+      this.copyOptions = copyOptions;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+
+    public String getExtension() {
+      return extension;
+    }
+
+    String getCopyOptions() {
+      return copyOptions;
+    }
+  }
+
+  /**
+   * Exports a view of a Parquet file.
+   *
+   * <p>View columns the file does not have, e.g. columns added in the editor and not saved
+   * yet, are left out. The search keeps the rows where any column, cast to text by DuckDB,
+   * contains the search text ignoring case; the editor renders timestamps and large doubles
+   * slightly differently, so a search on those may match other rows than in the table.
+   *
+   * @param source the Parquet file to read
+   * @param view the columns, search and sort order to export
+   * @param target the file to write; replaced if it exists
+   * @param cancelled polled while the export runs; the query is interrupted once it returns true
+   * @param progress receives the bytes written so far, about twice a second
+   * @return the number of rows exported
+   * @throws CancellationException if the export was cancelled
+   * @throws SQLException if DuckDB cannot read the source or write the target
+   */
+  public long export(File source, ViewQuery view, Format format, File target,
+                     BooleanSupplier cancelled, LongConsumer progress) throws IOException, SQLException {
+    File parent = target.getAbsoluteFile().getParentFile();
+    File partial = File.createTempFile("." + target.getName() + "-", ".partial", parent);
+    // Only the name is reserved: DuckDB writes an existing target through a tmp_ copy of its
+    // own, which an interrupted export would leave behind
+    Files.delete(partial.toPath());
+    PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+    try (Stage total = metrics.stage("export", format.name().toLowerCase(Locale.ROOT)).bytes(source.length());
+         Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      List<String> sourceColumns = readColumns(st, source);
+      String copy = "COPY (" + buildSelect(source, view, sourceColumns) + ") TO " + DuckDBParquetService.sqlLiteral(partial)
+          + " (" + format.getCopyOptions() + ")";
+
+      long rows;
+      ScheduledFuture<?> poller = StatementWatcher.watch(st, cancelled, () -> progress.accept(partial.length()));
+      try (DuckDBQueryEvent event = new DuckDBQueryEvent("export", source, copy)) {
+        rows = st.executeUpdate(copy);
+        event.rows(rows).bytes(partial.length()).completed();
+      } catch (SQLException e) {
+        if (cancelled.getAsBoolean()) {
+          throw new CancellationException("Export cancelled");
+        }
+        throw e;
+      } finally {
+        poller.cancel(false);
+      }
+
+      Files.move(partial.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      total.rows(rows);
+      LOGGER.info(String.format("Exported %d row(s) of %s to %s (%d bytes)",
+          rows, source.getName(), target.getAbsolutePath(), target.length()));
+      return rows;
+    } finally {
+      Files.deleteIfExists(partial.toPath());
+    }
+  }
+
+  /**
+   * Builds the query reading a view of a Parquet file.
+   *
+   * @param sourceColumns the columns of the file, in file order
+   */
+  public String buildSelect(File source, ViewQuery view, List<String> sourceColumns) {
+    StringBuilder sql = new StringBuilder("SELECT ");
+    List<String> columns = new ArrayList<>();
+    if (view.getColumns() != null) {
+      for (String column : view.getColumns()) {
+        if (sourceColumns.contains(column)) {
+          columns.add(column);
+        } else {
+          LOGGER.info("Column not in " + source.getName() + ", left out of the export: " + column);
+        }
+      }
+    }
+    if (view.getColumns() == null || columns.isEmpty()) {
+      sql.append('*');
+    } else {
+      for (int i = 0; i < columns.size(); i++) {
+        if (i > 0) sql.append(", ");
+        sql.append(DuckDBParquetService.ident(columns.get(i)));
+      }
+    }
+    sql.append(" FROM ").append(DuckDBParquetService.readParquet(source));
+
+    if (view.getSearchText() != null && !sourceColumns.isEmpty()) {
+      String text = "'" + view.getSearchText().toLowerCase(Locale.ROOT).replace("'", "''") + "'";
+      sql.append(" WHERE ");
+      for (int i = 0; i < sourceColumns.size(); i++) {
+        if (i > 0) sql.append(" OR ");
+        sql.append("contains(lower(CAST(").append(DuckDBParquetService.ident(sourceColumns.get(i))).append(" AS VARCHAR)), ")
+            .append(text).append(')');
+      }
+    }
+
+    boolean first = true;
+    for (int i = 0; i < view.getSortColumns().size(); i++) {
+      String column = view.getSortColumns().get(i);
+      if (!sourceColumns.contains(column)) {
+        continue;
+      }
+      sql.append(first ? " ORDER BY " : ", ").append(DuckDBParquetService.ident(column));
+      // Same null placement as the table sorter: nulls sort before every value
+      sql.append(view.isAscending(i) ? " ASC NULLS FIRST" : " DESC NULLS LAST");
+      first = false;
+    }
+    return sql.toString();
+  }
+
+  private List<String> readColumns(Statement st, File source) throws SQLException {
+    List<String> columns = new ArrayList<>();
+    String describe = "DESCRIBE SELECT * FROM " + DuckDBParquetService.readParquet(source);
+    try (DuckDBQueryEvent event = new DuckDBQueryEvent("schema", source, describe);
+         ResultSet rs = st.executeQuery(describe)) {
+      while (rs.next()) {
+        columns.add(rs.getString(1));
+      }
+      event.rows(columns.size()).completed();
+    }
+    return columns;
+  }
+}
@@ -0,0 +1,315 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.CatalogEntry;
+import com.github.jhordyhuaman.parquetstudio.model.CatalogQuery;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Footer metadata of many Parquet files, kept in memory and saved to a gzipped JSON file so
+ * a restart only reads the files that changed.
+ *
+ * <p>Each footer is read once ({@code DESCRIBE} for the columns, {@code parquet_metadata} for
+ * the row groups and codecs) on a pool of threads; a file is read again only when its size
+ * or modification time differs from its entry. Searches run over the entries in memory and
+ * never touch the files.
+ */
+public class ParquetCatalog {
+  private static final Logger LOGGER = Logger.getInstance(ParquetCatalog.class);
+  private static final int FORMAT_VERSION = 1;
+
+  private final File indexFile;
+  private final int threads;
+  private final Map<String, CatalogEntry> entries = new ConcurrentHashMap<>();
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+  private volatile boolean dirty;
+
+  /**
+   * @param indexFile where the entries are saved
+   * @param threads the number of footers read at the same time
+   */
+  public ParquetCatalog(File indexFile, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+    }
+    this.indexFile = indexFile;
+    this.threads = threads;
+  }
+
+  /**
+   * Loads the saved entries, replacing the ones in memory. A missing, unreadable or older
+   * index leaves the catalog empty, so every file is read again.
+   *
+   * @return true if the saved entries were loaded
+   */
+  public boolean load() {
+    if (!indexFile.isFile()) {
+      return false;
+    }
+    try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(indexFile.toPath())),
+        StandardCharsets.UTF_8)) {
+      Snapshot snapshot = new Gson().fromJson(reader, Snapshot.class);
+      if (snapshot == null || snapshot.version != FORMAT_VERSION || snapshot.entries == null) {
+        LOGGER.info("Ignoring catalog index with another format: " + indexFile);
+        return false;
+      }
+      entries.clear();
+      for (CatalogEntry entry : snapshot.entries) {
+        entries.put(entry.getPath(), entry);
+      }
+      dirty = false;
+      LOGGER.info("Loaded " + entries.size() + " catalog entries from " + indexFile);
+      fireChanged();
+      return true;
+    } catch (IOException | JsonParseException e) {
+      LOGGER.warn("Could not read catalog index " + indexFile + ", rebuilding it", e);
+      return false;
+    }
+  }
+
+  /**
+   * Saves the entries if they changed since the last load or save. The file is written
+   * next to the index and then moved over it, so a crash never leaves half an index.
+   *
+   * @return true if the index was written
+   */
+  public synchronized boolean save() throws IOException {
+    if (!dirty) {
+      return false;
+    }
+    dirty = false;
+    Snapshot snapshot = new Snapshot();
+    snapshot.version = FORMAT_VERSION;
+    snapshot.entries = getEntries();
+    Files.createDirectories(indexFile.getAbsoluteFile().getParentFile().toPath());
+    Path temp = Files.createTempFile(indexFile.getAbsoluteFile().getParentFile().toPath(), indexFile.getName(), ".tmp");
+    try {
+      try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8)) {
+        new Gson().toJson(snapshot, writer);
+      }
+      try {
+        Files.move(temp, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      dirty = true;
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    return true;
+  }
+
+  /**
+   * Brings the catalog in line with the full list of files: drops the entries of files not
+   * in the list and reads the footers of new or changed files. Blocks until they are read.
+   *
+   * @param cancelled polled before each file; files not read yet keep their old entry
+   * @return the number of footers read
+   */
+  public int refresh(Collection<File> files, BooleanSupplier cancelled) throws InterruptedException {
+    Set<String> paths = new HashSet<>();
+    for (File file : files) {
+      paths.add(file.getAbsolutePath());
+    }
+    boolean removed = entries.keySet().retainAll(paths);
+    dirty |= removed;
+    int read = update(files, cancelled);
+    if (removed && read == 0) {
+      fireChanged();
+    }
+    return read;
+  }
+
+  /**
+   * Reads the footers of the given files that are new or changed, keeping every other entry.
+   *
+   * @return the number of footers read
+   */
+  public int update(Collection<File> files, BooleanSupplier cancelled) throws InterruptedException {
+    List<File> stale = new ArrayList<>();
+    for (File file : files) {
+      CatalogEntry entry = entries.get(file.getAbsolutePath());
+      if (file.isFile() && (entry == null || entry.isStale(file))) {
+        stale.add(file);
+      }
+    }
+    if (stale.isEmpty()) {
+      return 0;
+    }
+
+    AtomicInteger read = new AtomicInteger();
+    List<Runnable> tasks = new ArrayList<>(stale.size());
+    for (File file : stale) {
+      tasks.add(() -> {
+        if (cancelled.getAsBoolean()) {
+          return;
+        }
+        CatalogEntry entry = readEntry(file);
+        entries.put(entry.getPath(), entry);
+        read.incrementAndGet();
+      });
+    }
+    try (Stage stage = PerformanceMetrics.getInstance().stage("catalog", "index")) {
+      DuckDBParquetService.runParallel("Parquet Studio Catalog", threads, tasks);
+      stage.rows(read.get());
+    } finally {
+      if (read.get() > 0) {
+        dirty = true;
+        fireChanged();
+      }
+    }
+    LOGGER.info("Indexed " + read.get() + " Parquet footer(s), " + entries.size() + " in the catalog");
+    return read.get();
+  }
+
+  /**
+   * Drops the entries of files that no longer exist at, or below, a path: a deleted file,
+   * or the old location of a moved or deleted directory.
+   *
+   * @param path the path, with {@code /} or the platform separator
+   * @return the number of entries dropped
+   */
+  public int removeMissing(String path) {
+    path = new File(path).getAbsolutePath();
+    String prefix = path.endsWith(File.separator) ? path : path + File.separator;
+    int removed = 0;
+    for (String entryPath : new ArrayList<>(entries.keySet())) {
+      if ((entryPath.equals(path) || entryPath.startsWith(prefix)) && !new File(entryPath).isFile()) {
+        entries.remove(entryPath);
+        removed++;
+      }
+    }
+    if (removed > 0) {
+      dirty = true;
+      fireChanged();
+    }
+    return removed;
+  }
+
+  /**
+   * Reads the columns, row and row-group counts and codecs of one file. A file that cannot
+   * be read gets an entry with the error, so it is not read again until it changes.
+   */
+  CatalogEntry readEntry(File file) {
+    CatalogEntry entry = new CatalogEntry(file);
+    String path = DuckDBParquetService.sqlLiteral(file);
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      try (ResultSet rs = st.executeQuery("DESCRIBE SELECT * FROM read_parquet(" + path + ", hive_partitioning = false)")) {
+        while (rs.next()) {
+          entry.addColumn(rs.getString("column_name"), rs.getString("column_type"));
+        }
+      }
+      try (ResultSet rs = st.executeQuery("SELECT count(DISTINCT row_group_id), "
+          + "coalesce(sum(row_group_num_rows) FILTER (WHERE column_id = 0), 0)::BIGINT, "
+          + "string_agg(DISTINCT compression, ',' ORDER BY compression) FROM parquet_metadata(" + path + ")")) {
+        rs.next();
+        entry.setStats(rs.getLong(2), rs.getInt(1), rs.getString(3));
+      }
+    } catch (Exception e) {
+      entry.setError(String.valueOf(e.getMessage()).split("\n")[0]);
+    }
+    return entry;
+  }
+
+  /**
+   * Gets the entries matching a query, ordered by path.
+   */
+  public List<CatalogEntry> search(CatalogQuery query) {
+    List<CatalogEntry> found = new ArrayList<>();
+    for (CatalogEntry entry : entries.values()) {
+      if (query.matches(entry)) {
+        found.add(entry);
+      }
+    }
+    found.sort(Comparator.comparing(CatalogEntry::getPath));
+    return found;
+  }
+
+  /**
+   * Gets every entry, ordered by path.
+   */
+  public List<CatalogEntry> getEntries() {
+    List<CatalogEntry> all = new ArrayList<>(entries.values());
+    all.sort(Comparator.comparing(CatalogEntry::getPath));
+    return all;
+  }
+
+  public CatalogEntry getEntry(File file) {
+    return entries.get(file.getAbsolutePath());
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Adds a listener called, on the indexing thread, whenever entries are added, changed or
+   * dropped.
+   */
+  public void addListener(Runnable listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(Runnable listener) {
+    listeners.remove(listener);
+  }
+
+  private void fireChanged() {
+    for (Runnable listener : listeners) {
+      listener.run();
+    }
+  }
+
+  /**
+   * The saved form of the catalog.
+   */
+  private static final class Snapshot {
+    int version;
+    List<CatalogEntry> entries;
+  }
+}
@@ -13,12 +13,28 @@
  */
 package com.github.jhordyhuaman.parquetstudio.service;
 
+import com.github.jhordyhuaman.parquetstudio.diagnostics.EditorOperationEvent;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.CastReport;
+import com.github.jhordyhuaman.parquetstudio.model.ClusterReport;
+import com.github.jhordyhuaman.parquetstudio.model.EditJournal;
 import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetPreview;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetSearchFilter;
 import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.github.jhordyhuaman.parquetstudio.model.PartitionSpec;
+import com.github.jhordyhuaman.parquetstudio.model.PartitionedDataset;
 import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.github.jhordyhuaman.parquetstudio.model.ViewQuery;
 import com.intellij.openapi.diagnostic.Logger;
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 
 /**
  * Service layer for Parquet editor operations.
@@ -29,12 +45,22 @@ public class ParquetEditorService {
   
   private final DuckDBParquetService duckDBService;
   private final DataSchemaService dataSchemaService;
+  private final ExportService exportService;
+  private final SchemaCastService schemaCastService;
+  private final PartitionedWriteService partitionedWriteService;
+  private final ClusterService clusterService;
   private ParquetTableModel tableModel;
-  private File currentFile;
+  private EditJournal journal;
+  /** Set on the loader thread, read on the EDT and on save workers. */
+  private volatile File currentFile;
 
   public ParquetEditorService() {
       this.duckDBService = new DuckDBParquetService();
       this.dataSchemaService = new DataSchemaService();
+      this.exportService = new ExportService();
+      this.schemaCastService = new SchemaCastService(duckDBService);
+      this.partitionedWriteService = new PartitionedWriteService(duckDBService);
+      this.clusterService = new ClusterService(duckDBService);
   }
 
   /**
@@ -46,17 +72,98 @@ public class ParquetEditorService {
    */
   public ParquetData loadParquetFile(File file) throws Exception {
     LOGGER.info("Loading Parquet file: " + file.getAbsolutePath());
-    ParquetData data = duckDBService.loadParquet(file);
+    ParquetData data = load(file);
     this.currentFile = file;
     return data;
   }
 
+  /**
+   * Loads a Parquet file on the shared {@link ParquetLoadScheduler}.
+   * Concurrent requests for the same file share one scan.
+   *
+   * @param file the Parquet file to load
+   * @param priority the scheduler priority, e.g. {@link ParquetLoadScheduler#PRIORITY_VISIBLE}
+   * @param onStart called on the loader thread when the scan starts, may be null
+   * @return a future completed with the loaded ParquetData; cancelling it withdraws this request
+   */
+  public CompletableFuture<ParquetData> loadParquetFileAsync(File file, int priority, Runnable onStart) {
+    String key = loadKey(file);
+    return withCurrentFile(file, ParquetLoadScheduler.getInstance()
+        .<ParquetData>submit(key, priority, () -> {
+          if (onStart != null) onStart.run();
+          LOGGER.info("Loading Parquet file: " + file.getAbsolutePath());
+          return load(file);
+        }));
+  }
+
+  /**
+   * Loads the schema, footer row count and first rows of a Parquet file on the shared
+   * {@link ParquetLoadScheduler}. Previews are scheduled apart from full loads of the same file.
+   *
+   * @param file the Parquet file to preview
+   * @param rowLimit the maximum number of rows to read
+   * @param priority the scheduler priority
+   * @return a future completed with the preview; cancelling it withdraws this request
+   */
+  public CompletableFuture<ParquetPreview> previewParquetFileAsync(File file, int rowLimit, int priority) {
+    String key = previewKey(file);
+    return withCurrentFile(file, ParquetLoadScheduler.getInstance()
+        .<ParquetPreview>submit(key, priority, () -> {
+          try (EditorOperationEvent event = new EditorOperationEvent("preview", file)) {
+            ParquetPreview preview = duckDBService.previewParquet(file, rowLimit);
+            event.rows(preview.getRows().size()).columns(preview.getColumnNames().size()).completed();
+            return preview;
+          }
+        }));
+  }
+
+  /**
+   * Makes the file current once a scheduled load completes. Cancelling the returned future
+   * cancels the scheduler request too, so the load is dequeued when nobody else waits for it.
+   */
+  private <T> CompletableFuture<T> withCurrentFile(File file, CompletableFuture<T> request) {
+    CompletableFuture<T> loaded = request.thenApply(result -> {
+      this.currentFile = file;
+      return result;
+    });
+    loaded.whenComplete((result, error) -> {
+      if (loaded.isCancelled()) {
+        request.cancel(false);
+      }
+    });
+    return loaded;
+  }
+
+  private ParquetData load(File file) throws Exception {
+    try (EditorOperationEvent event = new EditorOperationEvent("load", file)) {
+      ParquetData data = duckDBService.loadParquet(file);
+      event.rows(data.getRows().size()).columns(data.getColumnNames().size()).completed();
+      return data;
+    }
+  }
+
+  /**
+   * Gets the scheduler key of a full load of the file.
+   */
+  public static String loadKey(File file) {
+    return ParquetLoadScheduler.canonicalKey(file);
+  }
+
+  /**
+   * Gets the scheduler key of a preview of the file.
+   */
+  public static String previewKey(File file) {
+    return "preview:" + ParquetLoadScheduler.canonicalKey(file);
+  }
+
     public String generateTransformSchemaString() throws Exception {
       return this.dataSchemaService.generateTransformSchemaString();
     }
 
     public String generateOriginalSchemaString(List<String> columnNames, List<String> columnTypes) throws Exception{
-      return this.dataSchemaService.generateOriginalSchemaString(columnNames, columnTypes);
+      List<String> partitions = currentFile != null
+          ? PartitionedWriteService.hivePartitions(currentFile, columnNames) : List.of();
+      return this.dataSchemaService.generateOriginalSchemaString(columnNames, columnTypes, partitions);
     }
     public boolean isSameNumberOfColumns(){
       return this.dataSchemaService.isSameNumberOfColumns();
@@ -71,11 +178,20 @@ public class ParquetEditorService {
    * @return the initialized ParquetTableModel
    */
   public ParquetTableModel initializeTableModel(ParquetData data) {
-    this.tableModel = new ParquetTableModel(
-        data.getColumnNames(), 
-        data.getColumnTypes(), 
-        data.getRows()
-    );
+    try (Stage stage = PerformanceMetrics.getInstance().stage("load", "model").rows(data.getRows().size());
+         EditorOperationEvent event = new EditorOperationEvent("build_model", currentFile)) {
+      this.tableModel = new ParquetTableModel(
+          data.getColumnNames(),
+          data.getColumnTypes(),
+          data.getRows()
+      );
+      if (journal != null) {
+        journal.clear();
+      }
+      this.journal = new EditJournal();
+      this.tableModel.setJournal(journal);
+      event.rows(data.getRows().size()).columns(data.getColumnNames().size()).completed();
+    }
     return this.tableModel;
   }
 
@@ -211,26 +327,271 @@ public class ParquetEditorService {
       return 0;
     }
 
-    tableModel.deleteRows(rowIndices);
-    LOGGER.info("Deleted " + rowIndices.length + " row(s)");
-    return rowIndices.length;
+    int deleted = tableModel.deleteRows(rowIndices);
+    LOGGER.info("Deleted " + deleted + " row(s)");
+    return deleted;
+  }
+
+  /**
+   * Deletes every row matching a search.
+   *
+   * @param filter the search whose matches are deleted
+   * @return the number of rows deleted
+   * @throws IllegalStateException if no data is loaded
+   */
+  public int deleteRowsMatching(ParquetSearchFilter filter) throws IllegalStateException {
+    validateDataLoaded();
+
+    int deleted = tableModel.deleteRowsMatching(filter::matches);
+    LOGGER.info("Deleted " + deleted + " row(s) matching the search");
+    return deleted;
+  }
+
+  /**
+   * Checks if there is an edit to undo.
+   */
+  public boolean canUndo() {
+    return journal != null && journal.canUndo();
+  }
+
+  /**
+   * Checks if there is an undone edit to apply again.
+   */
+  public boolean canRedo() {
+    return journal != null && journal.canRedo();
+  }
+
+  /**
+   * Gets the undo history of the current table model.
+   *
+   * @return the journal, or null if no data is loaded
+   */
+  public EditJournal getJournal() {
+    return journal;
+  }
+
+  /**
+   * Forgets the undo history and deletes the undo data spilled to disk.
+   */
+  public void clearHistory() {
+    if (journal != null) {
+      journal.clear();
+    }
+  }
+
+  /**
+   * Reverts the latest edit of the table model.
+   *
+   * @return the description of the reverted edit, or null if there was nothing to undo
+   * @throws IllegalStateException if no data is loaded
+   */
+  public String undo() throws IllegalStateException {
+    validateDataLoaded();
+    try (EditorOperationEvent event = new EditorOperationEvent("undo", currentFile)) {
+      String name = journal.undo(tableModel);
+      event.rows(tableModel.getRowCount()).columns(tableModel.getColumnCount()).completed();
+      if (name != null) {
+        LOGGER.info("Undid " + name);
+      }
+      return name;
+    }
+  }
+
+  /**
+   * Applies again the latest undone edit of the table model.
+   *
+   * @return the description of the applied edit, or null if there was nothing to redo
+   * @throws IllegalStateException if no data is loaded
+   */
+  public String redo() throws IllegalStateException {
+    validateDataLoaded();
+    try (EditorOperationEvent event = new EditorOperationEvent("redo", currentFile)) {
+      String name = journal.redo(tableModel);
+      event.rows(tableModel.getRowCount()).columns(tableModel.getColumnCount()).completed();
+      if (name != null) {
+        LOGGER.info("Redid " + name);
+      }
+      return name;
+    }
   }
 
   /**
    * Saves the current table model to a Parquet file.
    *
+   * <p>With a schema, the columns changing type are converted by DuckDB with
+   * {@code TRY_CAST}: values that do not fit are written as NULL, see
+   * {@link #checkSchemaTransform}. While the data is unmodified the file is converted
+   * straight from the source file.
+   *
    * @param outputFile the file to save to
+   * @param schema the transform to apply, or null to keep the column types
    * @throws IllegalStateException if no data is loaded
    * @throws Exception if saving fails
    */
   public void saveParquetFile(File outputFile, SchemaStructure schema) throws Exception {
     validateDataLoaded();
 
-    ParquetData dataClone = new ParquetData(tableModel.toParquetData());
-    if(schema != null) this.dataSchemaService.applyConvertTypes(dataClone, schema);
+    try (EditorOperationEvent event = new EditorOperationEvent("save", outputFile)) {
+      if (schema == null) {
+        saveTableModel(outputFile);
+      } else if (isUnmodifiedFile()) {
+        LOGGER.info("Saving unmodified " + currentFile.getName() + " with the schema from the file");
+        schemaCastService.write(currentFile, schema, outputFile);
+      } else {
+        schemaCastService.write(tableModel, schema, outputFile);
+      }
+      LOGGER.info("Saved Parquet file: " + outputFile.getAbsolutePath());
+      event.rows(tableModel.getRowCount()).columns(tableModel.getColumnCount()).completed();
+    }
+  }
+
+  /**
+   * Runs the conversions of a schema transform without writing anything, counting the
+   * values of each column that would be written as NULL.
+   *
+   * @param schema the transform to check
+   * @return the failures per converted column, with samples
+   * @throws IllegalStateException if no data is loaded
+   */
+  public CastReport checkSchemaTransform(SchemaStructure schema) throws Exception {
+    validateDataLoaded();
+
+    try (EditorOperationEvent event = new EditorOperationEvent("check_schema", currentFile)) {
+      CastReport report = isUnmodifiedFile()
+          ? schemaCastService.dryRun(currentFile, schema)
+          : schemaCastService.dryRun(tableModel, schema);
+      event.rows(report.getRowCount()).columns(report.getColumns().size()).completed();
+      return report;
+    }
+  }
 
+  /**
+   * Saves what the table shows: the given rows and columns, in view order. While the data
+   * is unmodified and the view has no search and no sort on a text column, it is written by
+   * DuckDB straight from the source file; otherwise, or when DuckDB writes a different number
+   * of rows than the table shows, the rows are appended from the table model. A preview
+   * only holds the first rows of the file, so its view is always written from the file.
+   *
+   * @param outputFile the Parquet file to write
+   * @param view the columns, search and sort order of the table, for the source file
+   * @param rows the model rows shown, in view order
+   * @param columns the model columns shown, in view order
+   * @param preview true if the table is a preview of the file, not all of its rows
+   * @param cancelled polled while a pushed-down write runs
+   * @param progress receives the bytes written by a pushed-down write
+   * @return the number of rows written
+   * @throws IllegalStateException if no data is loaded
+   */
+  public long saveView(File outputFile, ViewQuery view, int[] rows, int[] columns, boolean preview,
+                       BooleanSupplier cancelled, LongConsumer progress) throws Exception {
+    validateDataLoaded();
+
+    try (EditorOperationEvent event = new EditorOperationEvent("save_view", outputFile)) {
+      long written = -1;
+      if (preview) {
+        File source = currentFile;
+        if (source == null || !source.isFile()) {
+          throw new IllegalStateException("The previewed file is no longer available");
+        }
+        LOGGER.info("Saving view of previewed " + source.getName() + " from the file");
+        written = exportService.export(source, view, ExportService.Format.PARQUET, outputFile, cancelled, progress);
+        event.rows(written).columns(columns.length).completed();
+        return written;
+      }
+      if (isUnmodifiedFile() && matchesTable(view)) {
+        LOGGER.info("Saving view of unmodified " + currentFile.getName() + " from the file");
+        written = exportService.export(currentFile, view, ExportService.Format.PARQUET, outputFile, cancelled, progress);
+        if (written != rows.length) {
+          LOGGER.warn("View of " + currentFile.getName() + " gave " + written + " row(s) from the file but "
+              + rows.length + " in the table, saving the table rows");
+        }
+      }
+      if (written != rows.length) {
+        duckDBService.saveRows(outputFile, tableModel, rows, columns);
+        written = rows.length;
+      }
+      event.rows(written).columns(columns.length).completed();
+      return written;
+    }
+  }
+
+  /**
+   * Checks if DuckDB shows the same rows in the same order as the table for a view. The
+   * table searches the rendered text of every cell and sorts text with a collator, neither
+   * of which SQL repeats, so only views without a search and without a text sort key match.
+   */
+  private boolean matchesTable(ViewQuery view) {
+    if (view.getSearchText() != null) {
+      return false;
+    }
+    List<String> names = tableModel.getColumnNames();
+    for (String column : view.getSortColumns()) {
+      int index = names.indexOf(column);
+      if (index < 0 || tableModel.getColumnClass(index) == String.class) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Saves the data as a Hive-partitioned dataset, one directory per partition value. While
+   * the data is unmodified the dataset is written by DuckDB straight from the source file;
+   * otherwise the rows are appended from the table model.
+   *
+   * @param directory the dataset directory; must not exist or be empty
+   * @param cancelled polled before each partition and while it is written
+   * @param progress receives the number of partitions written so far
+   * @return the dataset, with its partition columns recorded in its schema
+   * @throws IllegalStateException if no data is loaded
+   */
+  public PartitionedDataset savePartitioned(File directory, PartitionSpec spec, ParquetWriteOptions options,
+                                            BooleanSupplier cancelled, IntConsumer progress) throws Exception {
+    validateDataLoaded();
+
+    try (EditorOperationEvent event = new EditorOperationEvent("save_partitioned", directory)) {
+      PartitionedDataset dataset = isUnmodifiedFile()
+          ? partitionedWriteService.write(currentFile, spec, options, directory, cancelled, progress)
+          : partitionedWriteService.write(tableModel, spec, options, directory, cancelled, progress);
+      event.rows(dataset.getRowCount()).columns(tableModel.getColumnCount()).completed();
+      return dataset;
+    }
+  }
+
+  /**
+   * Saves the data sorted by the given columns, so that readers can skip row groups by
+   * their min/max statistics. While the data is unmodified the file is sorted by DuckDB
+   * straight from the source file; otherwise the rows are appended from the table model.
+   *
+   * @param sortColumns the sort keys, most significant first
+   * @param cancelled polled while the sort runs
+   * @return the rows written and the row-group overlap before and after
+   * @throws IllegalStateException if no data is loaded
+   */
+  public ClusterReport saveSorted(File outputFile, List<String> sortColumns, ParquetWriteOptions options,
+                                  BooleanSupplier cancelled) throws Exception {
+    validateDataLoaded();
+
+    try (EditorOperationEvent event = new EditorOperationEvent("save_sorted", outputFile)) {
+      ClusterReport report = isUnmodifiedFile()
+          ? clusterService.write(currentFile, sortColumns, options, outputFile, cancelled)
+          : clusterService.write(tableModel, sortColumns, options, outputFile, cancelled);
+      event.rows(report.getRowCount()).columns(tableModel.getColumnCount()).completed();
+      return report;
+    }
+  }
+
+  // The table still holds exactly what the file does, so DuckDB can read the file instead
+  private boolean isUnmodifiedFile() {
+    return !tableModel.isModified() && currentFile != null && currentFile.isFile();
+  }
+
+  private void saveTableModel(File outputFile) throws Exception {
+    ParquetData dataClone;
+    try (Stage stage = PerformanceMetrics.getInstance().stage("save", "snapshot").rows(tableModel.getRowCount())) {
+      dataClone = new ParquetData(tableModel.toParquetData());
+    }
     duckDBService.saveParquet(outputFile, dataClone);
-    LOGGER.info("Saved Parquet file: " + outputFile.getAbsolutePath());
   }
 
   /**
@@ -0,0 +1,292 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, prioritized executor for Parquet file loads.
+ *
+ * <p>At most {@link #getConcurrency()} loads run at the same time, the file shown in the
+ * selected tab runs before the queued ones, and concurrent requests for the same canonical
+ * path share a single load. Each request gets its own future: cancelling it only drops that
+ * request, and the load leaves the queue once every request for it is cancelled. The
+ * concurrency can be set with the {@value #CONCURRENCY_PROPERTY} system property.
+ */
+public class ParquetLoadScheduler {
+  private static final Logger LOGGER = Logger.getInstance(ParquetLoadScheduler.class);
+
+  public static final int PRIORITY_VISIBLE = 0;
+  public static final int PRIORITY_BACKGROUND = 10;
+  public static final String CONCURRENCY_PROPERTY = "parquetstudio.load.concurrency";
+
+  private static final int LOCK_STRIPES = 32;
+  private static final ParquetLoadScheduler INSTANCE = new ParquetLoadScheduler(defaultConcurrency());
+
+  private final int concurrency;
+  private final ThreadPoolExecutor executor;
+  private final Lock[] stripes = new Lock[LOCK_STRIPES];
+  private final Map<String, LoadTask<?>> inFlight = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+
+  public ParquetLoadScheduler(int concurrency) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+    }
+    this.concurrency = concurrency;
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+    Comparator<Runnable> order = Comparator.comparingInt((Runnable r) -> ((LoadTask<?>) r).priority)
+        .thenComparingLong(r -> ((LoadTask<?>) r).sequence);
+    this.executor = new ThreadPoolExecutor(
+        concurrency, concurrency, 30, TimeUnit.SECONDS,
+        new PriorityBlockingQueue<>(16, order),
+        new LoaderThreadFactory());
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Gets the scheduler shared by all Parquet Studio tabs.
+   */
+  public static ParquetLoadScheduler getInstance() {
+    return INSTANCE;
+  }
+
+  static int defaultConcurrency() {
+    int cores = Runtime.getRuntime().availableProcessors();
+    int fallback = Math.max(1, Math.min(4, cores / 2));
+    return Math.max(1, Integer.getInteger(CONCURRENCY_PROPERTY, fallback));
+  }
+
+  /**
+   * Gets the key used to de-duplicate loads: the canonical path, or the absolute path when
+   * the canonical one cannot be resolved.
+   */
+  public static String canonicalKey(File file) {
+    try {
+      return file.getCanonicalPath();
+    } catch (IOException e) {
+      return file.getAbsolutePath();
+    }
+  }
+
+  /**
+   * Gets the lock guarding the given key. Keys that hash to the same stripe share a lock.
+   */
+  public Lock lockFor(String key) {
+    return stripes[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+  }
+
+  /**
+   * Schedules a load. If a load for the same key is already queued or running, the request
+   * waits for that one instead and raises its priority when the new request is more urgent.
+   * Callers sharing a key must expect the same result type.
+   *
+   * <p>Cancelling the returned future withdraws only this request. The load itself is removed
+   * from the queue when the last request waiting for it is cancelled before it starts.
+   *
+   * @param key the de-duplication key, usually {@link #canonicalKey(File)}
+   * @param priority {@link #PRIORITY_VISIBLE}, {@link #PRIORITY_BACKGROUND} or any value in between
+   * @param loader the work to run on a loader thread
+   * @return a future of this request, completed with the loader result
+   */
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<T> submit(String key, int priority, Callable<T> loader) {
+    Lock lock = lockFor(key);
+    lock.lock();
+    try {
+      LoadTask<T> task = (LoadTask<T>) inFlight.get(key);
+      if (task != null) {
+        LOGGER.info("Load already scheduled, sharing it: " + key);
+        if (priority < task.priority) {
+          requeue(task, priority);
+        }
+      } else {
+        task = new LoadTask<>(key, priority, sequence.getAndIncrement(), loader);
+        inFlight.put(key, task);
+        executor.execute(task);
+      }
+      return task.addWaiter();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Changes the priority of a queued load. Loads that already started are left alone.
+   *
+   * @return true if the load was still queued and has been re-ordered
+   */
+  public boolean reprioritize(String key, int priority) {
+    Lock lock = lockFor(key);
+    lock.lock();
+    try {
+      LoadTask<?> task = inFlight.get(key);
+      return task != null && task.priority != priority && requeue(task, priority);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Checks whether a load for the key is waiting for a free loader thread.
+   */
+  public boolean isQueued(String key) {
+    LoadTask<?> task = inFlight.get(key);
+    return task != null && executor.getQueue().contains(task);
+  }
+
+  /**
+   * Gets the number of loads waiting for a free loader thread.
+   */
+  public int getQueuedCount() {
+    return executor.getQueue().size();
+  }
+
+  /**
+   * Gets the maximum number of loads running at the same time.
+   */
+  public int getConcurrency() {
+    return concurrency;
+  }
+
+  /**
+   * Stops accepting loads. Only needed for schedulers created outside {@link #getInstance()}.
+   */
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /** Must be called with the key's stripe lock held. */
+  private boolean requeue(LoadTask<?> task, int priority) {
+    if (!executor.remove(task)) {
+      return false;
+    }
+    task.priority = priority;
+    task.sequence = sequence.getAndIncrement();
+    executor.execute(task);
+    return true;
+  }
+
+  /** Called when a request is cancelled; dequeues the load once nobody waits for it. */
+  private void release(LoadTask<?> task) {
+    Lock lock = lockFor(task.key);
+    lock.lock();
+    try {
+      if (--task.waiters > 0 || inFlight.get(task.key) != task || !executor.remove(task)) {
+        return;
+      }
+      inFlight.remove(task.key, task);
+      task.future.cancel(false);
+      LOGGER.info("Cancelled queued load: " + task.key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void finish(LoadTask<?> task) {
+    Lock lock = lockFor(task.key);
+    lock.lock();
+    try {
+      inFlight.remove(task.key, task);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private final class LoadTask<T> implements Runnable {
+    private final String key;
+    private final Callable<T> loader;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+    private volatile int priority;
+    private volatile long sequence;
+    // Requests not cancelled yet; guarded by the key's stripe lock
+    private int waiters;
+
+    LoadTask(String key, int priority, long sequence, Callable<T> loader) {
+      this.key = key;
+      this.priority = priority;
+      this.sequence = sequence;
+      this.loader = loader;
+    }
+
+    /** Must be called with the key's stripe lock held. */
+    CompletableFuture<T> addWaiter() {
+      waiters++;
+      CompletableFuture<T> waiter = new CompletableFuture<>();
+      future.whenComplete((result, error) -> {
+        if (error != null) {
+          waiter.completeExceptionally(error);
+        } else {
+          waiter.complete(result);
+        }
+      });
+      waiter.whenComplete((result, error) -> {
+        if (waiter.isCancelled()) {
+          release(this);
+        }
+      });
+      return waiter;
+    }
+
+    @Override
+    public void run() {
+      if (future.isDone()) {
+        finish(this);
+        return;
+      }
+      T result = null;
+      Throwable error = null;
+      try {
+        result = loader.call();
+      } catch (Throwable t) {
+        error = t;
+      }
+      // Leave the in-flight map before completing so callbacks can schedule the key again
+      finish(this);
+      if (error != null) {
+        future.completeExceptionally(error);
+      } else {
+        future.complete(result);
+      }
+    }
+  }
+
+  private static final class LoaderThreadFactory implements ThreadFactory {
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "Parquet Studio Loader-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
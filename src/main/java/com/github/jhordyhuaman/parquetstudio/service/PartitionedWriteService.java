@@ -0,0 +1,391 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.DuckDBQueryEvent;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.github.jhordyhuaman.parquetstudio.model.PartitionSpec;
+import com.github.jhordyhuaman.parquetstudio.model.PartitionedDataset;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes a table as a Hive-partitioned dataset: one {@code column=value} directory per
+ * distinct value of the partition columns, holding Parquet files without those columns.
+ *
+ * <p>DuckDB's own {@code PARTITION_BY} cannot be combined with a file size limit, so the
+ * rows are first copied into a scratch table sorted by partition, where each partition is a
+ * contiguous run that a filtered scan reaches through the table's min/max indexes. Each
+ * partition is then one {@code COPY}, run on {@link PartitionSpec#getWriters()} connections
+ * at a time. The dataset is written to a hidden staging directory and moved into place once
+ * every row has been written.
+ */
+public class PartitionedWriteService {
+  private static final Logger LOGGER = Logger.getInstance(PartitionedWriteService.class);
+
+  public static final String WRITERS_PROPERTY = "parquetstudio.partition.writers";
+  /** The directory value Hive, Spark and Trino use for a NULL or empty partition value. */
+  public static final String NULL_PARTITION = "__HIVE_DEFAULT_PARTITION__";
+  private static final String PARTITION_ID = "__partition_id";
+  private static final String ROW_ID = "__row_id";
+  private static final AtomicLong TABLES = new AtomicLong();
+  private static final AtomicInteger THREADS = new AtomicInteger();
+
+  private final DuckDBParquetService duckDBService;
+
+  public PartitionedWriteService() {
+    this(new DuckDBParquetService());
+  }
+
+  public PartitionedWriteService(DuckDBParquetService duckDBService) {
+    this.duckDBService = duckDBService;
+  }
+
+  /**
+   * Gets the default number of partitions written at the same time, from the
+   * {@value #WRITERS_PROPERTY} system property.
+   */
+  public static int defaultWriters() {
+    return DuckDBParquetService.defaultParallelWrites(WRITERS_PROPERTY);
+  }
+
+  /**
+   * Writes a Parquet file as a partitioned dataset, read by DuckDB straight from disk.
+   *
+   * @param directory the dataset directory; must not exist or be empty
+   * @param cancelled polled before each partition and while it is written
+   * @param progress receives the number of partitions written so far, on the writer threads
+   * @throws CancellationException if the write was cancelled
+   */
+  public PartitionedDataset write(File source, PartitionSpec spec, ParquetWriteOptions options, File directory,
+                                  BooleanSupplier cancelled, IntConsumer progress) throws Exception {
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      return write(st, DuckDBParquetService.readParquet(source), spec, options, directory, cancelled, progress);
+    }
+  }
+
+  /**
+   * Writes the rows of a table model as a partitioned dataset. The rows are appended from
+   * the model to DuckDB first; the model must not change until this returns.
+   *
+   * @see #write(File, PartitionSpec, ParquetWriteOptions, File, BooleanSupplier, IntConsumer)
+   */
+  public PartitionedDataset write(ParquetTableModel model, PartitionSpec spec, ParquetWriteOptions options,
+                                  File directory, BooleanSupplier cancelled, IntConsumer progress) throws Exception {
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      String table = duckDBService.createRowsTable(conn, "partition", model);
+      try {
+        return write(st, table, spec, options, directory, cancelled, progress);
+      } finally {
+        st.execute("DROP TABLE IF EXISTS " + table);
+      }
+    }
+  }
+
+  private PartitionedDataset write(Statement st, String relation, PartitionSpec spec, ParquetWriteOptions options,
+                                   File directory, BooleanSupplier cancelled, IntConsumer progress) throws Exception {
+    List<String> columns = new ArrayList<>();
+    List<String> types = new ArrayList<>();
+    try (ResultSet rs = st.executeQuery("DESCRIBE SELECT * FROM " + relation)) {
+      while (rs.next()) {
+        columns.add(rs.getString("column_name"));
+        types.add(rs.getString("column_type"));
+      }
+    }
+    for (String column : spec.getColumns()) {
+      if (!columns.contains(column)) {
+        throw new IllegalArgumentException("Unknown partition column: " + column);
+      }
+    }
+    List<String> dataColumns = new ArrayList<>(columns);
+    dataColumns.removeAll(spec.getColumns());
+    if (dataColumns.isEmpty()) {
+      throw new IllegalArgumentException("At least one column must not be a partition column");
+    }
+    if (columns.contains(PARTITION_ID) || columns.contains(ROW_ID)) {
+      throw new IllegalArgumentException("Column names " + PARTITION_ID + " and " + ROW_ID + " are reserved");
+    }
+    String[] existing = directory.list();
+    if (directory.exists() && (existing == null || existing.length > 0)) {
+      throw new IllegalArgumentException("The dataset directory must be new or empty: " + directory);
+    }
+    LOGGER.info("Writing " + relation + " to " + directory + ", " + spec + ", " + options);
+
+    PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+    String table = "partitioned_" + TABLES.incrementAndGet();
+    File staging = new File(directory.getAbsoluteFile().getParentFile(), "." + directory.getName() + ".partial-" + System.nanoTime());
+    try (Stage total = metrics.stage("partition", "total")) {
+      // Rows are grouped by their partition directory: NULL, empty and the default
+      // partition name all land in the same one
+      StringBuilder keyList = new StringBuilder();
+      for (String column : spec.getColumns()) {
+        if (keyList.length() > 0) keyList.append(", ");
+        keyList.append(partitionKey(column));
+      }
+      String keys = keyList.toString();
+      String sort = "CREATE TABLE " + table + " AS SELECT dense_rank() OVER (ORDER BY " + keys + ") AS " + DuckDBParquetService.ident(PARTITION_ID)
+          + ", * EXCLUDE (" + DuckDBParquetService.ident(ROW_ID) + ") FROM (SELECT *, row_number() OVER () AS " + DuckDBParquetService.ident(ROW_ID) + " FROM " + relation
+          + ") ORDER BY " + DuckDBParquetService.ident(PARTITION_ID) + ", " + DuckDBParquetService.ident(ROW_ID);
+      try (Stage stage = metrics.stage("partition", "sort");
+           DuckDBQueryEvent event = new DuckDBQueryEvent("partition", directory, sort)) {
+        st.execute(sort);
+        event.completed();
+      }
+
+      List<Partition> partitions = new ArrayList<>();
+      long rowCount = 0;
+      StringBuilder values = new StringBuilder();
+      for (String column : spec.getColumns()) {
+        values.append(", any_value(").append(partitionKey(column)).append(')');
+      }
+      try (ResultSet rs = st.executeQuery("SELECT " + DuckDBParquetService.ident(PARTITION_ID) + ", count(*)" + values + " FROM " + table
+          + " GROUP BY 1 ORDER BY 1")) {
+        while (rs.next()) {
+          StringBuilder path = new StringBuilder();
+          for (int i = 0; i < spec.getColumns().size(); i++) {
+            if (i > 0) path.append('/');
+            path.append(partitionPath(spec.getColumns().get(i), rs.getString(i + 3)));
+          }
+          partitions.add(new Partition(rs.getLong(1), path.toString()));
+          rowCount += rs.getLong(2);
+        }
+      }
+
+      Files.createDirectories(staging.toPath());
+      writePartitions(table, dataColumns, partitions, staging, spec, options, cancelled, progress);
+      List<File> stagedFiles;
+      try (Stream<Path> files = Files.walk(staging.toPath())) {
+        stagedFiles = files.filter(Files::isRegularFile).map(Path::toFile).collect(Collectors.toList());
+      }
+      long stagedRows = countRows(st, stagedFiles);
+      if (stagedRows != rowCount) {
+        throw new IOException("Row count mismatch: " + rowCount + " row(s) read, " + stagedRows + " written");
+      }
+      int fileCount = stagedFiles.size();
+      Files.deleteIfExists(directory.toPath());
+      Files.move(staging.toPath(), directory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      total.rows(rowCount);
+
+      List<String> datasetColumns = new ArrayList<>(dataColumns);
+      List<String> datasetTypes = new ArrayList<>();
+      for (String column : dataColumns) {
+        datasetTypes.add(types.get(columns.indexOf(column)));
+      }
+      for (String column : spec.getColumns()) {
+        datasetColumns.add(column);
+        datasetTypes.add(types.get(columns.indexOf(column)));
+      }
+      LOGGER.info("Wrote " + rowCount + " row(s) in " + partitions.size() + " partition(s), " + fileCount
+          + " file(s), to " + directory);
+      return new PartitionedDataset(directory, SchemaStructure.schemaFromLists(datasetColumns, datasetTypes, spec.getColumns()),
+          partitions.size(), fileCount, rowCount);
+    } finally {
+      st.execute("DROP TABLE IF EXISTS " + table);
+      deleteRecursively(staging);
+    }
+  }
+
+  private long writePartitions(String table, List<String> dataColumns, List<Partition> partitions, File staging,
+                               PartitionSpec spec, ParquetWriteOptions options, BooleanSupplier cancelled,
+                               IntConsumer progress) throws Exception {
+    String copyOptions = options.toCopyOptions()
+        + (spec.getMaxFileBytes() > 0 ? ", FILE_SIZE_BYTES " + spec.getMaxFileBytes() : "");
+    String select = "SELECT " + identList(dataColumns) + " FROM " + table + " WHERE " + DuckDBParquetService.ident(PARTITION_ID) + " = ";
+    AtomicBoolean failed = new AtomicBoolean(false);
+    BooleanSupplier stop = () -> failed.get() || cancelled.getAsBoolean();
+    AtomicLong written = new AtomicLong();
+    AtomicInteger done = new AtomicInteger();
+
+    ExecutorService pool = Executors.newFixedThreadPool(Math.min(spec.getWriters(), Math.max(1, partitions.size())), r -> {
+      Thread thread = new Thread(r, "Parquet Studio Partition Writer " + THREADS.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try (Stage stage = PerformanceMetrics.getInstance().stage("partition", "write")) {
+      List<Future<?>> futures = new ArrayList<>(partitions.size());
+      for (Partition partition : partitions) {
+        futures.add(pool.submit(() -> {
+          if (stop.getAsBoolean()) {
+            return null;
+          }
+          File dir = new File(staging, partition.path);
+          Files.createDirectories(dir.toPath());
+          // With a size limit DuckDB writes data_N.parquet files into the directory itself
+          File target = spec.getMaxFileBytes() > 0 ? dir : new File(dir, "data_0.parquet");
+          String copy = "COPY (" + select + partition.id + ") TO " + DuckDBParquetService.sqlLiteral(target) + " (" + copyOptions + ")";
+          try (Connection conn = DuckDBParquetService.openConnection();
+               Statement st = conn.createStatement();
+               DuckDBQueryEvent event = new DuckDBQueryEvent("partition", dir, copy)) {
+            ScheduledFuture<?> watcher = StatementWatcher.watch(st, stop, () -> { });
+            try {
+              long rows = st.executeUpdate(copy);
+              written.addAndGet(rows);
+              event.rows(rows).completed();
+            } finally {
+              watcher.cancel(false);
+            }
+          } catch (Exception e) {
+            failed.set(true);
+            throw e;
+          }
+          progress.accept(done.incrementAndGet());
+          return null;
+        }));
+      }
+      Exception error = null;
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          if (error == null && !cancelled.getAsBoolean()) {
+            error = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+          }
+        }
+      }
+      if (cancelled.getAsBoolean()) {
+        throw new CancellationException("Partitioned write cancelled");
+      }
+      if (error != null) {
+        throw error;
+      }
+      stage.rows(written.get());
+      return written.get();
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  // The partition value as the directory name sees it: NULL for every value written to
+  // the default partition
+  private static String partitionKey(String column) {
+    return "nullif(nullif(CAST(" + DuckDBParquetService.ident(column) + " AS VARCHAR), ''), '" + NULL_PARTITION + "')";
+  }
+
+  private static long countRows(Statement st, List<File> files) throws Exception {
+    if (files.isEmpty()) {
+      return 0;
+    }
+    try (ResultSet rs = st.executeQuery("SELECT count(*) FROM read_parquet("
+        + DuckDBParquetService.fileList(files) + ", hive_partitioning = false)")) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  /**
+   * Finds the Hive partition columns of a file from its path: the {@code column=value}
+   * directories above it whose column DuckDB added to the file's columns.
+   *
+   * @return the partition columns, outermost first
+   */
+  public static List<String> hivePartitions(File file, List<String> columns) {
+    List<String> partitions = new ArrayList<>();
+    for (File dir = file.getAbsoluteFile().getParentFile(); dir != null; dir = dir.getParentFile()) {
+      int equals = dir.getName().indexOf('=');
+      if (equals > 0) {
+        String column = dir.getName().substring(0, equals);
+        if (columns.contains(column) && !partitions.contains(column)) {
+          partitions.add(0, column);
+        }
+      }
+    }
+    return partitions;
+  }
+
+  /**
+   * Builds the {@code column=value} directory name of a partition, escaping characters
+   * that cannot appear in a path the way Hive does, e.g. {@code /} as {@code %2F}.
+   *
+   * @param value the value as text; null or empty becomes {@value #NULL_PARTITION}
+   */
+  public static String partitionPath(String column, String value) {
+    return escapePathName(column) + "=" + (value == null || value.isEmpty() ? NULL_PARTITION : escapePathName(value));
+  }
+
+  private static String escapePathName(String name) {
+    StringBuilder sb = new StringBuilder(name.length());
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (c < 0x20 || c == 0x7F || "\"#%'*/:=?\\{[]^".indexOf(c) >= 0) {
+        sb.append('%').append(String.format("%02X", (int) c));
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+
+  private static void deleteRecursively(File root) {
+    if (!root.exists()) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(root.toPath())) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+        if (!path.toFile().delete()) {
+          LOGGER.warn("Could not delete " + path);
+        }
+      });
+    } catch (IOException e) {
+      LOGGER.warn("Could not delete " + root, e);
+    }
+  }
+
+  private static String identList(List<String> names) {
+    StringBuilder sb = new StringBuilder();
+    for (String name : names) {
+      if (sb.length() > 0) sb.append(", ");
+      sb.append(DuckDBParquetService.ident(name));
+    }
+    return sb.toString();
+  }
+
+  private static final class Partition {
+    private final long id;
+    private final String path;
+
+    Partition(long id, String path) {
+      this.id = id;
+      this.path = path;
+    }
+  }
+}
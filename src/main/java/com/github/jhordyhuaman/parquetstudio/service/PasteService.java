@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.ColumnEdit;
+import com.github.jhordyhuaman.parquetstudio.model.DelimitedText;
+import com.github.jhordyhuaman.parquetstudio.model.EditJournal;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.ParseReport;
+import com.github.jhordyhuaman.parquetstudio.model.PastePlan;
+import com.github.jhordyhuaman.parquetstudio.model.ValueParser;
+import com.intellij.openapi.diagnostic.Logger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pastes blocks of tab- or comma-separated text, e.g. copied from a spreadsheet, into a
+ * table model.
+ *
+ * <p>{@link #prepare} splits and converts the whole block without touching the model, so it
+ * can run off the UI thread; cells that do not fit their column are collected in a
+ * {@link ParseReport} and left out. {@link #apply} then appends the missing rows and writes
+ * each column with a single table event, as one undoable edit.
+ */
+public class PasteService {
+  private static final Logger LOGGER = Logger.getInstance(PasteService.class);
+
+  /**
+   * Converts a pasted block for the given target cells.
+   *
+   * @param text the pasted text
+   * @param targetRows the model rows receiving the pasted lines, in order; lines past the
+   *     end are appended as new rows
+   * @param firstColumn the model column receiving the first pasted column
+   * @return the converted cells
+   */
+  public PastePlan prepare(ParquetTableModel model, String text, int[] targetRows, int firstColumn) {
+    PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+    List<String[]> lines;
+    try (Stage stage = metrics.stage("paste", "split").bytes(2L * text.length())) {
+      lines = DelimitedText.parse(text);
+      stage.rows(lines.size());
+    }
+
+    int width = 0;
+    for (String[] line : lines) {
+      width = Math.max(width, line.length);
+    }
+    int columns = Math.max(0, Math.min(width, model.getColumnCount() - firstColumn));
+    int rowsToAdd = Math.max(0, lines.size() - targetRows.length);
+    int rowCount = model.getRowCount();
+
+    ParseReport report = new ParseReport();
+    List<ColumnEdit> edits = new ArrayList<>(columns);
+    try (Stage stage = metrics.stage("paste", "convert").rows((long) lines.size() * columns)) {
+      List<String> texts = new ArrayList<>(lines.size());
+      for (int c = 0; c < columns; c++) {
+        int columnIndex = firstColumn + c;
+        texts.clear();
+        for (String[] line : lines) {
+          // Short lines leave the cells on their right unchanged
+          texts.add(c < line.length ? line[c] : null);
+        }
+        ValueParser parser = ValueParser.forType(model.getColumnTypes().get(columnIndex));
+        Object[] values = parser.parseAll(texts, model.getColumnNames().get(columnIndex), 1, report);
+
+        int[] rows = new int[values.length];
+        List<Object> written = new ArrayList<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+          if (values[i] == ValueParser.INVALID || c >= lines.get(i).length) {
+            continue;
+          }
+          rows[written.size()] = i < targetRows.length ? targetRows[i] : rowCount + (i - targetRows.length);
+          written.add(values[i]);
+        }
+        edits.add(new ColumnEdit("paste", columnIndex, Arrays.copyOf(rows, written.size()), written, written.size()));
+      }
+    }
+    return new PastePlan(edits, rowsToAdd, lines.size(), width - columns, report);
+  }
+
+  /**
+   * Writes a prepared paste to the model: appends the missing rows, then writes each column
+   * with a single table change event. Undoing it reverts the whole paste.
+   *
+   * @return the number of cells written
+   */
+  public int apply(ParquetTableModel model, PastePlan plan) {
+    int cells = plan.getCellCount();
+    EditJournal journal = model.getJournal();
+    if (journal != null) {
+      journal.beginCompound("paste " + cells + " cell(s)");
+    }
+    try (Stage stage = PerformanceMetrics.getInstance().stage("paste", "write").rows(cells)) {
+      if (plan.getRowsToAdd() > 0) {
+        model.addRows(plan.getRowsToAdd());
+      }
+      for (ColumnEdit edit : plan.getEdits()) {
+        if (!edit.getValues().isEmpty()) {
+          model.setColumnValues(edit.getColumnIndex(), edit.getRowIndices(), edit.getValues());
+        }
+      }
+    } finally {
+      if (journal != null) {
+        journal.endCompound();
+      }
+    }
+    LOGGER.info("Pasted " + cells + " cell(s) from " + plan.getLineCount() + " line(s), "
+        + plan.getRowsToAdd() + " row(s) added, " + plan.getReport().getErrorCount() + " skipped");
+    return cells;
+  }
+}
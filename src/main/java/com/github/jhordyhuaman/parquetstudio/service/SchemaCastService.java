@@ -0,0 +1,297 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.DuckDBQueryEvent;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.CastReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaItem;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaItemTransform;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Applies an external schema, as built by {@link SchemaStructure#toTransform}, inside DuckDB.
+ *
+ * <p>The transform is compiled into one {@code SELECT} with a {@code TRY_CAST} per column
+ * changing type, so writing it is a single streaming {@code COPY} over the source and a
+ * value that does not fit its new type is written as NULL instead of aborting the save.
+ * {@link #dryRun} runs the same casts first and counts, per column, the values that would
+ * be lost, with a few samples of each.
+ *
+ * <p>The source is the Parquet file itself while the editor holds it unmodified; otherwise
+ * the table model is appended to a scratch table and the casts run over that.
+ */
+public class SchemaCastService {
+  private static final Logger LOGGER = Logger.getInstance(SchemaCastService.class);
+  /** The failing values kept per column for the report. */
+  public static final int SAMPLES_PER_COLUMN = 5;
+  // Failing rows read per column to find distinct samples
+  private static final int SAMPLE_SCAN_LIMIT = 100;
+  private static final Pattern SQL_TYPE = Pattern.compile("[A-Za-z][A-Za-z0-9_ ]*(\\([0-9, ]*\\))?(\\[\\])*");
+
+  private final DuckDBParquetService duckDBService;
+
+  public SchemaCastService() {
+    this(new DuckDBParquetService());
+  }
+
+  public SchemaCastService(DuckDBParquetService duckDBService) {
+    this.duckDBService = duckDBService;
+  }
+
+  /**
+   * Checks which values of a Parquet file the transform cannot convert, without writing.
+   */
+  public CastReport dryRun(File source, SchemaStructure transform) throws SQLException {
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      List<String> columns = new ArrayList<>();
+      List<String> types = new ArrayList<>();
+      describe(st, source, DuckDBParquetService.readParquet(source), columns, types);
+      return dryRun(st, source, DuckDBParquetService.readParquet(source), columns, types, transform);
+    }
+  }
+
+  /**
+   * Checks which values of a table model the transform cannot convert, without writing.
+   */
+  public CastReport dryRun(ParquetTableModel model, SchemaStructure transform) throws SQLException {
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      String table = duckDBService.createRowsTable(conn, "schema_cast", model);
+      try {
+        return dryRun(st, null, table, model.getColumnNames(), model.getColumnTypes(), transform);
+      } finally {
+        st.execute("DROP TABLE IF EXISTS " + table);
+      }
+    }
+  }
+
+  /**
+   * Writes a Parquet file to a new one with the transform applied, in one {@code COPY}.
+   * Columns keeping their type are copied as they are in the source.
+   *
+   * @return the number of rows written
+   */
+  public long write(File source, SchemaStructure transform, File target) throws SQLException {
+    return write(source, DuckDBParquetService.readParquet(source), transform, target, ParquetWriteOptions.DEFAULT);
+  }
+
+  /**
+   * Rewrites one Parquet file with the transform applied and the given writer settings, in
+   * one {@code COPY}. Only the columns stored in the file are read: DuckDB does not add
+   * partition columns from hive-style directory names ({@code day=1/}), which stay in the
+   * path of the rewritten file.
+   *
+   * @return the number of rows written
+   */
+  public long write(File source, SchemaStructure transform, File target, ParquetWriteOptions options)
+      throws SQLException {
+    return write(source, readFile(source), transform, target, options);
+  }
+
+  private long write(File source, String relation, SchemaStructure transform, File target, ParquetWriteOptions options)
+      throws SQLException {
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      List<String> columns = new ArrayList<>();
+      List<String> types = new ArrayList<>();
+      describe(st, source, relation, columns, types);
+      return write(st, source, relation, columns, types, transform, target, options);
+    }
+  }
+
+  /**
+   * Writes a table model to a new Parquet file with the transform applied.
+   *
+   * @return the number of rows written
+   */
+  public long write(ParquetTableModel model, SchemaStructure transform, File target) throws SQLException {
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      String table = duckDBService.createRowsTable(conn, "schema_cast", model);
+      try {
+        return write(st, null, table, model.getColumnNames(), model.getColumnTypes(), transform, target,
+            ParquetWriteOptions.DEFAULT);
+      } finally {
+        st.execute("DROP TABLE IF EXISTS " + table);
+      }
+    }
+  }
+
+  /**
+   * Reads the columns and DuckDB types stored in a Parquet file from its footer, without
+   * reading rows or adding hive partition columns.
+   */
+  public SchemaStructure describe(File source) throws Exception {
+    List<String> columns = new ArrayList<>();
+    List<String> types = new ArrayList<>();
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      describe(st, source, readFile(source), columns, types);
+    }
+    return SchemaStructure.schemaFromLists(columns, types);
+  }
+
+  /**
+   * Builds the query reading a relation with the transform applied.
+   *
+   * @param relation a table name or table function, e.g. {@code read_parquet('...')}
+   * @param columns the columns of the relation, in order
+   * @param types the DuckDB types of those columns
+   */
+  public String buildSelect(String relation, List<String> columns, List<String> types, SchemaStructure transform) {
+    StringBuilder sql = new StringBuilder("SELECT ");
+    for (int i = 0; i < columns.size(); i++) {
+      if (i > 0) sql.append(", ");
+      String column = DuckDBParquetService.ident(columns.get(i));
+      String type = targetType(transform, columns.get(i), types.get(i));
+      if (type == null) {
+        sql.append(column);
+      } else {
+        sql.append("TRY_CAST(").append(column).append(" AS ").append(type).append(") AS ").append(column);
+      }
+    }
+    return sql.append(" FROM ").append(relation).toString();
+  }
+
+  /**
+   * Gets the DuckDB type a column is converted to.
+   *
+   * @param sourceType the current type of the column
+   * @return the new type, or null if the transform leaves the column as it is
+   * @throws IllegalArgumentException if the schema gives a type that is not a type name
+   */
+  public static String targetType(SchemaStructure transform, String column, String sourceType) {
+    SchemaItem item = transform.getItem(column);
+    if (!(item instanceof SchemaItemTransform)) {
+      return null;
+    }
+    String type = String.valueOf(((SchemaItemTransform) item).typeTransform);
+    if (type.equals("null")) {
+      return null;
+    }
+    type = type.equalsIgnoreCase("string") ? "VARCHAR" : type.toUpperCase(Locale.ROOT);
+    if (!SQL_TYPE.matcher(type).matches()) {
+      throw new IllegalArgumentException("Unsupported type for column " + column + ": " + type);
+    }
+    return type.equalsIgnoreCase(sourceType) ? null : type;
+  }
+
+  private CastReport dryRun(Statement st, File file, String relation, List<String> columns, List<String> types,
+                            SchemaStructure transform) throws SQLException {
+    List<Integer> cast = new ArrayList<>();
+    List<String> castTypes = new ArrayList<>();
+    StringBuilder count = new StringBuilder("SELECT count(*)");
+    for (int i = 0; i < columns.size(); i++) {
+      String type = targetType(transform, columns.get(i), types.get(i));
+      if (type != null) {
+        cast.add(i);
+        castTypes.add(type);
+        count.append(", count(*) FILTER (WHERE ").append(lost(columns.get(i), type)).append(')');
+      }
+    }
+    count.append(" FROM ").append(relation);
+
+    try (Stage stage = PerformanceMetrics.getInstance().stage("schema_cast", "dry_run")) {
+      CastReport report;
+      long[] failures = new long[cast.size()];
+      try (DuckDBQueryEvent event = new DuckDBQueryEvent("schema_cast", file, count.toString());
+           ResultSet rs = st.executeQuery(count.toString())) {
+        rs.next();
+        report = new CastReport(rs.getLong(1));
+        for (int i = 0; i < failures.length; i++) {
+          failures[i] = rs.getLong(i + 2);
+        }
+        event.rows(report.getRowCount()).completed();
+      }
+
+      for (int i = 0; i < cast.size(); i++) {
+        String column = columns.get(cast.get(i));
+        List<String> samples = failures[i] > 0 ? samples(st, file, relation, column, castTypes.get(i)) : List.of();
+        report.add(column, types.get(cast.get(i)), castTypes.get(i), failures[i], samples);
+      }
+      stage.rows(report.getRowCount());
+      LOGGER.info("Schema dry run: " + cast.size() + " column(s) converted, "
+          + report.getFailureCount() + " value(s) cannot be converted");
+      return report;
+    }
+  }
+
+  private List<String> samples(Statement st, File file, String relation, String column, String type)
+      throws SQLException {
+    String sql = "SELECT CAST(" + DuckDBParquetService.ident(column) + " AS VARCHAR) FROM " + relation
+        + " WHERE " + lost(column, type) + " LIMIT " + SAMPLE_SCAN_LIMIT;
+    Set<String> samples = new LinkedHashSet<>();
+    try (DuckDBQueryEvent event = new DuckDBQueryEvent("schema_cast", file, sql);
+         ResultSet rs = st.executeQuery(sql)) {
+      while (rs.next() && samples.size() < SAMPLES_PER_COLUMN) {
+        samples.add(rs.getString(1));
+      }
+      event.rows(samples.size()).completed();
+    }
+    return new ArrayList<>(samples);
+  }
+
+  private long write(Statement st, File file, String relation, List<String> columns, List<String> types,
+                     SchemaStructure transform, File target, ParquetWriteOptions options) throws SQLException {
+    String copy = "COPY (" + buildSelect(relation, columns, types, transform) + ") TO "
+        + DuckDBParquetService.sqlLiteral(target) + " (" + options.toCopyOptions() + ")";
+    try (Stage stage = PerformanceMetrics.getInstance().stage("schema_cast", "write");
+         DuckDBQueryEvent event = new DuckDBQueryEvent("schema_cast", file, copy)) {
+      long rows = st.executeUpdate(copy);
+      stage.rows(rows).bytes(target.length());
+      event.rows(rows).bytes(target.length()).completed();
+      LOGGER.info("Wrote " + rows + " row(s) with the schema transform to " + target.getAbsolutePath());
+      return rows;
+    }
+  }
+
+  private void describe(Statement st, File source, String relation, List<String> columns, List<String> types)
+      throws SQLException {
+    String sql = "DESCRIBE SELECT * FROM " + relation;
+    try (DuckDBQueryEvent event = new DuckDBQueryEvent("schema", source, sql);
+         ResultSet rs = st.executeQuery(sql)) {
+      while (rs.next()) {
+        columns.add(rs.getString(1));
+        types.add(rs.getString(2));
+      }
+      event.rows(columns.size()).completed();
+    }
+  }
+
+  // The value is there but the cast turns it into NULL
+  private static String lost(String column, String type) {
+    return DuckDBParquetService.ident(column) + " IS NOT NULL AND TRY_CAST(" + DuckDBParquetService.ident(column) + " AS " + type + ") IS NULL";
+  }
+
+  private static String readFile(File source) {
+    return "read_parquet(" + DuckDBParquetService.sqlLiteral(source) + ", hive_partitioning = false)";
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.DriftReport;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaItem;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Finds schema drift across many Parquet files: reads the footer of every file on a pool of
+ * threads, groups the files by schema fingerprint and compares each schema with a reference
+ * using {@link DataSchemaService#compareSchemas}.
+ *
+ * <p>Only footers are read ({@code DESCRIBE} for the DuckDB types, {@code parquet_schema} for
+ * the nullability), never data pages, so the cost is one small read per file.
+ */
+public class SchemaDriftService {
+  private static final Logger LOGGER = Logger.getInstance(SchemaDriftService.class);
+  public static final String THREADS_PROPERTY = "parquetstudio.drift.threads";
+
+  private final DataSchemaService schemaService = new DataSchemaService();
+  private final int threads;
+
+  public SchemaDriftService() {
+    this(defaultThreads());
+  }
+
+  /**
+   * @param threads the number of footers read at the same time
+   */
+  public SchemaDriftService(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * Gets the number of footer readers, from the {@value #THREADS_PROPERTY} system property;
+   * reads are mostly waiting on the disk, so this defaults to twice the CPUs, at most 16.
+   */
+  public static int defaultThreads() {
+    int cpus = Runtime.getRuntime().availableProcessors();
+    return Math.max(1, Integer.getInteger(THREADS_PROPERTY, Math.min(16, 2 * cpus)));
+  }
+
+  /**
+   * Reads the reference schema: the footer of a {@code .parquet} file, otherwise an external
+   * schema file as "Load Schema" reads it.
+   */
+  public SchemaStructure loadReference(File file) throws Exception {
+    if (file.getName().toLowerCase(Locale.ROOT).endsWith(".parquet")) {
+      return readSchema(file);
+    }
+    return BatchTransformService.loadSchema(file);
+  }
+
+  /**
+   * Reads the columns, DuckDB types and nullability of a Parquet file from its footer.
+   * Hive partition directories do not add columns.
+   */
+  public SchemaStructure readSchema(File parquet) throws Exception {
+    List<String> names = new ArrayList<>();
+    List<String> types = new ArrayList<>();
+    List<Boolean> nullable = new ArrayList<>();
+    String path = DuckDBParquetService.sqlLiteral(parquet);
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement()) {
+      try (ResultSet rs = st.executeQuery("DESCRIBE SELECT * FROM read_parquet(" + path + ", hive_partitioning = false)")) {
+        while (rs.next()) {
+          names.add(rs.getString("column_name"));
+          types.add(rs.getString("column_type"));
+        }
+      }
+      // The first element is the root; each top-level column is followed by its nested elements
+      try (ResultSet rs = st.executeQuery("SELECT repetition_type, coalesce(num_children, 0) FROM parquet_schema(" + path + ")")) {
+        rs.next();
+        int pending = 0;
+        while (rs.next()) {
+          if (pending == 0) {
+            nullable.add(!"REQUIRED".equals(rs.getString(1)));
+            pending = 1;
+          }
+          pending += rs.getInt(2) - 1;
+        }
+      }
+    }
+    SchemaStructure schema = SchemaStructure.schemaFromLists(names, types);
+    if (nullable.size() == names.size()) {
+      for (int i = 0; i < names.size(); i++) {
+        schema.fields.get(i).nullable = nullable.get(i);
+      }
+    }
+    return schema;
+  }
+
+  /**
+   * Gets a short hash of the column names, types and nullability, in column order.
+   */
+  public static String fingerprint(SchemaStructure schema) {
+    StringBuilder canonical = new StringBuilder();
+    for (SchemaItem field : schema.fields) {
+      canonical.append(field.name).append('\u0000').append(DataSchemaService.sqlType(field.type)).append('\u0000')
+          .append(field.nullable).append('\n');
+    }
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+      StringBuilder hex = new StringBuilder();
+      for (int i = 0; i < 6; i++) {
+        hex.append(String.format("%02x", digest[i]));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Reads the footers of the files and compares their schemas with a reference. Blocks
+   * until every footer is read.
+   *
+   * @param reference the expected schema, or null to compare with the schema most files have
+   * @param referenceName describes the reference in the report
+   * @param progress receives the number of footers read so far, from the reader threads
+   * @param cancelled polled before each file
+   * @throws CancellationException if the scan was cancelled
+   */
+  public DriftReport scan(List<File> files, SchemaStructure reference, String referenceName, IntConsumer progress,
+                          BooleanSupplier cancelled) throws InterruptedException {
+    long start = System.nanoTime();
+    SchemaStructure[] schemas = new SchemaStructure[files.size()];
+    Map<File, String> failures = new ConcurrentHashMap<>();
+    AtomicInteger done = new AtomicInteger();
+    List<Runnable> tasks = new ArrayList<>(files.size());
+    for (int i = 0; i < files.size(); i++) {
+      int index = i;
+      tasks.add(() -> {
+        if (cancelled.getAsBoolean()) {
+          return;
+        }
+        File file = files.get(index);
+        try {
+          schemas[index] = readSchema(file);
+        } catch (Exception e) {
+          failures.put(file, String.valueOf(e.getMessage()).split("\n")[0]);
+        }
+        progress.accept(done.incrementAndGet());
+      });
+    }
+    try (Stage total = PerformanceMetrics.getInstance().stage("drift", "total").rows(files.size())) {
+      DuckDBParquetService.runParallel("Parquet Studio Schema Scan", threads, tasks);
+    }
+    if (cancelled.getAsBoolean()) {
+      throw new CancellationException("Schema scan cancelled");
+    }
+
+    Map<String, List<File>> filesByFingerprint = new LinkedHashMap<>();
+    Map<String, SchemaStructure> schemaByFingerprint = new LinkedHashMap<>();
+    for (int i = 0; i < files.size(); i++) {
+      if (schemas[i] != null) {
+        String fingerprint = fingerprint(schemas[i]);
+        filesByFingerprint.computeIfAbsent(fingerprint, key -> new ArrayList<>()).add(files.get(i));
+        schemaByFingerprint.putIfAbsent(fingerprint, schemas[i]);
+      }
+    }
+    List<String> order = new ArrayList<>(filesByFingerprint.keySet());
+    order.sort(Comparator.comparingInt((String fingerprint) -> -filesByFingerprint.get(fingerprint).size()));
+    if (reference == null && !order.isEmpty()) {
+      reference = schemaByFingerprint.get(order.get(0));
+      referenceName = "the most common schema (" + order.get(0) + ")";
+    }
+
+    List<DriftReport.Group> groups = new ArrayList<>();
+    for (String fingerprint : order) {
+      SchemaStructure schema = schemaByFingerprint.get(fingerprint);
+      groups.add(new DriftReport.Group(fingerprint, schema, filesByFingerprint.get(fingerprint),
+          reference == null ? List.of() : schemaService.compareSchemas(reference, schema)));
+    }
+    Map<File, String> orderedFailures = new LinkedHashMap<>();
+    for (File file : files) {
+      if (failures.containsKey(file)) {
+        orderedFailures.put(file, failures.get(file));
+      }
+    }
+    DriftReport report = new DriftReport(referenceName, files.size(), groups, orderedFailures,
+        (System.nanoTime() - start) / 1_000_000);
+    LOGGER.info("Schema scan: " + report.format(0));
+    return report;
+  }
+}
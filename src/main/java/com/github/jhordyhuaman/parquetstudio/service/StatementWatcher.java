@@ -0,0 +1,59 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Watches long DuckDB statements, e.g. a {@code COPY}, from a shared daemon thread: reports
+ * progress twice a second and cancels the statement once the caller asks for it.
+ */
+final class StatementWatcher {
+  private static final Logger LOGGER = Logger.getInstance(StatementWatcher.class);
+  private static final long INTERVAL_MS = 500;
+  private static final ScheduledExecutorService WATCHER = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread thread = new Thread(r, "Parquet Studio Statement Watcher");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private StatementWatcher() {
+  }
+
+  /**
+   * Starts watching a statement; cancel the returned future once it completes.
+   *
+   * @param cancelled polled on every tick; the statement is cancelled once it returns true
+   * @param progress run on every tick, e.g. to report the bytes written
+   */
+  static ScheduledFuture<?> watch(Statement st, BooleanSupplier cancelled, Runnable progress) {
+    return WATCHER.scheduleWithFixedDelay(() -> {
+      if (cancelled.getAsBoolean()) {
+        try {
+          st.cancel();
+        } catch (SQLException e) {
+          LOGGER.warn("Could not cancel statement", e);
+        }
+      }
+      progress.run();
+    }, INTERVAL_MS, INTERVAL_MS, TimeUnit.MILLISECONDS);
+  }
+}
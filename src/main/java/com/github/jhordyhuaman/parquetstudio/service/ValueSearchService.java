@@ -0,0 +1,317 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.service;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.model.CatalogEntry;
+import com.github.jhordyhuaman.parquetstudio.model.ValueSearchReport;
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Finds the rows of many Parquet files holding a value, or a value in a range, in one
+ * column, without scanning every file.
+ *
+ * <p>Each file goes through three steps on a pool of threads:
+ * <ol>
+ *   <li>files that the {@link ParquetCatalog} knows, unchanged, to lack the column are skipped
+ *       without being opened</li>
+ *   <li>the min/max statistics of the column chunks in {@code parquet_metadata} rule out the
+ *       row groups that cannot hold the value; row groups without statistics are kept</li>
+ *   <li>the remaining row groups are scanned with {@code file_row_number} restricted to their
+ *       rows, so the hits carry their position in the file</li>
+ * </ol>
+ */
+public class ValueSearchService {
+  private static final Logger LOGGER = Logger.getInstance(ValueSearchService.class);
+
+  private final int threads;
+
+  public ValueSearchService() {
+    this(SchemaDriftService.defaultThreads());
+  }
+
+  /**
+   * @param threads the number of files searched at the same time
+   */
+  public ValueSearchService(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * Searches the files for the rows whose column is between two values, both included.
+   * Blocks until every file is searched or more rows than the maximum number of hits are found.
+   *
+   * @param column the top-level column to search
+   * @param from the lowest value, as text, or null for no lower bound
+   * @param to the highest value, as text, or null for no upper bound
+   * @param catalog cached footers used to skip files without the column, or null
+   * @param maxHits the most rows returned; the search stops once it knows there are more
+   * @param progress receives the number of files searched so far, from the search threads
+   * @param cancelled polled before each file
+   * @throws CancellationException if the search was cancelled
+   */
+  public ValueSearchReport search(List<File> files, String column, String from, String to, ParquetCatalog catalog,
+                                  int maxHits, IntConsumer progress, BooleanSupplier cancelled)
+      throws InterruptedException {
+    if (column == null || column.isBlank()) {
+      throw new IllegalArgumentException("Enter the column to search");
+    }
+    if (from == null && to == null) {
+      throw new IllegalArgumentException("Enter the value to search for");
+    }
+    long start = System.nanoTime();
+    AtomicInteger withoutColumn = new AtomicInteger();
+    AtomicInteger scanned = new AtomicInteger();
+    AtomicLong rowGroups = new AtomicLong();
+    AtomicLong rowGroupsScanned = new AtomicLong();
+    AtomicInteger hitCount = new AtomicInteger();
+    AtomicBoolean truncated = new AtomicBoolean(false);
+    AtomicInteger done = new AtomicInteger();
+    ConcurrentLinkedQueue<ValueSearchReport.Hit> hits = new ConcurrentLinkedQueue<>();
+    Map<File, String> failures = new ConcurrentHashMap<>();
+    List<Runnable> tasks = new ArrayList<>(files.size());
+    for (File file : files) {
+      tasks.add(() -> {
+        if (cancelled.getAsBoolean()) {
+          return;
+        }
+        if (truncated.get()) {
+          // More rows than the limit were already found
+          return;
+        }
+        try {
+          String[] found = findColumn(file, column, catalog);
+          if (found == null) {
+            withoutColumn.incrementAndGet();
+          } else {
+            searchFile(file, found[0], found[1], from, to, maxHits, hitCount, truncated, hits, rowGroups,
+                rowGroupsScanned, scanned);
+          }
+        } catch (Exception e) {
+          failures.put(file, String.valueOf(e.getMessage()).split("\n")[0]);
+        }
+        progress.accept(done.incrementAndGet());
+      });
+    }
+    try (Stage total = PerformanceMetrics.getInstance().stage("value_search", "total").rows(files.size())) {
+      DuckDBParquetService.runParallel("Parquet Studio Value Search", threads, tasks);
+    }
+    if (cancelled.getAsBoolean()) {
+      throw new CancellationException("Value search cancelled");
+    }
+
+    List<ValueSearchReport.Hit> sorted = new ArrayList<>(hits);
+    sorted.sort(Comparator.comparing((ValueSearchReport.Hit hit) -> hit.getFile().getPath())
+        .thenComparingLong(ValueSearchReport.Hit::getRow));
+    // Files searched at the same time can together find more than the limit
+    if (sorted.size() > maxHits) {
+      sorted = new ArrayList<>(sorted.subList(0, maxHits));
+      truncated.set(true);
+    }
+    Map<File, String> orderedFailures = new LinkedHashMap<>();
+    for (File file : files) {
+      if (failures.containsKey(file)) {
+        orderedFailures.put(file, failures.get(file));
+      }
+    }
+    ValueSearchReport report = new ValueSearchReport(column, files.size(), withoutColumn.get(), scanned.get(),
+        rowGroups.get(), rowGroupsScanned.get(), sorted, truncated.get(), orderedFailures,
+        (System.nanoTime() - start) / 1_000_000);
+    LOGGER.info("Value search on " + column + ": " + report.format(0));
+    return report;
+  }
+
+  /**
+   * Gets the name, as written in the file, and DuckDB type of the column, or null if the file
+   * does not have it. An unchanged catalog entry answers without opening the file.
+   */
+  private String[] findColumn(File file, String column, ParquetCatalog catalog) throws Exception {
+    CatalogEntry entry = catalog != null ? catalog.getEntry(file) : null;
+    if (entry != null && entry.getError() == null && !entry.isStale(file)) {
+      return typeOf(entry.getColumns(), entry.getTypes(), column);
+    }
+    List<String> names = new ArrayList<>();
+    List<String> types = new ArrayList<>();
+    try (Connection conn = DuckDBParquetService.openConnection();
+         Statement st = conn.createStatement();
+         ResultSet rs = st.executeQuery("DESCRIBE SELECT * FROM read_parquet(" + DuckDBParquetService.sqlLiteral(file)
+             + ", hive_partitioning = false)")) {
+      while (rs.next()) {
+        names.add(rs.getString("column_name"));
+        types.add(rs.getString("column_type"));
+      }
+    }
+    return typeOf(names, types, column);
+  }
+
+  private static String[] typeOf(List<String> names, List<String> types, String column) {
+    for (int i = 0; i < names.size(); i++) {
+      if (names.get(i).equalsIgnoreCase(column)) {
+        return new String[] {names.get(i), types.get(i)};
+      }
+    }
+    return null;
+  }
+
+  private void searchFile(File file, String column, String type, String from, String to, int maxHits,
+                          AtomicInteger hitCount, AtomicBoolean truncated, ConcurrentLinkedQueue<ValueSearchReport.Hit> hits,
+                          AtomicLong rowGroups, AtomicLong rowGroupsScanned, AtomicInteger scanned) throws Exception {
+    String upper = type.toUpperCase(Locale.ROOT);
+    if (upper.contains("[]") || upper.startsWith("STRUCT") || upper.startsWith("MAP") || upper.startsWith("UNION")) {
+      throw new IllegalArgumentException("Cannot search " + column + " of type " + type);
+    }
+    String path = DuckDBParquetService.sqlLiteral(file);
+    try (Connection conn = DuckDBParquetService.openConnection()) {
+      try (PreparedStatement ps = conn.prepareStatement("SELECT TRY_CAST(? AS " + type + "), TRY_CAST(? AS " + type + ")")) {
+        ps.setString(1, from);
+        ps.setString(2, to);
+        try (ResultSet rs = ps.executeQuery()) {
+          rs.next();
+          checkFits(from, rs.getObject(1), type);
+          checkFits(to, rs.getObject(2), type);
+        }
+      }
+
+      // Every row group of the column, with its first row and whether its min/max statistics
+      // leave room for the value; groups without statistics are kept, all-null groups are not
+      StringBuilder sql = new StringBuilder("SELECT row_group_id, first_row, row_group_num_rows, ")
+          .append("row_group_num_rows > 0 AND coalesce(nulls < row_group_num_rows, true) AND (lo IS NULL OR hi IS NULL OR (true");
+      if (from != null) {
+        sql.append(" AND hi >= CAST(? AS ").append(type).append(')');
+      }
+      if (to != null) {
+        sql.append(" AND lo <= CAST(? AS ").append(type).append(')');
+      }
+      sql.append(")) FROM (SELECT row_group_id, row_group_num_rows, stats_null_count AS nulls, ")
+          .append("sum(row_group_num_rows) OVER (ORDER BY row_group_id) - row_group_num_rows AS first_row, ")
+          .append("TRY_CAST(stats_min_value AS ").append(type).append(") AS lo, ")
+          .append("TRY_CAST(stats_max_value AS ").append(type).append(") AS hi ")
+          .append("FROM parquet_metadata(").append(path).append(") WHERE path_in_schema = ?) ORDER BY row_group_id");
+      List<long[]> ranges = new ArrayList<>();
+      int groups = 0;
+      try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+        int index = bind(ps, from, to);
+        ps.setString(index, column);
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            groups++;
+            if (rs.getBoolean(4)) {
+              ranges.add(new long[] {rs.getLong(1), rs.getLong(2), rs.getLong(3)});
+            }
+          }
+        }
+      }
+      rowGroups.addAndGet(groups);
+      rowGroupsScanned.addAndGet(ranges.size());
+      if (ranges.isEmpty()) {
+        return;
+      }
+      scanned.incrementAndGet();
+      // With the limit reached the scan only checks for one more row
+      int limit = Math.max(0, maxHits - hitCount.get());
+
+      // Neighbouring row groups are merged into one range of rows
+      StringBuilder where = new StringBuilder("(");
+      long first = ranges.get(0)[1];
+      long end = first;
+      for (long[] range : ranges) {
+        if (range[1] != end) {
+          where.append(where.length() > 1 ? " OR " : "").append("file_row_number BETWEEN ").append(first)
+              .append(" AND ").append(end - 1);
+          first = range[1];
+        }
+        end = range[1] + range[2];
+      }
+      where.append(where.length() > 1 ? " OR " : "").append("file_row_number BETWEEN ").append(first)
+          .append(" AND ").append(end - 1).append(')');
+      if (from != null) {
+        where.append(" AND ").append(DuckDBParquetService.ident(column)).append(" >= CAST(? AS ").append(type).append(')');
+      }
+      if (to != null) {
+        where.append(" AND ").append(DuckDBParquetService.ident(column)).append(" <= CAST(? AS ").append(type).append(')');
+      }
+      String scan = "SELECT file_row_number, CAST(" + DuckDBParquetService.ident(column) + " AS VARCHAR) FROM read_parquet(" + path
+          + ", file_row_number = true, hive_partitioning = false) WHERE " + where + " ORDER BY file_row_number LIMIT " + (limit + 1);
+      try (PreparedStatement ps = conn.prepareStatement(scan)) {
+        bind(ps, from, to);
+        try (ResultSet rs = ps.executeQuery()) {
+          // One row past the limit tells whether the file had more
+          for (int count = 0; rs.next(); count++) {
+            if (count == limit) {
+              truncated.set(true);
+              break;
+            }
+            long row = rs.getLong(1);
+            hits.add(new ValueSearchReport.Hit(file, row, rowGroupOf(ranges, row), rs.getString(2)));
+            hitCount.incrementAndGet();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Binds the bounds that are set, in order.
+   *
+   * @return the index of the next parameter
+   */
+  private static int bind(PreparedStatement ps, String from, String to) throws Exception {
+    int index = 1;
+    if (from != null) {
+      ps.setString(index++, from);
+    }
+    if (to != null) {
+      ps.setString(index++, to);
+    }
+    return index;
+  }
+
+  private static int rowGroupOf(List<long[]> ranges, long row) {
+    for (long[] range : ranges) {
+      if (row >= range[1] && row < range[1] + range[2]) {
+        return (int) range[0];
+      }
+    }
+    return -1;
+  }
+
+  private static void checkFits(String text, Object value, String type) {
+    if (text != null && value == null) {
+      throw new IllegalArgumentException("Cannot convert '" + text + "' to " + type);
+    }
+  }
+}
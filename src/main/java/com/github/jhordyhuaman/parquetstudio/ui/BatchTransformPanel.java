@@ -0,0 +1,325 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.ui;
+
+import com.github.jhordyhuaman.parquetstudio.model.BatchReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.github.jhordyhuaman.parquetstudio.service.BatchTransformService;
+import com.github.jhordyhuaman.parquetstudio.service.SchemaCastService;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.ui.table.JBTable;
+import java.awt.BorderLayout;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Tab running a {@link BatchTransformService} job: rewrites every Parquet file of a
+ * directory or glob with an external schema, listing the progress of each file.
+ */
+public class BatchTransformPanel extends JPanel implements ToolPanel {
+  private static final Logger LOGGER = Logger.getInstance(BatchTransformPanel.class);
+
+  private final ResultTableModel resultModel = new ResultTableModel();
+  private final AtomicBoolean cancelled = new AtomicBoolean(false);
+  private JTextField sourceField;
+  private JTextField schemaField;
+  private JTextField outputField;
+  private JComboBox<ParquetWriteOptions.Compression> compressionComboBox;
+  private JSpinner rowGroupSpinner;
+  private JSpinner workersSpinner;
+  private JSpinner retriesSpinner;
+  private JCheckBox strictCheckBox;
+  private JButton runButton;
+  private JButton cancelButton;
+  private JLabel summaryLabel;
+  private SwingWorker<BatchReport, Void> worker;
+
+  public BatchTransformPanel() {
+    initializeUI();
+  }
+
+  private void initializeUI() {
+    setLayout(new BorderLayout());
+
+    JPanel form = new JPanel(new GridBagLayout());
+    GridBagConstraints gbc = new GridBagConstraints();
+    gbc.insets = new Insets(5, 5, 5, 5);
+    gbc.anchor = GridBagConstraints.WEST;
+
+    sourceField = new JTextField(40);
+    sourceField.setToolTipText("A directory (searched recursively) or a glob, e.g. /data/sales/**/part-*.parquet");
+    addRow(form, gbc, 0, "Files:", sourceField, JFileChooser.DIRECTORIES_ONLY);
+    schemaField = new JTextField(40);
+    addRow(form, gbc, 1, "Schema:", schemaField, JFileChooser.FILES_ONLY);
+    outputField = new JTextField(40);
+    addRow(form, gbc, 2, "Output directory:", outputField, JFileChooser.DIRECTORIES_ONLY);
+
+    JPanel options = new JPanel();
+    options.setLayout(new BoxLayout(options, BoxLayout.X_AXIS));
+    compressionComboBox = new JComboBox<>(ParquetWriteOptions.Compression.values());
+    rowGroupSpinner = new JSpinner(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 10_000));
+    rowGroupSpinner.setToolTipText("Rows per row group, 0 for the DuckDB default");
+    workersSpinner = new JSpinner(new SpinnerNumberModel(BatchTransformService.defaultConcurrency(), 1, 64, 1));
+    retriesSpinner = new JSpinner(new SpinnerNumberModel(BatchTransformService.DEFAULT_RETRIES, 0, 10, 1));
+    strictCheckBox = new JCheckBox("All columns are in parquet");
+    strictCheckBox.setToolTipText("Skip files whose column count differs from the schema");
+    options.add(new JLabel("Compression: "));
+    options.add(compressionComboBox);
+    options.add(Box.createHorizontalStrut(10));
+    options.add(new JLabel("Row group size: "));
+    options.add(rowGroupSpinner);
+    options.add(Box.createHorizontalStrut(10));
+    options.add(new JLabel("Workers: "));
+    options.add(workersSpinner);
+    options.add(Box.createHorizontalStrut(10));
+    options.add(new JLabel("Retries: "));
+    options.add(retriesSpinner);
+    options.add(Box.createHorizontalStrut(10));
+    options.add(strictCheckBox);
+    gbc.gridx = 0;
+    gbc.gridy = 3;
+    gbc.gridwidth = 3;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    form.add(options, gbc);
+
+    JPanel buttons = new JPanel();
+    buttons.setLayout(new BoxLayout(buttons, BoxLayout.X_AXIS));
+    runButton = new JButton("Run", AllIcons.Actions.Execute);
+    runButton.addActionListener(e -> runBatch());
+    cancelButton = new JButton("Cancel", AllIcons.Actions.Cancel);
+    cancelButton.setEnabled(false);
+    cancelButton.addActionListener(e -> cancelled.set(true));
+    buttons.add(runButton);
+    buttons.add(cancelButton);
+    gbc.gridy = 4;
+    form.add(buttons, gbc);
+
+    add(form, BorderLayout.NORTH);
+
+    JBTable table = new JBTable(resultModel);
+    table.setAutoCreateRowSorter(true);
+    add(new JScrollPane(table), BorderLayout.CENTER);
+
+    summaryLabel = new JLabel("Pick the files, the schema and where to write the rewritten files.");
+    summaryLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+    add(summaryLabel, BorderLayout.SOUTH);
+  }
+
+  private void addRow(JPanel form, GridBagConstraints gbc, int row, String label, JTextField field, int selectionMode) {
+    gbc.gridx = 0;
+    gbc.gridy = row;
+    gbc.gridwidth = 1;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    form.add(new JLabel(label), gbc);
+
+    gbc.gridx = 1;
+    gbc.fill = GridBagConstraints.HORIZONTAL;
+    gbc.weightx = 1.0;
+    form.add(field, gbc);
+
+    gbc.gridx = 2;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    JButton browse = new JButton("...");
+    browse.addActionListener(e -> {
+      JFileChooser chooser = new JFileChooser(field.getText().isEmpty() ? null : new File(field.getText()));
+      chooser.setFileSelectionMode(selectionMode);
+      if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+        field.setText(chooser.getSelectedFile().getAbsolutePath());
+      }
+    });
+    form.add(browse, gbc);
+  }
+
+  private void runBatch() {
+    String source = sourceField.getText().trim();
+    File schemaFile = new File(schemaField.getText().trim());
+    File outputDirectory = new File(outputField.getText().trim());
+    if (source.isEmpty() || outputField.getText().trim().isEmpty()) {
+      Messages.showErrorDialog("Select the files and the output directory.", "Batch Transform");
+      return;
+    }
+    String schemaName = schemaFile.getName().toLowerCase();
+    if (!schemaFile.isFile() || !(schemaName.endsWith(".schema") || schemaName.endsWith(".json"))) {
+      Messages.showErrorDialog("Select a .schema or .json schema file that exists.", "Batch Transform");
+      return;
+    }
+
+    ParquetWriteOptions options = new ParquetWriteOptions(
+        (ParquetWriteOptions.Compression) compressionComboBox.getSelectedItem(),
+        ((Number) rowGroupSpinner.getValue()).longValue());
+    BatchTransformService service = new BatchTransformService(new SchemaCastService(),
+        (Integer) workersSpinner.getValue(), (Integer) retriesSpinner.getValue());
+    boolean strict = strictCheckBox.isSelected();
+
+    cancelled.set(false);
+    resultModel.clear();
+    runButton.setEnabled(false);
+    cancelButton.setEnabled(true);
+    summaryLabel.setText("Finding files...");
+    worker =
+        new SwingWorker<BatchReport, Void>() {
+          @Override
+          protected BatchReport doInBackground() throws Exception {
+            SchemaStructure schema = BatchTransformService.loadSchema(schemaFile);
+            List<File> files = BatchTransformService.findFiles(source);
+            SwingUtilities.invokeLater(() -> {
+              resultModel.setFiles(files);
+              updateSummary();
+            });
+            return service.run(files, schema, outputDirectory, options, strict, new BatchTransformService.Listener() {
+              @Override
+              public void fileStarted(File file) {
+                SwingUtilities.invokeLater(() -> resultModel.started(file));
+              }
+
+              @Override
+              public void fileFinished(BatchReport.FileResult result) {
+                SwingUtilities.invokeLater(() -> {
+                  resultModel.finished(result);
+                  updateSummary();
+                });
+              }
+            }, cancelled::get);
+          }
+
+          @Override
+          protected void done() {
+            runButton.setEnabled(true);
+            cancelButton.setEnabled(false);
+            try {
+              BatchReport report = get();
+              summaryLabel.setText(report.format().split("\n")[0]);
+            } catch (Exception e) {
+              Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+              LOGGER.warn("Batch transform failed", cause);
+              Messages.showErrorDialog("Batch transform failed: " + cause.getMessage(), "Batch Transform");
+              summaryLabel.setText("Batch transform failed.");
+            }
+          }
+        };
+    worker.execute();
+  }
+
+  private void updateSummary() {
+    summaryLabel.setText(String.format("%d of %d file(s) finished%s",
+        resultModel.getFinishedCount(), resultModel.getRowCount(), cancelled.get() ? " | cancelling..." : ""));
+  }
+
+  /**
+   * Cancels a running batch: files not started yet are left alone. Called when the tab is
+   * closed.
+   */
+  @Override
+  public void dispose() {
+    cancelled.set(true);
+  }
+
+  private static final class ResultTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"File", "Status", "Rows", "Attempts", "Seconds", "Message"};
+    private final List<File> files = new ArrayList<>();
+    private final Map<File, Integer> index = new HashMap<>();
+    private final Map<File, String> running = new HashMap<>();
+    private final Map<File, BatchReport.FileResult> results = new HashMap<>();
+
+    void clear() {
+      files.clear();
+      index.clear();
+      running.clear();
+      results.clear();
+      fireTableDataChanged();
+    }
+
+    void setFiles(List<File> files) {
+      clear();
+      this.files.addAll(files);
+      for (int i = 0; i < files.size(); i++) {
+        index.put(files.get(i), i);
+      }
+      fireTableDataChanged();
+    }
+
+    void started(File file) {
+      running.put(file, "running");
+      fireRowUpdated(file);
+    }
+
+    void finished(BatchReport.FileResult result) {
+      running.remove(result.getSource());
+      results.put(result.getSource(), result);
+      fireRowUpdated(result.getSource());
+    }
+
+    int getFinishedCount() {
+      return results.size();
+    }
+
+    private void fireRowUpdated(File file) {
+      Integer row = index.get(file);
+      if (row != null) {
+        fireTableRowsUpdated(row, row);
+      }
+    }
+
+    @Override
+    public int getRowCount() {
+      return files.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+      return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+      return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+      return column >= 2 && column <= 4 ? Number.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+      File file = files.get(row);
+      BatchReport.FileResult result = results.get(file);
+      switch (column) {
+        case 0: return file.getPath();
+        case 1: return result != null ? result.getStatus().name().toLowerCase() : running.getOrDefault(file, "queued");
+        case 2: return result != null ? result.getRows() : null;
+        case 3: return result != null ? result.getAttempts() : null;
+        case 4: return result != null ? Math.round(result.getMillis() / 10.0) / 100.0 : null;
+        case 5: return result != null ? result.getMessage() : null;
+        default: return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.ui;
+
+import com.intellij.openapi.ui.DialogWrapper;
+import java.awt.*;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.*;
+
+/**
+ * Dialog for editing one column over many rows: fill, find and replace, set to NULL or a
+ * SQL expression, applied to the selected rows, the rows found by the search, or every row.
+ */
+public class BulkEditDialog extends DialogWrapper {
+  public static final String FILL = "Fill with value";
+  public static final String REPLACE = "Find and replace";
+  public static final String SET_NULL = "Set to NULL";
+  public static final String EXPRESSION = "SQL expression";
+
+  /** Which rows the edit applies to. */
+  public enum Scope { SELECTED, MATCHING, ALL }
+
+  private static final String[] OPERATIONS = {FILL, REPLACE, SET_NULL, EXPRESSION};
+
+  private final List<String> columnNames;
+  private final int initialColumn;
+  private final int selectedRows;
+  private final int matchingRows;
+
+  private JComboBox<String> columnComboBox;
+  private JComboBox<String> operationComboBox;
+  private JPanel operationPanel;
+  private JTextField valueField;
+  private JTextField findField;
+  private JTextField replaceField;
+  private JCheckBox regexCheckBox;
+  private JTextField expressionField;
+  private JRadioButton selectedRadio;
+  private JRadioButton matchingRadio;
+  private JRadioButton allRadio;
+
+  /**
+   * @param columnNames the plain column names
+   * @param initialColumn the column selected in the table
+   * @param selectedRows the number of selected rows
+   * @param matchingRows the number of rows found by the search, or -1 when nothing is searched
+   */
+  public BulkEditDialog(Component parent, List<String> columnNames, int initialColumn, int selectedRows, int matchingRows) {
+    super(parent, true);
+    this.columnNames = columnNames;
+    this.initialColumn = initialColumn;
+    this.selectedRows = selectedRows;
+    this.matchingRows = matchingRows;
+    setTitle("Bulk Edit");
+    init();
+  }
+
+  @Override
+  protected JComponent createCenterPanel() {
+    JPanel panel = new JPanel(new GridBagLayout());
+    GridBagConstraints gbc = new GridBagConstraints();
+    gbc.insets = new Insets(5, 5, 5, 5);
+    gbc.anchor = GridBagConstraints.WEST;
+
+    // Column
+    gbc.gridx = 0;
+    gbc.gridy = 0;
+    panel.add(new JLabel("Column:"), gbc);
+
+    gbc.gridx = 1;
+    gbc.fill = GridBagConstraints.HORIZONTAL;
+    gbc.weightx = 1.0;
+    columnComboBox = new JComboBox<>(columnNames.toArray(new String[0]));
+    if (initialColumn >= 0 && initialColumn < columnNames.size()) {
+      columnComboBox.setSelectedIndex(initialColumn);
+    }
+    panel.add(columnComboBox, gbc);
+
+    // Operation
+    gbc.gridx = 0;
+    gbc.gridy = 1;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    panel.add(new JLabel("Operation:"), gbc);
+
+    gbc.gridx = 1;
+    gbc.fill = GridBagConstraints.HORIZONTAL;
+    gbc.weightx = 1.0;
+    operationComboBox = new JComboBox<>(OPERATIONS);
+    operationComboBox.addActionListener(e ->
+        ((CardLayout) operationPanel.getLayout()).show(operationPanel, getOperation()));
+    panel.add(operationComboBox, gbc);
+
+    // Operation-specific fields
+    gbc.gridx = 0;
+    gbc.gridy = 2;
+    gbc.gridwidth = 2;
+    operationPanel = new JPanel(new CardLayout());
+    operationPanel.add(createFillPanel(), FILL);
+    operationPanel.add(createReplacePanel(), REPLACE);
+    operationPanel.add(new JLabel("Every target cell becomes NULL."), SET_NULL);
+    operationPanel.add(createExpressionPanel(), EXPRESSION);
+    panel.add(operationPanel, gbc);
+
+    // Scope
+    gbc.gridy = 3;
+    panel.add(createScopePanel(), gbc);
+
+    panel.setPreferredSize(new Dimension(480, 260));
+    return panel;
+  }
+
+  private JPanel createFillPanel() {
+    JPanel panel = new JPanel(new BorderLayout(5, 5));
+    panel.add(new JLabel("Value (empty for NULL):"), BorderLayout.WEST);
+    valueField = new JTextField(20);
+    panel.add(valueField, BorderLayout.CENTER);
+    return panel;
+  }
+
+  private JPanel createReplacePanel() {
+    JPanel panel = new JPanel(new GridLayout(3, 2, 5, 5));
+    panel.add(new JLabel("Find:"));
+    findField = new JTextField(20);
+    panel.add(findField);
+    panel.add(new JLabel("Replace with:"));
+    replaceField = new JTextField(20);
+    panel.add(replaceField);
+    regexCheckBox = new JCheckBox("Regular expression ($1 refers to groups)");
+    panel.add(regexCheckBox);
+    return panel;
+  }
+
+  private JPanel createExpressionPanel() {
+    JPanel panel = new JPanel(new BorderLayout(5, 5));
+    panel.add(new JLabel("Expression:"), BorderLayout.WEST);
+    expressionField = new JTextField(20);
+    expressionField.setToolTipText("DuckDB SQL over the row's columns, e.g. upper(name) or amount * 1.18");
+    panel.add(expressionField, BorderLayout.CENTER);
+    return panel;
+  }
+
+  private JPanel createScopePanel() {
+    JPanel panel = new JPanel();
+    panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+    panel.setBorder(BorderFactory.createTitledBorder("Apply to"));
+
+    selectedRadio = new JRadioButton("Selected rows (" + selectedRows + ")");
+    selectedRadio.setEnabled(selectedRows > 0);
+    matchingRadio = new JRadioButton(matchingRows >= 0
+        ? "Rows matching the search (" + matchingRows + ")"
+        : "Rows matching the search (no search active)");
+    matchingRadio.setEnabled(matchingRows > 0);
+    allRadio = new JRadioButton("All rows");
+
+    ButtonGroup group = new ButtonGroup();
+    group.add(selectedRadio);
+    group.add(matchingRadio);
+    group.add(allRadio);
+    if (selectedRows > 1) {
+      selectedRadio.setSelected(true);
+    } else if (matchingRows > 0) {
+      matchingRadio.setSelected(true);
+    } else {
+      allRadio.setSelected(true);
+    }
+
+    panel.add(selectedRadio);
+    panel.add(matchingRadio);
+    panel.add(allRadio);
+    return panel;
+  }
+
+  @Override
+  protected void doOKAction() {
+    String error = null;
+    if (REPLACE.equals(getOperation())) {
+      if (getFindText().isEmpty()) {
+        error = "The text to find cannot be empty.";
+      } else if (isRegex()) {
+        try {
+          Pattern.compile(getFindText());
+        } catch (PatternSyntaxException e) {
+          error = "Invalid regular expression: " + e.getDescription();
+        }
+      }
+    } else if (EXPRESSION.equals(getOperation()) && getExpression().isEmpty()) {
+      error = "The expression cannot be empty.";
+    }
+
+    if (error != null) {
+      JOptionPane.showMessageDialog(getContentPanel(), error, "Validation Error", JOptionPane.ERROR_MESSAGE);
+      return;
+    }
+    super.doOKAction();
+  }
+
+  public int getColumnIndex() {
+    return columnComboBox.getSelectedIndex();
+  }
+
+  public String getOperation() {
+    return (String) operationComboBox.getSelectedItem();
+  }
+
+  public Scope getScope() {
+    if (selectedRadio.isSelected()) return Scope.SELECTED;
+    if (matchingRadio.isSelected()) return Scope.MATCHING;
+    return Scope.ALL;
+  }
+
+  public String getValue() {
+    return valueField.getText();
+  }
+
+  public String getFindText() {
+    return findField.getText();
+  }
+
+  public String getReplacement() {
+    return replaceField.getText();
+  }
+
+  public boolean isRegex() {
+    return regexCheckBox.isSelected();
+  }
+
+  public String getExpression() {
+    return expressionField.getText().trim();
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.ui;
+
+import com.github.jhordyhuaman.parquetstudio.model.CatalogEntry;
+import com.github.jhordyhuaman.parquetstudio.model.CatalogQuery;
+import com.github.jhordyhuaman.parquetstudio.service.ParquetCatalog;
+import com.intellij.icons.AllIcons;
+import com.intellij.ui.table.JBTable;
+import java.awt.BorderLayout;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Tab browsing the {@link ParquetCatalog} of the project: every indexed file with its row
+ * count, row groups, size and codec, filtered as the search text is typed. Searches run over
+ * the footers already in the catalog, so they do not read any file.
+ */
+public class CatalogPanel extends JPanel implements ToolPanel {
+  private static final int MAX_ROWS = 5000;
+
+  private final ParquetCatalog catalog;
+  private final Runnable rescan;
+  private final Consumer<File> opener;
+  private final CatalogTableModel tableModel = new CatalogTableModel();
+  private final Runnable catalogListener = () -> SwingUtilities.invokeLater(this::runSearch);
+  private JTextField searchField;
+  private JBTable table;
+  private JLabel summaryLabel;
+
+  /**
+   * @param catalog the project catalog
+   * @param rescan walks the project again in the background
+   * @param opener opens a file in an editor tab
+   */
+  public CatalogPanel(ParquetCatalog catalog, Runnable rescan, Consumer<File> opener) {
+    this.catalog = catalog;
+    this.rescan = rescan;
+    this.opener = opener;
+    initializeUI();
+    catalog.addListener(catalogListener);
+    runSearch();
+  }
+
+  private void initializeUI() {
+    setLayout(new BorderLayout());
+
+    JPanel searchPanel = new JPanel();
+    searchPanel.setLayout(new BoxLayout(searchPanel, BoxLayout.X_AXIS));
+    searchPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+    searchPanel.add(new JLabel("Search: "));
+    searchField = new JTextField(40);
+    searchField.setToolTipText("Column names, types or paths; name:type matches one column, e.g. customer_id:bigint");
+    searchField.getDocument().addDocumentListener(new DocumentListener() {
+      @Override
+      public void insertUpdate(DocumentEvent e) {
+        runSearch();
+      }
+
+      @Override
+      public void removeUpdate(DocumentEvent e) {
+        runSearch();
+      }
+
+      @Override
+      public void changedUpdate(DocumentEvent e) {
+        runSearch();
+      }
+    });
+    searchPanel.add(searchField);
+    JButton rescanButton = new JButton("Rescan", AllIcons.Actions.Refresh);
+    rescanButton.setToolTipText("Look for new or changed Parquet files in the project");
+    rescanButton.addActionListener(e -> rescan.run());
+    searchPanel.add(rescanButton);
+    add(searchPanel, BorderLayout.NORTH);
+
+    table = new JBTable(tableModel);
+    table.setAutoCreateRowSorter(true);
+    table.addMouseListener(new MouseAdapter() {
+      @Override
+      public void mouseClicked(MouseEvent e) {
+        int row = table.getSelectedRow();
+        if (e.getClickCount() == 2 && row >= 0) {
+          opener.accept(tableModel.getEntry(table.convertRowIndexToModel(row)).getFile());
+        }
+      }
+    });
+    add(new JScrollPane(table), BorderLayout.CENTER);
+
+    summaryLabel = new JLabel();
+    summaryLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+    add(summaryLabel, BorderLayout.SOUTH);
+  }
+
+  private void runSearch() {
+    CatalogQuery query = CatalogQuery.parse(searchField.getText());
+    List<CatalogEntry> found = catalog.search(query);
+    tableModel.setEntries(found.subList(0, Math.min(MAX_ROWS, found.size())), query);
+    String summary = query.isEmpty()
+        ? String.format("%,d file(s) indexed", catalog.size())
+        : String.format("%,d of %,d indexed file(s) match", found.size(), catalog.size());
+    if (found.size() > MAX_ROWS) {
+      summary += String.format(", showing the first %,d", MAX_ROWS);
+    }
+    summaryLabel.setText(summary + ". Double-click a file to open it.");
+  }
+
+  /**
+   * Stops following the catalog. Called when the tab is closed.
+   */
+  @Override
+  public void dispose() {
+    catalog.removeListener(catalogListener);
+  }
+
+  private static final class CatalogTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"File", "Rows", "Row Groups", "MB", "Codec", "Matching Columns"};
+    private final List<CatalogEntry> entries = new ArrayList<>();
+    private final List<String> matching = new ArrayList<>();
+
+    void setEntries(List<CatalogEntry> found, CatalogQuery query) {
+      entries.clear();
+      matching.clear();
+      for (CatalogEntry entry : found) {
+        entries.add(entry);
+        matching.add(entry.getError() != null ? entry.getError()
+            : query.isEmpty() ? entry.getColumns().size() + " column(s)" : String.join(", ", query.matchingColumns(entry)));
+      }
+      fireTableDataChanged();
+    }
+
+    CatalogEntry getEntry(int row) {
+      return entries.get(row);
+    }
+
+    @Override
+    public int getRowCount() {
+      return entries.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+      return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+      return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+      return column >= 1 && column <= 3 ? Number.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+      CatalogEntry entry = entries.get(row);
+      switch (column) {
+        case 0: return entry.getPath();
+        case 1: return entry.getRows();
+        case 2: return entry.getRowGroups();
+        case 3: return Math.round(entry.getSize() * 100.0 / (1024 * 1024)) / 100.0;
+        case 4: return entry.getCodec();
+        case 5: return matching.get(row);
+        default: return null;
+      }
+    }
+  }
+}
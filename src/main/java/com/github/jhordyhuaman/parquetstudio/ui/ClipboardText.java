@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.ui;
+
+import com.github.jhordyhuaman.parquetstudio.model.ChunkedText;
+import com.intellij.openapi.diagnostic.Logger;
+import java.awt.datatransfer.Clipboard;
+import java.awt.datatransfer.ClipboardOwner;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.Transferable;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Copied text put on the clipboard without being joined up front.
+ *
+ * <p>The text is offered as a {@link java.io.Reader} that streams the chunks, or the
+ * exported file, and as a {@code String} built only when a target asks for one. A text held
+ * in a temporary file is deleted once another copy replaces it on the clipboard.
+ */
+class ClipboardText implements Transferable, ClipboardOwner {
+  private static final Logger LOGGER = Logger.getInstance(ClipboardText.class);
+  private static final DataFlavor READER_FLAVOR = readerFlavor();
+
+  private final ChunkedText text;
+  private final File file;
+
+  ClipboardText(ChunkedText text) {
+    this.text = text;
+    this.file = null;
+  }
+
+  ClipboardText(File file) {
+    this.text = null;
+    this.file = file;
+  }
+
+  private static DataFlavor readerFlavor() {
+    try {
+      return new DataFlavor("text/plain;class=java.io.Reader");
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public DataFlavor[] getTransferDataFlavors() {
+    return new DataFlavor[] {DataFlavor.stringFlavor, READER_FLAVOR};
+  }
+
+  @Override
+  public boolean isDataFlavorSupported(DataFlavor flavor) {
+    return DataFlavor.stringFlavor.equals(flavor) || READER_FLAVOR.equals(flavor);
+  }
+
+  @Override
+  public Object getTransferData(DataFlavor flavor) throws UnsupportedFlavorException, IOException {
+    if (READER_FLAVOR.equals(flavor)) {
+      return text != null ? text.reader() : Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+    }
+    if (DataFlavor.stringFlavor.equals(flavor)) {
+      return text != null ? text.toString() : new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+    throw new UnsupportedFlavorException(flavor);
+  }
+
+  @Override
+  public void lostOwnership(Clipboard clipboard, Transferable contents) {
+    if (file != null && !file.delete()) {
+      LOGGER.warn("Could not delete copied text: " + file);
+      file.deleteOnExit();
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.ui;
+
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.intellij.openapi.ui.DialogWrapper;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.*;
+
+/**
+ * Dialog for saving the data sorted by some columns, so that the row groups of the new file
+ * can be skipped by their min/max statistics.
+ */
+public class ClusterDialog extends DialogWrapper {
+  private final List<String> columnNames;
+  private final String initialColumn;
+
+  private JTextField sortField;
+  private JComboBox<ParquetWriteOptions.Compression> compressionComboBox;
+  private JSpinner rowGroupSpinner;
+
+  /**
+   * @param columnNames the plain column names
+   * @param initialColumn the column selected in the table, may be null
+   */
+  public ClusterDialog(Component parent, List<String> columnNames, String initialColumn) {
+    super(parent, true);
+    this.columnNames = columnNames;
+    this.initialColumn = initialColumn;
+    setTitle("Save Sorted");
+    init();
+  }
+
+  @Override
+  protected JComponent createCenterPanel() {
+    JPanel panel = new JPanel(new GridBagLayout());
+    GridBagConstraints gbc = new GridBagConstraints();
+    gbc.insets = new Insets(5, 5, 5, 5);
+    gbc.anchor = GridBagConstraints.WEST;
+
+    sortField = new JTextField(initialColumn != null ? initialColumn : "", 30);
+    sortField.setToolTipText("Comma-separated column names, most significant first, e.g. customer_id, created");
+    addRow(panel, gbc, 0, "Sort by:", sortField);
+    compressionComboBox = new JComboBox<>(ParquetWriteOptions.Compression.values());
+    addRow(panel, gbc, 1, "Compression:", compressionComboBox);
+    rowGroupSpinner = new JSpinner(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 10_000));
+    rowGroupSpinner.setToolTipText("Rows per row group, 0 for the DuckDB default");
+    addRow(panel, gbc, 2, "Row group size:", rowGroupSpinner);
+
+    panel.setPreferredSize(new Dimension(450, 130));
+    return panel;
+  }
+
+  private void addRow(JPanel panel, GridBagConstraints gbc, int row, String label, JComponent field) {
+    gbc.gridx = 0;
+    gbc.gridy = row;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    panel.add(new JLabel(label), gbc);
+    gbc.gridx = 1;
+    gbc.fill = GridBagConstraints.HORIZONTAL;
+    gbc.weightx = 1.0;
+    panel.add(field, gbc);
+  }
+
+  @Override
+  protected void doOKAction() {
+    List<String> columns = getSortColumns();
+    String error = null;
+    if (columns.isEmpty()) {
+      error = "Enter at least one column to sort by.";
+    } else {
+      for (String column : columns) {
+        if (!columnNames.contains(column)) {
+          error = "Unknown column: " + column;
+          break;
+        }
+      }
+    }
+    if (error != null) {
+      JOptionPane.showMessageDialog(getContentPanel(), error, "Validation Error", JOptionPane.ERROR_MESSAGE);
+      return;
+    }
+    super.doOKAction();
+  }
+
+  /**
+   * Gets the sort columns, most significant first.
+   */
+  public List<String> getSortColumns() {
+    List<String> columns = new ArrayList<>();
+    for (String column : sortField.getText().split(",")) {
+      if (!column.trim().isEmpty()) {
+        columns.add(column.trim());
+      }
+    }
+    return columns;
+  }
+
+  public ParquetWriteOptions getWriteOptions() {
+    return new ParquetWriteOptions((ParquetWriteOptions.Compression) compressionComboBox.getSelectedItem(),
+        ((Number) rowGroupSpinner.getValue()).longValue());
+  }
+}
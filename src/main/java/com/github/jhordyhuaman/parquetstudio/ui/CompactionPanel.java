@@ -0,0 +1,266 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.ui;
+
+import com.github.jhordyhuaman.parquetstudio.model.CompactionReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.github.jhordyhuaman.parquetstudio.service.BatchTransformService;
+import com.github.jhordyhuaman.parquetstudio.service.CompactionService;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.ui.table.JBTable;
+import java.awt.BorderLayout;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Tab running a {@link CompactionService} job: rewrites the small Parquet files of a
+ * directory or glob into files near a target size, one row per partition directory.
+ */
+public class CompactionPanel extends JPanel implements ToolPanel {
+  private static final Logger LOGGER = Logger.getInstance(CompactionPanel.class);
+
+  private final GroupTableModel groupModel = new GroupTableModel();
+  private final AtomicBoolean cancelled = new AtomicBoolean(false);
+  private JTextField sourceField;
+  private JTextField outputField;
+  private JCheckBox inPlaceCheckBox;
+  private JSpinner targetSpinner;
+  private JComboBox<ParquetWriteOptions.Compression> compressionComboBox;
+  private JSpinner rowGroupSpinner;
+  private JButton runButton;
+  private JButton cancelButton;
+  private JLabel summaryLabel;
+  private SwingWorker<CompactionReport, Void> worker;
+
+  public CompactionPanel() {
+    initializeUI();
+  }
+
+  private void initializeUI() {
+    setLayout(new BorderLayout());
+
+    JPanel form = new JPanel(new GridBagLayout());
+    GridBagConstraints gbc = new GridBagConstraints();
+    gbc.insets = new Insets(5, 5, 5, 5);
+    gbc.anchor = GridBagConstraints.WEST;
+
+    sourceField = new JTextField(40);
+    sourceField.setToolTipText("A directory (searched recursively) or a glob, e.g. /data/events/**/*.parquet");
+    addRow(form, gbc, 0, "Files:", sourceField);
+    outputField = new JTextField(40);
+    addRow(form, gbc, 1, "Output directory:", outputField);
+
+    JPanel options = new JPanel();
+    options.setLayout(new BoxLayout(options, BoxLayout.X_AXIS));
+    inPlaceCheckBox = new JCheckBox("In place");
+    inPlaceCheckBox.setToolTipText("Write next to the small files and delete them once the row counts match");
+    inPlaceCheckBox.addActionListener(e -> outputField.setEnabled(!inPlaceCheckBox.isSelected()));
+    targetSpinner = new JSpinner(new SpinnerNumberModel(
+        (int) (CompactionService.defaultTargetBytes() / (1024 * 1024)), 1, 4096, 16));
+    compressionComboBox = new JComboBox<>(ParquetWriteOptions.Compression.values());
+    rowGroupSpinner = new JSpinner(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 10_000));
+    rowGroupSpinner.setToolTipText("Rows per row group, 0 for the DuckDB default");
+    options.add(inPlaceCheckBox);
+    options.add(Box.createHorizontalStrut(10));
+    options.add(new JLabel("Target size (MB): "));
+    options.add(targetSpinner);
+    options.add(Box.createHorizontalStrut(10));
+    options.add(new JLabel("Compression: "));
+    options.add(compressionComboBox);
+    options.add(Box.createHorizontalStrut(10));
+    options.add(new JLabel("Row group size: "));
+    options.add(rowGroupSpinner);
+    gbc.gridx = 0;
+    gbc.gridy = 2;
+    gbc.gridwidth = 3;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    form.add(options, gbc);
+
+    JPanel buttons = new JPanel();
+    buttons.setLayout(new BoxLayout(buttons, BoxLayout.X_AXIS));
+    runButton = new JButton("Run", AllIcons.Actions.Execute);
+    runButton.addActionListener(e -> runCompaction());
+    cancelButton = new JButton("Cancel", AllIcons.Actions.Cancel);
+    cancelButton.setEnabled(false);
+    cancelButton.addActionListener(e -> cancelled.set(true));
+    buttons.add(runButton);
+    buttons.add(cancelButton);
+    gbc.gridy = 3;
+    form.add(buttons, gbc);
+
+    add(form, BorderLayout.NORTH);
+
+    JBTable table = new JBTable(groupModel);
+    table.setAutoCreateRowSorter(true);
+    add(new JScrollPane(table), BorderLayout.CENTER);
+
+    summaryLabel = new JLabel("Pick the files and where to write the compacted files.");
+    summaryLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+    add(summaryLabel, BorderLayout.SOUTH);
+  }
+
+  private void addRow(JPanel form, GridBagConstraints gbc, int row, String label, JTextField field) {
+    gbc.gridx = 0;
+    gbc.gridy = row;
+    gbc.gridwidth = 1;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    form.add(new JLabel(label), gbc);
+
+    gbc.gridx = 1;
+    gbc.fill = GridBagConstraints.HORIZONTAL;
+    gbc.weightx = 1.0;
+    form.add(field, gbc);
+
+    gbc.gridx = 2;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    JButton browse = new JButton("...");
+    browse.addActionListener(e -> {
+      JFileChooser chooser = new JFileChooser(field.getText().isEmpty() ? null : new File(field.getText()));
+      chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+      if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+        field.setText(chooser.getSelectedFile().getAbsolutePath());
+      }
+    });
+    form.add(browse, gbc);
+  }
+
+  private void runCompaction() {
+    String source = sourceField.getText().trim();
+    boolean inPlace = inPlaceCheckBox.isSelected();
+    if (source.isEmpty() || (!inPlace && outputField.getText().trim().isEmpty())) {
+      Messages.showErrorDialog("Select the files and the output directory.", "Compact Files");
+      return;
+    }
+    if (inPlace && Messages.showYesNoDialog("The small files are deleted once they have been compacted. Continue?",
+        "Compact Files", Messages.getWarningIcon()) != Messages.YES) {
+      return;
+    }
+    File outputDirectory = inPlace ? null : new File(outputField.getText().trim());
+    long targetBytes = ((Number) targetSpinner.getValue()).longValue() * 1024 * 1024;
+    ParquetWriteOptions options = new ParquetWriteOptions(
+        (ParquetWriteOptions.Compression) compressionComboBox.getSelectedItem(),
+        ((Number) rowGroupSpinner.getValue()).longValue());
+    CompactionService service = new CompactionService();
+
+    cancelled.set(false);
+    groupModel.clear();
+    runButton.setEnabled(false);
+    cancelButton.setEnabled(true);
+    summaryLabel.setText("Finding files...");
+    worker =
+        new SwingWorker<CompactionReport, Void>() {
+          @Override
+          protected CompactionReport doInBackground() throws Exception {
+            List<File> files = BatchTransformService.findFiles(source);
+            SwingUtilities.invokeLater(() -> summaryLabel.setText("Compacting " + files.size() + " file(s)..."));
+            return service.compact(files, outputDirectory, targetBytes, options,
+                group -> SwingUtilities.invokeLater(() -> groupModel.add(group)), cancelled::get);
+          }
+
+          @Override
+          protected void done() {
+            runButton.setEnabled(true);
+            cancelButton.setEnabled(false);
+            try {
+              CompactionReport report = get();
+              summaryLabel.setText(report.format().split("\n")[0]);
+            } catch (Exception e) {
+              Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+              LOGGER.warn("Compaction failed", cause);
+              Messages.showErrorDialog("Compaction failed: " + cause.getMessage(), "Compact Files");
+              summaryLabel.setText("Compaction failed.");
+            }
+          }
+        };
+    worker.execute();
+  }
+
+  /**
+   * Cancels a running compaction: the partition being copied is interrupted and left
+   * untouched. Called when the tab is closed.
+   */
+  @Override
+  public void dispose() {
+    cancelled.set(true);
+  }
+
+  private static final class GroupTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"Directory", "Status", "Files In", "MB In", "Files Out", "MB Out", "Copied", "Rows", "Message"};
+    private final List<CompactionReport.Group> groups = new ArrayList<>();
+
+    void clear() {
+      groups.clear();
+      fireTableDataChanged();
+    }
+
+    void add(CompactionReport.Group group) {
+      groups.add(group);
+      fireTableRowsInserted(groups.size() - 1, groups.size() - 1);
+    }
+
+    @Override
+    public int getRowCount() {
+      return groups.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+      return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+      return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+      return column >= 2 && column <= 7 ? Number.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+      CompactionReport.Group group = groups.get(row);
+      switch (column) {
+        case 0: return group.getDirectory().getPath();
+        case 1: return group.getStatus().name().toLowerCase();
+        case 2: return group.getInputFiles();
+        case 3: return megabytes(group.getInputBytes());
+        case 4: return group.getOutputFiles();
+        case 5: return megabytes(group.getOutputBytes());
+        case 6: return group.getCopiedFiles();
+        case 7: return group.getRows();
+        case 8: return group.getMessage();
+        default: return null;
+      }
+    }
+
+    private static double megabytes(long bytes) {
+      return Math.round(bytes / 10_485.76) / 100.0;
+    }
+  }
+}
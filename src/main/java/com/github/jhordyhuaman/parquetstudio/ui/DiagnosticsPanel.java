@@ -0,0 +1,285 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.ui;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.EdtActionStats;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.EdtViolation;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.EdtWatchdog;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.StageStats;
+import com.intellij.icons.AllIcons;
+import com.intellij.ui.table.JBTable;
+import java.awt.BorderLayout;
+import java.awt.Font;
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Tab showing the per-stage timings collected by {@link PerformanceMetrics}: where the time
+ * of loads, saves, searches and sorts goes and how long each kept the UI thread busy. The
+ * lower table lists the UI thread time per action measured by {@link EdtWatchdog}, with
+ * the stack samples of the last run over the threshold.
+ */
+public class DiagnosticsPanel extends JPanel implements ToolPanel {
+  private final PerformanceMetrics metrics;
+  private final EdtWatchdog watchdog;
+  private final StatsTableModel statsModel = new StatsTableModel();
+  private final EdtTableModel edtModel = new EdtTableModel();
+  private final AtomicBoolean refreshQueued = new AtomicBoolean(false);
+  private final Runnable listener = this::scheduleRefresh;
+  private JLabel summaryLabel;
+  private JBTable edtTable;
+  private JTextArea stackArea;
+
+  public DiagnosticsPanel() {
+    this(PerformanceMetrics.getInstance(), EdtWatchdog.getInstance());
+  }
+
+  public DiagnosticsPanel(PerformanceMetrics metrics, EdtWatchdog watchdog) {
+    this.metrics = metrics;
+    this.watchdog = watchdog;
+    initializeUI();
+    metrics.addListener(listener);
+    watchdog.addListener(listener);
+    refresh();
+  }
+
+  private void initializeUI() {
+    setLayout(new BorderLayout());
+
+    JPanel toolbar = new JPanel();
+    toolbar.setLayout(new BoxLayout(toolbar, BoxLayout.X_AXIS));
+    toolbar.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+
+    JButton refreshButton = new JButton(AllIcons.Actions.Refresh);
+    refreshButton.setToolTipText("Refresh");
+    refreshButton.addActionListener(e -> refresh());
+    toolbar.add(refreshButton);
+
+    JButton resetButton = new JButton(AllIcons.Actions.GC);
+    resetButton.setToolTipText("Reset Statistics");
+    resetButton.addActionListener(e -> {
+      metrics.reset();
+      watchdog.reset();
+    });
+    toolbar.add(resetButton);
+
+    JButton copyButton = new JButton(AllIcons.Actions.Copy);
+    copyButton.setToolTipText("Copy Report (attach it to slow-operation reports)");
+    copyButton.addActionListener(e -> copyReport());
+    toolbar.add(copyButton);
+
+    add(toolbar, BorderLayout.NORTH);
+
+    JBTable table = new JBTable(statsModel);
+    table.setAutoCreateRowSorter(true);
+
+    edtTable = new JBTable(edtModel);
+    edtTable.setAutoCreateRowSorter(true);
+    edtTable.getSelectionModel().addListSelectionListener(e -> showSelectedStack());
+    stackArea = new JTextArea();
+    stackArea.setEditable(false);
+    stackArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, stackArea.getFont().getSize()));
+    JSplitPane edtPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+        new JScrollPane(edtTable), new JScrollPane(stackArea));
+    edtPane.setResizeWeight(0.5);
+
+    JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(table), edtPane);
+    splitPane.setResizeWeight(0.6);
+    add(splitPane, BorderLayout.CENTER);
+
+    summaryLabel = new JLabel();
+    summaryLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+    add(summaryLabel, BorderLayout.SOUTH);
+  }
+
+  /**
+   * Reloads the table from the metrics registry. Must be called on the EDT.
+   */
+  public void refresh() {
+    refreshQueued.set(false);
+    statsModel.setStats(metrics.getStats());
+    int selected = edtTable.getSelectedRow();
+    String selectedAction = selected >= 0 ? edtModel.get(edtTable.convertRowIndexToModel(selected)).getAction() : null;
+    edtModel.setStats(watchdog.getStats());
+    // Keep the selected action across refreshes so its stack stays on screen
+    int index = edtModel.indexOf(selectedAction);
+    if (index >= 0) {
+      int view = edtTable.convertRowIndexToView(index);
+      edtTable.getSelectionModel().setSelectionInterval(view, view);
+    }
+    summaryLabel.setText(String.format(Locale.ROOT,
+        "%d stages recorded | UI thread busy: %.1f ms | %d UI thread stalls over %d ms",
+        statsModel.getRowCount(), metrics.getEdtMillis(), watchdog.getViolations().size(),
+        watchdog.getThresholdMillis()));
+    showSelectedStack();
+  }
+
+  /**
+   * Stops listening for new records. Called when the tab is closed.
+   */
+  @Override
+  public void dispose() {
+    metrics.removeListener(listener);
+    watchdog.removeListener(listener);
+  }
+
+  private void showSelectedStack() {
+    int row = edtTable.getSelectedRow();
+    if (row < 0) {
+      stackArea.setText("Select an action to see the stack samples of its last slow run.");
+      return;
+    }
+    EdtViolation violation = edtModel.get(edtTable.convertRowIndexToModel(row)).getLastViolation();
+    stackArea.setText(violation != null
+        ? violation.format()
+        : "No run of this action went over " + watchdog.getThresholdMillis() + " ms.");
+    stackArea.setCaretPosition(0);
+  }
+
+  private void scheduleRefresh() {
+    // Records can arrive in bursts from any thread; coalesce them into one EDT refresh
+    if (refreshQueued.compareAndSet(false, true)) {
+      SwingUtilities.invokeLater(this::refresh);
+    }
+  }
+
+  private void copyReport() {
+    Toolkit.getDefaultToolkit().getSystemClipboard()
+        .setContents(new StringSelection(metrics.formatReport() + "\n" + watchdog.formatReport()), null);
+    summaryLabel.setText("Report copied to the clipboard.");
+  }
+
+  private static final class StatsTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {
+        "Operation", "Stage", "Count", "Last ms", "Avg ms", "Max ms", "UI thread ms",
+        "Rows", "Rows/s", "Bytes", "Allocated"
+    };
+    private List<StageStats> stats = new ArrayList<>();
+
+    void setStats(List<StageStats> stats) {
+      this.stats = stats;
+      fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+      return stats.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+      return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+      return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+      return column < 2 ? String.class : Number.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+      StageStats s = stats.get(row);
+      switch (column) {
+        case 0: return s.getOperation();
+        case 1: return s.getStage();
+        case 2: return s.getCount();
+        case 3: return round(s.getLast().getMillis());
+        case 4: return round(s.getAverageMillis());
+        case 5: return round(s.getMaxMillis());
+        case 6: return round(s.getEdtMillis());
+        case 7: return s.getRows();
+        case 8: return s.getRowsPerSecond() >= 0 ? s.getRowsPerSecond() : null;
+        case 9: return s.getBytes();
+        case 10: return s.getAllocatedBytes();
+        default: return null;
+      }
+    }
+
+    private static double round(double millis) {
+      return Math.round(millis * 100) / 100.0;
+    }
+  }
+
+  private static final class EdtTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {
+        "Action", "Count", "Total ms", "Avg ms", "Max ms", "Last ms", "Over threshold"
+    };
+    private List<EdtActionStats> stats = new ArrayList<>();
+
+    void setStats(List<EdtActionStats> stats) {
+      this.stats = stats;
+      fireTableDataChanged();
+    }
+
+    EdtActionStats get(int row) {
+      return stats.get(row);
+    }
+
+    int indexOf(String action) {
+      for (int i = 0; i < stats.size(); i++) {
+        if (stats.get(i).getAction().equals(action)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public int getRowCount() {
+      return stats.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+      return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+      return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+      return column == 0 ? String.class : Number.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+      EdtActionStats s = stats.get(row);
+      switch (column) {
+        case 0: return s.getAction();
+        case 1: return s.getCount();
+        case 2: return StatsTableModel.round(s.getTotalMillis());
+        case 3: return StatsTableModel.round(s.getAverageMillis());
+        case 4: return StatsTableModel.round(s.getMaxMillis());
+        case 5: return StatsTableModel.round(s.getLastMillis());
+        case 6: return s.getViolations();
+        default: return null;
+      }
+    }
+  }
+}
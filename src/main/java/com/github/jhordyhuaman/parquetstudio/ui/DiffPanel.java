@@ -0,0 +1,433 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.ui;
+
+import com.github.jhordyhuaman.parquetstudio.model.DiffReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.service.DiffService;
+import com.github.jhordyhuaman.parquetstudio.service.DiffSession;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.ui.table.JBTable;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+
+/**
+ * Tab comparing two Parquet files with {@link DiffService}: the counts of added, removed and
+ * changed rows, the changed values per column, and the differing rows a page at a time.
+ */
+public class DiffPanel extends JPanel implements ToolPanel {
+  private static final Logger LOGGER = Logger.getInstance(DiffPanel.class);
+  private static final int PAGE_SIZE = 200;
+  private static final Color ADDED = new Color(40, 170, 60);
+  private static final Color REMOVED = new Color(210, 70, 70);
+  private static final Color CHANGED = new Color(230, 162, 60);
+  private static final String ALL_ROWS = "all";
+
+  private final AtomicBoolean cancelled = new AtomicBoolean(false);
+  private final PageTableModel pageModel = new PageTableModel();
+  private final ColumnTableModel columnModel = new ColumnTableModel();
+  private JComboBox<String> leftComboBox;
+  private JComboBox<String> rightComboBox;
+  private JTextField keysField;
+  private JButton compareButton;
+  private JButton cancelButton;
+  private JComboBox<String> statusComboBox;
+  private JButton previousButton;
+  private JButton nextButton;
+  private JLabel pageLabel;
+  private JLabel summaryLabel;
+  private DiffSession session;
+  private long offset;
+  private boolean pageLoading;
+
+  /**
+   * @param openFiles the files open in the editor tabs, offered as the two sides
+   */
+  public DiffPanel(List<File> openFiles) {
+    initializeUI(openFiles);
+  }
+
+  private void initializeUI(List<File> openFiles) {
+    setLayout(new BorderLayout());
+
+    JPanel form = new JPanel(new GridBagLayout());
+    GridBagConstraints gbc = new GridBagConstraints();
+    gbc.insets = new Insets(5, 5, 5, 5);
+    gbc.anchor = GridBagConstraints.WEST;
+
+    leftComboBox = fileComboBox(openFiles, 0);
+    addRow(form, gbc, 0, "Before:", leftComboBox);
+    rightComboBox = fileComboBox(openFiles, 1);
+    addRow(form, gbc, 1, "After:", rightComboBox);
+    keysField = new JTextField(40);
+    keysField.setToolTipText("Comma-separated columns identifying a row, unique in both files");
+    gbc.gridx = 0;
+    gbc.gridy = 2;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    form.add(new JLabel("Key columns:"), gbc);
+    gbc.gridx = 1;
+    gbc.fill = GridBagConstraints.HORIZONTAL;
+    gbc.weightx = 1.0;
+    form.add(keysField, gbc);
+
+    JPanel buttons = new JPanel();
+    buttons.setLayout(new BoxLayout(buttons, BoxLayout.X_AXIS));
+    compareButton = new JButton("Compare", AllIcons.Actions.Diff);
+    compareButton.addActionListener(e -> runComparison());
+    cancelButton = new JButton("Cancel", AllIcons.Actions.Cancel);
+    cancelButton.setEnabled(false);
+    cancelButton.addActionListener(e -> cancelled.set(true));
+    buttons.add(compareButton);
+    buttons.add(cancelButton);
+    gbc.gridx = 0;
+    gbc.gridy = 3;
+    gbc.gridwidth = 3;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    form.add(buttons, gbc);
+    add(form, BorderLayout.NORTH);
+
+    JBTable columnTable = new JBTable(columnModel);
+    columnTable.setAutoCreateRowSorter(true);
+    JBTable rowTable = new JBTable(pageModel);
+    rowTable.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+    rowTable.setDefaultRenderer(Object.class, new DiffCellRenderer());
+
+    JPanel rowsPanel = new JPanel(new BorderLayout());
+    JPanel pager = new JPanel();
+    pager.setLayout(new BoxLayout(pager, BoxLayout.X_AXIS));
+    statusComboBox = new JComboBox<>(new String[] {ALL_ROWS, "added", "removed", "changed"});
+    statusComboBox.addActionListener(e -> loadPage(0));
+    previousButton = new JButton("Previous");
+    previousButton.addActionListener(e -> loadPage(Math.max(0, offset - PAGE_SIZE)));
+    nextButton = new JButton("Next");
+    nextButton.addActionListener(e -> loadPage(offset + PAGE_SIZE));
+    pageLabel = new JLabel();
+    pager.add(new JLabel("Show: "));
+    pager.add(statusComboBox);
+    pager.add(Box.createHorizontalStrut(10));
+    pager.add(previousButton);
+    pager.add(nextButton);
+    pager.add(Box.createHorizontalStrut(10));
+    pager.add(pageLabel);
+    rowsPanel.add(pager, BorderLayout.NORTH);
+    rowsPanel.add(new JScrollPane(rowTable), BorderLayout.CENTER);
+
+    JSplitPane split = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, new JScrollPane(columnTable), rowsPanel);
+    split.setResizeWeight(0.2);
+    add(split, BorderLayout.CENTER);
+
+    summaryLabel = new JLabel("Pick the two files and the columns identifying a row.");
+    summaryLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+    add(summaryLabel, BorderLayout.SOUTH);
+    updatePager();
+  }
+
+  private JComboBox<String> fileComboBox(List<File> openFiles, int selected) {
+    JComboBox<String> comboBox = new JComboBox<>();
+    comboBox.setEditable(true);
+    for (File file : openFiles) {
+      comboBox.addItem(file.getAbsolutePath());
+    }
+    comboBox.setSelectedItem(selected < openFiles.size() ? openFiles.get(selected).getAbsolutePath() : "");
+    comboBox.setToolTipText("A Parquet file; open tabs are compared as saved on disk");
+    return comboBox;
+  }
+
+  private void addRow(JPanel form, GridBagConstraints gbc, int row, String label, JComboBox<String> comboBox) {
+    gbc.gridx = 0;
+    gbc.gridy = row;
+    gbc.gridwidth = 1;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    form.add(new JLabel(label), gbc);
+
+    gbc.gridx = 1;
+    gbc.fill = GridBagConstraints.HORIZONTAL;
+    gbc.weightx = 1.0;
+    form.add(comboBox, gbc);
+
+    gbc.gridx = 2;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    JButton browse = new JButton("...");
+    browse.addActionListener(e -> {
+      String current = selectedPath(comboBox);
+      JFileChooser chooser = new JFileChooser(current.isEmpty() ? null : new File(current));
+      if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+        comboBox.setSelectedItem(chooser.getSelectedFile().getAbsolutePath());
+      }
+    });
+    form.add(browse, gbc);
+  }
+
+  private static String selectedPath(JComboBox<String> comboBox) {
+    Object item = comboBox.getEditor().getItem();
+    return item == null ? "" : item.toString().trim();
+  }
+
+  private void runComparison() {
+    String leftPath = selectedPath(leftComboBox);
+    String rightPath = selectedPath(rightComboBox);
+    List<String> keys = new ArrayList<>();
+    for (String key : keysField.getText().split(",")) {
+      if (!key.trim().isEmpty()) {
+        keys.add(key.trim());
+      }
+    }
+    if (leftPath.isEmpty() || rightPath.isEmpty() || keys.isEmpty()) {
+      Messages.showErrorDialog("Select both files and at least one key column.", "Compare Files");
+      return;
+    }
+    File left = new File(leftPath);
+    File right = new File(rightPath);
+    if (!left.isFile() || !right.isFile()) {
+      Messages.showErrorDialog("File not found: " + (left.isFile() ? right : left), "Compare Files");
+      return;
+    }
+
+    closeSession();
+    cancelled.set(false);
+    compareButton.setEnabled(false);
+    cancelButton.setEnabled(true);
+    summaryLabel.setText("Comparing " + left.getName() + " with " + right.getName() + "...");
+    SwingWorker<DiffSession, Void> worker =
+        new SwingWorker<DiffSession, Void>() {
+          @Override
+          protected DiffSession doInBackground() throws Exception {
+            return new DiffService().diff(left, right, keys, cancelled::get);
+          }
+
+          @Override
+          protected void done() {
+            compareButton.setEnabled(true);
+            cancelButton.setEnabled(false);
+            try {
+              DiffSession result = get();
+              if (cancelled.get()) {
+                result.close();
+                summaryLabel.setText("Comparison cancelled.");
+                return;
+              }
+              session = result;
+              DiffReport report = result.getReport();
+              columnModel.setChanges(report.getColumnChanges());
+              String[] lines = report.format(0).split("\n");
+              summaryLabel.setText(lines[0]);
+              summaryLabel.setToolTipText(lines.length > 1 ? report.format(Integer.MAX_VALUE).replace("\n", "<br>") : null);
+              loadPage(0);
+            } catch (Exception e) {
+              Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+              if (cause instanceof CancellationException) {
+                summaryLabel.setText("Comparison cancelled.");
+                return;
+              }
+              LOGGER.warn("Comparison failed", cause);
+              Messages.showErrorDialog("Comparison failed: " + cause.getMessage(), "Compare Files");
+              summaryLabel.setText("Comparison failed.");
+            }
+          }
+        };
+    worker.execute();
+  }
+
+  private void loadPage(long newOffset) {
+    DiffSession current = session;
+    if (current == null || pageLoading) {
+      return;
+    }
+    DiffReport.Status status = selectedStatus();
+    pageLoading = true;
+    updatePager();
+    new SwingWorker<ParquetData, Void>() {
+      @Override
+      protected ParquetData doInBackground() throws Exception {
+        return current.page(status, newOffset, PAGE_SIZE);
+      }
+
+      @Override
+      protected void done() {
+        pageLoading = false;
+        if (current != session) {
+          return;
+        }
+        try {
+          offset = newOffset;
+          pageModel.setData(get(), current.getReport().getKeyColumns().size());
+        } catch (Exception e) {
+          Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+          LOGGER.warn("Could not read the differing rows", cause);
+          Messages.showErrorDialog("Could not read the differing rows: " + cause.getMessage(), "Compare Files");
+        }
+        updatePager();
+      }
+    }.execute();
+  }
+
+  private DiffReport.Status selectedStatus() {
+    String selected = (String) statusComboBox.getSelectedItem();
+    return ALL_ROWS.equals(selected) ? null : DiffReport.Status.valueOf(selected.toUpperCase(Locale.ROOT));
+  }
+
+  private void updatePager() {
+    long total = session == null ? 0 : session.count(selectedStatus());
+    previousButton.setEnabled(!pageLoading && offset > 0);
+    nextButton.setEnabled(!pageLoading && offset + PAGE_SIZE < total);
+    pageLabel.setText(total == 0 ? "No rows" : String.format("Rows %,d-%,d of %,d",
+        offset + 1, Math.min(offset + PAGE_SIZE, total), total));
+  }
+
+  private void closeSession() {
+    if (session != null) {
+      session.close();
+      session = null;
+    }
+    offset = 0;
+    pageModel.setData(null, 0);
+    columnModel.setChanges(Collections.emptyMap());
+    updatePager();
+  }
+
+  /**
+   * Cancels a running comparison and frees the differing rows. Called when the tab is closed.
+   */
+  @Override
+  public void dispose() {
+    cancelled.set(true);
+    closeSession();
+  }
+
+  /**
+   * Colors the status and the values that differ between the left and right column of a
+   * changed row.
+   */
+  private final class DiffCellRenderer extends DefaultTableCellRenderer {
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus,
+                                                   int row, int column) {
+      Component component = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+      if (isSelected) {
+        return component;
+      }
+      component.setForeground(table.getForeground());
+      Object status = pageModel.getValueAt(row, 0);
+      if (column == 0) {
+        component.setForeground("added".equals(status) ? ADDED : "removed".equals(status) ? REMOVED : CHANGED);
+      } else if ("changed".equals(status) && pageModel.isValueColumn(column) && pageModel.isChanged(row, column)) {
+        component.setForeground(CHANGED);
+      }
+      return component;
+    }
+  }
+
+  private static final class PageTableModel extends AbstractTableModel {
+    private List<String> columns = Collections.emptyList();
+    private List<List<Object>> rows = Collections.emptyList();
+    private int keyCount;
+
+    void setData(ParquetData data, int keyCount) {
+      this.columns = data == null ? Collections.emptyList() : data.getColumnNames();
+      this.rows = data == null ? Collections.emptyList() : data.getRows();
+      this.keyCount = keyCount;
+      fireTableStructureChanged();
+    }
+
+    boolean isValueColumn(int column) {
+      return column > keyCount;
+    }
+
+    boolean isChanged(int row, int column) {
+      // Value columns come in left/right pairs after the status and the keys
+      int left = column - (column - keyCount - 1) % 2;
+      return !Objects.equals(rows.get(row).get(left), rows.get(row).get(left + 1));
+    }
+
+    @Override
+    public int getRowCount() {
+      return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+      return columns.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+      return columns.get(column);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+      return rows.get(row).get(column);
+    }
+  }
+
+  private static final class ColumnTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"Column", "Changed"};
+    private final List<Map.Entry<String, Long>> changes = new ArrayList<>();
+
+    void setChanges(Map<String, Long> columnChanges) {
+      changes.clear();
+      changes.addAll(columnChanges.entrySet());
+      fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+      return changes.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+      return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+      return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+      return column == 1 ? Number.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+      Map.Entry<String, Long> change = changes.get(row);
+      return column == 0 ? change.getKey() : change.getValue();
+    }
+  }
+}
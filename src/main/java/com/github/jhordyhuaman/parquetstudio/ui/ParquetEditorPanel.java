@@ -14,25 +14,60 @@
 package com.github.jhordyhuaman.parquetstudio.ui;
 
 import com.github.jhordyhuaman.parquetstudio.Constants;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.EdtWatchdog;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.ViewOperationEvent;
+import com.github.jhordyhuaman.parquetstudio.model.CastReport;
+import com.github.jhordyhuaman.parquetstudio.model.ClusterReport;
+import com.github.jhordyhuaman.parquetstudio.model.ColumnEdit;
+import com.github.jhordyhuaman.parquetstudio.model.DelimitedText;
 import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetPreview;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetSearchFilter;
 import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.PartitionedDataset;
+import com.github.jhordyhuaman.parquetstudio.model.PastePlan;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.github.jhordyhuaman.parquetstudio.model.ViewQuery;
+import com.github.jhordyhuaman.parquetstudio.service.BulkEditService;
+import com.github.jhordyhuaman.parquetstudio.service.CopyService;
+import com.github.jhordyhuaman.parquetstudio.service.ExportService;
 import com.github.jhordyhuaman.parquetstudio.service.ParquetEditorService;
+import com.github.jhordyhuaman.parquetstudio.service.ParquetLoadScheduler;
+import com.github.jhordyhuaman.parquetstudio.service.PasteService;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.util.IconLoader;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.ui.table.JBTable;
 import java.awt.*;
+import java.awt.datatransfer.Clipboard;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.RowSorterEvent;
 import javax.swing.filechooser.FileFilter;
 import javax.swing.table.TableCellEditor;
 import javax.swing.table.TableModel;
 import javax.swing.table.TableRowSorter;
-import javax.swing.RowFilter;
 import javax.swing.text.*;
 import java.awt.Component;
 import java.time.LocalDate;
@@ -45,7 +80,17 @@ import java.time.LocalDateTime;
 public class ParquetEditorPanel extends JPanel {
   private static final Logger LOGGER = Logger.getInstance(ParquetEditorPanel.class);
 
+  private static final Pattern JSON_KEY = Pattern.compile("\"(.*?)\"\\s*:");
+  private static final Pattern JSON_STRING = Pattern.compile(":\\s*\".*?\"");
+  private static final Pattern JSON_NUMBER = Pattern.compile(":\\s*(\\d+\\.\\d+|\\d+)");
+  private static final Pattern JSON_LITERAL = Pattern.compile("\\b(true|false|null)\\b");
+  private static final Pattern JSON_BRACE = Pattern.compile("[\\{\\}\\[\\]]");
+
   private final ParquetEditorService editorService;
+  private final BulkEditService bulkEditService = new BulkEditService();
+  private final PasteService pasteService = new PasteService();
+  private final CopyService copyService = new CopyService();
+  private final ExportService exportService = new ExportService();
   private ParquetTableModel tableModel;
   private JBTable dataTable;
   private JLabel statusLabel;
@@ -54,8 +99,18 @@ public class ParquetEditorPanel extends JPanel {
   private JButton addRowButton;
   private JButton addColumnButton;
   private JButton deleteRowButton;
+  private JButton deleteMatchingButton;
+  private JButton bulkEditButton;
+  private JButton copyButton;
+  private JButton pasteButton;
+  private JButton undoButton;
+  private JButton redoButton;
   private JButton deleteColumnButton;
   private JButton saveAsButton;
+  private JButton saveViewButton;
+  private JButton savePartitionedButton;
+  private JButton saveSortedButton;
+  private JButton exportButton;
   private JPanel containerPanel;
   private JPanel dataPanel;
   private JPanel schemaPanel;
@@ -67,6 +122,18 @@ public class ParquetEditorPanel extends JPanel {
   private JLabel strictModeJLabel;
   private JTextPane jsonTextPane;
   private TableRowSorter<TableModel> rowSorter;
+  private volatile File pendingFile;
+  private volatile String pendingKey;
+  private volatile CompletableFuture<?> pendingLoad;
+  private int loadGeneration;
+  private boolean previewMode;
+  private ParquetPreview preview;
+  private JButton loadFullButton;
+  private SwingWorker<ClipboardText, Void> copyWorker;
+  private SwingWorker<Long, Long> exportWorker;
+  private int modelReaders;
+  private long revealRow = -1;
+  private String revealColumn;
 
   public ParquetEditorPanel() {
     this(true);
@@ -122,6 +189,17 @@ public class ParquetEditorPanel extends JPanel {
     dataTable = new JBTable();
     dataTable.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
     dataTable.setFillsViewportHeight(true);
+    // Ctrl+C copies in the background and Ctrl+V pastes spreadsheet blocks
+    dataTable.setTransferHandler(new ParquetTableTransferHandler(this));
+    dataTable.addMouseListener(new MouseAdapter() {
+      @Override
+      public void mouseClicked(MouseEvent e) {
+        // Double-clicking a cell of a preview means the user wants to edit: load the full file
+        if (previewMode && e.getClickCount() == 2) {
+          promoteToFullLoad();
+        }
+      }
+    });
     JScrollPane tableScrollPane = new JScrollPane(dataTable);
     dataPanel.add(tableScrollPane, BorderLayout.CENTER);
 
@@ -144,6 +222,24 @@ public class ParquetEditorPanel extends JPanel {
 
     add(containerPanel, BorderLayout.CENTER);
     add(statusLabel, BorderLayout.SOUTH);
+
+    // Ctrl+Z / Ctrl+Shift+Z (Cmd on macOS) while the focus is anywhere in the data view
+    int menuMask = Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+    InputMap inputMap = dataPanel.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT);
+    inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, menuMask), "parquetstudio.undo");
+    inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, menuMask | InputEvent.SHIFT_DOWN_MASK), "parquetstudio.redo");
+    dataPanel.getActionMap().put("parquetstudio.undo", new AbstractAction() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        undo();
+      }
+    });
+    dataPanel.getActionMap().put("parquetstudio.redo", new AbstractAction() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        redo();
+      }
+    });
   }
 
   private JPanel createToolbar() {
@@ -178,6 +274,11 @@ public class ParquetEditorPanel extends JPanel {
     deleteRowButton.addActionListener(e -> deleteSelectedRows());
     toolbar.add(deleteRowButton);
 
+    deleteMatchingButton = new JButton("Delete Matches");
+    deleteMatchingButton.setToolTipText("Delete all rows matching the current search");
+    deleteMatchingButton.addActionListener(e -> deleteMatchingRows());
+    toolbar.add(deleteMatchingButton);
+
     toolbar.add(new JSeparator(SwingConstants.VERTICAL));
 
     // Add Column - using custom createColumn icon with theme support
@@ -192,6 +293,35 @@ public class ParquetEditorPanel extends JPanel {
     deleteColumnButton.addActionListener(e -> deleteSelectedColumn());
     toolbar.add(deleteColumnButton);
 
+    bulkEditButton = new JButton("Bulk Edit");
+    bulkEditButton.setToolTipText("Fill, replace, set to NULL or compute a column over many rows");
+    bulkEditButton.addActionListener(e -> bulkEdit());
+    toolbar.add(bulkEditButton);
+
+    copyButton = new JButton("Copy");
+    copyButton.setToolTipText("Copy the selected cells as TSV, CSV or JSON");
+    JPopupMenu copyMenu = new JPopupMenu();
+    for (CopyService.Format format : CopyService.Format.values()) {
+      JMenuItem item = new JMenuItem("Copy as " + format.getLabel());
+      item.addActionListener(e -> copySelection(format, Toolkit.getDefaultToolkit().getSystemClipboard()));
+      copyMenu.add(item);
+    }
+    copyButton.addActionListener(e -> copyMenu.show(copyButton, 0, copyButton.getHeight()));
+    toolbar.add(copyButton);
+
+    pasteButton = new JButton("Paste");
+    pasteButton.setToolTipText("Paste tab- or comma-separated cells from the clipboard at the selected cell");
+    pasteButton.addActionListener(e -> pasteFromClipboard());
+    toolbar.add(pasteButton);
+
+    undoButton = new JButton("Undo");
+    undoButton.addActionListener(e -> undo());
+    toolbar.add(undoButton);
+
+    redoButton = new JButton("Redo");
+    redoButton.addActionListener(e -> redo());
+    toolbar.add(redoButton);
+
     toolbar.add(new JSeparator(SwingConstants.VERTICAL));
 
     // Save As - using custom save icon with theme support
@@ -199,11 +329,49 @@ public class ParquetEditorPanel extends JPanel {
     saveAsButton.setToolTipText("Save As...");
     saveAsButton.addActionListener(e -> saveAsParquet());
 
+    saveViewButton = new JButton("Save View As...");
+    saveViewButton.setToolTipText("Save only the shown columns and rows, in the shown order, to a new Parquet file");
+    saveViewButton.addActionListener(e -> saveViewAsParquet());
+
+    savePartitionedButton = new JButton("Save Partitioned...");
+    savePartitionedButton.setToolTipText("Save as a Hive-partitioned dataset, one directory per partition value");
+    savePartitionedButton.addActionListener(e -> savePartitioned());
+
+    saveSortedButton = new JButton("Save Sorted...");
+    saveSortedButton.setToolTipText("Save sorted by some columns so readers can skip row groups by their min/max statistics");
+    saveSortedButton.addActionListener(e -> saveSorted());
+
+    exportButton = new JButton("Export");
+    exportButton.setToolTipText("Export the shown columns and rows of the file to CSV, NDJSON, JSON or Parquet");
+    JPopupMenu exportMenu = new JPopupMenu();
+    for (ExportService.Format format : ExportService.Format.values()) {
+      JMenuItem item = new JMenuItem("Export as " + format.getLabel() + "...");
+      item.addActionListener(e -> exportView(format));
+      exportMenu.add(item);
+    }
+    exportButton.addActionListener(e -> {
+      if (exportWorker != null && !exportWorker.isDone()) {
+        exportWorker.cancel(false);
+      } else {
+        exportMenu.show(exportButton, 0, exportButton.getHeight());
+      }
+    });
+
     goSchemaButton = new JButton("View Schema");
     goSchemaButton.addActionListener(e -> changePanel() );
 
+    loadFullButton = new JButton("Load Full File");
+    loadFullButton.setToolTipText("This is a read-only preview. Load the whole file to edit it.");
+    loadFullButton.addActionListener(e -> promoteToFullLoad());
+    loadFullButton.setVisible(false);
+
     toolbar.add(saveAsButton);
+    toolbar.add(saveViewButton);
+    toolbar.add(savePartitionedButton);
+    toolbar.add(saveSortedButton);
+    toolbar.add(exportButton);
     toolbar.add(goSchemaButton);
+    toolbar.add(loadFullButton);
 
     updateButtonStates(false);
 
@@ -285,6 +453,7 @@ public class ParquetEditorPanel extends JPanel {
   }
 
   private void applyJsonHighlighting(String json) {
+    try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("schema_highlight")) {
       StyledDocument doc = jsonTextPane.getStyledDocument();
 
       StyleContext sc = StyleContext.getDefaultStyleContext();
@@ -298,15 +467,15 @@ public class ParquetEditorPanel extends JPanel {
           doc.insertString(0, json, null);
       } catch (Exception e) { e.printStackTrace(); }
 
-      applyPattern(json, "\"(.*?)\"\\s*:", keyColor, doc);     // keys
-      applyPattern(json, ":\\s*\".*?\"", stringColor, doc);    // strings
-      applyPattern(json, ":\\s*(\\d+\\.\\d+|\\d+)", numberColor, doc); // números
-      applyPattern(json, "\\b(true|false|null)\\b", numberColor, doc); // boolean / null
-      applyPattern(json, "[\\{\\}\\[\\]]", braceColor, doc);   // llaves y corchetes
+      applyPattern(json, JSON_KEY, keyColor, doc);       // keys
+      applyPattern(json, JSON_STRING, stringColor, doc); // strings
+      applyPattern(json, JSON_NUMBER, numberColor, doc); // números
+      applyPattern(json, JSON_LITERAL, numberColor, doc); // boolean / null
+      applyPattern(json, JSON_BRACE, braceColor, doc);   // llaves y corchetes
+    }
   }
 
-    private void applyPattern(String text, String regex, AttributeSet style, StyledDocument doc) {
-        Pattern pattern = Pattern.compile(regex);
+    private void applyPattern(String text, Pattern pattern, AttributeSet style, StyledDocument doc) {
         Matcher matcher = pattern.matcher(text);
 
         while (matcher.find()) {
@@ -387,63 +556,351 @@ public class ParquetEditorPanel extends JPanel {
 
     private void updateButtonStates(boolean hasData) {
     if (searchButton != null) searchButton.setEnabled(hasData);
-    if (addRowButton != null) addRowButton.setEnabled(hasData);
-    if (addColumnButton != null) addColumnButton.setEnabled(hasData);
-    if (deleteColumnButton != null) deleteColumnButton.setEnabled(hasData);
-    if (deleteRowButton != null) deleteRowButton.setEnabled(hasData);
+    updateEditButtons(hasData);
+    if (copyButton != null) copyButton.setEnabled(hasData);
     if (saveAsButton != null) saveAsButton.setEnabled(hasData);
+    if (saveViewButton != null) saveViewButton.setEnabled(hasData);
+    if (savePartitionedButton != null) savePartitionedButton.setEnabled(hasData);
+    if (saveSortedButton != null) saveSortedButton.setEnabled(hasData);
+    if (exportButton != null) exportButton.setEnabled(hasData);
     if (goSchemaButton != null) goSchemaButton.setEnabled(hasData);
     if (searchField != null) searchField.setEnabled(hasData);
+    updateUndoButtons();
+  }
+
+  /** Enables the actions that change the model, unless a background worker is reading it. */
+  private void updateEditButtons(boolean hasData) {
+    boolean editable = hasData && modelReaders == 0;
+    if (addRowButton != null) addRowButton.setEnabled(editable);
+    if (addColumnButton != null) addColumnButton.setEnabled(editable);
+    if (deleteColumnButton != null) deleteColumnButton.setEnabled(editable);
+    if (bulkEditButton != null) bulkEditButton.setEnabled(editable);
+    if (pasteButton != null) pasteButton.setEnabled(editable);
+    if (deleteRowButton != null) deleteRowButton.setEnabled(editable);
+    if (deleteMatchingButton != null) deleteMatchingButton.setEnabled(editable && activeSearch() != null);
+    if (dataTable != null) dataTable.setEnabled(modelReaders == 0);
   }
 
   /**
-   * Loads a Parquet file into this editor.
+   * Marks the table model as being read by a background worker. Until the matching
+   * {@link #endModelRead()} every action that changes the model is disabled, undo and redo
+   * included, so the worker never sees rows moving under it.
+   */
+  private void beginModelRead() {
+    if (dataTable.isEditing()) {
+      dataTable.getCellEditor().stopCellEditing();
+    }
+    modelReaders++;
+    updateEditButtons(tableModel != null && !previewMode);
+    updateUndoButtons();
+  }
+
+  /** Ends a {@link #beginModelRead()} section. Called on the EDT once the worker is done. */
+  private void endModelRead() {
+    modelReaders--;
+    updateEditButtons(tableModel != null && !previewMode);
+    updateUndoButtons();
+  }
+
+  private void updateUndoButtons() {
+    boolean editable = tableModel != null && !previewMode && modelReaders == 0;
+    if (undoButton != null) {
+      undoButton.setEnabled(editable && editorService.canUndo());
+      undoButton.setToolTipText(editorService.canUndo() ? "Undo " + editorService.getJournal().getUndoName() : "Undo");
+    }
+    if (redoButton != null) {
+      redoButton.setEnabled(editable && editorService.canRedo());
+      redoButton.setToolTipText(editorService.canRedo() ? "Redo " + editorService.getJournal().getRedoName() : "Redo");
+    }
+  }
+
+  /**
+   * Loads a Parquet file into this editor with the priority of the visible tab.
    *
    * @param file the Parquet file to load
    */
   public void loadParquetFile(File file) {
-    try {
-      statusLabel.setText("Loading file...");
-      SwingWorker<ParquetData, Void> worker =
-          new SwingWorker<ParquetData, Void>() {
-            @Override
-            protected ParquetData doInBackground() throws Exception {
-              return editorService.loadParquetFile(file);
-            }
+    loadParquetFile(file, ParquetLoadScheduler.PRIORITY_VISIBLE);
+  }
 
-            @Override
-            protected void done() {
-              try {
-                ParquetData data = get();
-                tableModel = editorService.initializeTableModel(data);
-                dataTable.setModel(tableModel);
-
-                // Configure cell editor for all columns (especially needed for DATE and TIMESTAMP)
-                configureCellEditors();
-
-                rowSorter = new TableRowSorter<>(tableModel);
-                dataTable.setRowSorter(rowSorter);
-
-                updateButtonStates(true);
-                updateStatusLabel();
-
-                LOGGER.info("Loaded: " + file.getName() + " (" + data.getRows().size() + " rows)");
-                writeOriginalSchemaInPanel(data.getColumnNames(), data.getColumnTypes());
-                resetSchemaComponents();
-              } catch (Exception e) {
-                LOGGER.error("Error loading Parquet file", e);
-                Messages.showErrorDialog(
-                    "Error loading Parquet file: " + e.getMessage(), "Error");
-                statusLabel.setText("Error loading file.");
-              }
-            }
-          };
-      worker.execute();
+  /**
+   * Loads a Parquet file into this editor through the shared load scheduler.
+   * Until a loader thread is free the panel shows a queued placeholder.
+   *
+   * @param file the Parquet file to load
+   * @param priority the scheduler priority
+   */
+  public void loadParquetFile(File file, int priority) {
+    int generation = ++loadGeneration;
+    pendingFile = file;
+    pendingKey = ParquetEditorService.loadKey(file);
+    statusLabel.setText(priority == ParquetLoadScheduler.PRIORITY_VISIBLE
+        ? "Loading file..."
+        : "Queued: " + file.getName() + " (waiting for other files to load)");
+    CompletableFuture<ParquetData> load = editorService.loadParquetFileAsync(file, priority,
+        () -> SwingUtilities.invokeLater(() -> {
+          if (generation == loadGeneration) statusLabel.setText("Loading file...");
+        }));
+    pendingLoad = load;
+    load.whenComplete((data, error) -> SwingUtilities.invokeLater(() -> {
+      if (generation == loadGeneration) onFileLoaded(file, data, error);
+    }));
+  }
+
+  /**
+   * Shows a read-only preview of a Parquet file: schema, footer row count and the first
+   * rows of the first row group. The full file is only loaded when the user starts editing
+   * or asks for it with the "Load Full File" button.
+   *
+   * @param file the Parquet file to preview
+   * @param priority the scheduler priority
+   */
+  public void previewParquetFile(File file, int priority) {
+    int generation = ++loadGeneration;
+    pendingFile = file;
+    pendingKey = ParquetEditorService.previewKey(file);
+    statusLabel.setText("Loading preview...");
+    CompletableFuture<ParquetPreview> load = editorService.previewParquetFileAsync(file, Constants.PREVIEW_ROW_LIMIT, priority);
+    pendingLoad = load;
+    load.whenComplete((preview, error) -> SwingUtilities.invokeLater(() -> {
+      if (generation == loadGeneration) onPreviewLoaded(file, preview, error);
+    }));
+  }
+
+  /**
+   * Replaces the preview with the full, editable file.
+   */
+  public void promoteToFullLoad() {
+    File file = editorService.getCurrentFile();
+    if (!previewMode || file == null || isLoadPending()) {
+      return;
+    }
+    LOGGER.info("Promoting preview to full load: " + file.getName());
+    loadFullButton.setEnabled(false);
+    loadParquetFile(file, ParquetLoadScheduler.PRIORITY_VISIBLE);
+  }
+
+  /**
+   * Checks if the editor only shows a preview of the file.
+   *
+   * @return true while the table is a read-only preview
+   */
+  public boolean isPreviewMode() {
+    return previewMode;
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+  }
+
+  private void onPreviewLoaded(File file, ParquetPreview preview, Throwable error) {
+    pendingFile = null;
+    pendingKey = null;
+    pendingLoad = null;
+
+    Throwable cause = unwrap(error);
+    if (cause instanceof CancellationException) {
+      statusLabel.setText("Loading cancelled.");
+      return;
+    }
+
+    try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("preview")) {
+      if (cause != null) {
+        throw cause instanceof Exception ? (Exception) cause : new Exception(cause);
+      }
+      if (preview.isComplete()) {
+        // Small file: the preview already holds every row, no need for a second scan
+        onFileLoaded(file, preview, null);
+        return;
+      }
+
+      previewMode = true;
+      this.preview = preview;
+      tableModel = editorService.initializeTableModel(preview);
+      tableModel.setReadOnly(true);
+      dataTable.setModel(tableModel);
+      rowSorter = createRowSorter(tableModel);
+      dataTable.setRowSorter(rowSorter);
+
+      updateButtonStates(false);
+      searchButton.setEnabled(true);
+      searchField.setEnabled(true);
+      copyButton.setEnabled(true);
+      saveViewButton.setEnabled(true);
+      savePartitionedButton.setEnabled(true);
+      saveSortedButton.setEnabled(true);
+      exportButton.setEnabled(true);
+      goSchemaButton.setEnabled(true);
+      loadFullButton.setVisible(true);
+      loadFullButton.setEnabled(true);
+      updateStatusLabel();
+
+      writeOriginalSchemaInPanel(preview.getColumnNames(), preview.getColumnTypes());
+      resetSchemaComponents();
+    } catch (Exception e) {
+      LOGGER.error("Error previewing Parquet file", e);
+      Messages.showErrorDialog(
+          "Error loading Parquet file: " + e.getMessage(), "Error");
+      statusLabel.setText("Error loading file.");
+    }
+  }
+
+  private void onFileLoaded(File file, ParquetData data, Throwable error) {
+    pendingFile = null;
+    pendingKey = null;
+    pendingLoad = null;
+
+    Throwable cause = unwrap(error);
+    if (cause instanceof CancellationException) {
+      statusLabel.setText("Loading cancelled.");
+      return;
+    }
+
+    try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("load")) {
+      if (cause != null) {
+        throw cause instanceof Exception ? (Exception) cause : new Exception(cause);
+      }
+      previewMode = false;
+      preview = null;
+      loadFullButton.setVisible(false);
+
+      tableModel = editorService.initializeTableModel(data);
+      // Cell edits reach the model straight from the table: refresh undo after every change
+      tableModel.addTableModelListener(e -> updateUndoButtons());
+      PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+      int rowCount = data.getRows().size();
+      try (Stage stage = metrics.stage("load", "model_swap").rows(rowCount)) {
+        dataTable.setModel(tableModel);
+
+        // Configure cell editor for all columns (especially needed for DATE and TIMESTAMP)
+        configureCellEditors();
+
+        rowSorter = createRowSorter(tableModel);
+        dataTable.setRowSorter(rowSorter);
+      }
+      // The swap queues layout and repaint events; this one runs after them
+      long swapped = System.nanoTime();
+      SwingUtilities.invokeLater(() ->
+          metrics.record("load", "render", System.nanoTime() - swapped, rowCount, -1, -1, true));
+
+      updateButtonStates(true);
+      updateStatusLabel();
+      if (revealRow >= 0) {
+        revealRow(revealRow, revealColumn);
+      }
+
+      LOGGER.info("Loaded: " + file.getName() + " (" + data.getRows().size() + " rows)");
+      writeOriginalSchemaInPanel(data.getColumnNames(), data.getColumnTypes());
+      resetSchemaComponents();
     } catch (Exception e) {
       LOGGER.error("Error loading Parquet file", e);
-      Messages.showErrorDialog("Error loading Parquet file: " + e.getMessage(), "Error");
+      Messages.showErrorDialog(
+          "Error loading Parquet file: " + e.getMessage(), "Error");
       statusLabel.setText("Error loading file.");
+      if (previewMode) {
+        loadFullButton.setEnabled(true);
+      }
+    }
+  }
+
+  /**
+   * Selects a row of the file, by its position in the file as loaded, and scrolls to it.
+   * While the file is loading, or only previewed, the row is selected once it is loaded.
+   * Once rows were added, deleted or edited the position no longer matches the table, so
+   * the row is not selected.
+   *
+   * @param fileRow the row, from 0
+   * @param columnName the column to select, or null
+   */
+  public void revealRow(long fileRow, String columnName) {
+    if (isLoadPending() || previewMode || tableModel == null) {
+      revealRow = fileRow;
+      revealColumn = columnName;
+      return;
+    }
+    revealRow = -1;
+    revealColumn = null;
+    if (tableModel.isModified()) {
+      statusLabel.setText("Row " + (fileRow + 1) + " of the file cannot be located: the table has unsaved changes.");
+      return;
+    }
+    if (fileRow >= tableModel.getRowCount()) {
+      statusLabel.setText("Row " + (fileRow + 1) + " is past the end of the table.");
+      return;
+    }
+    int viewRow = dataTable.convertRowIndexToView((int) fileRow);
+    if (viewRow < 0) {
+      statusLabel.setText("Row " + (fileRow + 1) + " is hidden by the search.");
+      return;
     }
+    int viewColumn = 0;
+    List<String> names = tableModel.getColumnNames();
+    for (int i = 0; columnName != null && i < names.size(); i++) {
+      if (names.get(i).equalsIgnoreCase(columnName)) {
+        viewColumn = Math.max(0, dataTable.convertColumnIndexToView(i));
+        break;
+      }
+    }
+    dataTable.changeSelection(viewRow, viewColumn, false, false);
+    dataTable.scrollRectToVisible(dataTable.getCellRect(viewRow, viewColumn, true));
+  }
+
+  /**
+   * Gets the file this editor is waiting to load.
+   *
+   * @return the queued or loading file, or null if no load is pending
+   */
+  public File getPendingFile() {
+    return pendingFile;
+  }
+
+  /**
+   * Checks if a load is queued or running for this editor.
+   *
+   * @return true if a load is pending, false otherwise
+   */
+  public boolean isLoadPending() {
+    return pendingFile != null;
+  }
+
+  /**
+   * Changes the scheduler priority of the pending load, e.g. when the tab gets selected.
+   *
+   * @param priority the new scheduler priority
+   */
+  public void setLoadPriority(int priority) {
+    String key = pendingKey;
+    if (key != null) {
+      ParquetLoadScheduler.getInstance().reprioritize(key, priority);
+    }
+  }
+
+  /**
+   * Withdraws this editor's request for the pending load. The load is dropped from the queue
+   * if no other editor waits for the same file.
+   */
+  public void cancelPendingLoad() {
+    CompletableFuture<?> load = pendingLoad;
+    if (load != null) {
+      load.cancel(false);
+    }
+  }
+
+  /**
+   * Releases what the panel holds outside the heap: the queued load, a running copy and the
+   * undo data spilled to disk. Called when its tab is closed.
+   */
+  public void dispose() {
+    cancelPendingLoad();
+    if (copyWorker != null) {
+      copyWorker.cancel(true);
+    }
+    if (exportWorker != null) {
+      exportWorker.cancel(false);
+    }
+    editorService.clearHistory();
   }
 
   private void resetSchemaComponents(){
@@ -463,29 +920,67 @@ public class ParquetEditorPanel extends JPanel {
     }
 
     String text = searchField.getText();
-    if (text.trim().isEmpty()) {
-      rowSorter.setRowFilter(null);
-    } else {
-      final String searchText = text.toLowerCase();
-      rowSorter.setRowFilter(
-          new RowFilter<TableModel, Integer>() {
-            @Override
-            public boolean include(Entry<? extends TableModel, ? extends Integer> entry) {
-              for (int i = 0; i < entry.getValueCount(); i++) {
-                Object value = entry.getValue(i);
-                if (value != null && value.toString().toLowerCase().contains(searchText)) {
-                  return true;
-                }
-              }
-              return false;
-            }
-          });
+    try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("search");
+         Stage stage = PerformanceMetrics.getInstance().stage("search", "filter").rows(tableModel.getRowCount());
+         ViewOperationEvent event = new ViewOperationEvent("search", text)) {
+      rowSorter.setRowFilter(ParquetSearchFilter.forText(text));
+      event.rows(tableModel.getRowCount(), rowSorter.getViewRowCount()).completed();
     }
+    deleteMatchingButton.setEnabled(!previewMode && modelReaders == 0 && activeSearch() != null);
     updateStatusLabel();
   }
 
+  /**
+   * Gets the search currently filtering the table.
+   *
+   * @return the search filter, or null if every row is shown
+   */
+  private ParquetSearchFilter activeSearch() {
+    return rowSorter != null && rowSorter.getRowFilter() instanceof ParquetSearchFilter
+        ? (ParquetSearchFilter) rowSorter.getRowFilter()
+        : null;
+  }
+
+  /**
+   * Creates the row sorter for a model. Each sort triggered from the column headers is
+   * timed for the diagnostics view.
+   */
+  private TableRowSorter<TableModel> createRowSorter(ParquetTableModel model) {
+    TableRowSorter<TableModel> sorter = new TableRowSorter<>(model);
+    long[] sortStart = {-1};
+    ViewOperationEvent[] sortEvent = new ViewOperationEvent[1];
+    EdtWatchdog.Watch[] sortWatch = new EdtWatchdog.Watch[1];
+    sorter.addRowSorterListener(e -> {
+      if (e.getType() == RowSorterEvent.Type.SORT_ORDER_CHANGED) {
+        sortStart[0] = System.nanoTime();
+        sortEvent[0] = new ViewOperationEvent("sort", describeSortKeys(model, sorter.getSortKeys()));
+        sortWatch[0] = EdtWatchdog.getInstance().watch("sort");
+      } else if (sortStart[0] >= 0) {
+        sortWatch[0].close();
+        sortWatch[0] = null;
+        PerformanceMetrics.getInstance()
+            .record("sort", "sort", System.nanoTime() - sortStart[0], model.getRowCount(), -1, -1, true);
+        sortStart[0] = -1;
+        sortEvent[0].rows(model.getRowCount(), sorter.getViewRowCount()).completed();
+        sortEvent[0].close();
+        sortEvent[0] = null;
+      }
+    });
+    return sorter;
+  }
+
+  private static String describeSortKeys(ParquetTableModel model, java.util.List<? extends RowSorter.SortKey> keys) {
+    java.util.List<String> names = model.getColumnNames();
+    StringBuilder sb = new StringBuilder();
+    for (RowSorter.SortKey key : keys) {
+      if (sb.length() > 0) sb.append(", ");
+      sb.append(names.get(key.getColumn())).append(' ').append(key.getSortOrder());
+    }
+    return sb.toString();
+  }
+
   private void addRow() {
-    try {
+    try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("add_row")) {
       int newRowIndex = editorService.addRow();
       tableModel = editorService.getTableModel();
       
@@ -514,24 +1009,25 @@ public class ParquetEditorPanel extends JPanel {
       if (dialog.showAndGet()) {
         String columnName = dialog.getColumnName();
         String columnType = dialog.getColumnType();
+        try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("add_column")) {
+          int newColumnIndex = editorService.addColumn(columnName, columnType);
+          tableModel = editorService.getTableModel();
+
+          // Configure cell editor for the new column
+          TableCellEditor textEditor = createTextCellEditor();
+          if (newColumnIndex >= 0) {
+            dataTable.getColumnModel().getColumn(newColumnIndex).setCellEditor(textEditor);
+
+            // Scroll to the new column
+            dataTable.scrollRectToVisible(
+                dataTable.getCellRect(0, newColumnIndex, true));
+            // Select the new column header
+            dataTable.getColumnModel().getSelectionModel()
+                .setSelectionInterval(newColumnIndex, newColumnIndex);
+          }
 
-        int newColumnIndex = editorService.addColumn(columnName, columnType);
-        tableModel = editorService.getTableModel();
-
-        // Configure cell editor for the new column
-        TableCellEditor textEditor = createTextCellEditor();
-        if (newColumnIndex >= 0) {
-          dataTable.getColumnModel().getColumn(newColumnIndex).setCellEditor(textEditor);
-
-          // Scroll to the new column
-          dataTable.scrollRectToVisible(
-              dataTable.getCellRect(0, newColumnIndex, true));
-          // Select the new column header
-          dataTable.getColumnModel().getSelectionModel()
-              .setSelectionInterval(newColumnIndex, newColumnIndex);
+          updateStatusLabel();
         }
-
-        updateStatusLabel();
       }
     } catch (IllegalStateException | IllegalArgumentException e) {
       Messages.showErrorDialog(e.getMessage(), "Error");
@@ -562,12 +1058,12 @@ public class ParquetEditorPanel extends JPanel {
     // Confirm deletion
     int confirm = Messages.showYesNoDialog(
         "Are you sure you want to delete column '" + columnName + "'?\n" +
-        "This action cannot be undone.",
+        "You can restore it with Undo.",
         "Confirm Column Deletion",
         Messages.getQuestionIcon());
 
     if (confirm == Messages.YES) {
-      try {
+      try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("delete_column")) {
         editorService.deleteColumn(modelColumnIndex);
         tableModel = editorService.getTableModel();
 
@@ -598,7 +1094,7 @@ public class ParquetEditorPanel extends JPanel {
             Messages.getQuestionIcon());
 
     if (confirm == Messages.YES) {
-      try {
+      try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("delete_rows")) {
         // Convert view indices to model indices
         int[] modelIndices = new int[selectedRows.length];
         for (int i = 0; i < selectedRows.length; i++) {
@@ -633,88 +1129,718 @@ public class ParquetEditorPanel extends JPanel {
     }
   }
 
-  private void saveAsParquet() {
-    try {
-      JFileChooser fileChooser = new JFileChooser();
-      fileChooser.setDialogTitle("Save As Parquet");
-      File currentFile = editorService.getCurrentFile();
-      if (currentFile != null) {
-        fileChooser.setCurrentDirectory(currentFile.getParentFile());
-      }
-      fileChooser.setFileFilter(
-          new FileFilter() {
-            @Override
-            public boolean accept(File f) {
-              return f.isDirectory() || f.getName().toLowerCase().endsWith(".parquet");
+  private void deleteMatchingRows() {
+    ParquetSearchFilter filter = activeSearch();
+    if (filter == null) {
+      Messages.showInfoMessage("Search for the rows to delete first.", "Info");
+      return;
+    }
+    int matches = rowSorter.getViewRowCount();
+    if (matches == 0) {
+      Messages.showInfoMessage("No rows match the current search.", "Info");
+      return;
+    }
+
+    int confirm =
+        Messages.showYesNoDialog(
+            "Are you sure you want to delete all " + matches + " row(s) matching '" + searchField.getText() + "'?",
+            "Confirm Deletion",
+            Messages.getQuestionIcon());
+
+    if (confirm == Messages.YES) {
+      try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("delete_matching")) {
+        editorService.deleteRowsMatching(filter);
+        tableModel = editorService.getTableModel();
+
+        // The search would now match nothing: show the remaining rows
+        searchField.setText("");
+        rowSorter.setRowFilter(null);
+        deleteMatchingButton.setEnabled(false);
+        updateStatusLabel();
+      } catch (IllegalStateException e) {
+        Messages.showErrorDialog(e.getMessage(), "Error");
+      } catch (Exception e) {
+        LOGGER.error("Error deleting rows", e);
+        Messages.showErrorDialog("Error deleting rows: " + e.getMessage(), "Error");
+      }
+    }
+  }
+
+  private void bulkEdit() {
+    int selectedColumn = dataTable.getSelectedColumn();
+    int[] selectedRows = dataTable.getSelectedRows();
+    ParquetSearchFilter search = activeSearch();
+    BulkEditDialog dialog = new BulkEditDialog(this, tableModel.getColumnNames(),
+        selectedColumn >= 0 ? dataTable.convertColumnIndexToModel(selectedColumn) : 0,
+        selectedRows.length, search != null ? rowSorter.getViewRowCount() : -1);
+    if (!dialog.showAndGet()) {
+      return;
+    }
+
+    int[] targetRows = null;
+    if (dialog.getScope() != BulkEditDialog.Scope.ALL) {
+      // Selected or searched rows are the visible ones when a search is active
+      int[] viewRows = dialog.getScope() == BulkEditDialog.Scope.SELECTED
+          ? selectedRows
+          : IntStream.range(0, rowSorter.getViewRowCount()).toArray();
+      targetRows = new int[viewRows.length];
+      for (int i = 0; i < viewRows.length; i++) {
+        targetRows[i] = dataTable.convertRowIndexToModel(viewRows[i]);
+      }
+    }
+
+    ParquetTableModel model = tableModel;
+    int column = dialog.getColumnIndex();
+    int[] rows = targetRows;
+    statusLabel.setText("Applying bulk edit...");
+    // Expressions run in DuckDB and can take a while: keep the table still until the
+    // values are written back on the EDT
+    beginModelRead();
+    SwingWorker<ColumnEdit, Void> worker =
+        new SwingWorker<ColumnEdit, Void>() {
+          @Override
+          protected ColumnEdit doInBackground() throws Exception {
+            switch (dialog.getOperation()) {
+              case BulkEditDialog.FILL:
+                return bulkEditService.prepareFill(model, column, rows, dialog.getValue());
+              case BulkEditDialog.REPLACE:
+                return bulkEditService.prepareReplace(model, column, rows,
+                    dialog.getFindText(), dialog.getReplacement(), dialog.isRegex());
+              case BulkEditDialog.SET_NULL:
+                return bulkEditService.prepareSetNull(model, column, rows);
+              default:
+                return bulkEditService.prepareExpression(model, column, rows, dialog.getExpression());
             }
+          }
 
-            @Override
-            public String getDescription() {
-              return "Parquet Files (*.parquet)";
+          @Override
+          protected void done() {
+            endModelRead();
+            try {
+              ColumnEdit edit = get();
+              try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("bulk_edit")) {
+                bulkEditService.apply(model, edit);
+              }
+              updateStatusLabel();
+            } catch (Exception e) {
+              Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+              if (!(cause instanceof IllegalArgumentException)) {
+                LOGGER.warn("Bulk edit failed", cause);
+              }
+              Messages.showErrorDialog("Bulk edit failed: " + cause.getMessage(), "Bulk Edit");
+              updateStatusLabel();
             }
-          });
+          }
+        };
+    worker.execute();
+  }
 
-      int result = fileChooser.showSaveDialog(this);
-      if (result == JFileChooser.APPROVE_OPTION) {
-        File selectedFile = fileChooser.getSelectedFile();
-        File outputFile;
-        if (!selectedFile.getName().toLowerCase().endsWith(".parquet")) {
-          outputFile = new File(selectedFile.getPath() + ".parquet");
-        } else {
-          outputFile = selectedFile;
-        }
+  private void pasteFromClipboard() {
+    if (previewMode || tableModel == null) {
+      return;
+    }
+    String text;
+    try {
+      text = (String) Toolkit.getDefaultToolkit().getSystemClipboard().getData(DataFlavor.stringFlavor);
+    } catch (UnsupportedFlavorException | IOException | IllegalStateException e) {
+      statusLabel.setText("The clipboard does not contain text.");
+      return;
+    }
+    pasteText(text);
+  }
+
+  /**
+   * Pastes a tab- or comma-separated block at the selected cell. The cells are converted in
+   * the background and written as one undoable edit.
+   *
+   * @param text the pasted text
+   * @return false if nothing can be pasted: no editable table, no text or no selected cell
+   */
+  boolean pasteText(String text) {
+    if (previewMode || tableModel == null || text == null || text.isEmpty()) {
+      return false;
+    }
+    int viewRow = dataTable.getSelectedRow();
+    int viewColumn = dataTable.getSelectedColumn();
+    if (viewRow < 0 || viewColumn < 0) {
+      Messages.showInfoMessage("Select the cell where the pasted block should start.", "Info");
+      return false;
+    }
+
+    // Lines go to the rows below the anchor as they are shown, then to new rows at the end
+    int lines = DelimitedText.countLines(text);
+    int[] targetRows = new int[Math.min(lines, dataTable.getRowCount() - viewRow)];
+    for (int i = 0; i < targetRows.length; i++) {
+      targetRows[i] = dataTable.convertRowIndexToModel(viewRow + i);
+    }
+    int firstColumn = dataTable.convertColumnIndexToModel(viewColumn);
 
-        if (outputFile.exists()) {
-          int overwrite =
-              Messages.showYesNoDialog(
-                  "File already exists. Overwrite?",
-                  "Confirm Overwrite",
-                  Messages.getQuestionIcon());
-          if (overwrite != Messages.YES) {
-            return;
+    ParquetTableModel model = tableModel;
+    statusLabel.setText("Converting pasted cells...");
+    beginModelRead();
+    SwingWorker<PastePlan, Void> worker =
+        new SwingWorker<PastePlan, Void>() {
+          @Override
+          protected PastePlan doInBackground() {
+            return pasteService.prepare(model, text, targetRows, firstColumn);
           }
-        }
 
-        statusLabel.setText("Saving file...");
-        SwingWorker<Void, Void> saveWorker =
-            new SwingWorker<Void, Void>() {
-              @Override
-              protected Void doInBackground() throws Exception {
-                ParquetData data = tableModel.toParquetData();
-                if(schemaCheckBox.isSelected()){
-                    if( !isValidSchemaFile(editorService.getCurrentSchemaFile()) ) throw new Exception("The schema is not valid.");
-
-                    if(strictModeCheckBox.isSelected()){
-                        if(!complyStrictMode()) throw new Exception(Constants.Message.SCHEMA_AND_PARQUET_NOT_SAME_COLUMNS);
-                        LOGGER.info("writing parquet with other schema (strict mode)...");
-                    }
-                    LOGGER.warn("Saving with other schema....");
-                    editorService.saveParquetFile(outputFile, editorService.getSchemaStructureTransform());
-                }else{
-                    LOGGER.warn("Saving with same schema...");
-                    editorService.saveParquetFile(outputFile, null);
+          @Override
+          protected void done() {
+            endModelRead();
+            try {
+              PastePlan plan = get();
+              if (plan.getReport().hasErrors()) {
+                int confirm = Messages.showYesNoDialog(
+                    plan.getReport().format(20) + "\n\nPaste the other " + plan.getCellCount()
+                        + " cell(s) and leave these unchanged?",
+                    "Paste", Messages.getWarningIcon());
+                if (confirm != Messages.YES) {
+                  updateStatusLabel();
+                  return;
                 }
-                  LOGGER.info("The parquet was written.");
-
-                return null;
               }
+              try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("paste")) {
+                pasteService.apply(model, plan);
+              }
+              updateStatusLabel();
+              if (plan.getSkippedColumns() > 0) {
+                statusLabel.setText(statusLabel.getText() + " | " + plan.getSkippedColumns()
+                    + " pasted column(s) past the last column were ignored");
+              }
+            } catch (Exception e) {
+              Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+              LOGGER.warn("Paste failed", cause);
+              Messages.showErrorDialog("Paste failed: " + cause.getMessage(), "Paste");
+              updateStatusLabel();
+            }
+          }
+        };
+    worker.execute();
+    return true;
+  }
 
-              @Override
-              protected void done() {
-                try {
-                  get();
-                  statusLabel.setText("File saved: " + outputFile.getName());
-                  Messages.showInfoMessage(
-                      "File saved successfully: " + outputFile.getPath(), "Success");
-                } catch (Exception e) {
-                  LOGGER.error("Error saving Parquet file", e);
-                  Messages.showErrorDialog("Error saving file: " + e.getCause().getMessage(), "Error");
-                  statusLabel.setText("Error saving file.");
-                }
+  /**
+   * Copies the selected cells, in the order they are shown, to a clipboard. The text is
+   * rendered in the background; a copy larger than {@link Constants#COPY_LIMIT_MB} asks
+   * first. When a preview is fully selected the rows can be exported from the file instead.
+   *
+   * @param format the text format of the copy
+   * @param clipboard the clipboard receiving the text
+   */
+  void copySelection(CopyService.Format format, Clipboard clipboard) {
+    if (tableModel == null || (copyWorker != null && !copyWorker.isDone())) {
+      return;
+    }
+    int[] viewRows = dataTable.getRowSelectionAllowed()
+        ? dataTable.getSelectedRows()
+        : IntStream.range(0, dataTable.getRowCount()).toArray();
+    int[] viewColumns = dataTable.getColumnSelectionAllowed()
+        ? dataTable.getSelectedColumns()
+        : IntStream.range(0, dataTable.getColumnCount()).toArray();
+    if (viewRows.length == 0 || viewColumns.length == 0) {
+      statusLabel.setText("Select the rows to copy.");
+      return;
+    }
+    int[] rows = new int[viewRows.length];
+    for (int i = 0; i < viewRows.length; i++) {
+      rows[i] = dataTable.convertRowIndexToModel(viewRows[i]);
+    }
+    int[] columns = new int[viewColumns.length];
+    for (int i = 0; i < viewColumns.length; i++) {
+      columns[i] = dataTable.convertColumnIndexToModel(viewColumns[i]);
+    }
+    long estimate = copyService.estimateLength(tableModel, rows, columns, format);
+
+    if (previewMode && rowSorter.getRowFilter() == null && rows.length == tableModel.getRowCount()
+        && preview.getTotalRowCount() > rows.length) {
+      long total = preview.getTotalRowCount();
+      int choice = Messages.showYesNoDialog(
+          String.format("The preview shows %,d of %,d rows. Copy all %,d rows from the file?",
+              rows.length, total, total),
+          "Copy", Messages.getQuestionIcon());
+      if (choice == Messages.YES) {
+        long limit = confirmCopySize(total, estimate / rows.length * total, format);
+        if (limit >= 0) {
+          exportFromFile(format, columns, limit == total ? -1 : limit, clipboard);
+        }
+        return;
+      }
+    }
+
+    long limit = confirmCopySize(rows.length, estimate, format);
+    if (limit < 0) {
+      return;
+    }
+    int[] copiedRows = limit < rows.length ? Arrays.copyOf(rows, (int) limit) : rows;
+    ParquetTableModel model = tableModel;
+    statusLabel.setText(String.format("Copying %,d row(s) as %s...", copiedRows.length, format.getLabel()));
+    // The rows are read in the background: keep the table still until they are copied
+    beginModelRead();
+    copyButton.setEnabled(false);
+    copyWorker =
+        new SwingWorker<ClipboardText, Void>() {
+          @Override
+          protected ClipboardText doInBackground() {
+            return new ClipboardText(copyService.copy(model, copiedRows, columns, format));
+          }
+
+          @Override
+          protected void done() {
+            endModelRead();
+            finishCopy(this, clipboard, String.format("%,d row(s) as %s", copiedRows.length, format.getLabel()));
+          }
+        };
+    copyWorker.execute();
+  }
+
+  private void exportFromFile(CopyService.Format format, int[] columns, long limit, Clipboard clipboard) {
+    File file = editorService.getCurrentFile();
+    java.util.List<String> names = new ArrayList<>(columns.length);
+    for (int column : columns) {
+      names.add(tableModel.getColumnNames().get(column));
+    }
+    statusLabel.setText("Exporting " + file.getName() + " as " + format.getLabel() + "...");
+    copyButton.setEnabled(false);
+    copyWorker =
+        new SwingWorker<ClipboardText, Void>() {
+          @Override
+          protected ClipboardText doInBackground() throws Exception {
+            return new ClipboardText(copyService.exportFile(file, names, format, limit));
+          }
+
+          @Override
+          protected void done() {
+            finishCopy(this, clipboard, file.getName() + " as " + format.getLabel());
+          }
+        };
+    copyWorker.execute();
+  }
+
+  /**
+   * Asks before copying more text than the clipboard limit allows.
+   *
+   * @return the number of rows to copy, or -1 to cancel
+   */
+  private long confirmCopySize(long rowCount, long estimatedChars, CopyService.Format format) {
+    long limitChars = Constants.COPY_LIMIT_MB * 1024 * 1024;
+    if (estimatedChars <= limitChars) {
+      return rowCount;
+    }
+    long fit = Math.max(1, rowCount * limitChars / estimatedChars);
+    int choice = Messages.showDialog(
+        String.format("Copying %,d rows as %s puts about %,d MB of text on the clipboard, over the %,d MB limit.",
+            rowCount, format.getLabel(), estimatedChars / (1024 * 1024), Constants.COPY_LIMIT_MB),
+        "Copy", new String[] {String.format("Copy First %,d Rows", fit), "Copy All", "Cancel"}, 0,
+        Messages.getWarningIcon());
+    if (choice == 0) {
+      return fit;
+    }
+    return choice == 1 ? rowCount : -1;
+  }
+
+  private void finishCopy(SwingWorker<ClipboardText, Void> worker, Clipboard clipboard, String what) {
+    copyButton.setEnabled(tableModel != null);
+    try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch("copy")) {
+      ClipboardText text = worker.get();
+      clipboard.setContents(text, text);
+      updateStatusLabel();
+      statusLabel.setText("Copied " + what + " | " + statusLabel.getText());
+    } catch (CancellationException e) {
+      updateStatusLabel();
+    } catch (Exception e) {
+      Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+      LOGGER.warn("Copy failed", cause);
+      Messages.showErrorDialog("Copy failed: " + cause.getMessage(), "Copy");
+      updateStatusLabel();
+    }
+  }
+
+  private void undo() {
+    if (previewMode || tableModel == null || modelReaders > 0 || !editorService.canUndo()) {
+      return;
+    }
+    replayEdit(true);
+  }
+
+  private void redo() {
+    if (previewMode || tableModel == null || modelReaders > 0 || !editorService.canRedo()) {
+      return;
+    }
+    replayEdit(false);
+  }
+
+  private void replayEdit(boolean undo) {
+    if (dataTable.isEditing()) {
+      dataTable.getCellEditor().cancelCellEditing();
+    }
+    try (EdtWatchdog.Watch watch = EdtWatchdog.getInstance().watch(undo ? "undo" : "redo")) {
+      int columns = tableModel.getColumnCount();
+      String name = undo ? editorService.undo() : editorService.redo();
+      if (tableModel.getColumnCount() != columns) {
+        // Column changes rebuild the table columns and drop their editors
+        configureCellEditors();
+      }
+      updateUndoButtons();
+      updateStatusLabel();
+      if (name != null) {
+        statusLabel.setText((undo ? "Undone: " : "Redone: ") + name + " | " + statusLabel.getText());
+      }
+    } catch (Exception e) {
+      LOGGER.error("Error replaying edit", e);
+      Messages.showErrorDialog((undo ? "Undo" : "Redo") + " failed: " + e.getMessage(), "Error");
+    }
+  }
+
+  /**
+   * Gets the columns, search and sort order the table currently shows.
+   */
+  private ViewQuery currentView() {
+    int[] columns = new int[dataTable.getColumnCount()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = dataTable.convertColumnIndexToModel(i);
+    }
+    ParquetSearchFilter search = activeSearch();
+    return ViewQuery.fromTable(tableModel, columns, search != null ? search.getSearchText() : null,
+        rowSorter != null ? rowSorter.getSortKeys() : java.util.List.of());
+  }
+
+  private void exportView(ExportService.Format format) {
+    File source = editorService.getCurrentFile();
+    if (source == null || (exportWorker != null && !exportWorker.isDone())) {
+      return;
+    }
+    if (tableModel != null && tableModel.isModified()) {
+      int proceed = Messages.showYesNoDialog(
+          "Export reads " + source.getName() + " from disk: edits made in the editor are not included. Continue?",
+          "Export", Messages.getWarningIcon());
+      if (proceed != Messages.YES) {
+        return;
+      }
+    }
+    ViewQuery view = currentView();
+
+    JFileChooser fileChooser = new JFileChooser();
+    fileChooser.setDialogTitle("Export as " + format.getLabel());
+    fileChooser.setCurrentDirectory(source.getParentFile());
+    String baseName = source.getName().replaceFirst("\\.parquet$", "");
+    fileChooser.setSelectedFile(new File(source.getParentFile(), baseName + "." + format.getExtension()));
+    if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+    File selected = fileChooser.getSelectedFile();
+    File target = selected.getName().toLowerCase().endsWith("." + format.getExtension())
+        ? selected
+        : new File(selected.getPath() + "." + format.getExtension());
+    if (target.getAbsoluteFile().equals(source.getAbsoluteFile())) {
+      Messages.showErrorDialog("Choose a different file than the one being exported.", "Export");
+      return;
+    }
+    if (target.exists()) {
+      int overwrite = Messages.showYesNoDialog("File already exists. Overwrite?", "Confirm Overwrite",
+          Messages.getQuestionIcon());
+      if (overwrite != Messages.YES) {
+        return;
+      }
+    }
+
+    long start = System.nanoTime();
+    exportButton.setText("Cancel Export");
+    statusLabel.setText("Exporting to " + target.getName() + "...");
+    exportWorker =
+        new SwingWorker<Long, Long>() {
+          @Override
+          protected Long doInBackground() throws Exception {
+            return exportService.export(source, view, format, target, this::isCancelled, bytes -> publish(bytes));
+          }
+
+          @Override
+          protected void process(java.util.List<Long> written) {
+            if (!isDone()) {
+              statusLabel.setText(String.format("Exporting to %s: %,.1f MB written, %d s | Click Cancel Export to stop",
+                  target.getName(), written.get(written.size() - 1) / (1024.0 * 1024.0),
+                  (System.nanoTime() - start) / 1_000_000_000L));
+            }
+          }
+
+          @Override
+          protected void done() {
+            exportButton.setText("Export");
+            try {
+              long rows = get();
+              statusLabel.setText(String.format("Exported %,d row(s) to %s", rows, target.getName()));
+              Messages.showInfoMessage(String.format("Exported %,d row(s) to %s", rows, target.getPath()), "Export");
+            } catch (CancellationException e) {
+              statusLabel.setText("Export cancelled.");
+            } catch (Exception e) {
+              Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+              if (cause instanceof CancellationException) {
+                statusLabel.setText("Export cancelled.");
+                return;
               }
-            };
-        saveWorker.execute();
+              LOGGER.warn("Export failed", cause);
+              Messages.showErrorDialog("Export failed: " + cause.getMessage(), "Export");
+              updateStatusLabel();
+            }
+          }
+        };
+    exportWorker.execute();
+  }
+
+  /**
+   * Asks for a Parquet file to write, confirming before an existing file is replaced.
+   *
+   * @return the chosen file with a .parquet extension, or null if cancelled
+   */
+  private File chooseParquetOutput(String title) {
+    JFileChooser fileChooser = new JFileChooser();
+    fileChooser.setDialogTitle(title);
+    File currentFile = editorService.getCurrentFile();
+    if (currentFile != null) {
+      fileChooser.setCurrentDirectory(currentFile.getParentFile());
+    }
+    fileChooser.setFileFilter(
+        new FileFilter() {
+          @Override
+          public boolean accept(File f) {
+            return f.isDirectory() || f.getName().toLowerCase().endsWith(".parquet");
+          }
+
+          @Override
+          public String getDescription() {
+            return "Parquet Files (*.parquet)";
+          }
+        });
+
+    int result = fileChooser.showSaveDialog(this);
+    if (result != JFileChooser.APPROVE_OPTION) {
+      return null;
+    }
+    File selectedFile = fileChooser.getSelectedFile();
+    File outputFile;
+    if (!selectedFile.getName().toLowerCase().endsWith(".parquet")) {
+      outputFile = new File(selectedFile.getPath() + ".parquet");
+    } else {
+      outputFile = selectedFile;
+    }
+
+    if (outputFile.exists()) {
+      int overwrite =
+          Messages.showYesNoDialog(
+              "File already exists. Overwrite?",
+              "Confirm Overwrite",
+              Messages.getQuestionIcon());
+      if (overwrite != Messages.YES) {
+        return null;
+      }
+    }
+    return outputFile;
+  }
+
+  private void saveViewAsParquet() {
+    if (tableModel == null) {
+      return;
+    }
+    File outputFile = chooseParquetOutput("Save View As Parquet");
+    if (outputFile == null) {
+      return;
+    }
+    if (outputFile.getAbsoluteFile().equals(editorService.getCurrentFile().getAbsoluteFile())) {
+      Messages.showErrorDialog("Choose a different file than the one being edited.", "Save View");
+      return;
+    }
+
+    ViewQuery view = currentView();
+    boolean fromPreview = previewMode;
+    int[] rows = new int[dataTable.getRowCount()];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = dataTable.convertRowIndexToModel(i);
+    }
+    int[] columns = new int[dataTable.getColumnCount()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = dataTable.convertColumnIndexToModel(i);
+    }
+
+    statusLabel.setText("Saving view...");
+    // Modified rows are read from the model in the background: keep the table still
+    beginModelRead();
+    saveViewButton.setEnabled(false);
+    SwingWorker<Long, Long> worker =
+        new SwingWorker<Long, Long>() {
+          @Override
+          protected Long doInBackground() throws Exception {
+            return editorService.saveView(outputFile, view, rows, columns, fromPreview, this::isCancelled,
+                bytes -> publish(bytes));
+          }
+
+          @Override
+          protected void process(java.util.List<Long> written) {
+            statusLabel.setText(String.format("Saving view: %,.1f MB written...",
+                written.get(written.size() - 1) / (1024.0 * 1024.0)));
+          }
+
+          @Override
+          protected void done() {
+            endModelRead();
+            saveViewButton.setEnabled(true);
+            try {
+              long saved = get();
+              statusLabel.setText(String.format("View saved: %,d row(s) to %s", saved, outputFile.getName()));
+              Messages.showInfoMessage(
+                  String.format("Saved %,d row(s) to %s", saved, outputFile.getPath()), "Success");
+            } catch (Exception e) {
+              Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+              LOGGER.error("Error saving view", cause);
+              Messages.showErrorDialog("Error saving view: " + cause.getMessage(), "Error");
+              updateStatusLabel();
+            }
+          }
+        };
+    worker.execute();
+  }
+
+  /**
+   * Saves the data as a Hive-partitioned dataset in a new directory. The partition columns
+   * of the schema, e.g. those of a loaded schema file, are selected at first.
+   */
+  private void savePartitioned() {
+    SchemaStructure schema = editorService.getSchemaStructureTransform() != null
+        ? editorService.getSchemaStructureTransform() : editorService.getSchemaStructureOriginal();
+    java.util.List<String> partitions = schema != null && schema.partitions != null ? schema.partitions : java.util.List.of();
+    PartitionDialog dialog = new PartitionDialog(this, tableModel.getColumnNames(), partitions);
+    if (!dialog.showAndGet()) {
+      return;
+    }
+
+    JFileChooser fileChooser = new JFileChooser();
+    fileChooser.setDialogTitle("Save Partitioned Dataset");
+    fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+    File currentFile = editorService.getCurrentFile();
+    if (currentFile != null) {
+      fileChooser.setCurrentDirectory(currentFile.getParentFile());
+    }
+    if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+    File directory = fileChooser.getSelectedFile();
+    String[] existing = directory.list();
+    if (directory.exists() && (existing == null || existing.length > 0)) {
+      Messages.showErrorDialog("Choose a new or empty directory for the dataset.", "Save Partitioned");
+      return;
+    }
+
+    statusLabel.setText("Saving partitions...");
+    // Modified rows are read from the model in the background: keep the table still
+    beginModelRead();
+    savePartitionedButton.setEnabled(false);
+    SwingWorker<PartitionedDataset, Integer> worker =
+        new SwingWorker<PartitionedDataset, Integer>() {
+          @Override
+          protected PartitionedDataset doInBackground() throws Exception {
+            return editorService.savePartitioned(directory, dialog.getPartitionSpec(), dialog.getWriteOptions(),
+                this::isCancelled, partitionsWritten -> publish(partitionsWritten));
+          }
+
+          @Override
+          protected void process(java.util.List<Integer> written) {
+            statusLabel.setText(String.format("Saving partitions: %,d written...", written.get(written.size() - 1)));
+          }
+
+          @Override
+          protected void done() {
+            endModelRead();
+            savePartitionedButton.setEnabled(true);
+            try {
+              PartitionedDataset dataset = get();
+              statusLabel.setText(String.format("Saved %,d partition(s) to %s", dataset.getPartitionCount(), directory.getName()));
+              Messages.showInfoMessage(
+                  String.format("Saved %,d row(s) in %,d partition(s), %,d file(s), partitioned by %s, to %s",
+                      dataset.getRowCount(), dataset.getPartitionCount(), dataset.getFileCount(),
+                      String.join(", ", dataset.getSchema().partitions), directory.getPath()), "Success");
+            } catch (Exception e) {
+              Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+              LOGGER.error("Error saving partitioned dataset", cause);
+              Messages.showErrorDialog("Error saving partitioned dataset: " + cause.getMessage(), "Error");
+              updateStatusLabel();
+            }
+          }
+        };
+    worker.execute();
+  }
+
+  /**
+   * Saves the data sorted by some columns to a new file and shows how much the row-group
+   * min/max ranges overlap before and after.
+   */
+  private void saveSorted() {
+    int selectedColumn = dataTable.getSelectedColumn();
+    String initialColumn = selectedColumn >= 0
+        ? tableModel.getColumnNames().get(dataTable.convertColumnIndexToModel(selectedColumn)) : null;
+    ClusterDialog dialog = new ClusterDialog(this, tableModel.getColumnNames(), initialColumn);
+    if (!dialog.showAndGet()) {
+      return;
+    }
+    File outputFile = chooseParquetOutput("Save Sorted");
+    if (outputFile == null) {
+      return;
+    }
+    if (outputFile.getAbsoluteFile().equals(editorService.getCurrentFile().getAbsoluteFile())) {
+      Messages.showErrorDialog("Choose a different file than the one being edited.", "Save Sorted");
+      return;
+    }
+
+    statusLabel.setText("Sorting and saving...");
+    // Modified rows are read from the model in the background: keep the table still
+    beginModelRead();
+    saveSortedButton.setEnabled(false);
+    SwingWorker<ClusterReport, Void> worker =
+        new SwingWorker<ClusterReport, Void>() {
+          @Override
+          protected ClusterReport doInBackground() throws Exception {
+            return editorService.saveSorted(outputFile, dialog.getSortColumns(), dialog.getWriteOptions(), this::isCancelled);
+          }
+
+          @Override
+          protected void done() {
+            endModelRead();
+            saveSortedButton.setEnabled(true);
+            try {
+              ClusterReport report = get();
+              statusLabel.setText(String.format("Saved %,d sorted row(s) to %s", report.getRowCount(), outputFile.getName()));
+              Messages.showInfoMessage(report.format(10), "Save Sorted");
+            } catch (Exception e) {
+              Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+              LOGGER.error("Error saving sorted file", cause);
+              Messages.showErrorDialog("Error saving sorted file: " + cause.getMessage(), "Error");
+              updateStatusLabel();
+            }
+          }
+        };
+    worker.execute();
+  }
+
+  private void saveAsParquet() {
+    try {
+      File outputFile = chooseParquetOutput("Save As Parquet");
+      if (outputFile == null) {
+        return;
+      }
+      if (!schemaCheckBox.isSelected()) {
+        LOGGER.warn("Saving with same schema...");
+        writeParquet(outputFile, null);
+        return;
       }
+      if (!isValidSchemaFile(editorService.getCurrentSchemaFile())) {
+        return;
+      }
+      if (strictModeCheckBox.isSelected()) {
+        if (!complyStrictMode()) {
+          Messages.showErrorDialog(Constants.Message.SCHEMA_AND_PARQUET_NOT_SAME_COLUMNS, "Error");
+          return;
+        }
+        LOGGER.info("writing parquet with other schema (strict mode)...");
+      }
+      checkSchemaAndSave(outputFile, editorService.getSchemaStructureTransform());
     } catch (IllegalStateException e) {
       Messages.showErrorDialog(e.getMessage(), "Error");
     } catch (Exception e) {
@@ -723,6 +1849,85 @@ public class ParquetEditorPanel extends JPanel {
     }
   }
 
+  /**
+   * Runs the schema conversions once without writing, then saves, asking first when some
+   * values would be written as NULL.
+   */
+  private void checkSchemaAndSave(File outputFile, SchemaStructure schema) {
+    statusLabel.setText("Checking the schema conversions...");
+    beginModelRead();
+    saveAsButton.setEnabled(false);
+    SwingWorker<CastReport, Void> checkWorker =
+        new SwingWorker<CastReport, Void>() {
+          @Override
+          protected CastReport doInBackground() throws Exception {
+            return editorService.checkSchemaTransform(schema);
+          }
+
+          @Override
+          protected void done() {
+            // The report is only true for the model as checked: keep the table still through
+            // the confirmation until the write holds its own read
+            try {
+              CastReport report = get();
+              if (report.hasFailures()) {
+                int confirm =
+                    Messages.showYesNoDialog(
+                        report.format(10) + "\n\nSave anyway?",
+                        "Schema Conversion",
+                        Messages.getWarningIcon());
+                if (confirm != Messages.YES) {
+                  statusLabel.setText("Save cancelled.");
+                  return;
+                }
+              }
+              LOGGER.warn("Saving with other schema....");
+              writeParquet(outputFile, schema);
+            } catch (Exception e) {
+              Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+              LOGGER.error("Error checking the schema", cause);
+              Messages.showErrorDialog("Error checking the schema: " + cause.getMessage(), "Error");
+              statusLabel.setText("Error saving file.");
+            } finally {
+              endModelRead();
+              saveAsButton.setEnabled(true);
+            }
+          }
+        };
+    checkWorker.execute();
+  }
+
+  private void writeParquet(File outputFile, SchemaStructure schema) {
+    statusLabel.setText("Saving file...");
+    // The model is copied on the save thread: keep the table still until it is written
+    beginModelRead();
+    SwingWorker<Void, Void> saveWorker =
+        new SwingWorker<Void, Void>() {
+          @Override
+          protected Void doInBackground() throws Exception {
+            editorService.saveParquetFile(outputFile, schema);
+            LOGGER.info("The parquet was written.");
+            return null;
+          }
+
+          @Override
+          protected void done() {
+            endModelRead();
+            try {
+              get();
+              statusLabel.setText("File saved: " + outputFile.getName());
+              Messages.showInfoMessage(
+                  "File saved successfully: " + outputFile.getPath(), "Success");
+            } catch (Exception e) {
+              LOGGER.error("Error saving Parquet file", e);
+              Messages.showErrorDialog("Error saving file: " + e.getCause().getMessage(), "Error");
+              statusLabel.setText("Error saving file.");
+            }
+          }
+        };
+    saveWorker.execute();
+  }
+
   private TableCellEditor createTextCellEditor() {
     // Configure a text field editor for all columns
     // This is especially important for DATE and TIMESTAMP columns
@@ -769,6 +1974,17 @@ public class ParquetEditorPanel extends JPanel {
   }
 
   private void updateStatusLabel() {
+    if (previewMode && preview != null) {
+      int shown = rowSorter != null && rowSorter.getRowFilter() != null
+          ? rowSorter.getViewRowCount()
+          : preview.getRows().size();
+      statusLabel.setText(
+          String.format(
+              "Preview: %,d of %,d rows (first of %,d row groups) | File: %s | Double-click a cell or use Load Full File to edit",
+              shown, preview.getTotalRowCount(), preview.getRowGroupCount(),
+              editorService.getCurrentFile().getName()));
+      return;
+    }
     if (tableModel != null && editorService.hasFile()) {
       File currentFile = editorService.getCurrentFile();
       int rowCount = editorService.getRowCount();
@@ -0,0 +1,68 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.ui;
+
+import com.github.jhordyhuaman.parquetstudio.service.CopyService;
+import com.intellij.openapi.diagnostic.Logger;
+import java.awt.datatransfer.Clipboard;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.io.IOException;
+import javax.swing.JComponent;
+import javax.swing.TransferHandler;
+
+/**
+ * Clipboard handling of the editor table, replacing Swing's default one that builds the
+ * whole copied text cell by cell on the UI thread.
+ *
+ * <p>Copy hands the selection to the panel, which renders it in the background and puts it
+ * on the clipboard when done. Paste goes through the panel's spreadsheet paste.
+ */
+class ParquetTableTransferHandler extends TransferHandler {
+  private static final Logger LOGGER = Logger.getInstance(ParquetTableTransferHandler.class);
+
+  private final ParquetEditorPanel panel;
+
+  ParquetTableTransferHandler(ParquetEditorPanel panel) {
+    this.panel = panel;
+  }
+
+  @Override
+  public int getSourceActions(JComponent c) {
+    return COPY;
+  }
+
+  @Override
+  public void exportToClipboard(JComponent comp, Clipboard clip, int action) {
+    panel.copySelection(CopyService.Format.TSV, clip);
+  }
+
+  @Override
+  public boolean canImport(TransferSupport support) {
+    return !support.isDrop() && support.isDataFlavorSupported(DataFlavor.stringFlavor);
+  }
+
+  @Override
+  public boolean importData(TransferSupport support) {
+    if (!canImport(support)) {
+      return false;
+    }
+    try {
+      return panel.pasteText((String) support.getTransferable().getTransferData(DataFlavor.stringFlavor));
+    } catch (UnsupportedFlavorException | IOException e) {
+      LOGGER.warn("Could not read the pasted text", e);
+      return false;
+    }
+  }
+}
@@ -13,19 +13,22 @@
  */
 package com.github.jhordyhuaman.parquetstudio.ui;
 
+import com.github.jhordyhuaman.parquetstudio.factory.ParquetCatalogIndexer;
+import com.github.jhordyhuaman.parquetstudio.service.ParquetLoadScheduler;
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.IconLoader;
 import java.awt.BorderLayout;
 import java.awt.Component;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
-import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import javax.swing.*;
 import javax.swing.Box;
 import javax.swing.filechooser.FileFilter;
@@ -36,14 +39,21 @@ import javax.swing.filechooser.FileFilter;
 public class ParquetToolWindow extends JPanel {
   private static final Logger LOGGER = Logger.getInstance(ParquetToolWindow.class);
   
-  // Track files currently being opened to prevent duplicates
-  private static final Set<String> openingFiles = ConcurrentHashMap.newKeySet();
-
+  private final Project project;
   private JTabbedPane tabbedPane;
   private final Map<ParquetEditorPanel, Integer> panelToTabIndex = new HashMap<>();
   private JButton openButton;
+  private ParquetEditorPanel lastSelectedPanel;
 
   public ParquetToolWindow() {
+    this(null);
+  }
+
+  /**
+   * @param project the project whose Parquet catalog is browsed, or null for no catalog
+   */
+  public ParquetToolWindow(Project project) {
+    this.project = project;
     initializeUI();
   }
 
@@ -81,8 +91,8 @@ public class ParquetToolWindow extends JPanel {
         }
       }
     });
-    
-    
+    tabbedPane.addChangeListener(e -> onSelectedTabChanged());
+
     add(tabbedPane, BorderLayout.CENTER);
   }
 
@@ -97,6 +107,43 @@ public class ParquetToolWindow extends JPanel {
     openButton.addActionListener(e -> openParquetFile());
     toolbar.add(openButton);
 
+    // Diagnostics tab with per-stage timings
+    JButton diagnosticsButton = new JButton(AllIcons.Actions.Profile);
+    diagnosticsButton.setToolTipText("Show Diagnostics");
+    diagnosticsButton.addActionListener(e -> openDiagnosticsTab());
+    toolbar.add(diagnosticsButton);
+
+    JButton batchButton = new JButton(AllIcons.Actions.Execute);
+    batchButton.setToolTipText("Batch Schema Transform");
+    batchButton.addActionListener(e -> openBatchTab());
+    toolbar.add(batchButton);
+
+    JButton compactButton = new JButton(AllIcons.Actions.GC);
+    compactButton.setToolTipText("Compact Small Files");
+    compactButton.addActionListener(e -> openCompactionTab());
+    toolbar.add(compactButton);
+
+    JButton diffButton = new JButton(AllIcons.Actions.Diff);
+    diffButton.setToolTipText("Compare Files");
+    diffButton.addActionListener(e -> openDiffTab());
+    toolbar.add(diffButton);
+
+    JButton driftButton = new JButton(AllIcons.Actions.Find);
+    driftButton.setToolTipText("Schema Drift");
+    driftButton.addActionListener(e -> openDriftTab());
+    toolbar.add(driftButton);
+
+    JButton catalogButton = new JButton(AllIcons.Actions.Preview);
+    catalogButton.setToolTipText("Project Catalog");
+    catalogButton.setEnabled(project != null);
+    catalogButton.addActionListener(e -> openCatalogTab());
+    toolbar.add(catalogButton);
+
+    JButton searchButton = new JButton(AllIcons.Actions.Search);
+    searchButton.setToolTipText("Find Value in Files");
+    searchButton.addActionListener(e -> openValueSearchTab());
+    toolbar.add(searchButton);
+
     return toolbar;
   }
 
@@ -119,7 +166,123 @@ public class ParquetToolWindow extends JPanel {
     int result = fileChooser.showOpenDialog(this);
     if (result == JFileChooser.APPROVE_OPTION) {
       File selectedFile = fileChooser.getSelectedFile();
-      openParquetFileInTab(selectedFile);
+      openParquetFileInTab(selectedFile, false);
+    }
+  }
+
+  /**
+   * Opens the diagnostics tab, or switches to it if it is already open.
+   */
+  public void openDiagnosticsTab() {
+    openToolTab(DiagnosticsPanel.class, DiagnosticsPanel::new,
+        "Diagnostics", AllIcons.Actions.Profile, "Per-stage timings and counters");
+  }
+
+  /**
+   * Opens the batch schema transform tab, or switches to it if it is already open.
+   */
+  public void openBatchTab() {
+    openToolTab(BatchTransformPanel.class, BatchTransformPanel::new,
+        "Batch Transform", AllIcons.Actions.Execute, "Rewrite many files with a schema");
+  }
+
+  /**
+   * Opens the small-file compaction tab, or switches to it if it is already open.
+   */
+  public void openCompactionTab() {
+    openToolTab(CompactionPanel.class, CompactionPanel::new,
+        "Compact Files", AllIcons.Actions.GC, "Rewrite small files into target-sized files");
+  }
+
+  /**
+   * Opens the file comparison tab, or switches to it if it is already open. A new tab offers
+   * the files of the open editor tabs as the two sides.
+   */
+  public void openDiffTab() {
+    openToolTab(DiffPanel.class, () -> new DiffPanel(getOpenFiles()),
+        "Compare", AllIcons.Actions.Diff, "Row-level comparison of two files");
+  }
+
+  /**
+   * Opens the schema drift tab, or switches to it if it is already open.
+   */
+  public void openDriftTab() {
+    openToolTab(SchemaDriftPanel.class, SchemaDriftPanel::new,
+        "Schema Drift", AllIcons.Actions.Find, "Schemas of many files against a reference");
+  }
+
+  /**
+   * Opens the project catalog tab, or switches to it if it is already open. Starts indexing
+   * the project if the startup activity has not done it yet.
+   */
+  public void openCatalogTab() {
+    openToolTab(CatalogPanel.class, () -> {
+      ParquetCatalogIndexer indexer = ParquetCatalogIndexer.getInstance(project);
+      indexer.start();
+      return new CatalogPanel(indexer.getCatalog(), indexer::rescan, this::openFileInTab);
+    }, "Catalog", AllIcons.Actions.Preview, "Parquet files of the project by column and type");
+  }
+
+  /**
+   * Opens the value search tab, or switches to it if it is already open. With a project, files
+   * its catalog knows to lack the column are skipped without being opened.
+   */
+  public void openValueSearchTab() {
+    openToolTab(ValueSearchPanel.class, () -> new ValueSearchPanel(
+            project != null ? ParquetCatalogIndexer.getInstance(project).getCatalog() : null,
+            (hit, column) -> openFileAtRow(hit.getFile(), hit.getRow(), column)),
+        "Find Value", AllIcons.Actions.Search, "Rows holding a value across many files");
+  }
+
+  /**
+   * Switches to the tab of a tool panel, or creates the panel and opens it in a new tab.
+   *
+   * @param type the class of the panel, of which at most one tab is open
+   * @param factory creates the panel when no tab of its class is open
+   */
+  private <T extends JComponent & ToolPanel> void openToolTab(Class<T> type, Supplier<T> factory, String title,
+                                                              Icon icon, String tip) {
+    for (int i = 0; i < tabbedPane.getTabCount(); i++) {
+      if (type.isInstance(tabbedPane.getComponentAt(i))) {
+        tabbedPane.setSelectedIndex(i);
+        return;
+      }
+    }
+    T panel = factory.get();
+    tabbedPane.addTab(title + "  ×", icon, panel, tip);
+    tabbedPane.setSelectedComponent(panel);
+  }
+
+  /**
+   * Gets the files of the editor tabs, including those whose load is still queued.
+   */
+  private List<File> getOpenFiles() {
+    List<File> openFiles = new ArrayList<>();
+    for (int i = 0; i < tabbedPane.getTabCount(); i++) {
+      Component component = tabbedPane.getComponentAt(i);
+      if (component instanceof ParquetEditorPanel) {
+        ParquetEditorPanel panel = (ParquetEditorPanel) component;
+        File file = panel.isLoadPending() ? panel.getPendingFile() : panel.getCurrentFile();
+        if (file != null) {
+          openFiles.add(file);
+        }
+      }
+    }
+    return openFiles;
+  }
+
+  /**
+   * Opens a Parquet file in a tab, or switches to its tab, and selects a row once it is loaded.
+   *
+   * @param file the file to open
+   * @param row the row, by its position in the file, from 0
+   * @param column the column to select, or null
+   */
+  public void openFileAtRow(File file, long row, String column) {
+    openParquetFileInTab(file, false);
+    ParquetEditorPanel panel = getEditorPanelAt(findTabIndex(getNormalizedPath(file)));
+    if (panel != null) {
+      panel.revealRow(row, column);
     }
   }
 
@@ -130,128 +293,97 @@ public class ParquetToolWindow extends JPanel {
    * @return the normalized path
    */
   private String getNormalizedPath(File file) {
-    try {
-      return file.getCanonicalPath();
-    } catch (IOException e) {
-      return file.getAbsolutePath();
+    return ParquetLoadScheduler.canonicalKey(file);
+  }
+
+  /**
+   * Finds the tab showing a file, including tabs whose load is still queued.
+   *
+   * @param filePath the normalized path of the file
+   * @return the tab index, or -1 if the file is not open
+   */
+  private int findTabIndex(String filePath) {
+    for (int i = 0; i < tabbedPane.getTabCount(); i++) {
+      Component component = tabbedPane.getComponentAt(i);
+      if (component instanceof ParquetEditorPanel) {
+        ParquetEditorPanel panel = (ParquetEditorPanel) component;
+        File panelFile = panel.isLoadPending() ? panel.getPendingFile() : panel.getCurrentFile();
+        if (panelFile != null && getNormalizedPath(panelFile).equals(filePath)) {
+          return i;
+        }
+      }
     }
+    return -1;
   }
 
   /**
    * Opens a Parquet file in a new tab. If the file is already open, switches to that tab.
+   * The tab is added right away as a queued placeholder; the load itself runs on the
+   * {@link ParquetLoadScheduler}, with the selected tab ahead of the others.
    *
    * @param file the Parquet file to open
+   * @param preview true to only show a read-only preview until the user starts editing
    */
-  private void openParquetFileInTab(File file) {
-    // Get normalized file path for tracking (must be final for lambda)
+  private void openParquetFileInTab(File file, boolean preview) {
+    // Tabs are only touched on the EDT, so no extra locking is needed here
+    if (!SwingUtilities.isEventDispatchThread()) {
+      SwingUtilities.invokeLater(() -> openParquetFileInTab(file, preview));
+      return;
+    }
+
     final String filePath = getNormalizedPath(file);
-    
-    // Synchronize to prevent concurrent openings
-    synchronized (ParquetToolWindow.class) {
-      // Check if file is currently being opened
-      if (openingFiles.contains(filePath)) {
-        LOGGER.info("File is already being opened, skipping: " + file.getName());
-        return;
-      }
-      
-      // Check if file is already open in a tab
-      for (int i = 0; i < tabbedPane.getTabCount(); i++) {
-        Component component = tabbedPane.getComponentAt(i);
-        if (component instanceof ParquetEditorPanel) {
-          ParquetEditorPanel panel = (ParquetEditorPanel) component;
-          if (panel.hasFile()) {
-            File currentFile = panel.getCurrentFile();
-            if (currentFile != null) {
-              try {
-                String currentFilePath = currentFile.getCanonicalPath();
-                if (currentFilePath.equals(filePath)) {
-                  // File already open, switch to that tab
-                  tabbedPane.setSelectedIndex(i);
-                  LOGGER.info("File already open, switching to existing tab: " + file.getName());
-                  return;
-                }
-              } catch (IOException e) {
-                // If canonical path fails, fall back to equals
-                if (currentFile.equals(file)) {
-                  tabbedPane.setSelectedIndex(i);
-                  LOGGER.info("File already open, switching to existing tab: " + file.getName());
-                  return;
-                }
-              }
-            }
-          }
-        }
+    int existingTab = findTabIndex(filePath);
+    if (existingTab >= 0) {
+      tabbedPane.setSelectedIndex(existingTab);
+      LOGGER.info("File already open, switching to existing tab: " + file.getName());
+      ParquetEditorPanel panel = getEditorPanelAt(existingTab);
+      if (!preview && panel != null && panel.isPreviewMode()) {
+        panel.promoteToFullLoad();
       }
-      
-      // Mark file as being opened
-      openingFiles.add(filePath);
+      return;
     }
-    
+
     try {
-      // Create new editor panel
+      // Queue as background first; selecting the tab raises it to the visible priority
       ParquetEditorPanel editorPanel = new ParquetEditorPanel();
-      editorPanel.loadParquetFile(file);
-
-      // Add to tabbed pane (must be on EDT)
-      SwingUtilities.invokeLater(() -> {
-        synchronized (ParquetToolWindow.class) {
-          // Double-check after loading (file might have been opened by another thread)
-          for (int i = 0; i < tabbedPane.getTabCount(); i++) {
-            Component component = tabbedPane.getComponentAt(i);
-            if (component instanceof ParquetEditorPanel) {
-              ParquetEditorPanel panel = (ParquetEditorPanel) component;
-              if (panel.hasFile()) {
-                File currentFile = panel.getCurrentFile();
-                if (currentFile != null) {
-                  try {
-                    String currentFilePath = currentFile.getCanonicalPath();
-                    if (currentFilePath.equals(filePath)) {
-                      // File was opened by another thread, just switch to it
-                      tabbedPane.setSelectedIndex(i);
-                      openingFiles.remove(filePath);
-                      LOGGER.info("File opened by another thread, switching to existing tab: " + file.getName());
-                      return;
-                    }
-                  } catch (IOException e) {
-                    if (currentFile.equals(file)) {
-                      tabbedPane.setSelectedIndex(i);
-                      openingFiles.remove(filePath);
-                      LOGGER.info("File opened by another thread, switching to existing tab: " + file.getName());
-                      return;
-                    }
-                  }
-                }
-              }
-            }
-          }
-          
-          // Add to tabbed pane
-          String tabTitle = file.getName();
-          int tabIndex = tabbedPane.getTabCount();
-          // Add tab with title that includes close indicator
-          // Format: "filename [×]" where × is the close indicator
-          String tabTitleWithClose = tabTitle + "  ×";
-          tabbedPane.addTab(tabTitleWithClose, null, editorPanel, file.getAbsolutePath());
-          tabbedPane.setSelectedIndex(tabIndex);
-          
-          // Store mapping
-          panelToTabIndex.put(editorPanel, tabIndex);
-          
-          // Remove from opening set
-          openingFiles.remove(filePath);
-
-          LOGGER.info("Opened file in new tab: " + file.getName());
-        }
-      });
-    } catch (Exception e) {
-      // Remove from opening set on error
-      synchronized (ParquetToolWindow.class) {
-        openingFiles.remove(filePath);
+      if (preview) {
+        editorPanel.previewParquetFile(file, ParquetLoadScheduler.PRIORITY_BACKGROUND);
+      } else {
+        editorPanel.loadParquetFile(file, ParquetLoadScheduler.PRIORITY_BACKGROUND);
       }
+
+      // Add tab with title that includes close indicator
+      // Format: "filename [×]" where × is the close indicator
+      String tabTitleWithClose = file.getName() + "  ×";
+      int tabIndex = tabbedPane.getTabCount();
+      tabbedPane.addTab(tabTitleWithClose, null, editorPanel, file.getAbsolutePath());
+      tabbedPane.setSelectedIndex(tabIndex);
+      panelToTabIndex.put(editorPanel, tabIndex);
+
+      LOGGER.info("Opened file in new tab: " + file.getName());
+    } catch (Exception e) {
       LOGGER.error("Error opening file: " + file.getName(), e);
     }
   }
 
+  /**
+   * Gives the selected tab's pending load the visible priority and sends the previously
+   * selected one back to the queue.
+   */
+  private void onSelectedTabChanged() {
+    Component selected = tabbedPane.getSelectedComponent();
+    if (selected == lastSelectedPanel) {
+      return;
+    }
+    if (lastSelectedPanel != null && lastSelectedPanel.isLoadPending()) {
+      lastSelectedPanel.setLoadPriority(ParquetLoadScheduler.PRIORITY_BACKGROUND);
+    }
+    lastSelectedPanel = selected instanceof ParquetEditorPanel ? (ParquetEditorPanel) selected : null;
+    if (lastSelectedPanel != null && lastSelectedPanel.isLoadPending()) {
+      lastSelectedPanel.setLoadPriority(ParquetLoadScheduler.PRIORITY_VISIBLE);
+    }
+  }
+
   /**
    * Closes a tab at the specified index.
    *
@@ -265,7 +397,10 @@ public class ParquetToolWindow extends JPanel {
     Component component = tabbedPane.getComponentAt(tabIndex);
     if (component instanceof ParquetEditorPanel) {
       ParquetEditorPanel panel = (ParquetEditorPanel) component;
-      
+
+      // Drop the load if it is still waiting in the queue, and the undo history
+      panel.dispose();
+
       // Remove from mapping
       panelToTabIndex.remove(panel);
       
@@ -279,6 +414,10 @@ public class ParquetToolWindow extends JPanel {
       updateTabMappings();
       
       LOGGER.info("Closed tab: " + panel.getDisplayName());
+    } else if (component instanceof ToolPanel) {
+      ((ToolPanel) component).dispose();
+      tabbedPane.removeTabAt(tabIndex);
+      updateTabMappings();
     }
   }
 
@@ -357,7 +496,17 @@ public class ParquetToolWindow extends JPanel {
    * @param file the file to open
    */
   public void openFileInTab(File file) {
-    openParquetFileInTab(file);
+    openParquetFileInTab(file, false);
+  }
+
+  /**
+   * Opens a read-only preview of a Parquet file in a tab. The full file is loaded once the
+   * user starts editing or opens the file explicitly.
+   *
+   * @param file the file to preview
+   */
+  public void previewFileInTab(File file) {
+    openParquetFileInTab(file, true);
   }
 
 }
@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.ui;
+
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.github.jhordyhuaman.parquetstudio.model.PartitionSpec;
+import com.github.jhordyhuaman.parquetstudio.service.PartitionedWriteService;
+import com.intellij.openapi.ui.DialogWrapper;
+import java.awt.*;
+import java.util.List;
+import javax.swing.*;
+
+/**
+ * Dialog for saving a table as a Hive-partitioned dataset: the partition columns, in
+ * directory order, the size of the files in each partition and the writer settings.
+ */
+public class PartitionDialog extends DialogWrapper {
+  private final List<String> columnNames;
+  private final List<String> initialPartitions;
+
+  private JList<String> columnList;
+  private JSpinner fileSizeSpinner;
+  private JSpinner writersSpinner;
+  private JComboBox<ParquetWriteOptions.Compression> compressionComboBox;
+  private JSpinner rowGroupSpinner;
+
+  /**
+   * @param columnNames the plain column names
+   * @param initialPartitions the columns selected at first, e.g. the partitions of the schema
+   */
+  public PartitionDialog(Component parent, List<String> columnNames, List<String> initialPartitions) {
+    super(parent, true);
+    this.columnNames = columnNames;
+    this.initialPartitions = initialPartitions;
+    setTitle("Save Partitioned");
+    init();
+  }
+
+  @Override
+  protected JComponent createCenterPanel() {
+    JPanel panel = new JPanel(new GridBagLayout());
+    GridBagConstraints gbc = new GridBagConstraints();
+    gbc.insets = new Insets(5, 5, 5, 5);
+    gbc.anchor = GridBagConstraints.NORTHWEST;
+
+    // Partition columns; directories nest in table column order
+    gbc.gridx = 0;
+    gbc.gridy = 0;
+    panel.add(new JLabel("Partition by:"), gbc);
+
+    gbc.gridx = 1;
+    gbc.fill = GridBagConstraints.BOTH;
+    gbc.weightx = 1.0;
+    gbc.weighty = 1.0;
+    columnList = new JList<>(columnNames.toArray(new String[0]));
+    columnList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+    columnList.setToolTipText("Ctrl+click to select several columns; directories nest in table column order");
+    int[] selected = initialPartitions.stream().mapToInt(columnNames::indexOf).filter(i -> i >= 0).toArray();
+    columnList.setSelectedIndices(selected);
+    panel.add(new JScrollPane(columnList), gbc);
+
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    gbc.weighty = 0;
+    gbc.anchor = GridBagConstraints.WEST;
+    fileSizeSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 1 << 20, 16));
+    fileSizeSpinner.setToolTipText("Start a new file in a partition past this size; 0 writes one file per partition");
+    addRow(panel, gbc, 1, "Max file size (MB):", fileSizeSpinner);
+    writersSpinner = new JSpinner(new SpinnerNumberModel(PartitionedWriteService.defaultWriters(), 1, 64, 1));
+    writersSpinner.setToolTipText("Partitions written at the same time");
+    addRow(panel, gbc, 2, "Writers:", writersSpinner);
+    compressionComboBox = new JComboBox<>(ParquetWriteOptions.Compression.values());
+    addRow(panel, gbc, 3, "Compression:", compressionComboBox);
+    rowGroupSpinner = new JSpinner(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 10_000));
+    rowGroupSpinner.setToolTipText("Rows per row group, 0 for the DuckDB default");
+    addRow(panel, gbc, 4, "Row group size:", rowGroupSpinner);
+
+    panel.setPreferredSize(new Dimension(420, 300));
+    return panel;
+  }
+
+  private void addRow(JPanel panel, GridBagConstraints gbc, int row, String label, JComponent field) {
+    gbc.gridx = 0;
+    gbc.gridy = row;
+    panel.add(new JLabel(label), gbc);
+    gbc.gridx = 1;
+    panel.add(field, gbc);
+  }
+
+  @Override
+  protected void doOKAction() {
+    List<String> columns = columnList.getSelectedValuesList();
+    if (columns.isEmpty()) {
+      JOptionPane.showMessageDialog(
+          getContentPanel(),
+          "Select at least one partition column.",
+          "Validation Error",
+          JOptionPane.ERROR_MESSAGE);
+      return;
+    }
+    if (columns.size() == columnNames.size()) {
+      JOptionPane.showMessageDialog(
+          getContentPanel(),
+          "At least one column must not be a partition column.",
+          "Validation Error",
+          JOptionPane.ERROR_MESSAGE);
+      return;
+    }
+    super.doOKAction();
+  }
+
+  public PartitionSpec getPartitionSpec() {
+    return new PartitionSpec(columnList.getSelectedValuesList(),
+        ((Number) fileSizeSpinner.getValue()).longValue() * 1024 * 1024, (Integer) writersSpinner.getValue());
+  }
+
+  public ParquetWriteOptions getWriteOptions() {
+    return new ParquetWriteOptions((ParquetWriteOptions.Compression) compressionComboBox.getSelectedItem(),
+        ((Number) rowGroupSpinner.getValue()).longValue());
+  }
+}
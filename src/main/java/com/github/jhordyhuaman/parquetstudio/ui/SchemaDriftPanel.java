@@ -0,0 +1,290 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.ui;
+
+import com.github.jhordyhuaman.parquetstudio.model.DriftReport;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaChange;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.github.jhordyhuaman.parquetstudio.service.BatchTransformService;
+import com.github.jhordyhuaman.parquetstudio.service.SchemaDriftService;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.ui.table.JBTable;
+import java.awt.BorderLayout;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Tab running a {@link SchemaDriftService} scan: the schemas found in the footers of a
+ * directory or glob, one row per schema, with the changes against a reference.
+ */
+public class SchemaDriftPanel extends JPanel implements ToolPanel {
+  private static final Logger LOGGER = Logger.getInstance(SchemaDriftPanel.class);
+  private static final int LISTED_FILES = 500;
+
+  private final GroupTableModel groupModel = new GroupTableModel();
+  private final AtomicBoolean cancelled = new AtomicBoolean(false);
+  private JTextField sourceField;
+  private JTextField referenceField;
+  private JButton scanButton;
+  private JButton cancelButton;
+  private JBTable groupTable;
+  private JTextArea detailsArea;
+  private JLabel summaryLabel;
+
+  public SchemaDriftPanel() {
+    initializeUI();
+  }
+
+  private void initializeUI() {
+    setLayout(new BorderLayout());
+
+    JPanel form = new JPanel(new GridBagLayout());
+    GridBagConstraints gbc = new GridBagConstraints();
+    gbc.insets = new Insets(5, 5, 5, 5);
+    gbc.anchor = GridBagConstraints.WEST;
+
+    sourceField = new JTextField(40);
+    sourceField.setToolTipText("A directory (searched recursively) or a glob, e.g. /data/events/**/*.parquet");
+    addRow(form, gbc, 0, "Files:", sourceField, JFileChooser.DIRECTORIES_ONLY);
+    referenceField = new JTextField(40);
+    referenceField.setToolTipText("A .schema/.json schema file or a Parquet file; empty to compare with the schema most files have");
+    addRow(form, gbc, 1, "Reference:", referenceField, JFileChooser.FILES_ONLY);
+
+    JPanel buttons = new JPanel();
+    buttons.setLayout(new BoxLayout(buttons, BoxLayout.X_AXIS));
+    scanButton = new JButton("Scan", AllIcons.Actions.Find);
+    scanButton.addActionListener(e -> runScan());
+    cancelButton = new JButton("Cancel", AllIcons.Actions.Cancel);
+    cancelButton.setEnabled(false);
+    cancelButton.addActionListener(e -> cancelled.set(true));
+    buttons.add(scanButton);
+    buttons.add(cancelButton);
+    gbc.gridx = 0;
+    gbc.gridy = 2;
+    gbc.gridwidth = 3;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    form.add(buttons, gbc);
+    add(form, BorderLayout.NORTH);
+
+    groupTable = new JBTable(groupModel);
+    groupTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    groupTable.getSelectionModel().addListSelectionListener(e -> {
+      if (!e.getValueIsAdjusting()) {
+        showDetails();
+      }
+    });
+    detailsArea = new JTextArea();
+    detailsArea.setEditable(false);
+    JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(groupTable), new JScrollPane(detailsArea));
+    split.setResizeWeight(0.5);
+    add(split, BorderLayout.CENTER);
+
+    summaryLabel = new JLabel("Pick the files to scan and, optionally, the reference schema.");
+    summaryLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+    add(summaryLabel, BorderLayout.SOUTH);
+  }
+
+  private void addRow(JPanel form, GridBagConstraints gbc, int row, String label, JTextField field, int selectionMode) {
+    gbc.gridx = 0;
+    gbc.gridy = row;
+    gbc.gridwidth = 1;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    form.add(new JLabel(label), gbc);
+
+    gbc.gridx = 1;
+    gbc.fill = GridBagConstraints.HORIZONTAL;
+    gbc.weightx = 1.0;
+    form.add(field, gbc);
+
+    gbc.gridx = 2;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    JButton browse = new JButton("...");
+    browse.addActionListener(e -> {
+      JFileChooser chooser = new JFileChooser(field.getText().isEmpty() ? null : new File(field.getText()));
+      chooser.setFileSelectionMode(selectionMode);
+      if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+        field.setText(chooser.getSelectedFile().getAbsolutePath());
+      }
+    });
+    form.add(browse, gbc);
+  }
+
+  private void runScan() {
+    String source = sourceField.getText().trim();
+    String referencePath = referenceField.getText().trim();
+    if (source.isEmpty()) {
+      Messages.showErrorDialog("Select the files to scan.", "Schema Drift");
+      return;
+    }
+    SchemaDriftService service = new SchemaDriftService();
+
+    cancelled.set(false);
+    groupModel.setReport(null);
+    detailsArea.setText("");
+    scanButton.setEnabled(false);
+    cancelButton.setEnabled(true);
+    summaryLabel.setText("Finding files...");
+    SwingWorker<DriftReport, Void> worker =
+        new SwingWorker<DriftReport, Void>() {
+          @Override
+          protected DriftReport doInBackground() throws Exception {
+            SchemaStructure reference = null;
+            String referenceName = null;
+            if (!referencePath.isEmpty()) {
+              File referenceFile = new File(referencePath);
+              reference = service.loadReference(referenceFile);
+              referenceName = referenceFile.getName();
+            }
+            List<File> files = BatchTransformService.findFiles(source);
+            return service.scan(files, reference, referenceName,
+                done -> {
+                  if (done % 100 == 0 || done == files.size()) {
+                    SwingUtilities.invokeLater(() -> summaryLabel.setText(
+                        String.format("Read %,d of %,d footer(s)...", done, files.size())));
+                  }
+                },
+                cancelled::get);
+          }
+
+          @Override
+          protected void done() {
+            scanButton.setEnabled(true);
+            cancelButton.setEnabled(false);
+            try {
+              DriftReport report = get();
+              groupModel.setReport(report);
+              summaryLabel.setText(report.format(0));
+              if (groupModel.getRowCount() > 0) {
+                groupTable.setRowSelectionInterval(0, 0);
+              }
+            } catch (Exception e) {
+              Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+              if (cause instanceof CancellationException) {
+                summaryLabel.setText("Scan cancelled.");
+                return;
+              }
+              LOGGER.warn("Schema scan failed", cause);
+              Messages.showErrorDialog("Schema scan failed: " + cause.getMessage(), "Schema Drift");
+              summaryLabel.setText("Schema scan failed.");
+            }
+          }
+        };
+    worker.execute();
+  }
+
+  private void showDetails() {
+    int row = groupTable.getSelectedRow();
+    if (row < 0) {
+      detailsArea.setText("");
+      return;
+    }
+    StringBuilder sb = new StringBuilder();
+    DriftReport report = groupModel.report;
+    if (row >= report.getGroups().size()) {
+      report.getFailures().forEach((file, error) -> sb.append(file.getPath()).append(": ").append(error).append('\n'));
+    } else {
+      DriftReport.Group group = report.getGroups().get(row);
+      if (group.isDrifting()) {
+        sb.append("Changes from ").append(report.getReferenceName()).append(":\n");
+        for (SchemaChange change : group.getChanges()) {
+          sb.append("  ").append(change).append('\n');
+        }
+      } else {
+        sb.append("Same as ").append(report.getReferenceName()).append(".\n");
+      }
+      sb.append('\n').append(group.getFiles().size()).append(" file(s):\n");
+      for (File file : group.getFiles().subList(0, Math.min(LISTED_FILES, group.getFiles().size()))) {
+        sb.append("  ").append(file.getPath()).append('\n');
+      }
+      if (group.getFiles().size() > LISTED_FILES) {
+        sb.append("  ... and ").append(group.getFiles().size() - LISTED_FILES).append(" more\n");
+      }
+    }
+    detailsArea.setText(sb.toString());
+    detailsArea.setCaretPosition(0);
+  }
+
+  /**
+   * Stops a running scan after the footers being read. Called when the tab is closed.
+   */
+  @Override
+  public void dispose() {
+    cancelled.set(true);
+  }
+
+  /**
+   * One row per schema, largest group first, and a last row for the unreadable files.
+   */
+  private static final class GroupTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"Schema", "Files", "Columns", "Changes", "Example"};
+    private DriftReport report;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    void setReport(DriftReport report) {
+      this.report = report;
+      rows.clear();
+      if (report != null) {
+        for (DriftReport.Group group : report.getGroups()) {
+          rows.add(new Object[] {group.getFingerprint(), group.getFiles().size(), group.getSchema().fields.size(),
+              group.isDrifting() ? group.describeChanges() : "none", group.getFiles().get(0).getPath()});
+        }
+        if (!report.getFailures().isEmpty()) {
+          File first = report.getFailures().keySet().iterator().next();
+          rows.add(new Object[] {"unreadable", report.getFailures().size(), null,
+              report.getFailures().get(first), first.getPath()});
+        }
+      }
+      fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+      return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+      return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+      return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+      return column == 1 || column == 2 ? Number.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+      return rows.get(row)[column];
+    }
+  }
+}
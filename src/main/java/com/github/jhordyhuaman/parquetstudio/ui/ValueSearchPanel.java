@@ -0,0 +1,269 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio.ui;
+
+import com.github.jhordyhuaman.parquetstudio.model.ValueSearchReport;
+import com.github.jhordyhuaman.parquetstudio.service.BatchTransformService;
+import com.github.jhordyhuaman.parquetstudio.service.ParquetCatalog;
+import com.github.jhordyhuaman.parquetstudio.service.ValueSearchService;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.ui.table.JBTable;
+import java.awt.BorderLayout;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Tab running a {@link ValueSearchService} search: the rows of a directory or glob holding a
+ * value, or a value in a range, in one column. Double-clicking a hit opens its file at the row.
+ */
+public class ValueSearchPanel extends JPanel implements ToolPanel {
+  private static final Logger LOGGER = Logger.getInstance(ValueSearchPanel.class);
+  private static final int MAX_HITS = 1000;
+
+  private final ParquetCatalog catalog;
+  private final BiConsumer<ValueSearchReport.Hit, String> opener;
+  private final HitTableModel hitModel = new HitTableModel();
+  private final AtomicBoolean cancelled = new AtomicBoolean(false);
+  private JTextField sourceField;
+  private JTextField columnField;
+  private JTextField fromField;
+  private JTextField toField;
+  private JButton searchButton;
+  private JButton cancelButton;
+  private JBTable hitTable;
+  private JLabel summaryLabel;
+  private String searchedColumn;
+
+  /**
+   * @param catalog the project catalog, used to skip files without the column, or null
+   * @param opener opens the file of a hit at its row, with the searched column
+   */
+  public ValueSearchPanel(ParquetCatalog catalog, BiConsumer<ValueSearchReport.Hit, String> opener) {
+    this.catalog = catalog;
+    this.opener = opener;
+    initializeUI();
+  }
+
+  private void initializeUI() {
+    setLayout(new BorderLayout());
+
+    JPanel form = new JPanel(new GridBagLayout());
+    GridBagConstraints gbc = new GridBagConstraints();
+    gbc.insets = new Insets(5, 5, 5, 5);
+    gbc.anchor = GridBagConstraints.WEST;
+
+    sourceField = new JTextField(40);
+    sourceField.setToolTipText("A directory (searched recursively) or a glob, e.g. /data/orders/**/*.parquet");
+    addRow(form, gbc, 0, "Files:", sourceField, true);
+    columnField = new JTextField(40);
+    columnField.setToolTipText("A top-level column, e.g. order_id");
+    addRow(form, gbc, 1, "Column:", columnField, false);
+    fromField = new JTextField(40);
+    fromField.setToolTipText("The value to find, or the lowest value of a range; empty for no lower bound");
+    addRow(form, gbc, 2, "Value / from:", fromField, false);
+    toField = new JTextField(40);
+    toField.setToolTipText("The highest value of a range, included; empty to find the value above. Use * for no upper bound");
+    addRow(form, gbc, 3, "To:", toField, false);
+
+    JPanel buttons = new JPanel();
+    buttons.setLayout(new BoxLayout(buttons, BoxLayout.X_AXIS));
+    searchButton = new JButton("Search", AllIcons.Actions.Search);
+    searchButton.addActionListener(e -> runSearch());
+    cancelButton = new JButton("Cancel", AllIcons.Actions.Cancel);
+    cancelButton.setEnabled(false);
+    cancelButton.addActionListener(e -> cancelled.set(true));
+    buttons.add(searchButton);
+    buttons.add(cancelButton);
+    gbc.gridx = 0;
+    gbc.gridy = 4;
+    gbc.gridwidth = 3;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    form.add(buttons, gbc);
+    add(form, BorderLayout.NORTH);
+
+    hitTable = new JBTable(hitModel);
+    hitTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    hitTable.addMouseListener(new MouseAdapter() {
+      @Override
+      public void mouseClicked(MouseEvent e) {
+        int row = hitTable.getSelectedRow();
+        if (e.getClickCount() == 2 && row >= 0) {
+          opener.accept(hitModel.hits.get(row), searchedColumn);
+        }
+      }
+    });
+    add(new JScrollPane(hitTable), BorderLayout.CENTER);
+
+    summaryLabel = new JLabel("Pick the files, the column and the value to find.");
+    summaryLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+    add(summaryLabel, BorderLayout.SOUTH);
+  }
+
+  private void addRow(JPanel form, GridBagConstraints gbc, int row, String label, JTextField field, boolean browse) {
+    gbc.gridx = 0;
+    gbc.gridy = row;
+    gbc.gridwidth = 1;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 0;
+    form.add(new JLabel(label), gbc);
+
+    gbc.gridx = 1;
+    gbc.fill = GridBagConstraints.HORIZONTAL;
+    gbc.weightx = 1.0;
+    form.add(field, gbc);
+
+    if (browse) {
+      gbc.gridx = 2;
+      gbc.fill = GridBagConstraints.NONE;
+      gbc.weightx = 0;
+      JButton browseButton = new JButton("...");
+      browseButton.addActionListener(e -> {
+        JFileChooser chooser = new JFileChooser(field.getText().isEmpty() ? null : new File(field.getText()));
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+          field.setText(chooser.getSelectedFile().getAbsolutePath());
+        }
+      });
+      form.add(browseButton, gbc);
+    }
+  }
+
+  private void runSearch() {
+    String source = sourceField.getText().trim();
+    String column = columnField.getText().trim();
+    String fromText = fromField.getText().trim();
+    String toText = toField.getText().trim();
+    if (source.isEmpty() || column.isEmpty()) {
+      Messages.showErrorDialog("Select the files and enter the column to search.", "Value Search");
+      return;
+    }
+    String from = fromText.isEmpty() ? null : fromText;
+    String to = toText.equals("*") ? null : toText.isEmpty() ? from : toText;
+    if (from == null && to == null) {
+      Messages.showErrorDialog("Enter the value to find, or the bounds of a range.", "Value Search");
+      return;
+    }
+    ValueSearchService service = new ValueSearchService();
+
+    cancelled.set(false);
+    searchedColumn = column;
+    hitModel.setHits(List.of());
+    searchButton.setEnabled(false);
+    cancelButton.setEnabled(true);
+    summaryLabel.setText("Finding files...");
+    SwingWorker<ValueSearchReport, Void> worker =
+        new SwingWorker<ValueSearchReport, Void>() {
+          @Override
+          protected ValueSearchReport doInBackground() throws Exception {
+            List<File> files = BatchTransformService.findFiles(source);
+            return service.search(files, column, from, to, catalog, MAX_HITS,
+                done -> {
+                  if (done % 100 == 0 || done == files.size()) {
+                    SwingUtilities.invokeLater(() -> summaryLabel.setText(
+                        String.format("Searched %,d of %,d file(s)...", done, files.size())));
+                  }
+                },
+                cancelled::get);
+          }
+
+          @Override
+          protected void done() {
+            searchButton.setEnabled(true);
+            cancelButton.setEnabled(false);
+            try {
+              ValueSearchReport report = get();
+              hitModel.setHits(report.getHits());
+              summaryLabel.setText(report.format(0));
+              summaryLabel.setToolTipText(report.getFailures().isEmpty() ? null
+                  : "<html>" + report.format(20).replace("\n", "<br>") + "</html>");
+            } catch (Exception e) {
+              Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+              if (cause instanceof CancellationException) {
+                summaryLabel.setText("Search cancelled.");
+                return;
+              }
+              LOGGER.warn("Value search failed", cause);
+              Messages.showErrorDialog("Value search failed: " + cause.getMessage(), "Value Search");
+              summaryLabel.setText("Value search failed.");
+            }
+          }
+        };
+    worker.execute();
+  }
+
+  /**
+   * Stops a running search after the files being searched. Called when the tab is closed.
+   */
+  @Override
+  public void dispose() {
+    cancelled.set(true);
+  }
+
+  private static final class HitTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"File", "Row", "Row Group", "Value"};
+    private List<ValueSearchReport.Hit> hits = new ArrayList<>();
+
+    void setHits(List<ValueSearchReport.Hit> hits) {
+      this.hits = hits;
+      fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+      return hits.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+      return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+      return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+      return column == 1 || column == 2 ? Number.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+      ValueSearchReport.Hit hit = hits.get(row);
+      switch (column) {
+        case 0: return hit.getFile().getPath();
+        case 1: return hit.getRow() + 1;
+        case 2: return hit.getRowGroup();
+        case 3: return hit.getValue();
+        default: return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.jhordyhuaman.parquetstudio.model.BatchReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.github.jhordyhuaman.parquetstudio.service.BatchTransformService;
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import com.github.jhordyhuaman.parquetstudio.service.SchemaCastService;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BatchTransformServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private DuckDBParquetService duckDB;
+  private File input;
+  private File output;
+  private SchemaStructure schema;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    duckDB = new DuckDBParquetService();
+    input = tempDir.resolve("input").toFile();
+    output = tempDir.resolve("output").toFile();
+    writePart("day=1/part-0.parquet", Arrays.asList("id", "amount"), Arrays.asList("INTEGER", "VARCHAR"), "1.5", "2");
+    writePart("day=1/part-1.parquet", Arrays.asList("id", "amount"), Arrays.asList("INTEGER", "VARCHAR"), "x", "4");
+    writePart("day=2/part-0.parquet", Arrays.asList("id", "amount", "extra"), Arrays.asList("INTEGER", "VARCHAR", "VARCHAR"), "5");
+
+    File schemaFile = tempDir.resolve("target.schema").toFile();
+    Files.write(schemaFile.toPath(),
+        "{\"partitions\": [], \"fields\": [{\"name\": \"id\", \"type\": [\"null\", \"int64\"]}, {\"name\": \"amount\", \"type\": \"double\"}]}"
+            .getBytes(StandardCharsets.UTF_8));
+    schema = BatchTransformService.loadSchema(schemaFile);
+  }
+
+  private void writePart(String path, List<String> names, List<String> types, String... amounts) throws Exception {
+    List<List<Object>> rows = new ArrayList<>();
+    for (int i = 0; i < amounts.length; i++) {
+      List<Object> row = new ArrayList<>(Arrays.asList(i, amounts[i]));
+      if (names.size() > 2) row.add("e");
+      rows.add(row);
+    }
+    File file = new File(input, path);
+    file.getParentFile().mkdirs();
+    duckDB.saveParquet(file, new ParquetData(names, types, rows));
+  }
+
+  @Test
+  @DisplayName("Should find the Parquet files of a directory or a glob")
+  void testFindFiles() throws Exception {
+    assertThat(BatchTransformService.findFiles(input.getPath()))
+        .extracting(file -> input.toPath().relativize(file.toPath()).toString().replace('\\', '/'))
+        .containsExactly("day=1/part-0.parquet", "day=1/part-1.parquet", "day=2/part-0.parquet");
+    assertThat(BatchTransformService.findFiles(input.getPath() + "/day=1/*-1.parquet"))
+        .extracting(File::getName)
+        .containsExactly("part-1.parquet");
+    assertThatThrownBy(() -> BatchTransformService.findFiles(tempDir.resolve("missing").toString()))
+        .hasMessageContaining("missing");
+  }
+
+  @Test
+  @DisplayName("Should rewrite every file with the schema and skip the ones that do not match in strict mode")
+  void testRun() throws Exception {
+    BatchTransformService service = new BatchTransformService(new SchemaCastService(), 2, 0);
+    List<File> started = new ArrayList<>();
+    List<BatchReport.FileResult> finished = new ArrayList<>();
+
+    BatchReport report = service.run(BatchTransformService.findFiles(input.getPath()), schema, output,
+        new ParquetWriteOptions(ParquetWriteOptions.Compression.ZSTD, 1000), true,
+        new BatchTransformService.Listener() {
+          @Override
+          public synchronized void fileStarted(File source) {
+            started.add(source);
+          }
+
+          @Override
+          public synchronized void fileFinished(BatchReport.FileResult result) {
+            finished.add(result);
+          }
+        }, () -> false);
+
+    assertThat(report.count(BatchReport.Status.DONE)).isEqualTo(2);
+    assertThat(report.count(BatchReport.Status.SKIPPED)).isEqualTo(1);
+    assertThat(report.getRowCount()).isEqualTo(4);
+    assertThat(started).hasSize(3);
+    assertThat(finished).hasSize(3);
+    assertThat(report.format()).startsWith("2 of 3 file(s) rewritten (4 rows), 1 skipped, 0 failed")
+        .contains("part-0.parquet: skipped - 3 column(s), the schema has 2");
+
+    // Loading adds the hive partition column "day" back from the path
+    ParquetData part = duckDB.loadParquet(new File(output, "day=1/part-1.parquet"));
+    assertThat(part.getColumnNames()).containsExactly("id", "amount", "day");
+    assertThat(part.getColumnTypes()).startsWith("BIGINT", "DOUBLE");
+    assertThat(part.getRows().get(0)).startsWith(0L, null);
+    assertThat(part.getRows().get(1)).startsWith(1L, 4.0);
+    assertThat(new File(output, "day=2/part-0.parquet")).doesNotExist();
+    assertThat(new File(output, "day=1").list()).containsExactlyInAnyOrder("part-0.parquet", "part-1.parquet");
+  }
+
+  @Test
+  @DisplayName("Should retry a file that fails and report the attempts")
+  void testRetry() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    SchemaCastService flaky = new SchemaCastService() {
+      @Override
+      public long write(File source, SchemaStructure transform, File target, ParquetWriteOptions options)
+          throws SQLException {
+        if (calls.incrementAndGet() == 1) {
+          throw new SQLException("IO Error: disk hiccup");
+        }
+        return super.write(source, transform, target, options);
+      }
+    };
+    List<File> files = BatchTransformService.findFiles(input.getPath() + "/day=1/part-0.parquet");
+
+    BatchReport report = new BatchTransformService(flaky, 1, 1)
+        .run(files, schema, output, ParquetWriteOptions.DEFAULT, false, null, () -> false);
+    BatchReport failed = new BatchTransformService(flaky, 1, 0)
+        .run(BatchTransformService.findFiles(input.getPath() + "/day=2/*.parquet"), schema, tempDir.resolve("other").toFile(),
+            ParquetWriteOptions.DEFAULT, false, null, () -> false);
+
+    assertThat(report.getResults()).hasSize(1);
+    assertThat(report.getResults().get(0).getStatus()).isEqualTo(BatchReport.Status.DONE);
+    assertThat(report.getResults().get(0).getAttempts()).isEqualTo(2);
+    assertThat(failed.count(BatchReport.Status.DONE)).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should refuse to rewrite files in place and skip everything once cancelled")
+  void testInPlaceAndCancel() throws Exception {
+    List<File> files = BatchTransformService.findFiles(input.getPath());
+    BatchTransformService service = new BatchTransformService(new SchemaCastService(), 1, 0);
+
+    assertThatThrownBy(() -> service.run(files, schema, input, ParquetWriteOptions.DEFAULT, false, null, () -> false))
+        .isInstanceOf(IllegalArgumentException.class);
+    BatchReport report = service.run(files, schema, output, ParquetWriteOptions.DEFAULT, false, null, () -> true);
+    assertThat(report.count(BatchReport.Status.CANCELLED)).isEqualTo(3);
+    assertThat(output).doesNotExist();
+  }
+}
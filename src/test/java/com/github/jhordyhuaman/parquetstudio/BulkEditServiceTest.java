@@ -0,0 +1,152 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.jhordyhuaman.parquetstudio.model.ColumnEdit;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.service.BulkEditService;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.event.TableModelEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BulkEditServiceTest {
+
+  private final BulkEditService service = new BulkEditService();
+  private ParquetTableModel model;
+  private List<TableModelEvent> events;
+
+  @BeforeEach
+  void setUp() {
+    List<List<Object>> rows = new ArrayList<>();
+    rows.add(new ArrayList<>(Arrays.asList(1, "alice", 10.0)));
+    rows.add(new ArrayList<>(Arrays.asList(2, "bob", 20.0)));
+    rows.add(new ArrayList<>(Arrays.asList(3, null, 30.0)));
+    rows.add(new ArrayList<>(Arrays.asList(4, "alice-bob", 40.0)));
+    model = new ParquetTableModel(
+        List.of("id", "name", "amount"), List.of("INTEGER", "VARCHAR", "DOUBLE"), rows);
+    events = new ArrayList<>();
+    model.addTableModelListener(events::add);
+  }
+
+  private List<Object> column(int columnIndex) {
+    return model.getColumnValues(columnIndex, null);
+  }
+
+  @Test
+  @DisplayName("Should fill a column with one converted value and one table event")
+  void testFill() {
+    List<Object> previous = service.apply(model, service.prepareFill(model, 2, null, "7.5"));
+
+    assertThat(column(2)).containsOnly(7.5);
+    assertThat(previous).containsExactly(10.0, 20.0, 30.0, 40.0);
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getColumn()).isEqualTo(2);
+    assertThat(events.get(0).getFirstRow()).isZero();
+    assertThat(events.get(0).getLastRow()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should reject a fill value that does not fit the column type")
+  void testFillInvalidValue() {
+    assertThatThrownBy(() -> service.prepareFill(model, 0, null, "abc"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(events).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should set only the given rows to NULL")
+  void testSetNullOnRows() {
+    service.apply(model, service.prepareSetNull(model, 1, new int[]{0, 3}));
+
+    assertThat(column(1)).containsExactly(null, "bob", null, null);
+    assertThat(events).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("Should replace literal text and leave other cells untouched")
+  void testReplaceLiteral() {
+    ColumnEdit edit = service.prepareReplace(model, 1, null, "alice", "carol$", false);
+
+    assertThat(edit.getChangedCount()).isEqualTo(2);
+    service.apply(model, edit);
+    assertThat(column(1)).containsExactly("carol$", "bob", null, "carol$-bob");
+  }
+
+  @Test
+  @DisplayName("Should replace with a regular expression and groups")
+  void testReplaceRegex() {
+    service.apply(model, service.prepareReplace(model, 1, null, "^(\\w+)-(\\w+)$", "$2-$1", true));
+
+    assertThat(column(1)).containsExactly("alice", "bob", null, "bob-alice");
+  }
+
+  @Test
+  @DisplayName("Should change nothing when a replacement cannot be converted")
+  void testReplaceConversionError() {
+    assertThatThrownBy(() -> service.prepareReplace(model, 0, null, "2", "two", false))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("row 1: 'two'")
+        .hasMessageContaining("nothing was changed");
+    assertThat(column(0)).containsExactly(1, 2, 3, 4);
+    assertThat(events).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should compute a column with a DuckDB expression over other columns")
+  void testExpression() throws Exception {
+    service.apply(model, service.prepareExpression(model, 2, null, "amount * 1.5 + id"));
+    service.apply(model, service.prepareExpression(model, 1, new int[]{1, 2}, "upper(coalesce(name, 'none'))"));
+
+    assertThat(column(2)).containsExactly(16.0, 32.0, 48.0, 64.0);
+    assertThat(column(1)).containsExactly("alice", "BOB", "NONE", "alice-bob");
+    assertThat(events).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Should report an invalid expression without changing the model")
+  void testInvalidExpression() {
+    assertThatThrownBy(() -> service.prepareExpression(model, 0, null, "no_such_column + 1"))
+        .isInstanceOf(SQLException.class);
+    assertThatThrownBy(() -> service.prepareExpression(model, 0, null, "name"))
+        .isInstanceOf(SQLException.class);
+    assertThat(column(0)).containsExactly(1, 2, 3, 4);
+  }
+
+  @Test
+  @DisplayName("Should edit a million cells in one pass")
+  void testMillionCells() throws Exception {
+    List<List<Object>> rows = new ArrayList<>();
+    for (int i = 0; i < 1_000_000; i++) {
+      rows.add(new ArrayList<>(Arrays.asList(i, "name-" + i)));
+    }
+    ParquetTableModel large = new ParquetTableModel(List.of("id", "name"), List.of("INTEGER", "VARCHAR"), rows);
+    List<TableModelEvent> largeEvents = new ArrayList<>();
+    large.addTableModelListener(largeEvents::add);
+
+    service.apply(large, service.prepareReplace(large, 1, null, "name-", "n", false));
+    service.apply(large, service.prepareExpression(large, 0, null, "id * 2"));
+
+    assertThat(large.getValueAt(999_999, 1)).isEqualTo("n999999");
+    assertThat(large.getValueAt(999_999, 0)).isEqualTo(1_999_998);
+    assertThat(largeEvents).hasSize(2);
+  }
+}
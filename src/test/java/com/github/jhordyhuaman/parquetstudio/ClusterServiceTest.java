@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.jhordyhuaman.parquetstudio.model.ClusterReport;
+import com.github.jhordyhuaman.parquetstudio.model.OverlapReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.github.jhordyhuaman.parquetstudio.service.ClusterService;
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import java.io.File;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ClusterServiceTest {
+  private static final ParquetWriteOptions SMALL_ROW_GROUPS =
+      new ParquetWriteOptions(ParquetWriteOptions.Compression.SNAPPY, 1_000);
+
+  @TempDir
+  Path tempDir;
+
+  private DuckDBParquetService duckDB;
+  private ClusterService service;
+  private File source;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    duckDB = new DuckDBParquetService();
+    service = new ClusterService(duckDB);
+    source = tempDir.resolve("shuffled.parquet").toFile();
+    // 20,480 ids in a scrambled order; DuckDB rounds the groups up to 2,048 rows, so 10 groups
+    try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+         Statement st = conn.createStatement()) {
+      st.execute("COPY (SELECT (i * 7919) % 20480 AS id, 'name' || (i % 7) AS name FROM range(20480) t(i)) TO '"
+          + source + "' (FORMAT PARQUET, ROW_GROUP_SIZE 1000)");
+    }
+  }
+
+  @Test
+  @DisplayName("Should sort a file so its row groups stop overlapping on the sort column")
+  void testSortFile() throws Exception {
+    File target = tempDir.resolve("sorted.parquet").toFile();
+    ClusterReport report = service.write(source, List.of("id"), SMALL_ROW_GROUPS, target, () -> false);
+
+    assertThat(report.getRowCount()).isEqualTo(20_480);
+    assertThat(report.getBefore().getRowGroupCount()).isEqualTo(10);
+    assertThat(report.getBefore().getOverlap("id")).isGreaterThan(0.9);
+    assertThat(report.getAfter().getOverlap("id")).isEqualTo(0.0);
+    assertThat(report.format(5)).contains("sorted by id").contains("id: 100.0% -> 0.0%");
+
+    ParquetData data = duckDB.loadParquet(target);
+    assertThat(data.getRows().get(0).get(0)).isEqualTo(0L);
+    assertThat(data.getRows().get(20_479).get(0)).isEqualTo(20_479L);
+    assertThat(tempDir.toFile().list()).containsExactlyInAnyOrder("shuffled.parquet", "sorted.parquet");
+  }
+
+  @Test
+  @DisplayName("Should sort edited rows by several columns and measure them in row-group sized chunks")
+  void testSortModel() throws Exception {
+    List<List<Object>> rows = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      rows.add(new ArrayList<>(Arrays.asList(i % 2 == 0 ? "b" : "a", 100 - i)));
+    }
+    ParquetTableModel model = new ParquetTableModel(Arrays.asList("kind", "rank"), Arrays.asList("VARCHAR", "INTEGER"), rows);
+    File target = tempDir.resolve("model.parquet").toFile();
+
+    ClusterReport report = service.write(model, List.of("kind", "rank"),
+        new ParquetWriteOptions(ParquetWriteOptions.Compression.ZSTD, 10), target, () -> false);
+
+    assertThat(report.getBefore().getRowGroupCount()).isEqualTo(10);
+    assertThat(report.getBefore().getOverlap("kind")).isEqualTo(1.0);
+    assertThat(report.getAfter().getOverlap("kind")).isLessThan(0.5);
+    List<List<Object>> written = duckDB.loadParquet(target).getRows();
+    assertThat(written.get(0)).containsExactly("a", 1);
+    assertThat(written.get(49)).containsExactly("a", 99);
+    assertThat(written.get(50)).containsExactly("b", 2);
+  }
+
+  @Test
+  @DisplayName("Should refuse unknown sort columns without leaving a partial file")
+  void testUnknownColumn() {
+    File target = tempDir.resolve("bad.parquet").toFile();
+    assertThatThrownBy(() -> service.write(source, List.of("missing"), ParquetWriteOptions.DEFAULT, target, () -> false))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("missing");
+    assertThat(tempDir.toFile().list()).containsExactly("shuffled.parquet");
+  }
+
+  @Test
+  @DisplayName("Should list the sort columns first when comparing overlaps")
+  void testCompare() {
+    OverlapReport before = new OverlapReport(4);
+    before.add("a", 1.0);
+    before.add("b", 0.5);
+    OverlapReport after = new OverlapReport(4);
+    after.add("a", 0.25);
+    after.add("b", 0.0);
+
+    assertThat(OverlapReport.compare(before, after, List.of("b"), 5).split("\n"))
+        .containsExactly("Row groups whose min/max ranges overlap (lower is better), 4 -> 4 row group(s):",
+            "  b: 50.0% -> 0.0%", "  a: 100.0% -> 25.0%");
+    assertThat(after.getOverlap("missing")).isNaN();
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.jhordyhuaman.parquetstudio.model.BatchReport;
+import com.github.jhordyhuaman.parquetstudio.model.CompactionReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.github.jhordyhuaman.parquetstudio.service.BatchTransformService;
+import com.github.jhordyhuaman.parquetstudio.service.CompactionService;
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CompactionServiceTest {
+  private static final long TARGET = 1024 * 1024;
+
+  @TempDir
+  Path tempDir;
+
+  private DuckDBParquetService duckDB;
+  private CompactionService service;
+  private File input;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    duckDB = new DuckDBParquetService();
+    service = new CompactionService(duckDB);
+    input = tempDir.resolve("input").toFile();
+    for (int i = 0; i < 5; i++) {
+      writePart("day=1/part-" + i + ".parquet", Arrays.asList("id", "name"), Arrays.asList("INTEGER", "VARCHAR"), i * 100, 100);
+    }
+    writePart("day=2/part-0.parquet", Arrays.asList("id", "name"), Arrays.asList("INTEGER", "VARCHAR"), 0, 10);
+    writePart("day=2/part-1.parquet", Arrays.asList("id", "name"), Arrays.asList("BIGINT", "VARCHAR"), 10, 10);
+    writePart("day=3/part-0.parquet", Arrays.asList("id", "name"), Arrays.asList("INTEGER", "VARCHAR"), 0, 10);
+  }
+
+  private void writePart(String path, List<String> names, List<String> types, int first, int count) throws Exception {
+    List<List<Object>> rows = new ArrayList<>();
+    for (int i = first; i < first + count; i++) {
+      rows.add(new ArrayList<>(Arrays.asList(i, "name" + i)));
+    }
+    File file = new File(input, path);
+    file.getParentFile().mkdirs();
+    duckDB.saveParquet(file, new ParquetData(names, types, rows));
+  }
+
+  private CompactionReport.Group group(CompactionReport report, String directory) {
+    return report.getGroups().stream()
+        .filter(group -> group.getDirectory().getName().equals(directory))
+        .findFirst().orElseThrow();
+  }
+
+  @Test
+  @DisplayName("Should compact the small files of each partition into one file with the same rows")
+  void testCompactIntoOutputDirectory() throws Exception {
+    File output = tempDir.resolve("output").toFile();
+    CompactionReport report = service.compact(BatchTransformService.findFiles(input.getPath()), output, TARGET,
+        ParquetWriteOptions.DEFAULT, null, () -> false);
+
+    CompactionReport.Group day1 = group(report, "day=1");
+    assertThat(day1.getStatus()).isEqualTo(BatchReport.Status.DONE);
+    assertThat(day1.getInputFiles()).isEqualTo(5);
+    assertThat(day1.getOutputFiles()).isEqualTo(1);
+    assertThat(day1.getRows()).isEqualTo(500);
+
+    List<File> compacted = BatchTransformService.findFiles(new File(output, "day=1").getPath());
+    assertThat(compacted).hasSize(1);
+    assertThat(compacted.get(0).getName()).startsWith("compacted-");
+    ParquetData data = duckDB.loadParquet(compacted.get(0));
+    assertThat(data.getRows()).hasSize(500);
+    assertThat(data.getColumnTypes()).startsWith("INTEGER", "VARCHAR");
+    assertThat(data.getRows().get(499).get(0)).isEqualTo(499);
+    assertThat(BatchTransformService.findFiles(input.getPath())).hasSize(8);
+    assertThat(new File(output, "day=1").list()).hasSize(1);
+    // Skipped partitions are copied as they are, so the output holds the whole dataset
+    assertThat(new File(output, "day=2").list()).containsExactlyInAnyOrder("part-0.parquet", "part-1.parquet");
+    assertThat(new File(output, "day=3").list()).containsExactly("part-0.parquet");
+    assertThat(group(report, "day=2").getCopiedFiles()).isEqualTo(2);
+    assertThat(report.format()).contains(", 3 file(s) copied unchanged");
+  }
+
+  @Test
+  @DisplayName("Should skip partitions with mismatched schemas or a single small file")
+  void testSkippedPartitions() throws Exception {
+    CompactionReport report = service.compact(BatchTransformService.findFiles(input.getPath()),
+        tempDir.resolve("output").toFile(), TARGET, ParquetWriteOptions.DEFAULT, null, () -> false);
+
+    assertThat(group(report, "day=2").getStatus()).isEqualTo(BatchReport.Status.SKIPPED);
+    assertThat(group(report, "day=2").getMessage()).contains("part-1.parquet");
+    assertThat(group(report, "day=3").getMessage()).isEqualTo("already compact");
+    assertThat(report.format()).startsWith("1 partition(s) compacted: 5 file(s)");
+  }
+
+  @Test
+  @DisplayName("Should replace the small files when compacting in place")
+  void testCompactInPlace() throws Exception {
+    List<String> events = new ArrayList<>();
+    CompactionReport report = service.compact(BatchTransformService.findFiles(input.getPath() + "/day=1/*.parquet"),
+        null, TARGET, new ParquetWriteOptions(ParquetWriteOptions.Compression.ZSTD, 0),
+        group -> events.add(group.getDirectory().getName()), () -> false);
+
+    assertThat(report.count(BatchReport.Status.DONE)).isEqualTo(1);
+    assertThat(events).containsExactly("day=1");
+    File[] remaining = new File(input, "day=1").listFiles();
+    assertThat(remaining).hasSize(1);
+    assertThat(remaining[0].getName()).startsWith("compacted-");
+    assertThat(duckDB.loadParquet(remaining[0]).getRows()).hasSize(500);
+  }
+
+  @Test
+  @DisplayName("Should leave every file alone once cancelled")
+  void testCancel() throws Exception {
+    CompactionReport report = service.compact(BatchTransformService.findFiles(input.getPath()), null, TARGET,
+        ParquetWriteOptions.DEFAULT, null, () -> true);
+
+    assertThat(report.count(BatchReport.Status.CANCELLED)).isEqualTo(3);
+    assertThat(BatchTransformService.findFiles(input.getPath())).hasSize(8);
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.jhordyhuaman.parquetstudio.model.ChunkedText;
+import com.github.jhordyhuaman.parquetstudio.model.DelimitedText;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.service.CopyService;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.File;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CopyServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private CopyService service;
+  private ParquetTableModel model;
+
+  @BeforeEach
+  void setUp() {
+    service = new CopyService();
+    List<List<Object>> rows = new ArrayList<>();
+    rows.add(new ArrayList<>(Arrays.asList(1, "Smith, J", LocalDate.of(2024, 1, 1), 2.5)));
+    rows.add(new ArrayList<>(Arrays.asList(2, "say \"hi\"\tnow", null, Double.NaN)));
+    rows.add(new ArrayList<>(Arrays.asList(3, null, LocalDate.of(2024, 3, 3), null)));
+    model = new ParquetTableModel(Arrays.asList("id", "name", "joined", "score"),
+        Arrays.asList("INTEGER", "VARCHAR", "DATE", "DOUBLE"), rows);
+  }
+
+  @Test
+  @DisplayName("Should copy TSV that pastes back into the same cells")
+  void testTsvRoundTrip() {
+    String text = service.copy(model, new int[] {1, 0}, new int[] {0, 1, 2}, CopyService.Format.TSV).toString();
+
+    List<String[]> lines = DelimitedText.parse(text);
+    assertThat(lines).hasSize(2);
+    assertThat(lines.get(0)).containsExactly("2", "say \"hi\"\tnow", "");
+    assertThat(lines.get(1)).containsExactly("1", "Smith, J", "2024-01-01");
+  }
+
+  @Test
+  @DisplayName("Should copy CSV with a header and quoted cells")
+  void testCsv() {
+    String text = service.copy(model, new int[] {0, 2}, new int[] {1, 0}, CopyService.Format.CSV).toString();
+
+    assertThat(text).isEqualTo("name,id\n\"Smith, J\",1\n,3\n");
+  }
+
+  @Test
+  @DisplayName("Should copy JSON objects with typed values")
+  void testJson() {
+    String text = service.copy(model, new int[] {0, 1, 2}, new int[] {0, 1, 2, 3}, CopyService.Format.JSON).toString();
+
+    JsonArray array = JsonParser.parseString(text).getAsJsonArray();
+    assertThat(array).hasSize(3);
+    JsonObject first = array.get(0).getAsJsonObject();
+    assertThat(first.get("id").getAsInt()).isEqualTo(1);
+    assertThat(first.get("joined").getAsString()).isEqualTo("2024-01-01");
+    assertThat(first.get("score").getAsDouble()).isEqualTo(2.5);
+    JsonObject second = array.get(1).getAsJsonObject();
+    assertThat(second.get("name").getAsString()).isEqualTo("say \"hi\"\tnow");
+    assertThat(second.get("joined").isJsonNull()).isTrue();
+    assertThat(second.get("score").getAsString()).isEqualTo("NaN");
+    assertThat(JsonParser.parseString(service.copy(model, new int[0], new int[] {0}, CopyService.Format.JSON).toString())
+        .getAsJsonArray()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should stream chunked text without joining it")
+  void testChunkedText() throws Exception {
+    ChunkedText text = new ChunkedText(8);
+    for (int i = 0; i < 100; i++) {
+      text.append("row ").append(Integer.toString(i)).append("\n");
+    }
+    assertThat(text.getChunkCount()).isGreaterThan(10);
+
+    StringWriter copy = new StringWriter();
+    try (Reader reader = text.reader()) {
+      reader.transferTo(copy);
+    }
+    assertThat(copy.toString()).isEqualTo(text.toString());
+    assertThat(text.length()).isEqualTo(copy.toString().length());
+  }
+
+  @Test
+  @DisplayName("Should estimate the copy size from a sample")
+  void testEstimate() {
+    int[] rows = {0, 1, 2};
+    int[] columns = {0, 1, 2, 3};
+    long actual = service.copy(model, rows, columns, CopyService.Format.TSV).length();
+
+    assertThat(service.estimateLength(model, rows, columns, CopyService.Format.TSV))
+        .isBetween(actual / 2, actual * 2);
+  }
+
+  @Test
+  @DisplayName("Should stop copying when the thread is interrupted")
+  void testCancel() {
+    Thread.currentThread().interrupt();
+    try {
+      assertThatThrownBy(() -> service.copy(model, new int[] {0, 1}, new int[] {0}, CopyService.Format.TSV))
+          .isInstanceOf(CancellationException.class);
+    } finally {
+      Thread.interrupted();
+    }
+  }
+
+  @Test
+  @DisplayName("Should export rows straight from the Parquet file")
+  void testExportFile() throws Exception {
+    File parquet = new SyntheticParquetGenerator().rows(5_000).columns(3)
+        .typeMix(SyntheticParquetGenerator.TypeMix.NUMERIC)
+        .generate(tempDir.resolve("copy.parquet").toFile());
+
+    File tsv = service.exportFile(parquet, Arrays.asList("id", "c2_double"), CopyService.Format.TSV, -1);
+    File json = service.exportFile(parquet, Arrays.asList("id"), CopyService.Format.JSON, 10);
+    try {
+      List<String[]> lines = DelimitedText.parse(new String(Files.readAllBytes(tsv.toPath()), StandardCharsets.UTF_8));
+      assertThat(lines).hasSize(5_000);
+      assertThat(lines.get(0)).hasSize(2);
+      assertThat(lines.get(0)[0]).isEqualTo("0");
+
+      JsonArray array = JsonParser.parseString(new String(Files.readAllBytes(json.toPath()), StandardCharsets.UTF_8))
+          .getAsJsonArray();
+      assertThat(array).hasSize(10);
+      assertThat(IntStream.range(0, 10).map(i -> array.get(i).getAsJsonObject().get("id").getAsInt()))
+          .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    } finally {
+      Files.deleteIfExists(tsv.toPath());
+      Files.deleteIfExists(json.toPath());
+    }
+  }
+}
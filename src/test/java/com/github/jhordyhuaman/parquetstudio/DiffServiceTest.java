@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.github.jhordyhuaman.parquetstudio.model.DiffReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.service.DiffService;
+import com.github.jhordyhuaman.parquetstudio.service.DiffSession;
+import java.io.File;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiffServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private DiffService service;
+  private File before;
+  private File after;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    service = new DiffService();
+    before = tempDir.resolve("before.parquet").toFile();
+    after = tempDir.resolve("after.parquet").toFile();
+    // after: ids 0-9 removed, 1000-1019 added, amount changed for 10 ids and name for 4,
+    // a column dropped and one added
+    try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+         Statement st = conn.createStatement()) {
+      st.execute("COPY (SELECT i AS id, i * 1.5 AS amount, 'name' || i AS name, 'x' AS legacy FROM range(1000) t(i)) TO '"
+          + before + "' (FORMAT PARQUET)");
+      st.execute("COPY (SELECT i AS id, CASE WHEN i % 100 = 50 THEN -1 ELSE i * 1.5 END AS amount,"
+          + " CASE WHEN i IN (20, 50, 60, 70) THEN 'renamed' ELSE 'name' || i END AS name, i % 2 AS flag"
+          + " FROM range(10, 1020) t(i)) TO '" + after + "' (FORMAT PARQUET)");
+    }
+  }
+
+  @Test
+  @DisplayName("Should count added, removed and changed rows and changes per column")
+  void testCounts() throws Exception {
+    try (DiffSession session = service.diff(before, after, List.of("id"), () -> false)) {
+      DiffReport report = session.getReport();
+      assertThat(report.getLeftRows()).isEqualTo(1000);
+      assertThat(report.getRightRows()).isEqualTo(1010);
+      assertThat(report.getCount(DiffReport.Status.ADDED)).isEqualTo(20);
+      assertThat(report.getCount(DiffReport.Status.REMOVED)).isEqualTo(10);
+      assertThat(report.getCount(DiffReport.Status.CHANGED)).isEqualTo(13);
+      assertThat(report.getUnchanged()).isEqualTo(977);
+      assertThat(report.getColumnChanges()).containsExactly(
+          entry("amount", 10L), entry("name", 4L));
+      assertThat(report.getLeftOnlyColumns()).containsExactly("legacy");
+      assertThat(report.getRightOnlyColumns()).containsExactly("flag");
+      assertThat(report.format(5))
+          .startsWith("before.parquet -> after.parquet by id: 1,000 -> 1,010 row(s), 20 added, 10 removed, 13 changed")
+          .contains("  amount: 10")
+          .contains("Only in after.parquet, not compared: flag");
+    }
+  }
+
+  @Test
+  @DisplayName("Should page through the differing rows in key order")
+  void testPages() throws Exception {
+    try (DiffSession session = service.diff(before, after, List.of("id"), () -> false)) {
+      ParquetData first = session.page(null, 0, 12);
+      assertThat(first.getColumnNames())
+          .containsExactly("status", "id", "amount (left)", "amount (right)", "name (left)", "name (right)");
+      assertThat(first.getRows()).hasSize(12);
+      assertThat(first.getRows().get(0).subList(0, 2)).containsExactly("removed", 0L);
+      assertThat(first.getRows().get(10).subList(0, 2)).containsExactly("changed", 20L);
+      assertThat(first.getRows().get(10).get(4)).isEqualTo("name20");
+      assertThat(first.getRows().get(10).get(5)).isEqualTo("renamed");
+
+      ParquetData added = session.page(DiffReport.Status.ADDED, 15, 10);
+      assertThat(added.getRows()).hasSize(5);
+      assertThat(added.getRows().get(0).get(1)).isEqualTo(1015L);
+      assertThat(added.getRows().get(0).get(2)).isNull();
+      assertThat(session.count(null)).isEqualTo(43);
+    }
+  }
+
+  @Test
+  @DisplayName("Should refuse keys that are missing or not unique")
+  void testBadKeys() throws Exception {
+    assertThatThrownBy(() -> service.diff(before, after, List.of("legacy"), () -> false))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Key column legacy is not in after.parquet");
+    File duplicated = tempDir.resolve("duplicated.parquet").toFile();
+    try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+         Statement st = conn.createStatement()) {
+      st.execute("COPY (SELECT i % 500 AS id, 'n' AS name FROM range(1000) t(i)) TO '" + duplicated + "' (FORMAT PARQUET)");
+    }
+    assertThatThrownBy(() -> service.diff(before, duplicated, List.of("id"), () -> false))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("not unique in duplicated.parquet: 500 value(s)");
+  }
+
+  @Test
+  @DisplayName("Should match keys of different types and treat null keys as equal")
+  void testKeyTypes() throws Exception {
+    File left = tempDir.resolve("left.parquet").toFile();
+    File right = tempDir.resolve("right.parquet").toFile();
+    try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+         Statement st = conn.createStatement()) {
+      st.execute("COPY (SELECT * FROM (VALUES (1, 'a', 1), (NULL, 'b', 2)) t(id, part, v)) TO '" + left + "' (FORMAT PARQUET)");
+      st.execute("COPY (SELECT * FROM (VALUES ('1', 'a', 1), (NULL, 'b', 3)) t(id, part, v)) TO '" + right + "' (FORMAT PARQUET)");
+    }
+    try (DiffSession session = service.diff(left, right, List.of("id", "part"), () -> false)) {
+      assertThat(session.getReport().getCount(DiffReport.Status.CHANGED)).isEqualTo(1);
+      assertThat(session.getReport().hasDifferences()).isTrue();
+      assertThat(session.page(null, 0, 10).getRows().get(0)).containsExactly("changed", null, "b", 2, 3);
+    }
+  }
+}
@@ -17,6 +17,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetPreview;
 import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
 import java.io.File;
 import java.io.IOException;
@@ -74,6 +75,57 @@ class DuckDBParquetServiceTest {
         .hasMessageContaining("No columns to save");
   }
 
+  @Test
+  @DisplayName("Should preview the first rows and read the total row count from the footer")
+  void testPreviewParquet() throws Exception {
+    service.saveParquet(testParquetFile, sampleData(50));
+
+    ParquetPreview preview = service.previewParquet(testParquetFile, 10);
+
+    assertThat(preview.getColumnNames()).containsExactly("id", "name");
+    assertThat(preview.getColumnTypes()).containsExactly("INTEGER", "VARCHAR");
+    assertThat(preview.getRows()).hasSize(10);
+    assertThat(preview.getTotalRowCount()).isEqualTo(50);
+    assertThat(preview.getRowGroupCount()).isEqualTo(1);
+    assertThat(preview.isComplete()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should mark the preview complete when the file is smaller than the limit")
+  void testPreviewSmallFile() throws Exception {
+    service.saveParquet(testParquetFile, sampleData(3));
+
+    ParquetPreview preview = service.previewParquet(testParquetFile, 10);
+
+    assertThat(preview.getRows()).hasSize(3);
+    assertThat(preview.isComplete()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should keep working after warm-up when saves share the engine")
+  void testWarmUpThenRepeatedSaves() throws Exception {
+    DuckDBParquetService.warmUp();
+    DuckDBParquetService.warmUp();
+
+    service.saveParquet(testParquetFile, sampleData(5));
+    service.saveParquet(outputParquetFile, sampleData(7));
+
+    assertThat(service.loadParquet(testParquetFile).getRows()).hasSize(5);
+    assertThat(service.loadParquet(outputParquetFile).getRows()).hasSize(7);
+  }
+
+  private ParquetData sampleData(int rowCount) {
+    List<List<Object>> rows = new ArrayList<>();
+    for (int i = 0; i < rowCount; i++) {
+      List<Object> row = new ArrayList<>();
+      row.add(i);
+      row.add("name-" + i);
+      rows.add(row);
+    }
+    return new ParquetData(
+        new ArrayList<>(List.of("id", "name")), new ArrayList<>(List.of("INTEGER", "VARCHAR")), rows);
+  }
+
   @Test
   @DisplayName("Should create ParquetData structure correctly")
   void testParquetDataStructure() {
@@ -0,0 +1,242 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.jhordyhuaman.parquetstudio.model.EditJournal;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EditJournalTest {
+
+  private ParquetTableModel model;
+  private EditJournal journal;
+
+  @BeforeEach
+  void setUp() {
+    model = createModel(5);
+    journal = new EditJournal(100, 64L * 1024 * 1024, Runnable::run);
+    model.setJournal(journal);
+  }
+
+  @AfterEach
+  void tearDown() {
+    journal.clear();
+  }
+
+  private static ParquetTableModel createModel(int rowCount) {
+    List<List<Object>> rows = new ArrayList<>(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      rows.add(new ArrayList<>(Arrays.asList(i, "name" + i, i % 2 == 0)));
+    }
+    return new ParquetTableModel(Arrays.asList("id", "name", "active"),
+        Arrays.asList("INTEGER", "VARCHAR", "BOOLEAN"), rows);
+  }
+
+  private static List<List<Object>> snapshot(ParquetTableModel model) {
+    List<List<Object>> rows = new ArrayList<>();
+    for (int r = 0; r < model.getRowCount(); r++) {
+      List<Object> row = new ArrayList<>();
+      for (int c = 0; c < model.getColumnCount(); c++) {
+        row.add(model.getValueAt(r, c));
+      }
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  @Test
+  @DisplayName("Should undo and redo a cell edit")
+  void testUndoRedoCell() {
+    model.setValueAt("Zoe", 1, 1);
+
+    assertThat(journal.getUndoName()).isEqualTo("edit cell");
+    assertThat(journal.undo(model)).isEqualTo("edit cell");
+    assertThat(model.getValueAt(1, 1)).isEqualTo("name1");
+    assertThat(journal.canUndo()).isFalse();
+
+    assertThat(journal.redo(model)).isEqualTo("edit cell");
+    assertThat(model.getValueAt(1, 1)).isEqualTo("Zoe");
+    assertThat(journal.canRedo()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should record a column edit as one entry holding only the changed rows")
+  void testColumnEditIsOneEntry() {
+    List<Object> values = new ArrayList<>(Collections.nCopies(5, "same"));
+    values.set(0, "name0");
+    model.setColumnValues(1, null, values);
+
+    assertThat(journal.getUndoCount()).isEqualTo(1);
+    assertThat(journal.getUndoName()).isEqualTo("edit 4 value(s) of 'name'");
+
+    journal.undo(model);
+    assertThat(snapshot(model)).isEqualTo(snapshot(createModel(5)));
+    journal.redo(model);
+    assertThat(model.getColumnValues(1, null)).isEqualTo(values);
+  }
+
+  @Test
+  @DisplayName("Should restore deleted rows at their positions")
+  void testUndoDeleteRows() {
+    List<List<Object>> before = snapshot(model);
+    model.deleteRows(new int[] {0, 2, 4});
+    assertThat(model.getRowCount()).isEqualTo(2);
+
+    journal.undo(model);
+    assertThat(snapshot(model)).isEqualTo(before);
+
+    journal.redo(model);
+    assertThat(model.getColumnValues(0, null)).containsExactly(1, 3);
+  }
+
+  @Test
+  @DisplayName("Should undo added and deleted rows and columns in reverse order")
+  void testUndoStructureChanges() {
+    List<List<Object>> before = snapshot(model);
+    model.addRow();
+    model.setValueAt("7", 5, 0);
+    model.addColumn("score", "DOUBLE");
+    model.deleteColumn(1);
+
+    assertThat(model.getColumnNames()).containsExactly("id", "active", "score");
+    while (journal.canUndo()) {
+      journal.undo(model);
+    }
+    assertThat(model.getColumnNames()).containsExactly("id", "name", "active");
+    assertThat(snapshot(model)).isEqualTo(before);
+
+    while (journal.canRedo()) {
+      journal.redo(model);
+    }
+    assertThat(model.getColumnNames()).containsExactly("id", "active", "score");
+    assertThat(model.getValueAt(5, 0)).isEqualTo(7);
+  }
+
+  @Test
+  @DisplayName("Should drop the redo history when a new edit is made")
+  void testNewEditClearsRedo() {
+    model.setValueAt("A", 0, 1);
+    journal.undo(model);
+    assertThat(journal.canRedo()).isTrue();
+
+    model.setValueAt("B", 0, 1);
+    assertThat(journal.canRedo()).isFalse();
+    assertThat(journal.getUndoCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should keep at most the configured number of edits")
+  void testLimit() {
+    EditJournal small = new EditJournal(3, Long.MAX_VALUE, Runnable::run);
+    model.setJournal(small);
+    for (int i = 0; i < 5; i++) {
+      model.setValueAt("v" + i, 0, 1);
+    }
+    assertThat(small.getUndoCount()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should spill large edits to disk and read them back on undo")
+  void testSpillToDisk() {
+    int rowCount = 200_000;
+    ParquetTableModel large = createModel(rowCount);
+    EditJournal spilling = new EditJournal(10, 1024, Runnable::run);
+    large.setJournal(spilling);
+    try {
+      List<Object> before = large.getColumnValues(1, null);
+      large.setColumnValues(1, null, Collections.nCopies(rowCount, "filled"));
+      large.deleteRows(IntStream.range(0, rowCount / 2).map(i -> i * 2).toArray());
+
+      assertThat(spilling.getSpilledCount()).isEqualTo(2);
+      assertThat(spilling.getMemoryBytes()).isLessThan(1024);
+
+      spilling.undo(large);
+      spilling.undo(large);
+      assertThat(large.getRowCount()).isEqualTo(rowCount);
+      assertThat(large.getValueAt(0, 0)).isEqualTo(0);
+      assertThat(large.getColumnValues(1, null)).isEqualTo(before);
+    } finally {
+      spilling.clear();
+    }
+  }
+
+  @Test
+  @DisplayName("Should keep undo data that cannot be serialized in memory and not spill it again")
+  void testUnspillableValues() {
+    int rowCount = 10_000;
+    List<List<Object>> rows = new ArrayList<>(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      // Stands in for a DuckDB struct or list value, which is not Serializable
+      rows.add(new ArrayList<>(Arrays.asList(i, new Object())));
+    }
+    ParquetTableModel large = new ParquetTableModel(Arrays.asList("id", "s"), Arrays.asList("INTEGER", "STRUCT"), rows);
+    Object first = large.getValueAt(0, 1);
+    AtomicInteger spills = new AtomicInteger();
+    EditJournal spilling = new EditJournal(10, 1024, task -> {
+      spills.incrementAndGet();
+      task.run();
+    });
+    large.setJournal(spilling);
+    try {
+      large.setColumnValues(1, null, Collections.nCopies(rowCount, "x"));
+      int afterFill = spills.get();
+      assertThat(afterFill).isPositive();
+
+      for (int i = 0; i < 5; i++) {
+        large.setValueAt(String.valueOf(i + 100), i, 0);
+      }
+
+      assertThat(spills.get()).isEqualTo(afterFill);
+      for (int i = 0; i < 6; i++) {
+        spilling.undo(large);
+      }
+      assertThat(large.getValueAt(0, 1)).isSameAs(first);
+    } finally {
+      spilling.clear();
+    }
+  }
+
+  @Test
+  @DisplayName("Should keep a fill over a million rows small in memory")
+  void testFillIsCompact() {
+    int rowCount = 1_000_000;
+    List<List<Object>> rows = new ArrayList<>(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      rows.add(new ArrayList<>(Arrays.asList(i, null)));
+    }
+    ParquetTableModel large = new ParquetTableModel(Arrays.asList("id", "tag"), Arrays.asList("INTEGER", "VARCHAR"), rows);
+    EditJournal compact = new EditJournal(10, Long.MAX_VALUE, Runnable::run);
+    large.setJournal(compact);
+
+    large.setColumnValues(1, null, Collections.nCopies(rowCount, "x"));
+
+    // Both the old and the new values are a single run
+    assertThat(compact.getMemoryBytes()).isLessThan(1024);
+    compact.undo(large);
+    assertThat(large.getValueAt(rowCount - 1, 1)).isNull();
+    compact.redo(large);
+    assertThat(large.getValueAt(rowCount - 1, 1)).isEqualTo("x");
+  }
+}
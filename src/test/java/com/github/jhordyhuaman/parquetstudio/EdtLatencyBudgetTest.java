@@ -0,0 +1,184 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.EdtActionStats;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.EdtWatchdog;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetSearchFilter;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import com.github.jhordyhuaman.parquetstudio.service.ParquetEditorService;
+import java.io.File;
+import java.nio.file.Files;
+import javax.swing.DefaultCellEditor;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Keeps the UI thread part of the main editor actions under a fixed latency budget on a
+ * generated 100k-row file. Each action runs on the EDT the way {@code ParquetEditorPanel}
+ * runs it and is measured by an {@link EdtWatchdog}. Tagged {@code performance}: run with
+ * {@code ./gradlew perfTest}.
+ */
+@Tag("performance")
+class EdtLatencyBudgetTest {
+
+  private static final int ROWS = 100_000;
+
+  private static File fixtureDir;
+  private static File fixture;
+
+  private EdtWatchdog watchdog;
+  private ParquetEditorService service;
+  private JTable table;
+  private TableRowSorter<TableModel> sorter;
+
+  @BeforeAll
+  static void generateFixture() throws Exception {
+    DuckDBParquetService.warmUp();
+    fixtureDir = Files.createTempDirectory("parquet-studio-edt").toFile();
+    fixture = new SyntheticParquetGenerator()
+        .rows(ROWS)
+        .columns(8)
+        .nullRatio(0.05)
+        .generate(new File(fixtureDir, "rows-100k.parquet"));
+  }
+
+  @AfterAll
+  static void cleanUp() {
+    for (File file : fixtureDir.listFiles()) {
+      file.delete();
+    }
+    fixtureDir.delete();
+  }
+
+  @BeforeEach
+  void setUp() throws Exception {
+    watchdog = new EdtWatchdog(100);
+    service = new ParquetEditorService();
+    ParquetData data = service.loadParquetFile(fixture);
+    table = new JTable();
+    onEdt("load", () -> {
+      ParquetTableModel model = service.initializeTableModel(data);
+      table.setModel(model);
+      configureCellEditors();
+      sorter = new TableRowSorter<>(model);
+      table.setRowSorter(sorter);
+    });
+  }
+
+  private void onEdt(String action, Runnable work) throws Exception {
+    SwingUtilities.invokeAndWait(() -> {
+      try (EdtWatchdog.Watch watch = watchdog.watch(action)) {
+        work.run();
+      }
+    });
+  }
+
+  private void configureCellEditors() {
+    DefaultCellEditor editor = new DefaultCellEditor(new JTextField());
+    for (int i = 0; i < table.getColumnCount(); i++) {
+      table.getColumnModel().getColumn(i).setCellEditor(editor);
+    }
+  }
+
+  private void assertWithinBudget(String action, long budgetMillis) {
+    EdtActionStats stats = watchdog.getStats(action);
+    assertThat(stats).as("no EDT time recorded for %s", action).isNotNull();
+    assertThat(stats.getMaxMillis())
+        .as("%s kept the UI thread busy too long:%n%s", action,
+            stats.getLastViolation() != null ? stats.getLastViolation().format() : "")
+        .isLessThanOrEqualTo(budgetMillis);
+  }
+
+  @Test
+  @DisplayName("Should swap a loaded 100k-row file into the table within budget")
+  void testLoadBudget() {
+    assertWithinBudget("load", 500);
+  }
+
+  @Test
+  @DisplayName("Should filter 100k rows within budget")
+  void testSearchBudget() throws Exception {
+    onEdt("search", () -> sorter.setRowFilter(ParquetSearchFilter.forText("s42")));
+
+    assertThat(sorter.getViewRowCount()).isPositive();
+    assertWithinBudget("search", 1_000);
+  }
+
+  @Test
+  @DisplayName("Should sort 100k rows within budget")
+  void testSortBudget() throws Exception {
+    onEdt("sort", () -> sorter.toggleSortOrder(1));
+
+    assertWithinBudget("sort", 2_000);
+  }
+
+  @Test
+  @DisplayName("Should edit a cell and add a row within budget")
+  void testEditBudget() throws Exception {
+    onEdt("set_value", () -> table.setValueAt("42", 0, 1));
+    onEdt("add_row", () -> service.addRow());
+
+    assertThat(service.getRowCount()).isEqualTo(ROWS + 1);
+    assertWithinBudget("set_value", 50);
+    assertWithinBudget("add_row", 100);
+  }
+
+  @Test
+  @DisplayName("Should delete 1k selected rows within budget")
+  void testDeleteRowsBudget() throws Exception {
+    int[] selected = new int[1_000];
+    for (int i = 0; i < selected.length; i++) {
+      selected[i] = i * 50;
+    }
+
+    onEdt("delete_rows", () -> {
+      table.setRowSorter(null);
+      service.deleteRows(selected);
+      table.setRowSorter(sorter);
+    });
+
+    assertThat(service.getRowCount()).isEqualTo(ROWS - selected.length);
+    assertWithinBudget("delete_rows", 500);
+  }
+
+  @Test
+  @DisplayName("Should add and delete a column within budget")
+  void testColumnBudget() throws Exception {
+    onEdt("add_column", () -> {
+      service.addColumn("extra", "VARCHAR");
+      configureCellEditors();
+    });
+    onEdt("delete_column", () -> {
+      service.deleteColumn(1);
+      configureCellEditors();
+    });
+
+    assertWithinBudget("add_column", 250);
+    assertWithinBudget("delete_column", 250);
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.EdtActionStats;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.EdtViolation;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.EdtWatchdog;
+import java.util.Arrays;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EdtWatchdogTest {
+
+  private final EdtWatchdog watchdog = new EdtWatchdog(40);
+
+  private void onEdt(String action, long sleepMillis) throws Exception {
+    SwingUtilities.invokeAndWait(() -> {
+      try (EdtWatchdog.Watch watch = watchdog.watch(action)) {
+        blockFor(sleepMillis);
+      }
+    });
+  }
+
+  private static void blockFor(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  @DisplayName("Should report a slow action with stack samples pointing at the plugin code")
+  void testSlowActionIsReported() throws Exception {
+    onEdt("slow", 200);
+
+    EdtActionStats stats = watchdog.getStats("slow");
+    assertThat(stats.getCount()).isEqualTo(1);
+    assertThat(stats.getMaxMillis()).isGreaterThanOrEqualTo(200);
+    assertThat(stats.getViolations()).isEqualTo(1);
+
+    EdtViolation violation = stats.getLastViolation();
+    assertThat(violation.getSamples()).isNotEmpty();
+    assertThat(Arrays.stream(violation.getSamples().get(0)).map(StackTraceElement::getMethodName))
+        .contains("blockFor");
+    assertThat(violation.getHotFrames().keySet())
+        .first().asString().isEqualTo(EdtWatchdogTest.class.getName() + ".blockFor");
+    assertThat(violation.format()).contains("edt action=slow").contains("at ");
+    assertThat(watchdog.getViolations()).containsExactly(violation);
+  }
+
+  @Test
+  @DisplayName("Should count fast actions without reporting them")
+  void testFastActionIsNotReported() throws Exception {
+    onEdt("fast", 0);
+    onEdt("fast", 0);
+
+    EdtActionStats stats = watchdog.getStats("fast");
+    assertThat(stats.getCount()).isEqualTo(2);
+    assertThat(stats.getViolations()).isZero();
+    assertThat(stats.getLastViolation()).isNull();
+    assertThat(watchdog.getViolations()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should ignore actions that run off the UI thread")
+  void testBackgroundActionIsIgnored() {
+    try (EdtWatchdog.Watch watch = watchdog.watch("background")) {
+      blockFor(60);
+    }
+
+    assertThat(watchdog.getStats("background")).isNull();
+    assertThat(watchdog.getViolations()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should order actions slowest first and clear them on reset")
+  void testSummaryAndReset() throws Exception {
+    onEdt("fast", 0);
+    onEdt("slow", 80);
+
+    assertThat(watchdog.getStats()).extracting(EdtActionStats::getAction).containsExactly("slow", "fast");
+    assertThat(watchdog.formatReport()).contains("action=slow").contains("over_threshold=1");
+
+    watchdog.reset();
+    assertThat(watchdog.getStats()).isEmpty();
+    assertThat(watchdog.getViolations()).isEmpty();
+  }
+}
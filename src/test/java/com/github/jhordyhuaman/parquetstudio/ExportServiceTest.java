@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.jhordyhuaman.parquetstudio.model.DelimitedText;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.ViewQuery;
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import com.github.jhordyhuaman.parquetstudio.service.ExportService;
+import com.google.gson.JsonParser;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExportServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private ExportService service;
+  private File source;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    service = new ExportService();
+    source = new SyntheticParquetGenerator().rows(2_000).columns(4)
+        .generate(tempDir.resolve("source.parquet").toFile());
+  }
+
+  private String read(File file) throws Exception {
+    return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  @DisplayName("Should export every row of the file to CSV with a header")
+  void testCsvWholeFile() throws Exception {
+    File target = tempDir.resolve("all.csv").toFile();
+
+    long rows = service.export(source, new ViewQuery(null, null), ExportService.Format.CSV, target, () -> false, bytes -> { });
+
+    assertThat(rows).isEqualTo(2_000);
+    List<String[]> lines = DelimitedText.parse(read(target));
+    assertThat(lines).hasSize(2_001);
+    assertThat(lines.get(0)).containsExactly("id", "c0_integer", "c1_bigint", "c2_double", "c3_varchar");
+    assertThat(tempDir.toFile().list()).containsExactlyInAnyOrder("source.parquet", "all.csv");
+  }
+
+  @Test
+  @DisplayName("Should export only the shown columns, the searched rows and the sort order")
+  void testView() throws Exception {
+    File target = tempDir.resolve("view.ndjson").toFile();
+    ViewQuery view = new ViewQuery(Arrays.asList("c3_varchar", "id", "added_in_editor"), "99")
+        .orderBy("id", false);
+
+    long rows = service.export(source, view, ExportService.Format.NDJSON, target, () -> false, bytes -> { });
+
+    List<String> lines = Files.readAllLines(target.toPath());
+    assertThat(lines).hasSize((int) rows).isNotEmpty();
+    long previous = Long.MAX_VALUE;
+    for (String line : lines) {
+      var object = JsonParser.parseString(line).getAsJsonObject();
+      assertThat(object.keySet()).containsExactly("c3_varchar", "id");
+      long id = object.get("id").getAsLong();
+      assertThat(id).isLessThan(previous);
+      previous = id;
+    }
+    assertThat(rows).isLessThan(2_000);
+  }
+
+  @Test
+  @DisplayName("Should name the columns and sort keys of a table view as in the file")
+  void testViewFromTable() throws Exception {
+    ParquetData data = new DuckDBParquetService().loadParquet(source);
+    ParquetTableModel model = new ParquetTableModel(data.getColumnNames(), data.getColumnTypes(), data.getRows());
+    assertThat(model.getColumnName(0)).startsWith("<html>");
+
+    ViewQuery view = ViewQuery.fromTable(model, new int[] {4, 0, 1, 2, 3}, null,
+        Arrays.asList(new RowSorter.SortKey(0, SortOrder.DESCENDING), new RowSorter.SortKey(1, SortOrder.UNSORTED)));
+    assertThat(view.getColumns()).containsExactly("c3_varchar", "id", "c0_integer", "c1_bigint", "c2_double");
+    assertThat(view.getSortColumns()).containsExactly("id");
+    assertThat(ViewQuery.fromTable(model, new int[] {0, 1, 2, 3, 4}, " ", List.of()).isWholeFile()).isTrue();
+
+    File target = tempDir.resolve("table.csv").toFile();
+    service.export(source, view, ExportService.Format.CSV, target, () -> false, bytes -> { });
+    List<String[]> lines = DelimitedText.parse(read(target));
+    assertThat(lines.get(0)).containsExactly("c3_varchar", "id", "c0_integer", "c1_bigint", "c2_double");
+    assertThat(lines.get(1)[1]).isEqualTo("1999");
+    assertThat(lines.get(2_000)[1]).isEqualTo("0");
+  }
+
+  @Test
+  @DisplayName("Should re-encode a sorted slice as Parquet and JSON")
+  void testParquetAndJson() throws Exception {
+    File parquet = tempDir.resolve("slice.parquet").toFile();
+    File json = tempDir.resolve("slice.json").toFile();
+    ViewQuery view = new ViewQuery(Arrays.asList("id", "c2_double"), null).orderBy("c2_double", true);
+
+    service.export(source, view, ExportService.Format.PARQUET, parquet, () -> false, bytes -> { });
+    service.export(source, view, ExportService.Format.JSON, json, () -> false, bytes -> { });
+
+    ParquetData data = new DuckDBParquetService().loadParquet(parquet);
+    assertThat(data.getColumnNames()).containsExactly("id", "c2_double");
+    assertThat(data.getRows()).hasSize(2_000);
+    assertThat(JsonParser.parseString(read(json)).getAsJsonArray()).hasSize(2_000);
+  }
+
+  @Test
+  @DisplayName("Should stop a cancelled export and leave no partial file")
+  void testCancel() throws Exception {
+    File big = new SyntheticParquetGenerator().rows(3_000_000).columns(6)
+        .generate(tempDir.resolve("big.parquet").toFile());
+    File target = tempDir.resolve("big.csv").toFile();
+    long start = System.nanoTime();
+    AtomicLong polls = new AtomicLong();
+
+    assertThatThrownBy(() -> service.export(big, new ViewQuery(null, "zz").orderBy("c3_varchar", true),
+        ExportService.Format.CSV, target, () -> System.nanoTime() - start > 200_000_000L, bytes -> polls.incrementAndGet()))
+        .isInstanceOf(CancellationException.class);
+    assertThat(target).doesNotExist();
+    assertThat(tempDir.toFile().list()).containsExactlyInAnyOrder("source.parquet", "big.parquet");
+  }
+
+  @Test
+  @DisplayName("Should build an OR search over every column and skip unknown sort columns")
+  void testBuildSelect() {
+    String sql = service.buildSelect(source, new ViewQuery(null, "O'Brien").orderBy("gone", true).orderBy("b", false),
+        Arrays.asList("a", "b"));
+
+    assertThat(sql)
+        .startsWith("SELECT * FROM read_parquet('")
+        .contains("WHERE contains(lower(CAST(\"a\" AS VARCHAR)), 'o''brien') OR contains(lower(CAST(\"b\" AS VARCHAR)), 'o''brien')")
+        .endsWith(" ORDER BY \"b\" DESC NULLS LAST");
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.service.ParquetEditorService;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JfrEventsTest {
+
+  private static final String PREFIX = "com.github.jhordyhuaman.parquetstudio.";
+
+  @TempDir
+  Path tempDir;
+
+  private List<RecordedEvent> record(Recording recording, Path dump) throws Exception {
+    recording.stop();
+    recording.dump(dump);
+    return RecordingFile.readAllEvents(dump).stream()
+        .filter(e -> e.getEventType().getName().startsWith(PREFIX))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  @DisplayName("Should record DuckDB queries, editor operations and model mutations")
+  void testEventsAreRecorded() throws Exception {
+    File file = new SyntheticParquetGenerator().rows(100).columns(3).generate(tempDir.resolve("in.parquet").toFile());
+
+    List<RecordedEvent> events;
+    try (Recording recording = new Recording()) {
+      recording.enable(PREFIX + "DuckDBQuery");
+      recording.enable(PREFIX + "EditorOperation");
+      recording.enable(PREFIX + "ModelMutation");
+      recording.start();
+
+      ParquetEditorService service = new ParquetEditorService();
+      ParquetData data = service.loadParquetFile(file);
+      ParquetTableModel model = service.initializeTableModel(data);
+      model.deleteRows(new int[] {0, 1, 2});
+      model.setValueAt("7", 0, 1);
+
+      events = record(recording, tempDir.resolve("recording.jfr"));
+    }
+
+    RecordedEvent query = events.stream()
+        .filter(e -> e.getEventType().getName().endsWith("DuckDBQuery") && "load".equals(e.getString("operation")))
+        .findFirst().orElseThrow();
+    assertThat(query.getString("sql")).isEqualTo("SELECT * FROM read_parquet(?)");
+    assertThat(query.getString("path")).isEqualTo(file.getAbsolutePath());
+    assertThat(query.getLong("rows")).isEqualTo(100);
+    assertThat(query.getLong("bytes")).isEqualTo(file.length());
+    assertThat(query.getBoolean("completed")).isTrue();
+    assertThat(query.getBoolean("cancelled")).isFalse();
+    assertThat(query.getThread()).isNotNull();
+
+    assertThat(events)
+        .filteredOn(e -> e.getEventType().getName().endsWith("EditorOperation"))
+        .extracting(e -> e.getString("operation"))
+        .contains("load", "build_model");
+
+    RecordedEvent delete = events.stream()
+        .filter(e -> "delete_rows".equals(e.getString("operation")))
+        .findFirst().orElseThrow();
+    assertThat(delete.getLong("affectedRows")).isEqualTo(3);
+    assertThat(delete.getLong("rowCount")).isEqualTo(97);
+    assertThat(events).filteredOn(e -> "set_value".equals(e.getString("operation"))).hasSize(1);
+    // A bulk delete is one event, not one per row
+    assertThat(events).filteredOn(e -> "delete_row".equals(e.getString("operation"))).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should mark a failed query as not completed")
+  void testFailedQuery() throws Exception {
+    File missing = tempDir.resolve("missing.parquet").toFile();
+
+    List<RecordedEvent> events;
+    try (Recording recording = new Recording()) {
+      recording.enable(PREFIX + "DuckDBQuery");
+      recording.start();
+      try {
+        new ParquetEditorService().loadParquetFile(missing);
+      } catch (Exception expected) {
+        // the load fails, the event must still be there
+      }
+      events = record(recording, tempDir.resolve("failed.jfr"));
+    }
+
+    assertThat(events).isNotEmpty();
+    assertThat(events.get(0).getBoolean("completed")).isFalse();
+    assertThat(events.get(0).getString("path")).isEqualTo(missing.getAbsolutePath());
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.jhordyhuaman.parquetstudio.model.CatalogEntry;
+import com.github.jhordyhuaman.parquetstudio.model.CatalogQuery;
+import com.github.jhordyhuaman.parquetstudio.service.BatchTransformService;
+import com.github.jhordyhuaman.parquetstudio.service.ParquetCatalog;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParquetCatalogTest {
+
+  @TempDir
+  Path tempDir;
+
+  private File indexFile;
+  private ParquetCatalog catalog;
+
+  @BeforeEach
+  void setUp() {
+    indexFile = tempDir.resolve("index/catalog.json.gz").toFile();
+    catalog = new ParquetCatalog(indexFile, 4);
+  }
+
+  private void write(String select, String relativePath) throws Exception {
+    SyntheticParquetGenerator.write(select, tempDir.resolve(relativePath).toFile(), "ROW_GROUP_SIZE 2048, COMPRESSION ZSTD");
+  }
+
+  private List<File> files() throws Exception {
+    return BatchTransformService.findFiles(tempDir.resolve("data").toString());
+  }
+
+  @Test
+  @DisplayName("Should read each footer once and only re-read changed files")
+  void testIncrementalRefresh() throws Exception {
+    write("SELECT range::BIGINT AS customer_id, 'x' AS name FROM range(10000)", "data/a.parquet");
+    write("SELECT 1::INTEGER AS customer_id, 2.5::DECIMAL(10,2) AS amount", "data/b.parquet");
+    write("SELECT 'c' AS code", "data/sub/c.parquet");
+
+    assertThat(catalog.refresh(files(), () -> false)).isEqualTo(3);
+    CatalogEntry a = catalog.getEntry(tempDir.resolve("data/a.parquet").toFile());
+    assertThat(a.getRows()).isEqualTo(10000);
+    assertThat(a.getRowGroups()).isGreaterThan(1);
+    assertThat(a.getCodec()).isEqualTo("ZSTD");
+    assertThat(a.getColumns()).containsExactly("customer_id", "name");
+    assertThat(a.getTypes()).containsExactly("BIGINT", "VARCHAR");
+    assertThat(a.getError()).isNull();
+
+    assertThat(catalog.refresh(files(), () -> false)).isZero();
+
+    write("SELECT 1::BIGINT AS customer_id", "data/b.parquet");
+    tempDir.resolve("data/b.parquet").toFile().setLastModified(System.currentTimeMillis() + 5_000);
+    Files.delete(tempDir.resolve("data/sub/c.parquet"));
+    assertThat(catalog.refresh(files(), () -> false)).isEqualTo(1);
+    assertThat(catalog.size()).isEqualTo(2);
+    assertThat(catalog.getEntry(tempDir.resolve("data/b.parquet").toFile()).getTypes()).containsExactly("BIGINT");
+  }
+
+  @Test
+  @DisplayName("Should save the catalog and load it back without reading the files again")
+  void testPersistence() throws Exception {
+    write("SELECT 1::BIGINT AS customer_id", "data/a.parquet");
+    Files.writeString(tempDir.resolve("data/broken.parquet"), "not parquet");
+    catalog.refresh(files(), () -> false);
+    assertThat(catalog.save()).isTrue();
+    assertThat(catalog.save()).isFalse();
+
+    ParquetCatalog reloaded = new ParquetCatalog(indexFile, 2);
+    assertThat(reloaded.load()).isTrue();
+    assertThat(reloaded.size()).isEqualTo(2);
+    assertThat(reloaded.getEntry(tempDir.resolve("data/a.parquet").toFile()).getColumns()).containsExactly("customer_id");
+    assertThat(reloaded.getEntry(tempDir.resolve("data/broken.parquet").toFile()).getError()).isNotBlank();
+    assertThat(reloaded.refresh(files(), () -> false)).isZero();
+
+    Files.writeString(indexFile.toPath(), "garbage");
+    assertThat(new ParquetCatalog(indexFile, 2).load()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should find the files having a column of a type across many files")
+  void testSearch() throws Exception {
+    SyntheticParquetGenerator.write("SELECT range::BIGINT AS customer_id, (range % 500)::INTEGER AS part FROM range(500)",
+        tempDir.resolve("data/bigint").toFile(), "PARTITION_BY (part)");
+    SyntheticParquetGenerator.write("SELECT range::VARCHAR AS customer_id, (range % 500)::INTEGER AS part FROM range(500)",
+        tempDir.resolve("data/varchar").toFile(), "PARTITION_BY (part)");
+    write("SELECT 1 AS order_id, 1::BIGINT AS customer_id_hash", "data/orders.parquet");
+    catalog.refresh(files(), () -> false);
+    assertThat(catalog.size()).isEqualTo(1001);
+
+    long start = System.nanoTime();
+    List<CatalogEntry> found = catalog.search(CatalogQuery.parse("customer_id:BIGINT"));
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    assertThat(found).hasSize(501);
+    assertThat(millis).isLessThan(1_000);
+
+    assertThat(catalog.search(CatalogQuery.parse("CUSTOMER_ID:varchar"))).hasSize(500);
+    assertThat(catalog.search(CatalogQuery.parse("order_id customer"))).hasSize(1);
+    assertThat(catalog.search(CatalogQuery.parse("bigint part=7/"))
+        .stream().map(entry -> entry.getFile().getParentFile().getParentFile().getName()).collect(Collectors.toList()))
+        .containsExactly("bigint");
+    CatalogEntry orders = catalog.getEntry(tempDir.resolve("data/orders.parquet").toFile());
+    assertThat(CatalogQuery.parse("customer:bigint").matchingColumns(orders)).containsExactly("customer_id_hash BIGINT");
+    assertThat(catalog.search(CatalogQuery.parse(""))).hasSize(1001);
+  }
+
+  @Test
+  @DisplayName("Should drop the entries of a deleted directory and keep the rest")
+  void testRemoveMissing() throws Exception {
+    write("SELECT 1 AS id", "data/keep/a.parquet");
+    write("SELECT 1 AS id", "data/gone/a.parquet");
+    write("SELECT 1 AS id", "data/gone/b.parquet");
+    catalog.refresh(files(), () -> false);
+    int[] changes = new int[1];
+    catalog.addListener(() -> changes[0]++);
+
+    Files.delete(tempDir.resolve("data/gone/a.parquet"));
+    Files.delete(tempDir.resolve("data/gone/b.parquet"));
+    Files.delete(tempDir.resolve("data/gone"));
+
+    assertThat(catalog.removeMissing(tempDir.resolve("data/keep").toString())).isZero();
+    // VFS events give the path with '/' separators on every platform
+    assertThat(catalog.removeMissing(tempDir.resolve("data/gone").toString().replace(File.separatorChar, '/')))
+        .isEqualTo(2);
+    assertThat(catalog.getEntries()).extracting(CatalogEntry::getPath)
+        .containsExactly(tempDir.resolve("data/keep/a.parquet").toString());
+    assertThat(changes[0]).isEqualTo(1);
+  }
+}
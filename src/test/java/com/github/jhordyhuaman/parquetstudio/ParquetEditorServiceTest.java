@@ -0,0 +1,138 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.StageStats;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetPreview;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.ViewQuery;
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import com.github.jhordyhuaman.parquetstudio.service.ParquetEditorService;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParquetEditorServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private ParquetEditorService service;
+  private ParquetTableModel model;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    File source = new SyntheticParquetGenerator().rows(1_000).columns(3)
+        .typeMix(SyntheticParquetGenerator.TypeMix.NUMERIC)
+        .generate(tempDir.resolve("source.parquet").toFile());
+    service = new ParquetEditorService();
+    model = service.initializeTableModel(service.loadParquetFile(source));
+    PerformanceMetrics.getInstance().reset();
+  }
+
+  @Test
+  @DisplayName("Should write the view of an unmodified file straight from the file")
+  void testSaveViewPushedDown() throws Exception {
+    File output = tempDir.resolve("view.parquet").toFile();
+    ViewQuery view = new ViewQuery(Arrays.asList("c1_bigint", "id"), null).orderBy("id", false);
+    int[] rows = new int[model.getRowCount()];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = rows.length - 1 - i;
+    }
+
+    long saved = service.saveView(output, view, rows, new int[] {2, 0}, false, () -> false, bytes -> { });
+
+    ParquetData data = new DuckDBParquetService().loadParquet(output);
+    assertThat(saved).isEqualTo(rows.length);
+    assertThat(data.getColumnNames()).containsExactly("c1_bigint", "id");
+    assertThat(data.getRows()).hasSize(rows.length);
+    assertThat(((Number) data.getRows().get(0).get(1)).longValue()).isEqualTo(rows.length - 1);
+    assertThat(PerformanceMetrics.getInstance().getStats())
+        .extracting(StageStats::getOperation)
+        .contains("export")
+        .doesNotContain("save_rows");
+  }
+
+  @Test
+  @DisplayName("Should write the shown rows from the model when the view has a search")
+  void testSaveViewWithSearchFromModel() throws Exception {
+    File output = tempDir.resolve("search.parquet").toFile();
+    ViewQuery view = new ViewQuery(Arrays.asList("c1_bigint", "id"), "99");
+
+    long saved = service.saveView(output, view, new int[] {99}, new int[] {2, 0}, false, () -> false, bytes -> { });
+
+    ParquetData data = new DuckDBParquetService().loadParquet(output);
+    assertThat(saved).isEqualTo(1);
+    assertThat(data.getRows()).hasSize(1);
+    assertThat(((Number) data.getRows().get(0).get(1)).longValue()).isEqualTo(99L);
+    assertThat(PerformanceMetrics.getInstance().getStats())
+        .extracting(StageStats::getOperation)
+        .contains("save_rows")
+        .doesNotContain("export");
+  }
+
+  @Test
+  @DisplayName("Should write the view of a previewed file from the whole file, not the preview rows")
+  void testSaveViewOfPreview() throws Exception {
+    ParquetEditorService previewService = new ParquetEditorService();
+    ParquetPreview preview = previewService.previewParquetFileAsync(tempDir.resolve("source.parquet").toFile(), 100, 0)
+        .get(30, TimeUnit.SECONDS);
+    ParquetTableModel previewModel = previewService.initializeTableModel(preview);
+    assertThat(previewModel.getRowCount()).isEqualTo(100);
+    int[] rows = new int[previewModel.getRowCount()];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = rows.length - 1 - i;
+    }
+    File output = tempDir.resolve("preview-view.parquet").toFile();
+    ViewQuery view = new ViewQuery(null, null).orderBy("id", false);
+
+    long saved = previewService.saveView(output, view, rows, new int[] {0, 1, 2, 3}, true, () -> false, bytes -> { });
+
+    ParquetData data = new DuckDBParquetService().loadParquet(output);
+    assertThat(saved).isEqualTo(1_000);
+    assertThat(data.getRows()).hasSize(1_000);
+    assertThat(((Number) data.getRows().get(0).get(0)).longValue()).isEqualTo(999L);
+    assertThat(PerformanceMetrics.getInstance().getStats())
+        .extracting(StageStats::getOperation)
+        .doesNotContain("save_rows");
+  }
+
+  @Test
+  @DisplayName("Should write the shown rows from the model once the data was edited")
+  void testSaveViewFromModel() throws Exception {
+    model.setValueAt("-5", 3, 1);
+    File output = tempDir.resolve("edited.parquet").toFile();
+
+    long saved = service.saveView(output, new ViewQuery(null, null), new int[] {3, 1}, new int[] {1, 0}, false,
+        () -> false, bytes -> { });
+
+    ParquetData data = new DuckDBParquetService().loadParquet(output);
+    assertThat(saved).isEqualTo(2);
+    assertThat(data.getColumnNames()).containsExactly("c0_integer", "id");
+    List<Object> first = data.getRows().get(0);
+    assertThat(first.get(0)).isEqualTo(-5);
+    assertThat(((Number) first.get(1)).longValue()).isEqualTo(3L);
+    assertThat(((Number) data.getRows().get(1).get(1)).longValue()).isEqualTo(1L);
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.jhordyhuaman.parquetstudio.service.ParquetLoadScheduler;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ParquetLoadSchedulerTest {
+
+  private ParquetLoadScheduler scheduler;
+  private CountDownLatch release;
+
+  @BeforeEach
+  void setUp() {
+    scheduler = new ParquetLoadScheduler(1);
+    release = new CountDownLatch(1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    scheduler.shutdown();
+  }
+
+  /** Occupies the single loader thread until {@code release} is opened. */
+  private CompletableFuture<String> blockLoader() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CompletableFuture<String> blocker = scheduler.submit("blocker", ParquetLoadScheduler.PRIORITY_VISIBLE, () -> {
+      started.countDown();
+      release.await();
+      return "blocker";
+    });
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    return blocker;
+  }
+
+  @Test
+  @DisplayName("Should share one load between requests for the same key")
+  void testDeduplicatesSameKey() throws Exception {
+    blockLoader();
+    AtomicInteger calls = new AtomicInteger();
+
+    CompletableFuture<String> first = scheduler.submit("/data/a.parquet", ParquetLoadScheduler.PRIORITY_BACKGROUND,
+        () -> "load-" + calls.incrementAndGet());
+    CompletableFuture<String> second = scheduler.submit("/data/a.parquet", ParquetLoadScheduler.PRIORITY_BACKGROUND,
+        () -> "load-" + calls.incrementAndGet());
+
+    release.countDown();
+    assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("load-1");
+    assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("load-1");
+    assertThat(calls.get()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should run the visible load before earlier background loads")
+  void testVisibleLoadRunsFirst() throws Exception {
+    blockLoader();
+    List<String> order = new CopyOnWriteArrayList<>();
+
+    CompletableFuture<String> a = scheduler.submit("a", ParquetLoadScheduler.PRIORITY_BACKGROUND, () -> record(order, "a"));
+    CompletableFuture<String> b = scheduler.submit("b", ParquetLoadScheduler.PRIORITY_BACKGROUND, () -> record(order, "b"));
+    CompletableFuture<String> c = scheduler.submit("c", ParquetLoadScheduler.PRIORITY_BACKGROUND, () -> record(order, "c"));
+    assertThat(scheduler.reprioritize("c", ParquetLoadScheduler.PRIORITY_VISIBLE)).isTrue();
+
+    release.countDown();
+    CompletableFuture.allOf(a, b, c).get(5, TimeUnit.SECONDS);
+    assertThat(order).containsExactly("c", "a", "b");
+  }
+
+  @Test
+  @DisplayName("Should cancel a queued load")
+  void testCancelQueuedLoad() throws Exception {
+    blockLoader();
+    CompletableFuture<String> queued = scheduler.submit("queued", ParquetLoadScheduler.PRIORITY_BACKGROUND, () -> "done");
+
+    assertThat(scheduler.isQueued("queued")).isTrue();
+    assertThat(queued.cancel(false)).isTrue();
+    assertThat(queued).isCancelled();
+    assertThat(scheduler.isQueued("queued")).isFalse();
+    assertThat(scheduler.getQueuedCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should keep a shared load queued until every request is cancelled")
+  void testCancelOneOfSharedRequests() throws Exception {
+    blockLoader();
+    CompletableFuture<String> first = scheduler.submit("shared", ParquetLoadScheduler.PRIORITY_BACKGROUND, () -> "done");
+    CompletableFuture<String> second = scheduler.submit("shared", ParquetLoadScheduler.PRIORITY_BACKGROUND, () -> "done");
+
+    first.cancel(false);
+    assertThat(first).isCancelled();
+    assertThat(scheduler.isQueued("shared")).isTrue();
+
+    release.countDown();
+    assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+  }
+
+  @Test
+  @DisplayName("Should dequeue a shared load once its last request is cancelled")
+  void testCancelAllSharedRequests() throws Exception {
+    blockLoader();
+    CompletableFuture<String> first = scheduler.submit("shared", ParquetLoadScheduler.PRIORITY_BACKGROUND, () -> "done");
+    CompletableFuture<String> second = scheduler.submit("shared", ParquetLoadScheduler.PRIORITY_BACKGROUND, () -> "done");
+
+    first.cancel(false);
+    second.cancel(false);
+    assertThat(scheduler.isQueued("shared")).isFalse();
+    assertThat(scheduler.getQueuedCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should propagate loader failures and accept the key again afterwards")
+  void testFailureReleasesKey() throws Exception {
+    CompletableFuture<String> failed = scheduler.submit("bad", ParquetLoadScheduler.PRIORITY_VISIBLE, () -> {
+      throw new IllegalStateException("broken file");
+    });
+    assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+
+    CompletableFuture<String> retry = scheduler.submit("bad", ParquetLoadScheduler.PRIORITY_VISIBLE, () -> "ok");
+    assertThat(retry.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+  }
+
+  @Test
+  @DisplayName("Should reject a concurrency below one")
+  void testInvalidConcurrency() {
+    assertThatThrownBy(() -> new ParquetLoadScheduler(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static String record(List<String> order, String key) {
+    order.add(key);
+    return key;
+  }
+}
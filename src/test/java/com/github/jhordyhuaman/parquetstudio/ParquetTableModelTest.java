@@ -17,11 +17,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetSearchFilter;
 import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import javax.swing.event.TableModelEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -151,6 +153,108 @@ class ParquetTableModelTest {
     assertThat(model.getRowCount()).isEqualTo(0);
   }
 
+  /** Builds a model whose rows hold their original index in the id column. */
+  private static ParquetTableModel numberedModel(int rowCount) {
+    List<List<Object>> numbered = new ArrayList<>();
+    for (int i = 0; i < rowCount; i++) {
+      List<Object> row = new ArrayList<>();
+      row.add(i);
+      row.add(i % 3 == 0 ? "fizz" : "n" + i);
+      numbered.add(row);
+    }
+    return new ParquetTableModel(List.of("id", "label"), List.of("INTEGER", "VARCHAR"), numbered);
+  }
+
+  @Test
+  @DisplayName("Should delete scattered rows with a single table event")
+  void testDeleteRowsFiresOneEvent() {
+    ParquetTableModel numbered = numberedModel(10);
+    List<TableModelEvent> events = new ArrayList<>();
+    numbered.addTableModelListener(events::add);
+
+    int deleted = numbered.deleteRows(new int[]{7, 1, 3, 3, 42, -1});
+
+    assertThat(deleted).isEqualTo(3);
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getType()).isEqualTo(TableModelEvent.UPDATE);
+    assertThat(numbered.getRowCount()).isEqualTo(7);
+    List<Object> ids = new ArrayList<>();
+    for (int i = 0; i < numbered.getRowCount(); i++) {
+      ids.add(numbered.getValueAt(i, 0));
+    }
+    assertThat(ids).containsExactly(0, 2, 4, 5, 6, 8, 9);
+  }
+
+  @Test
+  @DisplayName("Should fire a range deletion for contiguous rows")
+  void testDeleteContiguousRows() {
+    ParquetTableModel numbered = numberedModel(10);
+    List<TableModelEvent> events = new ArrayList<>();
+    numbered.addTableModelListener(events::add);
+
+    numbered.deleteRows(new int[]{4, 2, 3});
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getType()).isEqualTo(TableModelEvent.DELETE);
+    assertThat(events.get(0).getFirstRow()).isEqualTo(2);
+    assertThat(events.get(0).getLastRow()).isEqualTo(4);
+    assertThat(numbered.getValueAt(2, 0)).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("Should keep deleted rows out of edits, new rows and saved data until compaction")
+  void testTombstonesAndCompaction() {
+    ParquetTableModel numbered = numberedModel(10);
+
+    numbered.deleteRows(new int[]{0, 5});
+    assertThat(numbered.getPendingDeletions()).isEqualTo(2);
+
+    numbered.setValueAt("77", 0, 0);
+    numbered.addRow();
+    assertThat(numbered.getRowCount()).isEqualTo(9);
+    assertThat(numbered.getValueAt(0, 0)).isEqualTo(77);
+    assertThat(numbered.getValueAt(4, 0)).isEqualTo(6);
+    assertThat(numbered.getValueAt(8, 1)).isEqualTo("");
+
+    ParquetData data = numbered.toParquetData();
+    assertThat(numbered.getPendingDeletions()).isEqualTo(2);
+    assertThat(data.getRows()).hasSize(9);
+    assertThat(data.getRows().get(0).get(0)).isEqualTo(77);
+    assertThat(data.getRows().get(4).get(0)).isEqualTo(6);
+  }
+
+  @Test
+  @DisplayName("Should compact once more than half of the rows are deleted")
+  void testLazyCompaction() {
+    ParquetTableModel numbered = numberedModel(10);
+
+    numbered.deleteRows(new int[]{0, 1, 2});
+    numbered.deleteRow(0);
+    assertThat(numbered.getPendingDeletions()).isEqualTo(4);
+
+    numbered.deleteRows(new int[]{0, 1});
+    assertThat(numbered.getPendingDeletions()).isZero();
+    assertThat(numbered.getRowCount()).isEqualTo(4);
+    assertThat(numbered.getValueAt(0, 0)).isEqualTo(6);
+  }
+
+  @Test
+  @DisplayName("Should delete every row matching a search")
+  void testDeleteRowsMatching() {
+    ParquetTableModel numbered = numberedModel(10);
+    List<TableModelEvent> events = new ArrayList<>();
+    numbered.addTableModelListener(events::add);
+
+    int deleted = numbered.deleteRowsMatching(ParquetSearchFilter.forText("FIZZ")::matches);
+
+    assertThat(deleted).isEqualTo(4);
+    assertThat(events).hasSize(1);
+    assertThat(numbered.getRowCount()).isEqualTo(6);
+    for (int i = 0; i < numbered.getRowCount(); i++) {
+      assertThat(numbered.getValueAt(i, 1)).isNotEqualTo("fizz");
+    }
+  }
+
   @Test
   @DisplayName("Should convert to ParquetData")
   void testToParquetData() {
@@ -411,5 +515,16 @@ class ParquetTableModelTest {
     assertThat(model.getValueAt(0, 1)).isEqualTo(true); // active (was index 2, now 1)
     assertThat(model.getValueAt(0, 2)).isEqualTo("test_value"); // new_col (was index 3, now 2)
   }
-}
 
+  @Test
+  @DisplayName("Should flag the model as modified on the first change, even once undone")
+  void testIsModified() {
+    assertThat(model.isModified()).isFalse();
+    model.getValueAt(0, 0);
+    assertThat(model.isModified()).isFalse();
+
+    model.setValueAt("Alicia", 0, 1);
+    model.setValueAt("Alice", 0, 1);
+    assertThat(model.isModified()).isTrue();
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetWriteOptions;
+import com.github.jhordyhuaman.parquetstudio.model.PartitionSpec;
+import com.github.jhordyhuaman.parquetstudio.model.PartitionedDataset;
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import com.github.jhordyhuaman.parquetstudio.service.PartitionedWriteService;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PartitionedWriteServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private DuckDBParquetService duckDB;
+  private PartitionedWriteService service;
+  private ParquetTableModel model;
+
+  @BeforeEach
+  void setUp() {
+    duckDB = new DuckDBParquetService();
+    service = new PartitionedWriteService(duckDB);
+    List<List<Object>> rows = new ArrayList<>();
+    String[] regions = {"eu", "us", null, "a/b"};
+    for (int i = 0; i < 20; i++) {
+      rows.add(new ArrayList<>(Arrays.asList(i, regions[i % 4], i % 2 == 0 ? "even" : "odd")));
+    }
+    model = new ParquetTableModel(Arrays.asList("id", "region", "kind"),
+        Arrays.asList("INTEGER", "VARCHAR", "VARCHAR"), rows);
+  }
+
+  private List<String> relativeFiles(File directory) throws Exception {
+    try (Stream<Path> paths = Files.walk(directory.toPath())) {
+      return paths.filter(Files::isRegularFile)
+          .map(path -> directory.toPath().relativize(path).toString().replace('\\', '/'))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private List<String> query(String sql) throws Exception {
+    List<String> rows = new ArrayList<>();
+    try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+         Statement st = conn.createStatement();
+         ResultSet rs = st.executeQuery(sql)) {
+      while (rs.next()) {
+        rows.add(rs.getString(1));
+      }
+    }
+    return rows;
+  }
+
+  @Test
+  @DisplayName("Should write one Hive directory per partition value without the partition column")
+  void testWriteModel() throws Exception {
+    File directory = tempDir.resolve("dataset").toFile();
+    List<Integer> progress = new ArrayList<>();
+    PartitionedDataset dataset = service.write(model, new PartitionSpec(List.of("region"), 0, 2),
+        ParquetWriteOptions.DEFAULT, directory, () -> false, progress::add);
+
+    assertThat(dataset.getPartitionCount()).isEqualTo(4);
+    assertThat(dataset.getFileCount()).isEqualTo(4);
+    assertThat(dataset.getRowCount()).isEqualTo(20);
+    assertThat(dataset.getSchema().partitions).containsExactly("region");
+    assertThat(dataset.getSchema().fields).extracting(field -> field.name).containsExactly("id", "kind", "region");
+    assertThat(progress).hasSize(4);
+    assertThat(relativeFiles(directory)).containsExactly(
+        "region=__HIVE_DEFAULT_PARTITION__/data_0.parquet", "region=a%2Fb/data_0.parquet",
+        "region=eu/data_0.parquet", "region=us/data_0.parquet");
+    assertThat(tempDir.toFile().list()).containsExactly("dataset");
+
+    ParquetData eu = duckDB.loadParquet(new File(directory, "region=eu/data_0.parquet"));
+    assertThat(eu.getColumnNames()).containsExactly("id", "kind", "region");
+    assertThat(eu.getRows()).extracting(row -> row.get(0)).containsExactly(0, 4, 8, 12, 16);
+    assertThat(query("SELECT count(*) FROM read_parquet('" + directory + "/*/*.parquet', hive_partitioning = false)"))
+        .containsExactly("20");
+  }
+
+  @Test
+  @DisplayName("Should write NULL and empty partition values to the same default partition")
+  void testNullAndEmptyShareDefaultPartition() throws Exception {
+    List<List<Object>> rows = new ArrayList<>();
+    String[] regions = {"eu", null, "", "eu", "", null};
+    for (int i = 0; i < regions.length; i++) {
+      rows.add(new ArrayList<>(Arrays.asList(i, regions[i])));
+    }
+    ParquetTableModel mixed = new ParquetTableModel(Arrays.asList("id", "region"),
+        Arrays.asList("INTEGER", "VARCHAR"), rows);
+    File directory = tempDir.resolve("dataset").toFile();
+    PartitionedDataset dataset = service.write(mixed, new PartitionSpec(List.of("region"), 0, 2),
+        ParquetWriteOptions.DEFAULT, directory, () -> false, count -> { });
+
+    assertThat(dataset.getPartitionCount()).isEqualTo(2);
+    assertThat(dataset.getRowCount()).isEqualTo(6);
+    assertThat(relativeFiles(directory)).containsExactly(
+        "region=__HIVE_DEFAULT_PARTITION__/data_0.parquet", "region=eu/data_0.parquet");
+    assertThat(query("SELECT id FROM read_parquet('" + directory
+        + "/region=__HIVE_DEFAULT_PARTITION__/*.parquet', hive_partitioning = false) ORDER BY id"))
+        .containsExactly("1", "2", "4", "5");
+  }
+
+  @Test
+  @DisplayName("Should split the partitions of a file into files of the given size")
+  void testWriteFileWithSizeLimit() throws Exception {
+    File source = tempDir.resolve("source.parquet").toFile();
+    try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+         Statement st = conn.createStatement()) {
+      st.execute("COPY (SELECT i AS id, i % 2 AS year, md5(i::VARCHAR) AS payload FROM range(200000) t(i)) TO '"
+          + source + "' (FORMAT PARQUET)");
+    }
+    File directory = tempDir.resolve("sized").toFile();
+    PartitionedDataset dataset = service.write(source, new PartitionSpec(List.of("year"), 1024 * 1024, 2),
+        new ParquetWriteOptions(ParquetWriteOptions.Compression.UNCOMPRESSED, 10_000), directory, () -> false, n -> { });
+
+    assertThat(dataset.getPartitionCount()).isEqualTo(2);
+    assertThat(dataset.getFileCount()).isGreaterThan(2);
+    assertThat(relativeFiles(directory)).allMatch(path -> path.matches("year=[01]/data_\\d+\\.parquet"));
+    assertThat(query("SELECT count(*) FROM read_parquet('" + directory + "/*/*.parquet') WHERE year = 1"))
+        .containsExactly("100000");
+  }
+
+  @Test
+  @DisplayName("Should refuse unknown columns and directories that are not empty")
+  void testRejects() throws Exception {
+    File directory = tempDir.resolve("dataset").toFile();
+    assertThatThrownBy(() -> service.write(model, new PartitionSpec(List.of("missing"), 0, 1),
+        ParquetWriteOptions.DEFAULT, directory, () -> false, n -> { }))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("missing");
+    assertThatThrownBy(() -> service.write(model, new PartitionSpec(List.of("id", "region", "kind"), 0, 1),
+        ParquetWriteOptions.DEFAULT, directory, () -> false, n -> { }))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    Files.createDirectories(directory.toPath());
+    Files.writeString(directory.toPath().resolve("keep.txt"), "x");
+    assertThatThrownBy(() -> service.write(model, new PartitionSpec(List.of("region"), 0, 1),
+        ParquetWriteOptions.DEFAULT, directory, () -> false, n -> { }))
+        .hasMessageContaining("new or empty");
+    assertThat(directory.list()).containsExactly("keep.txt");
+  }
+
+  @Test
+  @DisplayName("Should find Hive partition columns from a file path and escape partition values")
+  void testHivePaths() {
+    File file = new File("/data/sales/year=2024/month=5/part-0.parquet");
+    assertThat(PartitionedWriteService.hivePartitions(file, List.of("id", "year", "month")))
+        .containsExactly("year", "month");
+    assertThat(PartitionedWriteService.hivePartitions(file, List.of("id", "month"))).containsExactly("month");
+    assertThat(PartitionedWriteService.partitionPath("ts", "2024-01-02 10:00:00")).isEqualTo("ts=2024-01-02 10%3A00%3A00");
+    assertThat(PartitionedWriteService.partitionPath("k", "")).isEqualTo("k=" + PartitionedWriteService.NULL_PARTITION);
+  }
+}
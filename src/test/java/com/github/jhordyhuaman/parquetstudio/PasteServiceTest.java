@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.jhordyhuaman.parquetstudio.model.EditJournal;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.PastePlan;
+import com.github.jhordyhuaman.parquetstudio.service.PasteService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PasteServiceTest {
+
+  private PasteService service;
+  private ParquetTableModel model;
+  private EditJournal journal;
+
+  @BeforeEach
+  void setUp() {
+    service = new PasteService();
+    List<List<Object>> rows = new ArrayList<>();
+    rows.add(new ArrayList<>(Arrays.asList(1, "alice", LocalDate.of(2024, 1, 1))));
+    rows.add(new ArrayList<>(Arrays.asList(2, "bob", null)));
+    model = new ParquetTableModel(Arrays.asList("id", "name", "joined"),
+        Arrays.asList("INTEGER", "VARCHAR", "DATE"), rows);
+    journal = new EditJournal(10, Long.MAX_VALUE, Runnable::run);
+    model.setJournal(journal);
+  }
+
+  @Test
+  @DisplayName("Should paste a block over existing rows and append the rest")
+  void testPasteAppendsRows() {
+    PastePlan plan = service.prepare(model, "10\tx\n20\ty\n30\tz\n", new int[] {0, 1}, 0);
+    assertThat(plan.getRowsToAdd()).isEqualTo(1);
+    assertThat(plan.getReport().hasErrors()).isFalse();
+
+    assertThat(service.apply(model, plan)).isEqualTo(6);
+    assertThat(model.getRowCount()).isEqualTo(3);
+    assertThat(model.getColumnValues(0, null)).containsExactly(10, 20, 30);
+    assertThat(model.getColumnValues(1, null)).containsExactly("x", "y", "z");
+    assertThat(model.getValueAt(1, 2)).isNull();
+  }
+
+  @Test
+  @DisplayName("Should skip cells that do not fit their column and report them")
+  void testPasteReportsBadCells() {
+    PastePlan plan = service.prepare(model, "name,joined\nbob2,2024-02-30", new int[] {0, 1}, 1);
+
+    assertThat(plan.getReport().getErrorCount()).isEqualTo(2);
+    assertThat(plan.getReport().format(5))
+        .contains("line 1, joined (DATE): 'joined'")
+        .contains("line 2, joined (DATE): '2024-02-30'");
+    service.apply(model, plan);
+    assertThat(model.getColumnValues(1, null)).containsExactly("name", "bob2");
+    assertThat(model.getColumnValues(2, null)).containsExactly(LocalDate.of(2024, 1, 1), null);
+  }
+
+  @Test
+  @DisplayName("Should ignore pasted columns past the last column")
+  void testPasteClipsColumns() {
+    PastePlan plan = service.prepare(model, "a\t2024-05-05\textra", new int[] {1}, 1);
+
+    assertThat(plan.getSkippedColumns()).isEqualTo(1);
+    service.apply(model, plan);
+    assertThat(model.getValueAt(1, 2)).isEqualTo(LocalDate.of(2024, 5, 5));
+  }
+
+  @Test
+  @DisplayName("Should undo a whole paste in one step")
+  void testPasteIsOneUndo() {
+    service.apply(model, service.prepare(model, "7\tq\n8\tr\n9\ts", new int[] {0, 1}, 0));
+    assertThat(journal.getUndoCount()).isEqualTo(1);
+    assertThat(journal.getUndoName()).isEqualTo("paste 6 cell(s)");
+
+    journal.undo(model);
+    assertThat(model.getRowCount()).isEqualTo(2);
+    assertThat(model.getColumnValues(0, null)).containsExactly(1, 2);
+    assertThat(model.getColumnValues(1, null)).containsExactly("alice", "bob");
+
+    journal.redo(model);
+    assertThat(model.getColumnValues(0, null)).containsExactly(7, 8, 9);
+  }
+
+  @Test
+  @DisplayName("Should paste half a million rows quickly")
+  void testLargePaste() {
+    int lines = 500_000;
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < lines; i++) {
+      text.append(i).append('\t').append("name").append(i % 100).append('\t').append("2024-03-").append(10 + i % 18).append('\n');
+    }
+
+    long start = System.nanoTime();
+    PastePlan plan = service.prepare(model, text.toString(), new int[] {0, 1}, 0);
+    service.apply(model, plan);
+    long millis = (System.nanoTime() - start) / 1_000_000;
+
+    assertThat(model.getRowCount()).isEqualTo(lines);
+    assertThat(model.getValueAt(lines - 1, 2)).isEqualTo(LocalDate.of(2024, 3, 10 + (lines - 1) % 18));
+    assertThat(millis).isLessThan(10_000);
+  }
+}
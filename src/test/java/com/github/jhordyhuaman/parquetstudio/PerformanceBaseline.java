@@ -0,0 +1,183 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import javax.swing.SwingUtilities;
+
+/**
+ * Measures performance scenarios and compares them with the checked-in baseline in
+ * {@code src/test/resources/performance/baseline.properties}.
+ *
+ * <p>Each scenario records three metrics: {@code wall_ms}, {@code peak_heap_mb} and
+ * {@code edt_ms} (time the scenario kept the event dispatch thread busy). A metric fails
+ * when it exceeds {@code baseline * (1 + tolerance) + slack}. System properties:
+ * <ul>
+ *   <li>{@value #TOLERANCE_PROPERTY} - allowed relative growth, default 0.25</li>
+ *   <li>{@value #BASELINE_PROPERTY} - baseline file, default the classpath resource</li>
+ *   <li>{@value #UPDATE_PROPERTY} - write the measured values to the baseline file instead of comparing</li>
+ *   <li>{@value #REPORT_PROPERTY} - directory for {@code results.properties}</li>
+ * </ul>
+ */
+public class PerformanceBaseline {
+  public static final String TOLERANCE_PROPERTY = "parquetstudio.perf.tolerance";
+  public static final String BASELINE_PROPERTY = "parquetstudio.perf.baselineFile";
+  public static final String UPDATE_PROPERTY = "parquetstudio.perf.updateBaseline";
+  public static final String REPORT_PROPERTY = "parquetstudio.perf.reportDir";
+
+  private static final String RESOURCE = "/performance/baseline.properties";
+  /** Absolute slack per metric, so scenarios of a few milliseconds do not flake. */
+  private static final Map<String, Double> SLACK = Map.of("wall_ms", 100.0, "peak_heap_mb", 64.0, "edt_ms", 50.0);
+
+  private final Properties baseline = new Properties();
+  private final Map<String, Double> results = new TreeMap<>();
+  private final double tolerance;
+  private long edtNanos;
+
+  public PerformanceBaseline() throws IOException {
+    this.tolerance = Double.parseDouble(System.getProperty(TOLERANCE_PROPERTY, "0.25"));
+    String path = System.getProperty(BASELINE_PROPERTY);
+    if (path != null && new File(path).isFile()) {
+      try (Reader reader = new FileReader(path)) {
+        baseline.load(reader);
+      }
+    } else {
+      try (InputStream in = PerformanceBaseline.class.getResourceAsStream(RESOURCE)) {
+        if (in != null) {
+          baseline.load(in);
+        }
+      }
+    }
+  }
+
+  /**
+   * Work measured by a scenario. It may call {@link #onEdt} for the parts the editor runs
+   * on the event dispatch thread.
+   */
+  public interface Scenario {
+    void run() throws Exception;
+  }
+
+  /**
+   * Runs a part of a scenario on the event dispatch thread and counts its time as EDT time.
+   */
+  public void onEdt(Scenario work) throws Exception {
+    Exception[] failure = new Exception[1];
+    SwingUtilities.invokeAndWait(() -> {
+      long start = System.nanoTime();
+      try {
+        work.run();
+      } catch (Exception e) {
+        failure[0] = e;
+      } finally {
+        edtNanos += System.nanoTime() - start;
+      }
+    });
+    if (failure[0] != null) {
+      throw failure[0];
+    }
+  }
+
+  /**
+   * Runs a scenario once and records its metrics.
+   *
+   * @return the regressions found, empty when the scenario is within the baseline
+   */
+  public List<String> measure(String scenario, Scenario work) throws Exception {
+    System.gc();
+    List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        heapPools.add(pool);
+      }
+    }
+    heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+    edtNanos = 0;
+
+    long start = System.nanoTime();
+    work.run();
+    long wallNanos = System.nanoTime() - start;
+
+    long peakBytes = 0;
+    for (MemoryPoolMXBean pool : heapPools) {
+      peakBytes += pool.getPeakUsage().getUsed();
+    }
+
+    results.put(scenario + ".wall_ms", wallNanos / 1_000_000.0);
+    results.put(scenario + ".peak_heap_mb", peakBytes / (1024.0 * 1024.0));
+    results.put(scenario + ".edt_ms", edtNanos / 1_000_000.0);
+
+    List<String> regressions = new ArrayList<>();
+    for (String metric : SLACK.keySet()) {
+      String key = scenario + "." + metric;
+      String expected = baseline.getProperty(key);
+      double actual = results.get(key);
+      System.out.printf(Locale.ROOT, "perf scenario=%s metric=%s value=%.1f baseline=%s%n",
+          scenario, metric, actual, expected);
+      if (expected == null || Boolean.getBoolean(UPDATE_PROPERTY)) {
+        continue;
+      }
+      double limit = Double.parseDouble(expected) * (1 + tolerance) + SLACK.get(metric);
+      if (actual > limit) {
+        regressions.add(String.format(Locale.ROOT, "%s = %.1f exceeds baseline %s (limit %.1f)",
+            key, actual, expected, limit));
+      }
+    }
+    return regressions;
+  }
+
+  /**
+   * Writes the measured values to the report directory and, in update mode, to the baseline.
+   */
+  public void writeResults() throws IOException {
+    String reportDir = System.getProperty(REPORT_PROPERTY);
+    if (reportDir != null) {
+      File dir = new File(reportDir);
+      dir.mkdirs();
+      store(new File(dir, "results.properties"), results);
+    }
+    String baselinePath = System.getProperty(BASELINE_PROPERTY);
+    if (Boolean.getBoolean(UPDATE_PROPERTY) && baselinePath != null) {
+      Map<String, Double> merged = new TreeMap<>();
+      baseline.forEach((k, v) -> merged.put((String) k, Double.parseDouble((String) v)));
+      merged.putAll(results);
+      store(new File(baselinePath), merged);
+    }
+  }
+
+  private static void store(File file, Map<String, Double> values) throws IOException {
+    try (Writer writer = new FileWriter(file)) {
+      writer.write("# Performance baseline: wall_ms, peak_heap_mb and edt_ms per scenario\n");
+      writer.write("# Regenerate with ./gradlew perfTest -PupdateBaseline\n");
+      for (Map.Entry<String, Double> entry : values.entrySet()) {
+        writer.write(String.format(Locale.ROOT, "%s=%.1f%n", entry.getKey(), entry.getValue()));
+      }
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.jhordyhuaman.parquetstudio.diagnostics.PerformanceMetrics;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.Stage;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.StageRecord;
+import com.github.jhordyhuaman.parquetstudio.diagnostics.StageStats;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PerformanceMetricsTest {
+
+  private PerformanceMetrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    metrics = new PerformanceMetrics(Long.MAX_VALUE / 1_000_000L);
+  }
+
+  @Test
+  @DisplayName("Should aggregate stage runs by operation and stage")
+  void testAggregatesStages() {
+    metrics.record("load", "scan", 2_000_000, 100, 4096, -1, false);
+    metrics.record("load", "scan", 6_000_000, 300, 4096, -1, false);
+    metrics.record("load", "model_swap", 1_000_000, 400, -1, -1, true);
+
+    List<StageStats> stats = metrics.getStats();
+
+    assertThat(stats).extracting(StageStats::getStage).containsExactly("model_swap", "scan");
+    StageStats scan = stats.get(1);
+    assertThat(scan.getCount()).isEqualTo(2);
+    assertThat(scan.getAverageMillis()).isEqualTo(4.0);
+    assertThat(scan.getMaxMillis()).isEqualTo(6.0);
+    assertThat(scan.getRows()).isEqualTo(400);
+    assertThat(scan.getRowsPerSecond()).isEqualTo(50_000);
+    assertThat(scan.getEdtMillis()).isZero();
+    assertThat(metrics.getEdtMillis()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should record a stage when it is closed, even if it fails")
+  void testStageRecordsOnClose() {
+    try (Stage stage = metrics.stage("save", "copy")) {
+      stage.rows(10).bytes(128);
+      throw new IllegalStateException("disk full");
+    } catch (IllegalStateException expected) {
+      // recorded anyway
+    }
+
+    List<StageRecord> recent = metrics.getRecent();
+    assertThat(recent).hasSize(1);
+    assertThat(recent.get(0).getRows()).isEqualTo(10);
+    assertThat(recent.get(0).getBytes()).isEqualTo(128);
+    assertThat(recent.get(0).isOnEdt()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should format a structured log line without unmeasured counters")
+  void testLogLine() {
+    StageRecord record = new StageRecord("search", "filter", 1_500_000, 3000, -1, 2048, true, "AWT-EventQueue-0", 0);
+
+    assertThat(record.toLogLine())
+        .startsWith("perf op=search stage=filter ms=1.50")
+        .contains("rows=3000", "rows_per_sec=2000000", "alloc_bytes=2048", "edt=true")
+        .doesNotContain("bytes=-1");
+  }
+
+  @Test
+  @DisplayName("Should notify listeners and clear everything on reset")
+  void testListenersAndReset() {
+    AtomicInteger notifications = new AtomicInteger();
+    metrics.addListener(notifications::incrementAndGet);
+
+    metrics.record("sort", "sort", 1_000, 10, -1, -1, true);
+    metrics.reset();
+
+    assertThat(notifications.get()).isEqualTo(2);
+    assertThat(metrics.getStats()).isEmpty();
+    assertThat(metrics.getRecent()).isEmpty();
+    assertThat(metrics.formatReport()).contains("Parquet Studio performance report");
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetSearchFilter;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaItem;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import com.github.jhordyhuaman.parquetstudio.service.ParquetEditorService;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.JTable;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Fixed matrix of performance scenarios compared against the checked-in baseline.
+ * Tagged {@code performance}: excluded from {@code ./gradlew test}, run with
+ * {@code ./gradlew perfTest}. See {@link PerformanceBaseline} for the settings.
+ */
+@Tag("performance")
+class PerformanceRegressionTest {
+
+  private static final int MILLION = 1_000_000;
+
+  private static File fixtureDir;
+  private static File millionRows;
+  private static File fiveThousandColumns;
+  private static File saveRows;
+  private static PerformanceBaseline baseline;
+
+  @BeforeAll
+  static void generateFixtures() throws Exception {
+    DuckDBParquetService.warmUp();
+    fixtureDir = Files.createTempDirectory("parquet-studio-perf").toFile();
+    millionRows = new SyntheticParquetGenerator()
+        .rows(MILLION)
+        .columns(8)
+        .nullRatio(0.05)
+        .generate(new File(fixtureDir, "rows-1m.parquet"));
+    fiveThousandColumns = new SyntheticParquetGenerator()
+        .rows(1_000)
+        .columns(5_000)
+        .generate(new File(fixtureDir, "columns-5k.parquet"));
+    saveRows = new SyntheticParquetGenerator()
+        .rows(100_000)
+        .columns(8)
+        .generate(new File(fixtureDir, "rows-100k.parquet"));
+    baseline = new PerformanceBaseline();
+  }
+
+  @AfterAll
+  static void cleanUp() throws Exception {
+    baseline.writeResults();
+    for (File file : fixtureDir.listFiles()) {
+      file.delete();
+    }
+    fixtureDir.delete();
+  }
+
+  /** Loads a fixture into a table model outside of any measurement. */
+  private static ParquetTableModel loadModel(File file) throws Exception {
+    ParquetData data = new DuckDBParquetService().loadParquet(file);
+    return new ParquetTableModel(data.getColumnNames(), data.getColumnTypes(), data.getRows());
+  }
+
+  /** Opens a file the way the editor tab does: scan on a worker, model swap on the EDT. */
+  private static void open(File file) throws Exception {
+    ParquetEditorService service = new ParquetEditorService();
+    ParquetData data = service.loadParquetFile(file);
+    JTable table = new JTable();
+    baseline.onEdt(() -> {
+      ParquetTableModel model = service.initializeTableModel(data);
+      table.setModel(model);
+      table.setRowSorter(new TableRowSorter<>(model));
+    });
+  }
+
+  @Test
+  @DisplayName("Should open 1M rows within the baseline")
+  void testOpenMillionRows() throws Exception {
+    List<String> regressions = baseline.measure("open_1m_rows", () -> open(millionRows));
+    assertThat(regressions).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should open 5k columns within the baseline")
+  void testOpenFiveThousandColumns() throws Exception {
+    List<String> regressions = baseline.measure("open_5k_columns", () -> open(fiveThousandColumns));
+    assertThat(regressions).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should search 1M rows within the baseline")
+  void testSearchMillionRows() throws Exception {
+    TableRowSorter<TableModel> sorter = new TableRowSorter<>(loadModel(millionRows));
+    int[] matches = new int[1];
+
+    List<String> regressions = baseline.measure("search_1m_rows", () -> baseline.onEdt(() -> {
+      sorter.setRowFilter(ParquetSearchFilter.forText("s42"));
+      matches[0] = sorter.getViewRowCount();
+    }));
+
+    assertThat(matches[0]).isPositive();
+    assertThat(regressions).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should sort 1M rows within the baseline")
+  void testSortMillionRows() throws Exception {
+    TableRowSorter<TableModel> sorter = new TableRowSorter<>(loadModel(millionRows));
+
+    // c3 is the VARCHAR column: the slowest comparator. The editor sorts with the JDK
+    // TableRowSorter, whose Collator compares 1M strings on the EDT for tens of seconds; the
+    // baseline records that known freeze so it does not get worse, it is not a target. The
+    // per-action budget is enforced on 100k rows by EdtLatencyBudgetTest.
+    List<String> regressions = baseline.measure("sort_1m_rows", () -> baseline.onEdt(() -> sorter.toggleSortOrder(4)));
+
+    assertThat(regressions).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should save 100k rows with a schema transform within the baseline")
+  void testSaveWithSchemaTransform() throws Exception {
+    ParquetEditorService service = new ParquetEditorService();
+    ParquetData data = service.loadParquetFile(saveRows);
+    service.initializeTableModel(data);
+
+    List<SchemaItem> target = new ArrayList<>();
+    target.add(new SchemaItem("c0_integer", "BIGINT"));
+    target.add(new SchemaItem("c1_bigint", "DOUBLE"));
+    SchemaStructure destiny = new SchemaStructure();
+    destiny.partitions = List.of();
+    destiny.fields = target;
+    SchemaStructure transform =
+        SchemaStructure.schemaFromLists(data.getColumnNames(), data.getColumnTypes()).toTransform(destiny);
+    File output = new File(fixtureDir, "saved.parquet");
+
+    List<String> regressions = baseline.measure("save_100k_rows_schema_transform",
+        () -> service.saveParquetFile(output, transform));
+
+    assertThat(new DuckDBParquetService().loadParquet(output).getColumnTypes()).startsWith("BIGINT", "BIGINT", "DOUBLE");
+    assertThat(regressions).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should delete 100k of 1M rows within the baseline")
+  void testDeleteHundredThousandRows() throws Exception {
+    ParquetTableModel model = loadModel(millionRows);
+    int[] everyTenth = new int[100_000];
+    for (int i = 0; i < everyTenth.length; i++) {
+      everyTenth[i] = i * 10;
+    }
+
+    List<String> regressions = baseline.measure("delete_100k_rows", () -> baseline.onEdt(() -> model.deleteRows(everyTenth)));
+
+    assertThat(model.getRowCount()).isEqualTo(900_000);
+    assertThat(regressions).isEmpty();
+  }
+}
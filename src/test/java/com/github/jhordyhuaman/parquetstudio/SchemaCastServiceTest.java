@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.jhordyhuaman.parquetstudio.model.CastReport;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.model.ParquetTableModel;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaItem;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import com.github.jhordyhuaman.parquetstudio.service.SchemaCastService;
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SchemaCastServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private SchemaCastService service;
+  private DuckDBParquetService duckDB;
+  private ParquetData data;
+  private File source;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    duckDB = new DuckDBParquetService();
+    service = new SchemaCastService(duckDB);
+    List<List<Object>> rows = new ArrayList<>();
+    rows.add(new ArrayList<>(Arrays.asList(1, "1.5", "2024-01-01")));
+    rows.add(new ArrayList<>(Arrays.asList(2, "n/a", "soon")));
+    rows.add(new ArrayList<>(Arrays.asList(3, null, "2024-02-30")));
+    rows.add(new ArrayList<>(Arrays.asList(4, "n/a", null)));
+    rows.add(new ArrayList<>(Arrays.asList(5, "7", "2024-03-05")));
+    data = new ParquetData(Arrays.asList("id", "amount", "day"), Arrays.asList("INTEGER", "VARCHAR", "VARCHAR"), rows);
+    source = tempDir.resolve("source.parquet").toFile();
+    duckDB.saveParquet(source, data);
+  }
+
+  private SchemaStructure transform(String... targetTypes) throws Exception {
+    List<SchemaItem> target = new ArrayList<>();
+    for (int i = 0; i < targetTypes.length; i++) {
+      target.add(new SchemaItem(data.getColumnNames().get(i), targetTypes[i]));
+    }
+    SchemaStructure destiny = new SchemaStructure();
+    destiny.partitions = List.of();
+    destiny.fields = target;
+    return SchemaStructure.schemaFromLists(data.getColumnNames(), data.getColumnTypes()).toTransform(destiny);
+  }
+
+  @Test
+  @DisplayName("Should count and sample the values each column cannot convert")
+  void testDryRun() throws Exception {
+    CastReport report = service.dryRun(source, transform("integer", "double", "date"));
+
+    assertThat(report.getRowCount()).isEqualTo(5);
+    assertThat(report.getColumns()).extracting(CastReport.Column::getName).containsExactly("amount", "day");
+    CastReport.Column amount = report.getColumns().get(0);
+    assertThat(amount.getFromType()).isEqualTo("VARCHAR");
+    assertThat(amount.getToType()).isEqualTo("DOUBLE");
+    assertThat(amount.getFailures()).isEqualTo(2);
+    assertThat(amount.getSamples()).containsExactly("n/a");
+    assertThat(report.getColumns().get(1).getSamples()).containsExactlyInAnyOrder("soon", "2024-02-30");
+    assertThat(report.getFailureCount()).isEqualTo(4);
+    assertThat(report.format(10))
+        .startsWith("4 value(s) in 2 column(s) cannot be converted")
+        .contains("amount (VARCHAR -> DOUBLE): 2 value(s), e.g. 'n/a'");
+  }
+
+  @Test
+  @DisplayName("Should write the file with the new types and NULL for values that do not fit")
+  void testWriteFromFile() throws Exception {
+    File target = tempDir.resolve("typed.parquet").toFile();
+
+    long rows = service.write(source, transform("bigint", "double", "date"), target);
+
+    ParquetData saved = duckDB.loadParquet(target);
+    assertThat(rows).isEqualTo(5);
+    assertThat(saved.getColumnTypes()).containsExactly("BIGINT", "DOUBLE", "DATE");
+    assertThat(saved.getRows().get(0)).containsExactly(1L, 1.5, LocalDate.of(2024, 1, 1));
+    assertThat(saved.getRows().get(1)).containsExactly(2L, null, null);
+    assertThat(saved.getRows().get(4).get(1)).isEqualTo(7.0);
+  }
+
+  @Test
+  @DisplayName("Should check and write edited rows from the table model")
+  void testModel() throws Exception {
+    ParquetTableModel model = new ParquetTableModel(data.getColumnNames(), data.getColumnTypes(), data.getRows());
+    model.setValueAt("12", 1, 1);
+    SchemaStructure transform = transform("integer", "double", "string");
+
+    CastReport report = service.dryRun(model, transform);
+    assertThat(report.getColumns()).extracting(CastReport.Column::getName).containsExactly("amount");
+    assertThat(report.getFailureCount()).isEqualTo(1);
+
+    File target = tempDir.resolve("edited.parquet").toFile();
+    service.write(model, transform, target);
+    List<Object> amounts = new ArrayList<>();
+    for (List<Object> row : duckDB.loadParquet(target).getRows()) {
+      amounts.add(row.get(1));
+    }
+    assertThat(amounts).containsExactly(1.5, 12.0, null, null, 7.0);
+  }
+
+  @Test
+  @DisplayName("Should compile the transform into one TRY_CAST projection")
+  void testBuildSelect() throws Exception {
+    String sql = service.buildSelect("t", data.getColumnNames(), data.getColumnTypes(), transform("integer", "string", "timestamp"));
+
+    assertThat(sql).isEqualTo("SELECT \"id\", \"amount\", TRY_CAST(\"day\" AS TIMESTAMP) AS \"day\" FROM t");
+    assertThatThrownBy(() -> SchemaCastService.targetType(transform("integer", "double; DROP TABLE t", "date"), "amount", "VARCHAR"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("amount");
+  }
+}
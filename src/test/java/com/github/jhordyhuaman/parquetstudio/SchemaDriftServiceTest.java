@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.jhordyhuaman.parquetstudio.model.DriftReport;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaChange;
+import com.github.jhordyhuaman.parquetstudio.model.SchemaStructure;
+import com.github.jhordyhuaman.parquetstudio.service.BatchTransformService;
+import com.github.jhordyhuaman.parquetstudio.service.SchemaDriftService;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SchemaDriftServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private SchemaDriftService service;
+
+  @BeforeEach
+  void setUp() {
+    service = new SchemaDriftService(4);
+  }
+
+  private void write(String select, String relativePath) throws Exception {
+    SyntheticParquetGenerator.write(select, tempDir.resolve(relativePath).toFile(), null);
+  }
+
+  private void writeDataset() throws Exception {
+    for (int day = 1; day <= 6; day++) {
+      write("SELECT 1::BIGINT AS id, 2.5::DOUBLE AS amount, 'a' AS name", "data/day=" + day + "/part-0.parquet");
+    }
+    write("SELECT 1::BIGINT AS id, 2.5::DOUBLE AS amount, 'a' AS name, true AS flag", "data/day=7/part-0.parquet");
+    write("SELECT 1::BIGINT AS id, 2.5::DOUBLE AS amount, 'a' AS name, true AS flag", "data/day=8/part-0.parquet");
+    write("SELECT 1::BIGINT AS id, '2.5' AS amount, 'a' AS name", "data/day=9/part-0.parquet");
+    Files.writeString(tempDir.resolve("data/day=9/broken.parquet"), "not parquet");
+  }
+
+  @Test
+  @DisplayName("Should group files by schema and report drift from the most common schema")
+  void testMostCommonSchema() throws Exception {
+    writeDataset();
+    List<File> files = BatchTransformService.findFiles(tempDir.resolve("data").toString());
+
+    DriftReport report = service.scan(files, null, null, done -> { }, () -> false);
+
+    assertThat(report.getFileCount()).isEqualTo(10);
+    assertThat(report.getGroups()).hasSize(3);
+    DriftReport.Group common = report.getGroups().get(0);
+    assertThat(common.getFiles()).hasSize(6);
+    assertThat(common.isDrifting()).isFalse();
+    assertThat(report.getReferenceName()).isEqualTo("the most common schema (" + common.getFingerprint() + ")");
+    assertThat(report.getGroups().get(1).describeChanges()).isEqualTo("+ flag (BOOLEAN)");
+    assertThat(report.getGroups().get(2).describeChanges()).isEqualTo("~ amount: DOUBLE -> VARCHAR");
+    assertThat(report.getDriftingFiles()).hasSize(3);
+    assertThat(report.getFailures()).containsOnlyKeys(tempDir.resolve("data/day=9/broken.parquet").toFile());
+    assertThat(report.format(5))
+        .startsWith("10 file(s), 3 schema(s), 3 file(s) drift from the most common schema")
+        .contains("unreadable broken.parquet");
+  }
+
+  @Test
+  @DisplayName("Should compare with a schema file, including nullability")
+  void testReferenceSchema() throws Exception {
+    writeDataset();
+    File schemaFile = tempDir.resolve("expected.schema").toFile();
+    Files.writeString(schemaFile.toPath(), "{\"fields\": ["
+        + "{\"name\": \"id\", \"type\": [\"long\"]},"
+        + "{\"name\": \"amount\", \"type\": [\"null\", \"double\"]},"
+        + "{\"name\": \"name\", \"type\": \"string\"},"
+        + "{\"name\": \"region\", \"type\": \"string\"}]}");
+    SchemaStructure reference = service.loadReference(schemaFile);
+
+    DriftReport report = service.scan(BatchTransformService.findFiles(tempDir.resolve("data").toString()),
+        reference, schemaFile.getName(), done -> { }, () -> false);
+
+    DriftReport.Group common = report.getGroups().get(0);
+    assertThat(common.getChanges()).extracting(SchemaChange::getKind).containsExactly(
+        SchemaChange.Kind.NULLABILITY_CHANGED, SchemaChange.Kind.REMOVED);
+    assertThat(common.describeChanges()).isEqualTo("~ id: required -> nullable; - region (VARCHAR)");
+    assertThat(report.getDriftingFiles()).hasSize(9);
+  }
+
+  @Test
+  @DisplayName("Should read the top-level nullability of nested columns from the footer")
+  void testNestedColumns() throws Exception {
+    write("SELECT {'x': 1, 'y': [1, 2]} AS s, [{'a': 1}] AS l, 3 AS n", "nested.parquet");
+    SchemaStructure schema = service.readSchema(tempDir.resolve("nested.parquet").toFile());
+
+    assertThat(schema.fields.stream().map(field -> field.name).collect(Collectors.toList()))
+        .containsExactly("s", "l", "n");
+    assertThat(schema.fields).allMatch(field -> Boolean.TRUE.equals(field.nullable));
+    assertThat(SchemaDriftService.fingerprint(schema)).hasSize(12)
+        .isEqualTo(SchemaDriftService.fingerprint(service.readSchema(tempDir.resolve("nested.parquet").toFile())));
+  }
+
+  @Test
+  @DisplayName("Should scan a thousand footers quickly and stop when cancelled")
+  void testManyFiles() throws Exception {
+    File directory = SyntheticParquetGenerator.write("SELECT i % 1000 AS p, i AS id, 'x' || i AS name FROM range(5000) t(i)",
+        tempDir.resolve("many").toFile(), "PARTITION_BY (p)");
+    List<File> files = BatchTransformService.findFiles(directory.getPath());
+    assertThat(files).hasSize(1000);
+
+    long start = System.nanoTime();
+    DriftReport report = service.scan(files, null, null, done -> { }, () -> false);
+    long millis = (System.nanoTime() - start) / 1_000_000;
+
+    assertThat(report.getGroups()).hasSize(1);
+    assertThat(report.getGroups().get(0).getFiles()).hasSize(1000);
+    assertThat(millis).isLessThan(20_000);
+    assertThatThrownBy(() -> service.scan(files, null, null, done -> { }, () -> true))
+        .isInstanceOf(CancellationException.class);
+  }
+}
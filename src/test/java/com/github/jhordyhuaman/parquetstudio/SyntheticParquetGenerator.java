@@ -0,0 +1,251 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Writes synthetic Parquet files for scale tests and benchmarks.
+ *
+ * <p>Every value is derived from {@code hash(row, seed, column)} inside DuckDB, so the same
+ * settings always give the same data, and the rows never pass through the JVM: a
+ * 100M-row file takes as long as DuckDB needs to write it.
+ *
+ * <pre>{@code
+ * File file = SyntheticParquetGenerator.scaleFactor(10)   // 10M rows
+ *     .columns(20)
+ *     .nullRatio(0.05)
+ *     .generate(new File(dir, "sf10.parquet"));
+ * }</pre>
+ */
+public class SyntheticParquetGenerator {
+
+  /** Rows per unit of scale factor. */
+  public static final long ROWS_PER_SCALE_FACTOR = 1_000_000L;
+
+  /** Column types to cycle through. */
+  public enum TypeMix {
+    MIXED("INTEGER", "BIGINT", "DOUBLE", "VARCHAR", "BOOLEAN", "DATE", "TIMESTAMP"),
+    NUMERIC("INTEGER", "BIGINT", "DOUBLE"),
+    TEXT("VARCHAR");
+
+    private final String[] types;
+
+    TypeMix(String... types) {
+      this.types = types;
+    }
+
+    String typeOf(int column) {
+      return types[column % types.length];
+    }
+  }
+
+  private long seed = 42L;
+  private long rows = 1_000L;
+  private int columns = 8;
+  private TypeMix typeMix = TypeMix.MIXED;
+  private double nullRatio = 0.0;
+  private long stringCardinality = 1_000L;
+  private int nestingDepth = 0;
+  private long rowGroupSize = 122_880L;
+
+  /**
+   * Creates a generator for {@code scaleFactor} million rows.
+   */
+  public static SyntheticParquetGenerator scaleFactor(double scaleFactor) {
+    return new SyntheticParquetGenerator().rows(Math.round(scaleFactor * ROWS_PER_SCALE_FACTOR));
+  }
+
+  public SyntheticParquetGenerator seed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  public SyntheticParquetGenerator rows(long rows) {
+    if (rows < 0) {
+      throw new IllegalArgumentException("Row count cannot be negative: " + rows);
+    }
+    this.rows = rows;
+    return this;
+  }
+
+  /**
+   * Sets the number of generated columns, not counting the leading {@code id} column.
+   */
+  public SyntheticParquetGenerator columns(int columns) {
+    if (columns < 0) {
+      throw new IllegalArgumentException("Column count cannot be negative: " + columns);
+    }
+    this.columns = columns;
+    return this;
+  }
+
+  public SyntheticParquetGenerator typeMix(TypeMix typeMix) {
+    this.typeMix = typeMix;
+    return this;
+  }
+
+  /**
+   * Sets the share of NULL values in every generated column, from 0 to 1.
+   */
+  public SyntheticParquetGenerator nullRatio(double nullRatio) {
+    if (nullRatio < 0 || nullRatio > 1) {
+      throw new IllegalArgumentException("Null ratio must be between 0 and 1: " + nullRatio);
+    }
+    this.nullRatio = nullRatio;
+    return this;
+  }
+
+  /**
+   * Sets the number of distinct values of each VARCHAR column.
+   */
+  public SyntheticParquetGenerator stringCardinality(long stringCardinality) {
+    if (stringCardinality < 1) {
+      throw new IllegalArgumentException("String cardinality must be at least 1: " + stringCardinality);
+    }
+    this.stringCardinality = stringCardinality;
+    return this;
+  }
+
+  /**
+   * Sets how deep every fourth column is nested in structs. 0 keeps all columns flat.
+   */
+  public SyntheticParquetGenerator nestingDepth(int nestingDepth) {
+    if (nestingDepth < 0) {
+      throw new IllegalArgumentException("Nesting depth cannot be negative: " + nestingDepth);
+    }
+    this.nestingDepth = nestingDepth;
+    return this;
+  }
+
+  public SyntheticParquetGenerator rowGroupSize(long rowGroupSize) {
+    if (rowGroupSize < 1) {
+      throw new IllegalArgumentException("Row group size must be at least 1: " + rowGroupSize);
+    }
+    this.rowGroupSize = rowGroupSize;
+    return this;
+  }
+
+  /**
+   * Writes the file, replacing it if it exists.
+   *
+   * @param target the Parquet file to write
+   * @return the written file
+   */
+  public File generate(File target) throws SQLException {
+    try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+         Statement st = conn.createStatement()) {
+      st.execute(buildCopyStatement(target));
+    }
+    return target;
+  }
+
+  /**
+   * Gets the SELECT producing the rows, e.g. to run it without writing a file.
+   */
+  public String buildQuery() {
+    StringBuilder sql = new StringBuilder("SELECT i::BIGINT AS id");
+    for (int c = 0; c < columns; c++) {
+      String type = typeMix.typeOf(c);
+      boolean nested = nestingDepth > 0 && c % 4 == 3;
+      sql.append(", ")
+          .append(withNulls(nested ? nestedValue(type, c) : value(type, c, 0), c))
+          .append(" AS ")
+          .append(columnName(c));
+    }
+    sql.append(" FROM range(0, ").append(rows).append(") t(i)");
+    return sql.toString();
+  }
+
+  String buildCopyStatement(File target) {
+    return copyStatement(buildQuery(), target, "ROW_GROUP_SIZE " + rowGroupSize);
+  }
+
+  /**
+   * Writes the rows of any SELECT to a Parquet file, or to a directory with
+   * {@code PARTITION_BY}, creating the parent directories.
+   *
+   * @param select the query giving the rows
+   * @param target the file or directory to write
+   * @param options more {@code COPY} options after {@code FORMAT PARQUET}, or null
+   * @return the written file or directory
+   */
+  public static File write(String select, File target, String options) throws SQLException {
+    target.getAbsoluteFile().getParentFile().mkdirs();
+    try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+         Statement st = conn.createStatement()) {
+      st.execute(copyStatement(select, target, options));
+    }
+    return target;
+  }
+
+  private static String copyStatement(String select, File target, String options) {
+    return "COPY (" + select + ") TO '"
+        + target.getAbsolutePath().replace("'", "''")
+        + "' (FORMAT PARQUET" + (options == null ? "" : ", " + options) + ")";
+  }
+
+  /**
+   * Gets the name of a generated column, e.g. {@code c3_varchar}.
+   */
+  public String columnName(int column) {
+    String suffix = nestingDepth > 0 && column % 4 == 3 ? "struct" : typeMix.typeOf(column).toLowerCase(Locale.ROOT);
+    return "c" + column + "_" + suffix;
+  }
+
+  private String hash(int column, int salt) {
+    return "hash(i, " + seed + ", " + column + ", " + salt + ")";
+  }
+
+  private String withNulls(String expression, int column) {
+    if (nullRatio <= 0) {
+      return expression;
+    }
+    long threshold = Math.round(nullRatio * 1_000_000);
+    return "CASE WHEN " + hash(column, -1) + " % 1000000 < " + threshold + " THEN NULL ELSE " + expression + " END";
+  }
+
+  private String value(String type, int column, int salt) {
+    String h = hash(column, salt);
+    switch (type) {
+      case "INTEGER":
+        return "((" + h + " % 2000000)::INTEGER - 1000000)";
+      case "BIGINT":
+        return "(" + h + " % 9223372036854775807)::BIGINT";
+      case "DOUBLE":
+        return "((" + h + " % 1000000000)::DOUBLE / 1000)";
+      case "BOOLEAN":
+        return "(" + h + " % 2 = 0)";
+      case "DATE":
+        return "(DATE '2000-01-01' + (" + h + " % 10000)::INTEGER)";
+      case "TIMESTAMP":
+        return "(TIMESTAMP '2000-01-01' + to_seconds((" + h + " % 946080000)::BIGINT))";
+      default:
+        return "('s' || (" + h + " % " + stringCardinality + "))";
+    }
+  }
+
+  private String nestedValue(String type, int column) {
+    String expression = value(type, column, 0);
+    for (int level = 1; level <= nestingDepth; level++) {
+      expression = "struct_pack(k := " + value("INTEGER", column, level) + ", v := " + expression + ")";
+    }
+    return expression;
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.jhordyhuaman.parquetstudio.model.ParquetData;
+import com.github.jhordyhuaman.parquetstudio.service.DuckDBParquetService;
+import java.io.File;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SyntheticParquetGeneratorTest {
+
+  @TempDir
+  Path tempDir;
+
+  private File file(String name) {
+    return new File(tempDir.toFile(), name);
+  }
+
+  private long queryLong(String sql) throws Exception {
+    try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+         Statement st = conn.createStatement();
+         ResultSet rs = st.executeQuery(sql)) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  @Test
+  @DisplayName("Should write the requested rows, columns and row groups")
+  void testShape() throws Exception {
+    File file = new SyntheticParquetGenerator()
+        .rows(10_000)
+        .columns(7)
+        .rowGroupSize(2_048)
+        .generate(file("shape.parquet"));
+    String path = file.getAbsolutePath();
+
+    assertThat(queryLong("SELECT num_rows FROM parquet_file_metadata('" + path + "')")).isEqualTo(10_000);
+    assertThat(queryLong("SELECT num_row_groups FROM parquet_file_metadata('" + path + "')")).isGreaterThan(1);
+
+    ParquetData data = new DuckDBParquetService().loadParquet(file);
+    assertThat(data.getColumnNames()).hasSize(8).startsWith("id", "c0_integer");
+    assertThat(data.getColumnTypes())
+        .containsExactly("BIGINT", "INTEGER", "BIGINT", "DOUBLE", "VARCHAR", "BOOLEAN", "DATE", "TIMESTAMP");
+  }
+
+  @Test
+  @DisplayName("Should generate the same data for the same seed and different data for another")
+  void testDeterministic() throws Exception {
+    SyntheticParquetGenerator generator = new SyntheticParquetGenerator().rows(500).columns(7);
+    DuckDBParquetService service = new DuckDBParquetService();
+
+    ParquetData first = service.loadParquet(generator.generate(file("a.parquet")));
+    ParquetData again = service.loadParquet(generator.generate(file("b.parquet")));
+    ParquetData other = service.loadParquet(generator.seed(7).generate(file("c.parquet")));
+
+    assertThat(again.getRows()).isEqualTo(first.getRows());
+    assertThat(other.getRows()).isNotEqualTo(first.getRows());
+  }
+
+  @Test
+  @DisplayName("Should honour the null ratio and string cardinality")
+  void testNullsAndCardinality() throws Exception {
+    String path = new SyntheticParquetGenerator()
+        .rows(20_000)
+        .columns(1)
+        .typeMix(SyntheticParquetGenerator.TypeMix.TEXT)
+        .nullRatio(0.25)
+        .stringCardinality(50)
+        .generate(file("text.parquet"))
+        .getAbsolutePath();
+
+    long nulls = queryLong("SELECT count(*) - count(c0_varchar) FROM read_parquet('" + path + "')");
+    assertThat(nulls).isBetween(4_500L, 5_500L);
+    assertThat(queryLong("SELECT count(DISTINCT c0_varchar) FROM read_parquet('" + path + "')")).isEqualTo(50);
+  }
+
+  @Test
+  @DisplayName("Should nest every fourth column in structs of the requested depth")
+  void testNesting() throws Exception {
+    String path = new SyntheticParquetGenerator()
+        .rows(10)
+        .columns(4)
+        .nestingDepth(2)
+        .generate(file("nested.parquet"))
+        .getAbsolutePath();
+
+    assertThat(queryLong("SELECT count(*) FROM parquet_schema('" + path + "') WHERE num_children > 0 AND name <> 'duckdb_schema'"))
+        .isEqualTo(2);
+    assertThat(queryLong("SELECT count(c3_struct.v.v) FROM read_parquet('" + path + "')")).isEqualTo(10);
+  }
+
+  @Test
+  @DisplayName("Should scale rows by one million per scale factor and reject invalid settings")
+  void testScaleFactorAndValidation() {
+    assertThat(SyntheticParquetGenerator.scaleFactor(0.5).buildQuery()).contains("range(0, 500000)");
+    assertThatThrownBy(() -> new SyntheticParquetGenerator().nullRatio(1.5))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new SyntheticParquetGenerator().rowGroupSize(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.jhordyhuaman.parquetstudio.model.DelimitedText;
+import com.github.jhordyhuaman.parquetstudio.model.ParseReport;
+import com.github.jhordyhuaman.parquetstudio.model.ValueParser;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ValueParserTest {
+
+  @Test
+  @DisplayName("Should parse whole numbers and reject overflow without exceptions")
+  void testNumbers() {
+    ValueParser integer = ValueParser.forType("INTEGER");
+    ValueParser bigint = ValueParser.forType("BIGINT");
+
+    assertThat(integer.parse(" 42 ")).isEqualTo(42);
+    assertThat(integer.parse("-2147483648")).isEqualTo(Integer.MIN_VALUE);
+    assertThat(integer.parse("+7")).isEqualTo(7);
+    assertThat(integer.parse("2147483648")).isSameAs(ValueParser.INVALID);
+    assertThat(integer.parse("4.5")).isSameAs(ValueParser.INVALID);
+    assertThat(integer.parse("-")).isSameAs(ValueParser.INVALID);
+    assertThat(bigint.parse("9223372036854775807")).isEqualTo(Long.MAX_VALUE);
+    assertThat(bigint.parse("-9223372036854775808")).isEqualTo(Long.MIN_VALUE);
+    assertThat(bigint.parse("9223372036854775808")).isSameAs(ValueParser.INVALID);
+    assertThat(ValueParser.forType("DOUBLE").parse("1.5e3")).isEqualTo(1500.0);
+    assertThat(ValueParser.forType("DOUBLE").parse("n/a")).isSameAs(ValueParser.INVALID);
+  }
+
+  @Test
+  @DisplayName("Should turn blank text into null and keep booleans lenient")
+  void testBlankAndBoolean() {
+    assertThat(ValueParser.forType("INTEGER").parse("   ")).isNull();
+    assertThat(ValueParser.forType("VARCHAR").parse(null)).isNull();
+    ValueParser bool = ValueParser.forType("BOOLEAN");
+    assertThat(bool.parse("YES")).isEqualTo(true);
+    assertThat(bool.parse("1")).isEqualTo(true);
+    assertThat(bool.parse("nope")).isEqualTo(false);
+  }
+
+  @Test
+  @DisplayName("Should parse dates and every supported timestamp layout")
+  void testDatesAndTimestamps() {
+    ValueParser date = ValueParser.forType("DATE");
+    ValueParser timestamp = ValueParser.forType("TIMESTAMP");
+
+    assertThat(date.parse("2024-02-29")).isEqualTo(LocalDate.of(2024, 2, 29));
+    assertThat(date.parse("2023-02-29")).isSameAs(ValueParser.INVALID);
+    assertThat(date.parse("12/11/2024")).isSameAs(ValueParser.INVALID);
+
+    LocalDateTime expected = LocalDateTime.of(2022, 7, 11, 15, 53, 24);
+    assertThat(timestamp.parse("2022-07-11 15:53:24")).isEqualTo(expected);
+    assertThat(timestamp.parse("2022-07-11T15:53:24")).isEqualTo(expected);
+    assertThat(timestamp.parse("2022-07-11 15:53")).isEqualTo(expected.withSecond(0));
+    assertThat(timestamp.parse("2022-07-11 15:53:24.671")).isEqualTo(expected.withNano(671_000_000));
+    assertThat(timestamp.parse("2022-07-11T15:53:24.671234")).isEqualTo(expected.withNano(671_234_000));
+    assertThat(timestamp.parse("2022-07-11 15:53:24.6712345678")).isEqualTo(expected.withNano(671_234_567));
+    assertThat(timestamp.parse("2022-07-11 25:00:00")).isSameAs(ValueParser.INVALID);
+    assertThat(timestamp.parse("yesterday")).isSameAs(ValueParser.INVALID);
+  }
+
+  @Test
+  @DisplayName("Should explain the expected format when asked to throw")
+  void testParseOrThrow() {
+    assertThatThrownBy(() -> ValueParser.forType("DATE").parseOrThrow("soon"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("YYYY-MM-DD");
+    assertThatThrownBy(() -> ValueParser.forType("INTEGER").parseOrThrow("ten"))
+        .hasMessage("Cannot convert 'ten' to INTEGER");
+  }
+
+  @Test
+  @DisplayName("Should convert a batch and report every value that does not fit")
+  void testParseAll() {
+    ParseReport report = new ParseReport();
+    Object[] values = ValueParser.forType("INTEGER")
+        .parseAll(Arrays.asList("1", "x", "3", "", "y"), "id", 1, report);
+
+    assertThat(values).containsExactly(1, ValueParser.INVALID, 3, null, ValueParser.INVALID);
+    assertThat(report.getErrorCount()).isEqualTo(2);
+    assertThat(report.getIssues().get(0).getLine()).isEqualTo(2);
+    assertThat(report.format(1)).contains("line 2, id (INTEGER): 'x'").contains("... and 1 more");
+  }
+
+  @Test
+  @DisplayName("Should split tab and comma separated text with quoted cells")
+  void testDelimitedText() {
+    List<String[]> tsv = DelimitedText.parse("a\tb\r\nc\t\n");
+    assertThat(tsv).hasSize(2);
+    assertThat(tsv.get(0)).containsExactly("a", "b");
+    assertThat(tsv.get(1)).containsExactly("c", "");
+
+    List<String[]> csv = DelimitedText.parse("1,\"Smith, J\",\"say \"\"hi\"\"\"\n2,\"two\nlines\",x");
+    assertThat(csv).hasSize(2);
+    assertThat(csv.get(0)).containsExactly("1", "Smith, J", "say \"hi\"");
+    assertThat(csv.get(1)).containsExactly("2", "two\nlines", "x");
+    assertThat(DelimitedText.countLines("a\nb\n")).isEqualTo(2);
+    assertThat(DelimitedText.countLines("a\r\nb")).isEqualTo(2);
+  }
+}
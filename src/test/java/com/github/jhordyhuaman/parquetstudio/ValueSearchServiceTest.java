@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jhordyhuaman.parquetstudio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.jhordyhuaman.parquetstudio.model.ValueSearchReport;
+import com.github.jhordyhuaman.parquetstudio.service.BatchTransformService;
+import com.github.jhordyhuaman.parquetstudio.service.ParquetCatalog;
+import com.github.jhordyhuaman.parquetstudio.service.ValueSearchService;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ValueSearchServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private ValueSearchService service;
+
+  @BeforeEach
+  void setUp() {
+    service = new ValueSearchService(4);
+  }
+
+  private void write(String select, String relativePath) throws Exception {
+    SyntheticParquetGenerator.write(select, tempDir.resolve(relativePath).toFile(), "ROW_GROUP_SIZE 2000");
+  }
+
+  /**
+   * Twenty files of 10,240 orders each, in order id ranges, five row groups of 2,048 rows per
+   * file.
+   */
+  private List<File> writeOrders() throws Exception {
+    for (int part = 0; part < 20; part++) {
+      write("SELECT (" + part + " * 10240 + range)::BIGINT AS order_id, 'c' || (range % 7) AS customer, "
+          + "DATE '2024-01-01' + " + part + " AS day FROM range(10240)", "orders/part-" + part + ".parquet");
+    }
+    return BatchTransformService.findFiles(tempDir.resolve("orders").toString());
+  }
+
+  @Test
+  @DisplayName("Should find one order by scanning only the row group its statistics allow")
+  void testPointLookup() throws Exception {
+    List<File> files = writeOrders();
+
+    ValueSearchReport report = service.search(files, "order_id", "123456", "123456", null, 100, done -> { }, () -> false);
+
+    assertThat(report.getHits()).hasSize(1);
+    ValueSearchReport.Hit hit = report.getHits().get(0);
+    assertThat(hit.getFile().getName()).isEqualTo("part-12.parquet");
+    assertThat(hit.getRow()).isEqualTo(123456 - 12 * 10240);
+    assertThat(hit.getRowGroup()).isEqualTo((123456 - 12 * 10240) / 2048);
+    assertThat(hit.getValue()).isEqualTo("123456");
+    assertThat(report.getRowGroups()).isEqualTo(100);
+    assertThat(report.getRowGroupsScanned()).isEqualTo(1);
+    assertThat(report.getFilesScanned()).isEqualTo(1);
+    assertThat(report.format(0)).startsWith("1 hit(s) in 1 file(s); statistics left 1 of 20 file(s) and 1 of 100 row group(s)");
+  }
+
+  @Test
+  @DisplayName("Should search a range, stop at the maximum number of hits and report bad values")
+  void testRangeAndLimit() throws Exception {
+    List<File> files = writeOrders();
+
+    ValueSearchReport days = service.search(files, "DAY", "2024-01-03", "2024-01-04", null, 10, done -> { }, () -> false);
+    assertThat(days.getHits()).hasSize(10);
+    assertThat(days.isTruncated()).isTrue();
+    assertThat(days.getHits()).allMatch(hit -> hit.getValue().startsWith("2024-01-0"));
+
+    ValueSearchReport from = service.search(files, "order_id", "204790", null, null, 100, done -> { }, () -> false);
+    assertThat(from.getHits()).extracting(ValueSearchReport.Hit::getValue).containsExactly("204790", "204791", "204792",
+        "204793", "204794", "204795", "204796", "204797", "204798", "204799");
+    assertThat(from.isTruncated()).isFalse();
+
+    // Exactly as many rows as the limit is a complete answer; one more is not
+    ValueSearchReport exact = service.search(files, "order_id", "204790", null, null, 10, done -> { }, () -> false);
+    assertThat(exact.getHits()).hasSize(10);
+    assertThat(exact.isTruncated()).isFalse();
+    ValueSearchReport cut = service.search(files, "order_id", "204790", null, null, 9, done -> { }, () -> false);
+    assertThat(cut.getHits()).hasSize(9);
+    assertThat(cut.isTruncated()).isTrue();
+
+    ValueSearchReport bad = service.search(files.subList(0, 2), "order_id", "abc", "abc", null, 10, done -> { }, () -> false);
+    assertThat(bad.getHits()).isEmpty();
+    assertThat(bad.getFailures()).hasSize(2);
+    assertThat(bad.getFailures().values()).allMatch(message -> message.equals("Cannot convert 'abc' to BIGINT"));
+  }
+
+  @Test
+  @DisplayName("Should skip files without the column using the catalog, and all-null row groups")
+  void testCatalogAndNulls() throws Exception {
+    write("SELECT range::BIGINT AS order_id, CASE WHEN range >= 2048 THEN 'x' END AS note FROM range(4096)", "mixed/a.parquet");
+    write("SELECT 1 AS other", "mixed/b.parquet");
+    Files.writeString(tempDir.resolve("mixed/broken.parquet"), "not parquet");
+    List<File> files = BatchTransformService.findFiles(tempDir.resolve("mixed").toString());
+    ParquetCatalog catalog = new ParquetCatalog(tempDir.resolve("catalog.json.gz").toFile(), 2);
+    catalog.refresh(files, () -> false);
+
+    ValueSearchReport report = service.search(files, "note", "x", "x", catalog, 5000, done -> { }, () -> false);
+
+    assertThat(report.getFilesWithoutColumn()).isEqualTo(1);
+    assertThat(report.getFailures()).containsOnlyKeys(tempDir.resolve("mixed/broken.parquet").toFile());
+    assertThat(report.getRowGroups()).isEqualTo(2);
+    assertThat(report.getRowGroupsScanned()).isEqualTo(1);
+    assertThat(report.getHits()).hasSize(2048);
+    assertThat(report.getHits().get(0).getRow()).isEqualTo(2048);
+  }
+
+  @Test
+  @DisplayName("Should require a column and a value, and stop when cancelled")
+  void testArgumentsAndCancel() throws Exception {
+    List<File> files = writeOrders();
+
+    assertThatThrownBy(() -> service.search(files, " ", "1", "1", null, 10, done -> { }, () -> false))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> service.search(files, "order_id", null, null, null, 10, done -> { }, () -> false))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> service.search(files, "order_id", "1", "1", null, 10, done -> { }, () -> true))
+        .isInstanceOf(CancellationException.class);
+  }
+}